@@ -50,6 +50,9 @@ dependencies {
   testAnnotationProcessor("org.projectlombok:lombok:1.18.46")
 
   implementation("com.datastax.oss:java-driver-core:4.17.0")
+  runtimeOnly("org.lz4:lz4-java:1.8.0")
+
+  compileOnly("io.micrometer:micrometer-core:1.14.5")
 
   implementation("org.json:json:20260719")
   implementation("commons-io:commons-io:2.22.0")
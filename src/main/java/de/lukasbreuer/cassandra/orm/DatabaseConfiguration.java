@@ -1,14 +1,24 @@
 package de.lukasbreuer.cassandra.orm;
 
+import com.google.common.collect.Lists;
 import de.lukasbreuer.cassandra.orm.configuration.Configuration;
+import de.lukasbreuer.cassandra.orm.driver.DatabaseDriverPreset;
+import de.lukasbreuer.cassandra.orm.driver.DatabaseDriverTuning;
+import de.lukasbreuer.cassandra.orm.limit.DatabaseRequestLimiter;
 import lombok.Getter;
 import lombok.experimental.Accessors;
 import org.json.JSONObject;
 
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+
 @Getter
 @Accessors(fluent = true)
 public final class DatabaseConfiguration extends Configuration {
   private static final String CONFIGURATION_PATH = "/configurations/database/database.json";
+  private static final int DEFAULT_PREPARED_STATEMENT_CACHE_SIZE = 1000;
+  private static final int DEFAULT_PORT = 9042;
 
   public static DatabaseConfiguration createAndLoad() throws Exception {
     var configuration = new DatabaseConfiguration(CONFIGURATION_PATH);
@@ -19,6 +29,20 @@ public final class DatabaseConfiguration extends Configuration {
   private String hostname;
   private int port;
   private String datacenter;
+  private List<InetSocketAddress> contactPoints;
+  /**
+   * The tuning of the driver, which is the high throughput preset if the
+   * configuration has no driver section
+   */
+  private DatabaseDriverTuning driverTuning;
+  private int preparedStatementCacheSize;
+  private DatabaseRequestLimiter.Mode requestLimiterMode;
+  private int requestLimiterInitialLimit;
+  private int requestLimiterMinimumLimit;
+  private int requestLimiterMaximumLimit;
+  private int requestLimiterMaximumQueueSize;
+  private Duration requestLimiterLatencyThreshold;
+  private double requestLimiterBackoffRatio;
 
   private DatabaseConfiguration(String path) {
     super(path);
@@ -26,8 +50,99 @@ public final class DatabaseConfiguration extends Configuration {
 
   @Override
   protected void deserialize(JSONObject json) {
-    hostname = json.getString("hostname");
-    port = json.getInt("port");
+    port = json.optInt("port", DEFAULT_PORT);
+    contactPoints = deserializeContactPoints(json);
+    hostname = contactPoints.get(0).getHostString();
     datacenter = json.getString("datacenter");
+    driverTuning = deserializeDriverTuning(json);
+    preparedStatementCacheSize = json.optInt("preparedStatementCacheSize",
+      DEFAULT_PREPARED_STATEMENT_CACHE_SIZE);
+    deserializeRequestLimiter(json.optJSONObject("requestLimiter",
+      new JSONObject()));
+  }
+
+  /**
+   * Without a driver section the high throughput preset is used, so that
+   * requests keep the request timeout of the preset instead of the much
+   * shorter default of the driver
+   */
+  static DatabaseDriverTuning deserializeDriverTuning(JSONObject json) {
+    var driver = json.optJSONObject("driver");
+    return driver == null ? DatabaseDriverTuning.of(
+      DatabaseDriverPreset.HIGH_THROUGHPUT) :
+      DatabaseDriverTuning.deserialize(driver);
+  }
+
+  /**
+   * Contact points are either configured as a list of "host" or "host:port"
+   * entries or as a single hostname, entries without port use the port of
+   * the configuration
+   */
+  private List<InetSocketAddress> deserializeContactPoints(JSONObject json) {
+    var array = json.optJSONArray("contactPoints");
+    if (array == null) {
+      return List.of(InetSocketAddress.createUnresolved(
+        json.getString("hostname"), port));
+    }
+    if (array.isEmpty()) {
+      throw new IllegalArgumentException("At least one contact point is " +
+        "required");
+    }
+    List<InetSocketAddress> contactPoints = Lists.newArrayList();
+    for (var i = 0; i < array.length(); i++) {
+      contactPoints.add(parseContactPoint(array.getString(i), port));
+    }
+    return List.copyOf(contactPoints);
+  }
+
+  /**
+   * Is used to parse a contact point of the form "host", "host:port",
+   * "ipv6" or "[ipv6]:port"
+   * @param contactPoint The contact point
+   * @param defaultPort The port of entries without port
+   * @return The unresolved address of the contact point
+   * @throws IllegalArgumentException If the contact point is malformed
+   */
+  static InetSocketAddress parseContactPoint(
+    String contactPoint, int defaultPort
+  ) {
+    var address = contactPoint.trim();
+    var separator = address.lastIndexOf(':');
+    if (address.startsWith("[")) {
+      var end = address.indexOf(']');
+      if (end < 0 || (end < address.length() - 1 && separator != end + 1)) {
+        throw new IllegalArgumentException("The contact point " +
+          contactPoint + " is no valid bracketed address");
+      }
+      return InetSocketAddress.createUnresolved(address.substring(1, end),
+        separator > end ? parsePort(address.substring(separator + 1)) :
+          defaultPort);
+    }
+    if (separator < 0 || separator != address.indexOf(':')) {
+      return InetSocketAddress.createUnresolved(address, defaultPort);
+    }
+    return InetSocketAddress.createUnresolved(address.substring(0, separator),
+      parsePort(address.substring(separator + 1)));
+  }
+
+  private static int parsePort(String port) {
+    var value = Integer.parseInt(port);
+    if (value <= 0 || value > 65535) {
+      throw new IllegalArgumentException("The port " + port + " of a " +
+        "contact point is out of range");
+    }
+    return value;
+  }
+
+  private void deserializeRequestLimiter(JSONObject json) {
+    requestLimiterMode = DatabaseRequestLimiter.Mode.valueOf(
+      json.optString("mode", "QUEUE").toUpperCase());
+    requestLimiterInitialLimit = json.optInt("initialLimit", 256);
+    requestLimiterMinimumLimit = json.optInt("minimumLimit", 16);
+    requestLimiterMaximumLimit = json.optInt("maximumLimit", 2048);
+    requestLimiterMaximumQueueSize = json.optInt("maximumQueueSize", 10000);
+    requestLimiterLatencyThreshold = Duration.ofMillis(
+      json.optLong("latencyThreshold", 1000));
+    requestLimiterBackoffRatio = json.optDouble("backoffRatio", 0.9);
   }
 }
\ No newline at end of file
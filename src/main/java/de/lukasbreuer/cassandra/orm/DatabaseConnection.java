@@ -3,38 +3,83 @@ package de.lukasbreuer.cassandra.orm;
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
 import com.datastax.oss.driver.api.core.config.DriverConfigLoader;
+import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
 import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
 import com.datastax.oss.driver.api.core.cql.ResultSet;
 import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
 import com.datastax.oss.driver.api.core.metadata.Metadata;
+import de.lukasbreuer.cassandra.orm.journal.DatabaseJournalOptions;
+import de.lukasbreuer.cassandra.orm.journal.DatabaseJournalRecord;
+import de.lukasbreuer.cassandra.orm.journal.DatabaseWriteJournal;
+import de.lukasbreuer.cassandra.orm.limit.DatabaseRequestLimiter;
+import de.lukasbreuer.cassandra.orm.metric.DatabaseMetricRegistry;
+import de.lukasbreuer.cassandra.orm.metric.DatabaseMetrics;
+import de.lukasbreuer.cassandra.orm.profile.DatabaseExecutionProfile;
+import de.lukasbreuer.cassandra.orm.speculation.DatabaseSpeculationOptions;
+import de.lukasbreuer.cassandra.orm.speculation.DatabaseSpeculativeExecutionPolicy;
+import de.lukasbreuer.cassandra.orm.statement.DatabaseStatementBinder;
+import de.lukasbreuer.cassandra.orm.statement.DatabaseStatementCache;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.Accessors;
 
-import java.net.InetSocketAddress;
-import java.time.Duration;
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Accessors(fluent = true)
 @RequiredArgsConstructor(staticName = "create")
 public final class DatabaseConnection {
   private final DatabaseConfiguration databaseConfiguration;
   private CqlSession session;
+  private DatabaseStatementCache statementCache;
+  private DatabaseRequestLimiter requestLimiter;
+  private DatabaseMetricRegistry metricRegistry = DatabaseMetrics.create();
+  private volatile DatabaseWriteJournal writeJournal;
+  private DatabaseSpeculativeExecutionPolicy speculativeExecutionPolicy;
+  private final Map<String, DriverExecutionProfile> driverProfiles =
+    new ConcurrentHashMap<>();
 
   /**
    * Used to connect to cassandra database
    */
   public void connect() {
     try {
-      var loader = DriverConfigLoader.programmaticBuilder()
-        .withDuration(DefaultDriverOption.REQUEST_TIMEOUT, Duration.ofSeconds(30))
+      var loader = databaseConfiguration.driverTuning()
+        .apply(DriverConfigLoader.programmaticBuilder())
+        .withClass(DefaultDriverOption.SPECULATIVE_EXECUTION_POLICY_CLASS,
+          DatabaseSpeculativeExecutionPolicy.class)
         .build();
       session = CqlSession.builder()
-        .addContactPoint(new InetSocketAddress(databaseConfiguration.hostname(),
-          databaseConfiguration.port()))
+        .addContactPoints(databaseConfiguration.contactPoints())
         .withLocalDatacenter(databaseConfiguration.datacenter())
         .withConfigLoader(loader)
         .build();
+      speculativeExecutionPolicy = (DatabaseSpeculativeExecutionPolicy)
+        session.getContext().getSpeculativeExecutionPolicy(
+          DriverExecutionProfile.DEFAULT_NAME);
+      statementCache = DatabaseStatementCache.create(session,
+        databaseConfiguration.preparedStatementCacheSize());
+      requestLimiter = DatabaseRequestLimiter.create(
+        databaseConfiguration.requestLimiterMode(),
+        databaseConfiguration.requestLimiterInitialLimit(),
+        databaseConfiguration.requestLimiterMinimumLimit(),
+        databaseConfiguration.requestLimiterMaximumLimit(),
+        databaseConfiguration.requestLimiterMaximumQueueSize(),
+        databaseConfiguration.requestLimiterLatencyThreshold(),
+        databaseConfiguration.requestLimiterBackoffRatio());
     } catch (Exception exception) {
       exception.printStackTrace();
       System.err.println("The connection to cassandra failed");
@@ -62,14 +107,235 @@ public final class DatabaseConnection {
   public CompletableFuture<AsyncResultSet> execute(
     String query, Object... values
   ) {
-    var result = session.prepareAsync(query)
-      .thenApply(statement -> statement.bind(values))
-      .thenCompose(statement -> session.executeAsync(statement))
-      .toCompletableFuture();
+    return executeQuery(query, null, false, Statement.NO_DEFAULT_TIMESTAMP,
+      values, statement -> session.executeAsync(statement));
+  }
+
+  /**
+   * Idempotent statements may be retried and hedged by the driver, the
+   * other statements keep the default idempotence of their profile. Without
+   * a timestamp the driver generates the timestamp of the statement
+   */
+  private CompletableFuture<AsyncResultSet> executeQuery(
+    String query, DriverExecutionProfile profile, boolean idempotent,
+    long timestamp, Object[] values,
+    Function<Statement<?>, CompletionStage<AsyncResultSet>> driverCall
+  ) {
+    var result = executeLimited(() -> statementCache.prepareBinder(query)
+      .thenApply(binder -> {
+        var statement = binder.bindBuilder(values);
+        if (profile != null) {
+          statement.setExecutionProfile(profile);
+        }
+        if (idempotent) {
+          statement.setIdempotence(true);
+        }
+        if (timestamp != Statement.NO_DEFAULT_TIMESTAMP) {
+          statement.setQueryTimestamp(timestamp);
+        }
+        return statement.build();
+      })
+      .thenCompose(driverCall));
     result.exceptionally(throwable -> exceptionally(throwable, query, values));
     return result;
   }
 
+  /**
+   * Is used to execute a cql query on behalf of a table operation, the
+   * request is recorded in the metric registry. Reads are idempotent, so that
+   * they are hedged if the speculation of the table is enabled. The execution
+   * profile of the operation is applied to the statement
+   * @param table The table that executes the query
+   * @param operation The type of the operation
+   * @param query The query
+   * @param values The placeholder values
+   * @return The future that contains the result set
+   */
+  public CompletableFuture<AsyncResultSet> execute(
+    DatabaseTable table, DatabaseOperation operation, String query,
+    Object... values
+  ) {
+    var trace = new RequestTrace();
+    var profile = table.executionProfile(operation);
+    var driverProfile = profile.map(this::findDriverProfile).orElse(null);
+    var idempotent = isIdempotent(table, operation, profile);
+    var journal = writeJournal;
+    if (journal == null) {
+      return recordMetrics(table, operation, trace, executeQuery(query,
+        driverProfile, idempotent, Statement.NO_DEFAULT_TIMESTAMP, values,
+        timedCall(trace)));
+    }
+    journal.registerTable(table);
+    if (!operation.isWrite()) {
+      return recordMetrics(table, operation, trace, executeQuery(query,
+        driverProfile, idempotent, Statement.NO_DEFAULT_TIMESTAMP, values,
+        timedCall(trace)));
+    }
+    var counter = isCounterTable(table);
+    var timestamp = counter ? Statement.NO_DEFAULT_TIMESTAMP :
+      nextTimestamp();
+    return executeJournaled(journal, () -> List.of(DatabaseJournalRecord
+      .create(table.fullName(), operation, query, timestamp, counter, values)),
+      () -> recordMetrics(table, operation, trace, executeQuery(query,
+        driverProfile, idempotent, timestamp, values, timedCall(trace))));
+  }
+
+  private long nextTimestamp() {
+    return session.getContext().getTimestampGenerator().next();
+  }
+
+  /**
+   * Is used to derive the driver profile of an execution profile from the
+   * default profile of the driver. A profile with the same name replaces the
+   * previous one. Profiles that are registered before the connection is
+   * established are derived when they are first used
+   * @param profile The execution profile
+   */
+  public void registerExecutionProfile(DatabaseExecutionProfile profile) {
+    if (session == null) {
+      driverProfiles.remove(profile.name());
+      return;
+    }
+    deriveDriverProfile(profile);
+  }
+
+  private DriverExecutionProfile deriveDriverProfile(
+    DatabaseExecutionProfile profile
+  ) {
+    var driverProfile = profile.derive(
+      session.getContext().getConfig().getDefaultProfile());
+    if (profile.speculation().isPresent()) {
+      speculativeExecutionPolicy.registerProfile(profile.name(),
+        profile.speculation().get());
+    } else {
+      speculativeExecutionPolicy.unregisterProfile(profile.name());
+    }
+    driverProfiles.put(profile.name(), driverProfile);
+    return driverProfile;
+  }
+
+  private DriverExecutionProfile findDriverProfile(
+    DatabaseExecutionProfile profile
+  ) {
+    var driverProfile = driverProfiles.get(profile.name());
+    return driverProfile != null ? driverProfile :
+      deriveDriverProfile(profile);
+  }
+
+  /**
+   * The idempotence of a profile replaces the idempotence of the operation,
+   * except for counter updates, which are never idempotent
+   */
+  private boolean isIdempotent(
+    DatabaseTable table, DatabaseOperation operation,
+    Optional<DatabaseExecutionProfile> profile
+  ) {
+    return profile.flatMap(DatabaseExecutionProfile::idempotence)
+      .orElseGet(() -> isIdempotent(table, operation)) &&
+      (operation.isRead() || !isCounterTable(table));
+  }
+
+  /**
+   * Writes are idempotent only if the caller opted in to hedged writes for
+   * the table, counter updates never are
+   */
+  private boolean isIdempotent(
+    DatabaseTable table, DatabaseOperation operation
+  ) {
+    if (operation.isRead()) {
+      return true;
+    }
+    if (operation.isMaintenance()) {
+      return false;
+    }
+    return speculativeExecutionPolicy != null &&
+      speculativeExecutionPolicy.find(table.fullName())
+        .map(DatabaseSpeculationOptions::hedgingWrites).orElse(false) &&
+      !isCounterTable(table);
+  }
+
+  /**
+   * The journaled record and the first attempt share the microsecond
+   * timestamp of the driver, so that a replayed write never loses against
+   * its own first attempt, which may have been applied despite failing.
+   * While the journal is not drained, writes are appended to the journal
+   * without being sent. Writes that fail because the cluster is unreachable
+   * are appended as well, in both cases the returned future is completed
+   * without a result set. The records are only created if the write is
+   * journaled, since a bound statement has to decode its values for them
+   */
+  private CompletableFuture<AsyncResultSet> executeJournaled(
+    DatabaseWriteJournal journal,
+    Supplier<List<DatabaseJournalRecord>> records,
+    Supplier<CompletableFuture<AsyncResultSet>> execution
+  ) {
+    if (journal.isDeferring()) {
+      journal.append(records.get());
+      return CompletableFuture.completedFuture(null);
+    }
+    return execution.get().handle((value, throwable) -> {
+      if (throwable == null ||
+        journal.journalFailure(records.get(), throwable)
+      ) {
+        return value;
+      }
+      throw throwable instanceof CompletionException completionException ?
+        completionException : new CompletionException(throwable);
+    });
+  }
+
+  private boolean isCounterTable(DatabaseTable table) {
+    return table.statementTemplates().counter();
+  }
+
+  /**
+   * Is used to execute a cql query on behalf of a table operation, the
+   * request is recorded in the metric registry. Writes are journaled like
+   * the writes of a query string
+   * @param table The table that executes the query
+   * @param operation The type of the operation
+   * @param simpleStatement The statement that is to be executed
+   * @param values The placeholder values
+   * @return The future that contains the result set
+   */
+  public CompletableFuture<AsyncResultSet> execute(
+    DatabaseTable table, DatabaseOperation operation,
+    SimpleStatement simpleStatement, Object... values
+  ) {
+    var trace = new RequestTrace();
+    var profile = table.executionProfile(operation);
+    if (profile.isPresent() && hasNoExecutionProfile(simpleStatement)) {
+      simpleStatement = simpleStatement.setExecutionProfile(
+        findDriverProfile(profile.get()));
+    }
+    if (simpleStatement.isIdempotent() == null &&
+      isIdempotent(table, operation, profile)
+    ) {
+      simpleStatement = simpleStatement.setIdempotent(true);
+    }
+    var journal = writeJournal;
+    if (journal != null) {
+      journal.registerTable(table);
+    }
+    if (journal == null || !operation.isWrite()) {
+      return recordMetrics(table, operation, trace,
+        execute(simpleStatement, values, timedCall(trace)));
+    }
+    var counter = isCounterTable(table);
+    if (!counter &&
+      simpleStatement.getQueryTimestamp() == Statement.NO_DEFAULT_TIMESTAMP
+    ) {
+      simpleStatement = simpleStatement.setQueryTimestamp(nextTimestamp());
+    }
+    var statement = simpleStatement;
+    return executeJournaled(journal, () -> List.of(DatabaseJournalRecord
+      .create(table.fullName(), operation, statement.getQuery(),
+        counter ? Statement.NO_DEFAULT_TIMESTAMP :
+          statement.getQueryTimestamp(), counter, values)),
+      () -> recordMetrics(table, operation, trace,
+        execute(statement, values, timedCall(trace))));
+  }
+
   /**
    * Is used to execute a cql query
    * @param simpleStatement The statement that is to be executed
@@ -79,15 +345,247 @@ public final class DatabaseConnection {
   public CompletableFuture<AsyncResultSet> execute(
     SimpleStatement simpleStatement, Object... values
   ) {
-    var result = session.prepareAsync(simpleStatement)
-      .thenApply(statement -> statement.bind(values))
-      .thenCompose(statement -> session.executeAsync(statement))
-      .toCompletableFuture();
+    return execute(simpleStatement, values,
+      statement -> session.executeAsync(statement));
+  }
+
+  private CompletableFuture<AsyncResultSet> execute(
+    SimpleStatement simpleStatement, Object[] values,
+    Function<Statement<?>, CompletionStage<AsyncResultSet>> driverCall
+  ) {
+    var result = executeLimited(() ->
+      statementCache.prepareBinder(simpleStatement.getQuery())
+        .thenApply(binder -> bind(binder.bindBuilder(values), simpleStatement))
+        .thenCompose(driverCall));
     result.exceptionally(throwable ->
       exceptionally(throwable, simpleStatement.getQuery(), values));
     return result;
   }
 
+  /**
+   * Is used to prepare a cql query through the prepared statement cache
+   * @param query The query
+   * @return The future that contains the prepared statement
+   */
+  public CompletableFuture<PreparedStatement> prepare(String query) {
+    return statementCache.prepare(query);
+  }
+
+  /**
+   * Is used to prepare a cql query through the prepared statement cache
+   * together with the codecs of its placeholders
+   * @param query The query
+   * @return The future that contains the binder of the prepared statement
+   */
+  public CompletableFuture<DatabaseStatementBinder> prepareBinder(
+    String query
+  ) {
+    return statementCache.prepareBinder(query);
+  }
+
+  /**
+   * Is used to execute an already bound statement (e.g. a batch)
+   * @param statement The statement that is to be executed
+   * @return The future that contains the result set
+   */
+  public CompletableFuture<AsyncResultSet> executeStatement(
+    Statement<?> statement
+  ) {
+    return executeStatement(statement,
+      driverStatement -> session.executeAsync(driverStatement));
+  }
+
+  private CompletableFuture<AsyncResultSet> executeStatement(
+    Statement<?> statement,
+    Function<Statement<?>, CompletionStage<AsyncResultSet>> driverCall
+  ) {
+    var result = executeLimited(() -> driverCall.apply(statement));
+    result.exceptionally(throwable ->
+      exceptionally(throwable, describeStatement(statement)));
+    return result;
+  }
+
+  /**
+   * Every request of the connection, no matter whether it is executed
+   * asynchronously or synchronously, holds a permit of the request limiter
+   * while it is in flight
+   */
+  private CompletableFuture<AsyncResultSet> executeLimited(
+    Supplier<CompletionStage<AsyncResultSet>> execution
+  ) {
+    return requestLimiter.acquire().thenCompose(permit -> {
+      try {
+        return execution.get().whenComplete((value, throwable) ->
+          permit.release(throwable));
+      } catch (RuntimeException exception) {
+        permit.release(exception);
+        throw exception;
+      }
+    });
+  }
+
+  private ResultSet executeLimitedSynchronously(Supplier<ResultSet> execution) {
+    var permit = requestLimiter.acquire().join();
+    Throwable failure = null;
+    try {
+      return execution.get();
+    } catch (RuntimeException exception) {
+      failure = exception;
+      throw exception;
+    } finally {
+      permit.release(failure);
+    }
+  }
+
+  /**
+   * Is used to execute an already bound statement (e.g. a batch) on behalf of
+   * a table operation, the request is recorded in the metric registry. Writes
+   * are journaled with one record per bound member, which share the
+   * timestamp of the statement
+   * @param table The table that executes the statement
+   * @param operation The type of the operation
+   * @param statement The statement that is to be executed
+   * @return The future that contains the result set
+   */
+  public CompletableFuture<AsyncResultSet> executeStatement(
+    DatabaseTable table, DatabaseOperation operation, Statement<?> statement
+  ) {
+    var trace = new RequestTrace();
+    var profile = table.executionProfile(operation);
+    if (profile.isPresent() && hasNoExecutionProfile(statement)) {
+      statement = statement.setExecutionProfile(
+        findDriverProfile(profile.get()));
+    }
+    var journal = writeJournal;
+    if (journal != null) {
+      journal.registerTable(table);
+    }
+    if (journal == null || !operation.isWrite()) {
+      return recordMetrics(table, operation, trace,
+        executeStatement(statement, timedCall(trace)));
+    }
+    var counter = isCounterTable(table);
+    if (!counter &&
+      statement.getQueryTimestamp() == Statement.NO_DEFAULT_TIMESTAMP
+    ) {
+      statement = statement.setQueryTimestamp(nextTimestamp());
+    }
+    var driverStatement = statement;
+    return executeJournaled(journal, () -> DatabaseJournalRecord.ofStatement(
+      table.fullName(), operation, driverStatement, counter),
+      () -> recordMetrics(table, operation, trace,
+        executeStatement(driverStatement, timedCall(trace))));
+  }
+
+  private boolean hasNoExecutionProfile(Statement<?> statement) {
+    return statement.getExecutionProfile() == null &&
+      statement.getExecutionProfileName() == null;
+  }
+
+  /**
+   * The latency of a table request is measured from the call of the driver,
+   * so that neither the wait for a permit of the request limiter nor the
+   * preparation of the statement is part of it. Requests that fail before
+   * they reach the driver are measured from their submission. The latency
+   * and the row count of the page are taken as soon as the driver completes
+   * the request, since the dependents of the caller may run and consume the
+   * page before the metrics are recorded
+   */
+  private Function<Statement<?>, CompletionStage<AsyncResultSet>> timedCall(
+    RequestTrace trace
+  ) {
+    return statement -> {
+      trace.start = System.nanoTime();
+      return session.executeAsync(statement).thenApply(resultSet -> {
+        trace.latency = System.nanoTime() - trace.start;
+        trace.rowCount = resultSet.remaining();
+        return resultSet;
+      });
+    };
+  }
+
+  private CompletableFuture<AsyncResultSet> recordMetrics(
+    DatabaseTable table, DatabaseOperation operation, RequestTrace trace,
+    CompletableFuture<AsyncResultSet> result
+  ) {
+    var registry = metricRegistry;
+    result.whenComplete((value, throwable) -> {
+      if (throwable != null) {
+        registry.recordError(table.fullName(), operation,
+          System.nanoTime() - trace.start, throwable);
+        return;
+      }
+      var latency = trace.latency;
+      registry.recordCall(table.fullName(), operation, latency,
+        trace.rowCount, value.getExecutionInfo().getResponseSizeInBytes());
+      if (speculativeExecutionPolicy == null) {
+        return;
+      }
+      if (operation.isRead()) {
+        speculativeExecutionPolicy.recordLatency(table.fullName(), latency);
+      }
+      table.executionProfile(operation).ifPresent(profile ->
+        speculativeExecutionPolicy.recordProfileLatency(profile.name(),
+          latency));
+    });
+    return result;
+  }
+
+  private String describeStatement(Statement<?> statement) {
+    if (statement instanceof BoundStatement boundStatement) {
+      return boundStatement.getPreparedStatement().getQuery();
+    }
+    if (statement instanceof SimpleStatement simpleStatement) {
+      return simpleStatement.getQuery();
+    }
+    if (statement instanceof BatchStatement batchStatement) {
+      return "BATCH " + batchStatement.getBatchType() + " (" +
+        batchStatement.size() + " statements)";
+    }
+    return statement.toString();
+  }
+
+  /**
+   * Statements are prepared by their query only, so that all paging states of
+   * a query share one cached statement. The remaining execution parameters of
+   * the simple statement are transferred to the bound statement instead. The
+   * builder is changed in place, so no intermediate statements are copied
+   */
+  private BoundStatement bind(
+    BoundStatementBuilder statement, SimpleStatement simpleStatement
+  ) {
+    if (simpleStatement.getPageSize() > 0) {
+      statement.setPageSize(simpleStatement.getPageSize());
+    }
+    if (simpleStatement.getPagingState() != null) {
+      statement.setPagingState(simpleStatement.getPagingState());
+    }
+    if (simpleStatement.getConsistencyLevel() != null) {
+      statement.setConsistencyLevel(simpleStatement.getConsistencyLevel());
+    }
+    if (simpleStatement.getSerialConsistencyLevel() != null) {
+      statement.setSerialConsistencyLevel(
+        simpleStatement.getSerialConsistencyLevel());
+    }
+    if (simpleStatement.getTimeout() != null) {
+      statement.setTimeout(simpleStatement.getTimeout());
+    }
+    if (simpleStatement.getExecutionProfile() != null) {
+      statement.setExecutionProfile(simpleStatement.getExecutionProfile());
+    }
+    if (simpleStatement.getExecutionProfileName() != null) {
+      statement.setExecutionProfileName(
+        simpleStatement.getExecutionProfileName());
+    }
+    if (simpleStatement.isIdempotent() != null) {
+      statement.setIdempotence(simpleStatement.isIdempotent());
+    }
+    if (simpleStatement.getQueryTimestamp() != Statement.NO_DEFAULT_TIMESTAMP) {
+      statement.setQueryTimestamp(simpleStatement.getQueryTimestamp());
+    }
+    return statement.build();
+  }
+
   private AsyncResultSet exceptionally(
     Throwable throwable, String query, Object... values
   ) {
@@ -118,9 +616,11 @@ public final class DatabaseConnection {
     String query, Object... values
   ) {
     try {
-      var preparedStatement = session.prepare(query);
-      var boundStatement = preparedStatement.bind(values);
-      return session.execute(boundStatement);
+      return executeLimitedSynchronously(() -> {
+        var binder = statementCache.prepareBinder(query).join();
+        var boundStatement = binder.bind(values);
+        return session.execute(boundStatement);
+      });
     } catch (Exception exception) {
       return exceptionallySynchronously(exception, query, values);
     }
@@ -136,9 +636,12 @@ public final class DatabaseConnection {
     SimpleStatement simpleStatement, Object... values
   ) {
     try {
-      var preparedStatement = session.prepare(simpleStatement);
-      var boundStatement = preparedStatement.bind(values);
-      return session.execute(boundStatement);
+      return executeLimitedSynchronously(() -> {
+        var binder = statementCache
+          .prepareBinder(simpleStatement.getQuery()).join();
+        var boundStatement = bind(binder.bindBuilder(values), simpleStatement);
+        return session.execute(boundStatement);
+      });
     } catch (Exception exception) {
       return exceptionallySynchronously(exception, simpleStatement.getQuery(),
         values);
@@ -153,6 +656,85 @@ public final class DatabaseConnection {
     return null;
   }
 
+  /**
+   * Is used to find the cache that holds the prepared statements
+   * @return The prepared statement cache
+   */
+  public DatabaseStatementCache statementCache() {
+    return statementCache;
+  }
+
+  /**
+   * Is used to find the limiter that is shared by all requests of the
+   * connection (exposes the current limit and the queue depth)
+   * @return The request limiter
+   */
+  public DatabaseRequestLimiter requestLimiter() {
+    return requestLimiter;
+  }
+
+  /**
+   * Is used to find the speculative execution policy of the driver, through
+   * which the requests of tables are hedged
+   * @return The speculative execution policy
+   */
+  public DatabaseSpeculativeExecutionPolicy speculativeExecutionPolicy() {
+    return speculativeExecutionPolicy;
+  }
+
+  /**
+   * Is used to find the registry in which the requests of all tables are
+   * recorded (in memory by default)
+   * @return The metric registry
+   */
+  public DatabaseMetricRegistry metricRegistry() {
+    return metricRegistry;
+  }
+
+  /**
+   * Is used to replace the metric registry, e.g. by a micrometer registry
+   * @param metricRegistry The new metric registry
+   */
+  public void updateMetricRegistry(DatabaseMetricRegistry metricRegistry) {
+    this.metricRegistry = metricRegistry;
+  }
+
+  /**
+   * Is used to enable the local write journal, which buffers the writes of
+   * all tables while the cluster is unreachable. A previous journal is closed
+   * @param options The directory and the replay parameters of the journal
+   * @return The enabled journal
+   * @throws IOException If the journal cannot be opened
+   */
+  public synchronized DatabaseWriteJournal enableWriteJournal(
+    DatabaseJournalOptions options
+  ) throws IOException {
+    disableWriteJournal();
+    var journal = DatabaseWriteJournal.open(this, options);
+    writeJournal = journal;
+    return journal;
+  }
+
+  /**
+   * Is used to disable the write journal, records that were not replayed yet
+   * are replayed once the journal is enabled again
+   */
+  public synchronized void disableWriteJournal() {
+    var journal = writeJournal;
+    if (journal != null) {
+      writeJournal = null;
+      journal.close();
+    }
+  }
+
+  /**
+   * Is used to find the local write journal
+   * @return The journal if it is enabled
+   */
+  public Optional<DatabaseWriteJournal> writeJournal() {
+    return Optional.ofNullable(writeJournal);
+  }
+
   public Metadata metadata() {
     return session.getMetadata();
   }
@@ -165,4 +747,14 @@ public final class DatabaseConnection {
     return session.getMetadata().getKeyspace(keyspaceName).get()
       .getTable(tableName).isPresent();
   }
+
+  /**
+   * The state of a table request that is shared between the call of the
+   * driver and the recording of its metrics
+   */
+  private static final class RequestTrace {
+    private volatile long start = System.nanoTime();
+    private volatile long latency;
+    private volatile int rowCount;
+  }
 }
@@ -0,0 +1,34 @@
+package de.lukasbreuer.cassandra.orm;
+
+public enum DatabaseOperation {
+  INSERT,
+  SELECT,
+  UPDATE,
+  DELETE,
+  COUNT,
+  EXISTS,
+  PAGE,
+  SCAN,
+  AGGREGATE,
+  TRUNCATE,
+  DROP,
+  INDEX,
+  VIEW;
+
+  public boolean isWrite() {
+    return this == INSERT || this == UPDATE || this == DELETE;
+  }
+
+  public boolean isRead() {
+    return !isWrite() && !isMaintenance();
+  }
+
+  /**
+   * Truncations and schema changes are neither reads nor writes, they are
+   * never hedged and never journaled
+   * @return Whether the operation maintains the table instead of its rows
+   */
+  public boolean isMaintenance() {
+    return this == TRUNCATE || this == DROP || this == INDEX || this == VIEW;
+  }
+}
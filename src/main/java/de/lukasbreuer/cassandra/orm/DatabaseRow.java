@@ -4,11 +4,24 @@ import com.datastax.oss.driver.api.core.cql.Row;
 import com.google.common.collect.Lists;
 import lombok.RequiredArgsConstructor;
 
+import java.util.AbstractList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 
+/**
+ * A row of a table. Rows that were read from the database wrap the row of the
+ * driver and decode a column only when it is accessed for the first time, the
+ * primitive accessors of undecoded columns do not decode into boxed values at
+ * all. Since a lazy row keeps the buffers of the driver alive, rows that are
+ * retained for a long time should be copied, which decodes all columns.
+ * Every row tracks which of its cells were modified since it was created or
+ * read, so that partial writes only send the modified cells
+ */
 @RequiredArgsConstructor(staticName = "create")
 public final class DatabaseRow {
+  private static final Object UNDECODED = new Object();
+
   public static List<DatabaseRow> multiple(Iterable<Row> iterable, int columnsLength) {
     List<DatabaseRow> rows = Lists.newArrayList();
     for (Row row : iterable) {
@@ -18,26 +31,35 @@ public final class DatabaseRow {
   }
 
   public static DatabaseRow of(Row row, int columnsLength) {
-    var cells = new DatabaseCell[columnsLength];
     var values = new Object[columnsLength];
-    for (var i = 0; i < columnsLength; i++) {
-      var value = row.getObject(i);
-      cells[i] = DatabaseCell.create(value);
-      values[i] = value;
-    }
-    return create(cells, values);
+    Arrays.fill(values, UNDECODED);
+    var databaseRow = create(new DatabaseCell[columnsLength], values);
+    databaseRow.source = row;
+    return databaseRow;
   }
 
+  /**
+   * Creates a row of values. All cells with a value are modified, the cells
+   * without a value (null) are absent and are not written by partial writes
+   * @param values The values of the row
+   * @return The row
+   */
   public static DatabaseRow of(Object... values) {
     var cells = new DatabaseCell[values.length];
+    var row = create(cells, values);
     for (var i = 0; i < values.length; i++) {
       cells[i] = DatabaseCell.create(values[i]);
+      if (values[i] != null) {
+        row.dirty.set(i);
+      }
     }
-    return create(cells, values);
+    return row;
   }
 
   private final DatabaseCell[] cells;
   private final Object[] values;
+  private final BitSet dirty = new BitSet();
+  private Row source;
 
   /**
    * Creates a string that contains the number of placeholder question marks
@@ -61,20 +83,85 @@ public final class DatabaseRow {
    * @return The common row
    */
   public DatabaseRow concat(DatabaseRow other) {
-    var combinedCells = Arrays.copyOf(cells,
+    var combinedCells = Arrays.copyOf(cells(),
       this.cellNumber() + other.cellNumber());
     System.arraycopy(other.cells(), 0, combinedCells, this.cellNumber(),
       other.cellNumber());
-    var combinedValues = Arrays.copyOf(values,
+    var combinedValues = Arrays.copyOf(values(),
       this.cellNumber() + other.cellNumber());
     System.arraycopy(other.values(), 0, combinedValues, this.cellNumber(),
       other.cellNumber());
-    return DatabaseRow.create(combinedCells, combinedValues);
+    var combined = DatabaseRow.create(combinedCells, combinedValues);
+    combined.dirty.or(dirtyCells());
+    other.dirtyCells().stream().forEach(index ->
+      combined.dirty.set(this.cellNumber() + index));
+    return combined;
   }
 
+  /**
+   * Is used to change the value of a cell, which marks the cell as modified.
+   * A cell that is changed to null is written as null by partial writes
+   * @param index The index of the cell
+   * @param value The new value
+   */
   public void updateCell(int index, Object value) {
     cells[index] = DatabaseCell.create(value);
     values[index] = value;
+    synchronized (dirty) {
+      dirty.set(index);
+    }
+  }
+
+  /**
+   * Is used to check whether a cell was modified since the row was created,
+   * read or last written
+   * @param index The index of the cell
+   * @return Whether the cell is modified
+   */
+  public boolean isDirty(int index) {
+    synchronized (dirty) {
+      return dirty.get(index);
+    }
+  }
+
+  /**
+   * Is used to check whether any cell of the row is modified
+   * @return Whether the row is modified
+   */
+  public boolean isDirty() {
+    synchronized (dirty) {
+      return !dirty.isEmpty();
+    }
+  }
+
+  /**
+   * Is used to find the indexes of all modified cells
+   * @return A copy of the modified cell indexes
+   */
+  public BitSet dirtyCells() {
+    synchronized (dirty) {
+      return (BitSet) dirty.clone();
+    }
+  }
+
+  /**
+   * Is used to mark all cells as unmodified, e.g. after the row was written
+   */
+  public void markClean() {
+    synchronized (dirty) {
+      dirty.clear();
+    }
+  }
+
+  /**
+   * Is used to mark the written cells as unmodified, cells that were
+   * modified while the write was in flight stay modified
+   * @param writtenCells The modified cells at the time of the write
+   */
+  public void markClean(BitSet writtenCells) {
+    synchronized (dirty) {
+      dirty.andNot(writtenCells);
+    }
   }
 
   /**
@@ -83,7 +170,99 @@ public final class DatabaseRow {
    * @return The searched cell of the row
    */
   public DatabaseCell findCell(int index) {
-    return cells[index];
+    var cell = cells[index];
+    if (cell == null) {
+      cell = DatabaseCell.create(value(index));
+      cells[index] = cell;
+    }
+    return cell;
+  }
+
+  /**
+   * Is used to find the value of a single cell without copying the row
+   * @param index The index of the cell
+   * @return The value of the cell
+   */
+  public Object value(int index) {
+    var value = values[index];
+    if (value == UNDECODED) {
+      value = source.getObject(index);
+      values[index] = value;
+    }
+    return value;
+  }
+
+  /**
+   * Is used to check whether the value of a cell is null without decoding it
+   * @param index The index of the cell
+   * @return Whether the value is null
+   */
+  public boolean isNull(int index) {
+    var value = values[index];
+    return value == UNDECODED ? source.isNull(index) : value == null;
+  }
+
+  /**
+   * Is used to read an int value without boxing it
+   * @param index The index of the cell
+   * @return The value or 0 if the value is null
+   */
+  public int getInt(int index) {
+    var value = values[index];
+    if (value == UNDECODED) {
+      return source.getInt(index);
+    }
+    return value == null ? 0 : (Integer) value;
+  }
+
+  /**
+   * Is used to read a bigint or counter value without boxing it
+   * @param index The index of the cell
+   * @return The value or 0 if the value is null
+   */
+  public long getLong(int index) {
+    var value = values[index];
+    if (value == UNDECODED) {
+      return source.getLong(index);
+    }
+    return value == null ? 0 : (Long) value;
+  }
+
+  /**
+   * Is used to read a double value without boxing it
+   * @param index The index of the cell
+   * @return The value or 0 if the value is null
+   */
+  public double getDouble(int index) {
+    var value = values[index];
+    if (value == UNDECODED) {
+      return source.getDouble(index);
+    }
+    return value == null ? 0 : (Double) value;
+  }
+
+  /**
+   * Is used to read a boolean value without boxing it
+   * @param index The index of the cell
+   * @return The value or false if the value is null
+   */
+  public boolean getBoolean(int index) {
+    var value = values[index];
+    if (value == UNDECODED) {
+      return source.getBoolean(index);
+    }
+    return value != null && (Boolean) value;
+  }
+
+  /**
+   * Is used to create a copy of the row, so that updates of the copy do not
+   * affect this row
+   * @return The copied row
+   */
+  public DatabaseRow copy() {
+    var copy = create(cells(), values());
+    copy.dirty.or(dirtyCells());
+    return copy;
   }
 
   /**
@@ -99,7 +278,11 @@ public final class DatabaseRow {
    * @return The raw cell array
    */
   public DatabaseCell[] cells() {
-    return Arrays.copyOf(cells, cells.length);
+    var copy = new DatabaseCell[cells.length];
+    for (var i = 0; i < copy.length; i++) {
+      copy[i] = findCell(i);
+    }
+    return copy;
   }
 
   /**
@@ -107,6 +290,47 @@ public final class DatabaseRow {
    * @return The raw object array
    */
   public Object[] values() {
-    return Arrays.copyOf(values, values.length);
+    var copy = new Object[values.length];
+    for (var i = 0; i < copy.length; i++) {
+      copy[i] = value(i);
+    }
+    return copy;
+  }
+
+  /**
+   * Is used to get a read-only view of the values, which decodes the values
+   * on access instead of copying them
+   * @return The view of the values
+   */
+  public List<Object> valueView() {
+    return new AbstractList<>() {
+      @Override
+      public Object get(int index) {
+        return value(index);
+      }
+
+      @Override
+      public int size() {
+        return values.length;
+      }
+    };
+  }
+
+  /**
+   * Is used to get a read-only view of the cells
+   * @return The view of the cells
+   */
+  public List<DatabaseCell> cellView() {
+    return new AbstractList<>() {
+      @Override
+      public DatabaseCell get(int index) {
+        return findCell(index);
+      }
+
+      @Override
+      public int size() {
+        return cells.length;
+      }
+    };
   }
 }
@@ -1,10 +1,36 @@
 package de.lukasbreuer.cassandra.orm;
 
+import de.lukasbreuer.cassandra.orm.cache.DatabaseOffHeapCacheOptions;
+import de.lukasbreuer.cassandra.orm.cache.DatabaseOffHeapRowCache;
+import de.lukasbreuer.cassandra.orm.cache.DatabaseRowCache;
+import de.lukasbreuer.cassandra.orm.cache.DatabaseRowCacheOptions;
+import de.lukasbreuer.cassandra.orm.cache.DatabaseRowKey;
+import de.lukasbreuer.cassandra.orm.condition.DatabaseCondition;
+import de.lukasbreuer.cassandra.orm.filter.DatabaseExistenceFilter;
+import de.lukasbreuer.cassandra.orm.listener.DatabaseTableListener;
+import de.lukasbreuer.cassandra.orm.paging.DatabasePagePrefetcher;
+import de.lukasbreuer.cassandra.orm.paging.DatabasePagingIndex;
+import de.lukasbreuer.cassandra.orm.profile.DatabaseExecutionProfile;
 import de.lukasbreuer.cassandra.orm.skeleton.*;
+import de.lukasbreuer.cassandra.orm.speculation.DatabaseSpeculationOptions;
+import de.lukasbreuer.cassandra.orm.statement.DatabaseStatementTemplates;
+import de.lukasbreuer.cassandra.orm.write.DatabaseCounterBuffer;
+import de.lukasbreuer.cassandra.orm.write.DatabaseCounterBufferOptions;
+import de.lukasbreuer.cassandra.orm.write.DatabaseWriteBehindOptions;
+import de.lukasbreuer.cassandra.orm.write.DatabaseWriteBehindWriter;
 import lombok.experimental.Accessors;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 @Accessors(fluent = true)
 public class DatabaseTable implements CreatableDatabaseTable,
@@ -20,6 +46,20 @@ public class DatabaseTable implements CreatableDatabaseTable,
   private List<DatabaseColumn> columns;
   private List<DatabaseColumn> transformationColumns;
   private DatabaseTable temporaryTable;
+  private final Object statementTemplatesLock = new Object();
+  private volatile DatabaseStatementTemplates statementTemplates;
+  private final List<DatabaseTableListener> listeners =
+    new CopyOnWriteArrayList<>();
+  private volatile DatabasePagingIndex pagingIndex;
+  private volatile DatabasePagePrefetcher pagePrefetcher;
+  private volatile DatabaseRowCache rowCache;
+  private volatile DatabaseOffHeapRowCache offHeapRowCache;
+  private volatile DatabaseExistenceFilter existenceFilter;
+  private volatile DatabaseCounterBuffer counterBuffer;
+  private volatile DatabaseWriteBehindWriter writeBehindWriter;
+  private volatile DatabaseExecutionProfile executionProfile;
+  private final Map<DatabaseOperation, DatabaseExecutionProfile>
+    operationProfiles = new ConcurrentHashMap<>();
 
   public DatabaseTable(
     DatabaseConnection connection, DatabaseKeyspace keyspace, String name,
@@ -76,7 +116,7 @@ public class DatabaseTable implements CreatableDatabaseTable,
    * @return The columns
    */
   public List<DatabaseColumn> columns() {
-    return List.copyOf(columns);
+    return statementTemplates().columns();
   }
 
   /**
@@ -84,14 +124,403 @@ public class DatabaseTable implements CreatableDatabaseTable,
    * @return The name compilation
    */
   public String columnNameCompilation() {
-    var compilation = new StringBuilder();
-    for (var i = 0; i < columns.size(); i++) {
-      compilation.append(columns.get(i).name());
-      if (i < columns.size() - 1) {
-        compilation.append(", ");
+    return statementTemplates().columnNames();
+  }
+
+  /**
+   * Is used to find the precompiled statement templates of the table. The
+   * templates are compiled on first use and whenever the columns changed
+   * @return The statement templates
+   */
+  public DatabaseStatementTemplates statementTemplates() {
+    var templates = statementTemplates;
+    if (templates != null) {
+      return templates;
+    }
+    synchronized (statementTemplatesLock) {
+      if (statementTemplates == null) {
+        statementTemplates = DatabaseStatementTemplates.compile(fullName(),
+          columns);
       }
+      return statementTemplates;
     }
-    return compilation.toString();
+  }
+
+  private void invalidateStatementTemplates() {
+    synchronized (statementTemplatesLock) {
+      statementTemplates = null;
+    }
+  }
+
+  /**
+   * Is used to register a listener that is notified about the writes of the
+   * table
+   * @param listener The listener
+   */
+  public void registerListener(DatabaseTableListener listener) {
+    listeners.add(listener);
+  }
+
+  public void unregisterListener(DatabaseTableListener listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Is used to notify all registered listeners
+   * @param notification The notification of a single listener
+   */
+  public void notifyListeners(Consumer<DatabaseTableListener> notification) {
+    listeners.forEach(notification);
+  }
+
+  /**
+   * Is used to enable the paging index, which caches row counts and page
+   * boundaries of paged queries
+   * @param timeToLive The duration after which an entry expires
+   * @param maximumSize The maximum number of cached paged queries
+   */
+  public void enablePagingIndex(Duration timeToLive, long maximumSize) {
+    disablePagingIndex();
+    var index = DatabasePagingIndex.create(timeToLive, maximumSize);
+    registerListener(index);
+    pagingIndex = index;
+  }
+
+  public void disablePagingIndex() {
+    var index = pagingIndex;
+    if (index != null) {
+      unregisterListener(index);
+      pagingIndex = null;
+    }
+  }
+
+  /**
+   * Is used to find the paging index of the table
+   * @return The paging index if it is enabled
+   */
+  public Optional<DatabasePagingIndex> pagingIndex() {
+    return Optional.ofNullable(pagingIndex);
+  }
+
+  /**
+   * Is used to enable the prefetching of the next pages of sequential paging
+   * processes that walk through shiftPage
+   * @param lookAheadDepth The number of pages that are fetched ahead
+   * @param maximumRows The maximum number of rows held by prefetched pages
+   * @param abandonTimeout The duration after which a prefetched page that
+   *                       was not taken is cancelled
+   */
+  public void enablePagePrefetching(
+    int lookAheadDepth, long maximumRows, Duration abandonTimeout
+  ) {
+    disablePagePrefetching();
+    pagePrefetcher = DatabasePagePrefetcher.create(lookAheadDepth,
+      maximumRows, abandonTimeout);
+  }
+
+  public void disablePagePrefetching() {
+    var prefetcher = pagePrefetcher;
+    if (prefetcher != null) {
+      pagePrefetcher = null;
+      prefetcher.cancelAll();
+    }
+  }
+
+  /**
+   * Is used to find the page prefetcher of the table
+   * @return The page prefetcher if prefetching is enabled
+   */
+  public Optional<DatabasePagePrefetcher> pagePrefetcher() {
+    return Optional.ofNullable(pagePrefetcher);
+  }
+
+  /**
+   * Is used to enable the read-through cache of single rows, which is
+   * invalidated by the writes of the table
+   * @param options The eviction and refresh options of the cache
+   */
+  public void enableRowCache(DatabaseRowCacheOptions options) {
+    disableRowCache();
+    var cache = DatabaseRowCache.create(this, options);
+    registerListener(cache);
+    rowCache = cache;
+  }
+
+  /**
+   * Is used to disable the row cache. Its rows are dropped and reads go to
+   * the off-heap row cache or the database again
+   */
+  public void disableRowCache() {
+    var cache = rowCache;
+    if (cache != null) {
+      unregisterListener(cache);
+      rowCache = null;
+      cache.invalidateAll();
+    }
+  }
+
+  /**
+   * Is used to find the row cache of the table
+   * @return The row cache if it is enabled
+   */
+  public Optional<DatabaseRowCache> rowCache() {
+    return Optional.ofNullable(rowCache);
+  }
+
+  /**
+   * Is used to enable the off-heap row cache. Together with the row cache it
+   * acts as the second level, without it it is the only level
+   * @param options The memory and spill options of the cache
+   * @throws IOException If the spill file cannot be opened
+   */
+  public void enableOffHeapRowCache(DatabaseOffHeapCacheOptions options)
+    throws IOException
+  {
+    disableOffHeapRowCache();
+    var cache = DatabaseOffHeapRowCache.create(this, options);
+    registerListener(cache);
+    offHeapRowCache = cache;
+  }
+
+  /**
+   * Is used to disable the off-heap row cache. Its rows are moved into the
+   * spill file for the next warm start if a spill file is configured
+   * @throws IOException If the spill index cannot be written
+   */
+  public void disableOffHeapRowCache() throws IOException {
+    var cache = offHeapRowCache;
+    if (cache != null) {
+      unregisterListener(cache);
+      offHeapRowCache = null;
+      cache.close();
+    }
+  }
+
+  /**
+   * Is used to find the off-heap row cache of the table
+   * @return The off-heap row cache if it is enabled
+   */
+  public Optional<DatabaseOffHeapRowCache> offHeapRowCache() {
+    return Optional.ofNullable(offHeapRowCache);
+  }
+
+  /**
+   * Is used to enable the existence filter, which answers existence checks of
+   * absent rows without a request. The filter answers nothing until it is
+   * bootstrapped or declared ready
+   * @param expectedInsertions The capacity of the first filter stage
+   * @param falsePositiveRate The bound of the overall false positive rate
+   * @return The enabled filter
+   */
+  public DatabaseExistenceFilter enableExistenceFilter(
+    long expectedInsertions, double falsePositiveRate
+  ) {
+    var filter = DatabaseExistenceFilter.create(expectedInsertions,
+      falsePositiveRate);
+    replaceExistenceFilter(filter);
+    return filter;
+  }
+
+  /**
+   * Is used to enable the existence filter from a snapshot. Writes after the
+   * snapshot are not contained, so the filter has to be bootstrapped again if
+   * other processes wrote into the table meanwhile
+   * @param snapshot The path of the snapshot
+   * @return The enabled filter
+   * @throws IOException If the snapshot cannot be read
+   */
+  public DatabaseExistenceFilter restoreExistenceFilter(Path snapshot)
+    throws IOException
+  {
+    var filter = DatabaseExistenceFilter.readSnapshot(snapshot);
+    replaceExistenceFilter(filter);
+    return filter;
+  }
+
+  public void disableExistenceFilter() {
+    replaceExistenceFilter(null);
+  }
+
+  private synchronized void replaceExistenceFilter(
+    DatabaseExistenceFilter filter
+  ) {
+    var previous = existenceFilter;
+    if (previous != null) {
+      unregisterListener(previous);
+    }
+    if (filter != null) {
+      registerListener(filter);
+    }
+    existenceFilter = filter;
+  }
+
+  /**
+   * Is used to find the existence filter of the table
+   * @return The existence filter if it is enabled
+   */
+  public Optional<DatabaseExistenceFilter> existenceFilter() {
+    return Optional.ofNullable(existenceFilter);
+  }
+
+  /**
+   * Is used to enable the counter buffer, which coalesces counter increments
+   * in memory and writes them periodically. A previous buffer is flushed
+   * @param options The flush thresholds of the buffer
+   * @return The enabled buffer
+   */
+  public synchronized DatabaseCounterBuffer enableCounterBuffer(
+    DatabaseCounterBufferOptions options
+  ) {
+    disableCounterBuffer();
+    var buffer = DatabaseCounterBuffer.create(this, options);
+    counterBuffer = buffer;
+    return buffer;
+  }
+
+  /**
+   * Is used to disable the counter buffer, its pending deltas are written
+   * before this method returns
+   */
+  public synchronized void disableCounterBuffer() {
+    var buffer = counterBuffer;
+    if (buffer != null) {
+      counterBuffer = null;
+      buffer.close();
+    }
+  }
+
+  /**
+   * Is used to find the counter buffer of the table
+   * @return The counter buffer if it is enabled
+   */
+  public Optional<DatabaseCounterBuffer> counterBuffer() {
+    return Optional.ofNullable(counterBuffer);
+  }
+
+  /**
+   * Is used to enable the write behind writer, which accepts rows without
+   * waiting for their insertion. A previous writer is closed
+   * @param options The queue bound and the flush thresholds of the writer
+   * @return The enabled writer
+   */
+  public synchronized DatabaseWriteBehindWriter enableWriteBehind(
+    DatabaseWriteBehindOptions options
+  ) {
+    disableWriteBehind();
+    var writer = DatabaseWriteBehindWriter.create(this, options);
+    writeBehindWriter = writer;
+    return writer;
+  }
+
+  /**
+   * Is used to disable the write behind writer, its accepted rows are
+   * written before this method returns
+   */
+  public synchronized void disableWriteBehind() {
+    var writer = writeBehindWriter;
+    if (writer != null) {
+      writeBehindWriter = null;
+      writer.close();
+    }
+  }
+
+  /**
+   * Is used to find the write behind writer of the table
+   * @return The writer if it is enabled
+   */
+  public Optional<DatabaseWriteBehindWriter> writeBehindWriter() {
+    return Optional.ofNullable(writeBehindWriter);
+  }
+
+  /**
+   * Is used to hedge the reads of the table. A read that is not answered
+   * within the delay of the speculation is sent to another replica as well,
+   * the first response is used
+   * @param options The delay and the number of executions
+   */
+  public void enableSpeculativeExecution(DatabaseSpeculationOptions options) {
+    connection.speculativeExecutionPolicy().register(fullName(), options);
+  }
+
+  public void disableSpeculativeExecution() {
+    connection.speculativeExecutionPolicy().unregister(fullName());
+  }
+
+  /**
+   * Is used to find the speculation of the table
+   * @return The speculation options if the reads of the table are hedged
+   */
+  public Optional<DatabaseSpeculationOptions> speculationOptions() {
+    return connection.speculativeExecutionPolicy().find(fullName());
+  }
+
+  /**
+   * Is used to execute every operation of the table with an execution
+   * profile, unless a profile is attached to the operation itself
+   * @param profile The execution profile
+   */
+  public void updateExecutionProfile(DatabaseExecutionProfile profile) {
+    connection.registerExecutionProfile(profile);
+    executionProfile = profile;
+  }
+
+  /**
+   * Is used to execute single operations of the table with an execution
+   * profile, e.g. scans with a large page size and a long timeout
+   * @param profile The execution profile
+   * @param operations The operations that use the profile
+   */
+  public void updateExecutionProfile(
+    DatabaseExecutionProfile profile, DatabaseOperation... operations
+  ) {
+    connection.registerExecutionProfile(profile);
+    for (var operation : operations) {
+      operationProfiles.put(operation, profile);
+    }
+  }
+
+  /**
+   * Is used to execute all operations of the table with the default profile
+   * of the driver again
+   */
+  public void removeExecutionProfiles() {
+    executionProfile = null;
+    operationProfiles.clear();
+  }
+
+  /**
+   * Is used to find the execution profile of an operation
+   * @param operation The type of the operation
+   * @return The profile of the operation, otherwise the profile of the table
+   */
+  public Optional<DatabaseExecutionProfile> executionProfile(
+    DatabaseOperation operation
+  ) {
+    var profile = operationProfiles.get(operation);
+    return Optional.ofNullable(profile != null ? profile : executionProfile);
+  }
+
+  /**
+   * Is used to find a single row through the enabled row caches
+   * @param condition The condition with which the row can be found
+   * @return The future that contains the row if a cache covers the condition
+   */
+  public Optional<CompletableFuture<Optional<DatabaseRow>>> findCachedRow(
+    DatabaseCondition condition
+  ) {
+    var firstLevel = rowCache;
+    var secondLevel = offHeapRowCache;
+    if (firstLevel == null && secondLevel == null) {
+      return Optional.empty();
+    }
+    var key = DatabaseRowKey.of(this, condition);
+    if (key.isEmpty()) {
+      return Optional.empty();
+    }
+    if (firstLevel != null) {
+      return Optional.of(firstLevel.find(key.get(), condition));
+    }
+    return Optional.of(secondLevel.find(key.get(), condition));
   }
 
   /**
@@ -123,8 +552,11 @@ public class DatabaseTable implements CreatableDatabaseTable,
    * @return The single primary key column
    */
   public DatabaseColumn findPrimaryKeyColumn() {
-    return columns.stream().filter(column -> column.type().isPrimaryKey())
-      .findFirst().get();
+    var primaryKeyColumns = statementTemplates().primaryKeyColumns();
+    if (primaryKeyColumns.isEmpty()) {
+      throw new NoSuchElementException("No value present");
+    }
+    return primaryKeyColumns.get(0);
   }
 
   /**
@@ -132,8 +564,7 @@ public class DatabaseTable implements CreatableDatabaseTable,
    * @return The list of columns
    */
   public List<DatabaseColumn> findPrimaryKeyColumns() {
-    return columns.stream().filter(column -> column.type().isPrimaryKey())
-      .toList();
+    return statementTemplates().primaryKeyColumns();
   }
 
   /**
@@ -141,8 +572,11 @@ public class DatabaseTable implements CreatableDatabaseTable,
    * @return The single partition key column
    */
   public DatabaseColumn findPartitionKeyColumn() {
-    return columns.stream().filter(column -> column.type().isPartitionKey())
-      .findFirst().get();
+    var partitionKeyColumns = statementTemplates().partitionKeyColumns();
+    if (partitionKeyColumns.isEmpty()) {
+      throw new NoSuchElementException("No value present");
+    }
+    return partitionKeyColumns.get(0);
   }
 
   /**
@@ -150,8 +584,7 @@ public class DatabaseTable implements CreatableDatabaseTable,
    * @return The list of columns
    */
   public List<DatabaseColumn> findPartitionKeyColumns() {
-    return columns.stream().filter(column -> column.type().isPartitionKey())
-      .toList();
+    return statementTemplates().partitionKeyColumns();
   }
 
   /**
@@ -170,6 +603,7 @@ public class DatabaseTable implements CreatableDatabaseTable,
    */
   public CompletableFuture<Void> addColumn(DatabaseColumn column) {
     columns.add(column);
+    invalidateStatementTemplates();
     var query = new StringBuilder("ALTER TABLE ");
     query.append(fullName());
     query.append(" ADD ");
@@ -187,6 +621,7 @@ public class DatabaseTable implements CreatableDatabaseTable,
    * @return A future that is completed when the operation is completed
    */
   public CompletableFuture<Void> renameColumn(String oldColumnName, String newColumnName) {
+    invalidateStatementTemplates();
     var query = new StringBuilder("ALTER TABLE ");
     query.append(fullName());
     query.append(" RENAME ");
@@ -208,6 +643,7 @@ public class DatabaseTable implements CreatableDatabaseTable,
       .toList();
     columns.clear();
     columns.addAll(newColumns);
+    invalidateStatementTemplates();
     var query = new StringBuilder("ALTER TABLE ");
     query.append(fullName());
     query.append(" DROP ");
@@ -223,6 +659,7 @@ public class DatabaseTable implements CreatableDatabaseTable,
   protected void fillColumns(List<DatabaseColumn> newColumns) {
     columns.clear();
     columns.addAll(newColumns);
+    invalidateStatementTemplates();
   }
 
   /**
@@ -0,0 +1,89 @@
+package de.lukasbreuer.cassandra.orm.batch;
+
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchType;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.google.common.collect.Lists;
+import de.lukasbreuer.cassandra.orm.DatabaseRow;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.Function;
+
+public final class DatabaseBatchGrouping {
+  private DatabaseBatchGrouping() {
+  }
+
+  /**
+   * Is used to group rows by their partition key values. Groups that are
+   * larger than the maximum batch size are split into several groups
+   * @param rows The rows that are to be grouped
+   * @param partitionIndexes The cell indexes of the partition key columns
+   * @param maximumBatchSize The maximum number of rows inside of a group
+   * @return The list of groups
+   */
+  public static List<List<DatabaseRow>> groupByPartition(
+    Collection<DatabaseRow> rows, int[] partitionIndexes, int maximumBatchSize
+  ) {
+    return groupByPartition(rows, row -> partitionKey(row, partitionIndexes),
+      maximumBatchSize);
+  }
+
+  /**
+   * Is used to group elements by their partition. Groups that are larger than
+   * the maximum batch size are split into several groups
+   * @param elements The elements that are to be grouped
+   * @param partition The function that finds the partition of an element
+   * @param maximumBatchSize The maximum number of elements inside of a group
+   * @return The list of groups
+   */
+  public static <T> List<List<T>> groupByPartition(
+    Collection<T> elements, Function<T, Object> partition,
+    int maximumBatchSize
+  ) {
+    var partitions = new LinkedHashMap<Object, List<T>>();
+    for (var element : elements) {
+      partitions.computeIfAbsent(partition.apply(element),
+        key -> Lists.newArrayList()).add(element);
+    }
+    var groups = Lists.<List<T>>newArrayList();
+    for (var partitionElements : partitions.values()) {
+      groups.addAll(Lists.partition(partitionElements,
+        Math.max(maximumBatchSize, 1)));
+    }
+    return groups;
+  }
+
+  private static Object partitionKey(DatabaseRow row, int[] partitionIndexes) {
+    var values = new Object[partitionIndexes.length];
+    for (var i = 0; i < partitionIndexes.length; i++) {
+      values[i] = row.findCell(partitionIndexes[i]).rawValue();
+    }
+    return Arrays.asList(values);
+  }
+
+  /**
+   * Is used to combine the statements of a single partition. The driver routes
+   * the batch with the routing key of its first bound statement, so that it is
+   * sent to a replica that owns the partition. Single statements are sent
+   * without a batch
+   * @param batchType The type of the batch
+   * @param statements The bound statements of the partition
+   * @return The statement that is to be executed
+   */
+  public static Statement<?> createStatement(
+    BatchType batchType, List<BoundStatement> statements
+  ) {
+    if (statements.size() == 1) {
+      return statements.get(0);
+    }
+    var batch = BatchStatement.builder(batchType);
+    for (var statement : statements) {
+      batch.addStatement(statement);
+    }
+    return batch.build();
+  }
+}
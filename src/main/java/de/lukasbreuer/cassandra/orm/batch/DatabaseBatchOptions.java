@@ -0,0 +1,20 @@
+package de.lukasbreuer.cassandra.orm.batch;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+@Getter
+@Accessors(fluent = true)
+@RequiredArgsConstructor(staticName = "create")
+public final class DatabaseBatchOptions {
+  private static final int DEFAULT_MAXIMUM_BATCH_SIZE = 50;
+  private static final int DEFAULT_PARALLELISM = 8;
+
+  public static DatabaseBatchOptions defaults() {
+    return create(DEFAULT_MAXIMUM_BATCH_SIZE, DEFAULT_PARALLELISM);
+  }
+
+  private final int maximumBatchSize;
+  private final int parallelism;
+}
@@ -0,0 +1,78 @@
+package de.lukasbreuer.cassandra.orm.cache;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+@Getter
+@Accessors(fluent = true)
+@RequiredArgsConstructor(staticName = "create")
+public final class DatabaseOffHeapCacheOptions {
+  private static final int DEFAULT_PAGE_SIZE = 1024 * 1024;
+  private static final int DEFAULT_MINIMUM_CHUNK_SIZE = 64;
+  private static final double DEFAULT_GROWTH_FACTOR = 1.25;
+  private static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofHours(1);
+  private static final Duration DEFAULT_WARM_START_MAXIMUM_AGE =
+    Duration.ofHours(1);
+
+  /**
+   * Is used to create the options of a cache that only uses direct memory
+   * @param directCapacity The number of bytes of direct memory
+   * @return The options
+   */
+  public static DatabaseOffHeapCacheOptions direct(int directCapacity) {
+    return create(directCapacity, 0, null, DEFAULT_PAGE_SIZE,
+      DEFAULT_MINIMUM_CHUNK_SIZE, DEFAULT_GROWTH_FACTOR,
+      DEFAULT_TIME_TO_LIVE, DEFAULT_WARM_START_MAXIMUM_AGE);
+  }
+
+  /**
+   * Is used to create the options of a cache that spills the records evicted
+   * from direct memory into a memory mapped file, which is reused on the
+   * next start
+   * @param directCapacity The number of bytes of direct memory
+   * @param spillFile The path of the memory mapped file
+   * @param spillCapacity The number of bytes of the memory mapped file
+   * @return The options
+   */
+  public static DatabaseOffHeapCacheOptions spilling(
+    int directCapacity, Path spillFile, int spillCapacity
+  ) {
+    return create(directCapacity, spillCapacity, spillFile, DEFAULT_PAGE_SIZE,
+      DEFAULT_MINIMUM_CHUNK_SIZE, DEFAULT_GROWTH_FACTOR,
+      DEFAULT_TIME_TO_LIVE, DEFAULT_WARM_START_MAXIMUM_AGE);
+  }
+
+  private final int directCapacity;
+  private final int spillCapacity;
+  private final Path spillFile;
+  /**
+   * The size of the pages that are assigned to the slab classes, which is
+   * also the maximum size of a single serialized row
+   */
+  private final int pageSize;
+  private final int minimumChunkSize;
+  /**
+   * The factor between the chunk sizes of two neighbouring slab classes
+   */
+  private final double growthFactor;
+  /**
+   * The age after which a stored row is reloaded, since writes of other
+   * processes do not invalidate the cache. A zero duration keeps rows until
+   * they are evicted or invalidated
+   */
+  private final Duration timeToLive;
+  /**
+   * The maximum age of a spill file index that is used for a warm start.
+   * Writes that happen while no process uses the cache cannot invalidate it
+   */
+  private final Duration warmStartMaximumAge;
+
+  public Optional<Path> findSpillFile() {
+    return Optional.ofNullable(spillFile);
+  }
+}
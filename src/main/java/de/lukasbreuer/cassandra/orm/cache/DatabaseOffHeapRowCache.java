@@ -0,0 +1,262 @@
+package de.lukasbreuer.cassandra.orm.cache;
+
+import de.lukasbreuer.cassandra.orm.DatabaseRow;
+import de.lukasbreuer.cassandra.orm.DatabaseTable;
+import de.lukasbreuer.cassandra.orm.condition.DatabaseCondition;
+import de.lukasbreuer.cassandra.orm.listener.DatabaseTableListener;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches serialized rows outside of the heap, so that large rows do not
+ * burden the garbage collector. Rows are kept in direct memory and, if a
+ * spill file is configured, records evicted from direct memory move into a
+ * memory mapped file. On close all records are moved into the spill file and
+ * its index is written, so that the next process starts with a warm cache.
+ * <p>
+ * Returned rows are decoded from a heap copy of their record, so they stay
+ * valid after the row is evicted. A loaded row is only stored if no
+ * invalidation of its key happened while the row was loaded
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DatabaseOffHeapRowCache
+  implements DatabaseTableListener, AutoCloseable
+{
+  public static DatabaseOffHeapRowCache create(
+    DatabaseTable table, DatabaseOffHeapCacheOptions options
+  ) throws IOException {
+    var primary = DatabaseSlabStore.create(
+      ByteBuffer.allocateDirect(options.directCapacity()), options.pageSize(),
+      options.minimumChunkSize(), options.growthFactor(),
+      options.timeToLive());
+    if (options.findSpillFile().isEmpty()) {
+      return new DatabaseOffHeapRowCache(table, primary, null, null);
+    }
+    var spillFile = options.findSpillFile().get();
+    var indexFile = spillFile.resolveSibling(spillFile.getFileName() +
+      ".index");
+    ByteBuffer spillRegion;
+    try (var channel = FileChannel.open(spillFile, StandardOpenOption.CREATE,
+      StandardOpenOption.READ, StandardOpenOption.WRITE)
+    ) {
+      spillRegion = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+        options.spillCapacity());
+    }
+    var spill = DatabaseSlabStore.create(spillRegion, options.pageSize(),
+      options.minimumChunkSize(), options.growthFactor(),
+      options.timeToLive());
+    if (Files.exists(indexFile)) {
+      spill.restoreIndex(indexFile, options.warmStartMaximumAge());
+      Files.delete(indexFile);
+    }
+    var cache = new DatabaseOffHeapRowCache(table, primary, spill, indexFile);
+    primary.updateEvictionListener(cache::spill);
+    return cache;
+  }
+
+  private final DatabaseTable table;
+  private final DatabaseSlabStore primary;
+  private final DatabaseSlabStore spill;
+  private final Path indexFile;
+  private final Object storeLock = new Object();
+  private final AtomicLong versions = new AtomicLong();
+  private final Map<Object, Long> loadVersions = new ConcurrentHashMap<>();
+  private final LongAdder loads = new LongAdder();
+  private final LongAdder unsupportedRows = new LongAdder();
+
+  /**
+   * Is used to find the row of a key, either from off-heap memory or by
+   * loading it from the table
+   * @param key The cache key of the row
+   * @param condition The condition with which the row can be loaded
+   * @return The future that contains the row if it exists
+   */
+  public CompletableFuture<Optional<DatabaseRow>> find(
+    Object key, DatabaseCondition condition
+  ) {
+    var record = primary.find(key);
+    if (record.isEmpty() && spill != null) {
+      record = promoteSpilled(key);
+    }
+    if (record.isPresent()) {
+      return CompletableFuture.completedFuture(
+        Optional.of(createRow(record.get())));
+    }
+    loads.increment();
+    var version = versions.incrementAndGet();
+    loadVersions.put(key, version);
+    return table.selectRows(condition).handle((rows, throwable) -> {
+      if (throwable == null && !rows.isEmpty()) {
+        store(key, version, rows.get(0));
+      }
+      loadVersions.remove(key, version);
+      if (throwable != null) {
+        throw throwable instanceof CompletionException completionException ?
+          completionException : new CompletionException(throwable);
+      }
+      return rows.stream().findFirst();
+    });
+  }
+
+  private Optional<ByteBuffer> promoteSpilled(Object key) {
+    var spilled = spill.find(key);
+    if (spilled.isEmpty()) {
+      return spilled;
+    }
+    var record = new byte[spilled.get().remaining()];
+    spilled.get().duplicate().get(record);
+    spill.remove(key);
+    primary.put(key, record);
+    return spilled;
+  }
+
+  /**
+   * Every load registers a new version of its key and every invalidation
+   * removes it. The version is checked under the lock of the invalidation,
+   * so a row that was loaded before a write is never stored after it
+   */
+  private void store(Object key, long version, DatabaseRow row) {
+    byte[] record;
+    try {
+      record = DatabaseValueSerializer.serialize(key, row.values());
+    } catch (IllegalArgumentException exception) {
+      unsupportedRows.increment();
+      return;
+    }
+    synchronized (storeLock) {
+      if (loadVersions.remove(key, version)) {
+        primary.put(key, record);
+      }
+    }
+  }
+
+  private void spill(Object key, ByteBuffer record) {
+    var bytes = new byte[record.remaining()];
+    record.duplicate().get(bytes);
+    spill.put(key, bytes);
+  }
+
+  private DatabaseRow createRow(ByteBuffer record) {
+    return DatabaseRow.of(DatabaseValueSerializer.deserializeValues(record));
+  }
+
+  /**
+   * Is used to remove the row of a key
+   * @param key The cache key of the row
+   */
+  public void invalidate(Object key) {
+    synchronized (storeLock) {
+      loadVersions.remove(key);
+      primary.remove(key);
+      if (spill != null) {
+        spill.remove(key);
+      }
+    }
+  }
+
+  public void invalidateAll() {
+    synchronized (storeLock) {
+      loadVersions.clear();
+      primary.clear();
+      if (spill != null) {
+        spill.clear();
+      }
+    }
+  }
+
+  @Override
+  public void rowsInserted(DatabaseTable table, Collection<DatabaseRow> rows) {
+    for (var row : rows) {
+      invalidate(DatabaseRowKey.of(table, row));
+    }
+  }
+
+  @Override
+  public void rowsUpdated(DatabaseTable table, DatabaseCondition condition) {
+    invalidateCondition(condition);
+  }
+
+  @Override
+  public void rowsDeleted(DatabaseTable table, DatabaseCondition condition) {
+    invalidateCondition(condition);
+  }
+
+  @Override
+  public void tableTruncated(DatabaseTable table) {
+    invalidateAll();
+  }
+
+  @Override
+  public void writesReplayed(DatabaseTable table) {
+    invalidateAll();
+  }
+
+  private void invalidateCondition(DatabaseCondition condition) {
+    DatabaseRowKey.of(table, condition)
+      .ifPresentOrElse(this::invalidate, this::invalidateAll);
+  }
+
+  /**
+   * Moves all rows from direct memory into the spill file and writes the
+   * index of the spill file for the warm start of the next process
+   * @throws IOException If the index cannot be written
+   */
+  @Override
+  public void close() throws IOException {
+    if (spill == null) {
+      primary.clear();
+      return;
+    }
+    primary.forEach(this::spill);
+    primary.clear();
+    spill.writeIndex(indexFile);
+  }
+
+  /**
+   * The store in direct memory
+   * @return The primary store
+   */
+  public DatabaseSlabStore primaryStore() {
+    return primary;
+  }
+
+  /**
+   * The store in the memory mapped spill file
+   * @return The spill store if a spill file is configured
+   */
+  public Optional<DatabaseSlabStore> spillStore() {
+    return Optional.ofNullable(spill);
+  }
+
+  /**
+   * The number of rows that were loaded from the table
+   * @return The load count
+   */
+  public long loadCount() {
+    return loads.sum();
+  }
+
+  /**
+   * The number of rows that could not be cached, because they contain
+   * values that cannot be serialized
+   * @return The number of unsupported rows
+   */
+  public long unsupportedRowCount() {
+    return unsupportedRows.sum();
+  }
+}
@@ -0,0 +1,304 @@
+package de.lukasbreuer.cassandra.orm.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import de.lukasbreuer.cassandra.orm.DatabaseRow;
+import de.lukasbreuer.cassandra.orm.DatabaseTable;
+import de.lukasbreuer.cassandra.orm.condition.DatabaseCondition;
+import de.lukasbreuer.cassandra.orm.listener.DatabaseTableListener;
+import de.lukasbreuer.cassandra.orm.metric.DatabaseLatencyHistogram;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * Caches single rows by their full primary key. Rows are loaded on the first
+ * read, reloaded in the background once they reach the refresh age and
+ * invalidated by the writes of the table. Missing rows are cached as well, so
+ * that repeated existence checks of absent keys are served from memory.
+ * Callers always receive copies of the cached rows
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DatabaseRowCache implements DatabaseTableListener {
+  private static final int ENTRY_OVERHEAD = 64;
+  private static final int VALUE_OVERHEAD = 16;
+
+  public static DatabaseRowCache create(
+    DatabaseTable table, DatabaseRowCacheOptions options
+  ) {
+    return create(table, options, (key, condition) ->
+      loadRow(table, key, condition));
+  }
+
+  static DatabaseRowCache create(
+    DatabaseTable table, DatabaseRowCacheOptions options,
+    BiFunction<Object, DatabaseCondition,
+      CompletableFuture<Optional<DatabaseRow>>> loader
+  ) {
+    var builder = CacheBuilder.newBuilder()
+      .expireAfterWrite(options.timeToLive())
+      .recordStats();
+    if (options.isWeighted()) {
+      builder.maximumWeight(options.maximumWeight())
+        .weigher((Object key, Entry entry) -> entry.weight());
+    } else {
+      builder.maximumSize(options.maximumSize());
+    }
+    return new DatabaseRowCache(table, options, loader, builder.build());
+  }
+
+  /**
+   * Rows are loaded through the off-heap row cache if it is enabled, which
+   * makes it the second level of this cache
+   */
+  private static CompletableFuture<Optional<DatabaseRow>> loadRow(
+    DatabaseTable table, Object key, DatabaseCondition condition
+  ) {
+    var secondLevel = table.offHeapRowCache();
+    if (secondLevel.isPresent()) {
+      return secondLevel.get().find(key, condition);
+    }
+    return table.selectRows(condition).thenApply(rows ->
+      rows.stream().findFirst().map(DatabaseRow::copy));
+  }
+
+  private final DatabaseTable table;
+  private final DatabaseRowCacheOptions options;
+  private final BiFunction<Object, DatabaseCondition,
+    CompletableFuture<Optional<DatabaseRow>>> loader;
+  private final Cache<Object, Entry> entries;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder refreshes = new LongAdder();
+  private final LongAdder loadFailures = new LongAdder();
+  private final DatabaseLatencyHistogram loadLatency =
+    DatabaseLatencyHistogram.create();
+
+  /**
+   * Is used to build the cache key of a condition. Only conditions that
+   * compare every key column for equality address a single cacheable row
+   * @param condition The condition with which the row can be found
+   * @return The key if the condition addresses a single row
+   */
+  public Optional<Object> key(DatabaseCondition condition) {
+    return DatabaseRowKey.of(table, condition);
+  }
+
+  /**
+   * Is used to find the row of a key, either from the cache or by loading it
+   * @param key The cache key of the row
+   * @param condition The condition with which the row can be loaded
+   * @return The future that contains a copy of the row if it exists
+   */
+  public CompletableFuture<Optional<DatabaseRow>> find(
+    Object key, DatabaseCondition condition
+  ) {
+    var entry = entries.getIfPresent(key);
+    if (entry == null) {
+      misses.increment();
+      var created = new Entry();
+      entry = entries.asMap().putIfAbsent(key, created);
+      if (entry == null) {
+        entry = created;
+        load(key, created, condition, false);
+      }
+    } else {
+      hits.increment();
+      refreshIfOld(key, entry, condition);
+    }
+    return entry.result.thenApply(row -> row.map(DatabaseRow::copy));
+  }
+
+  private void refreshIfOld(
+    Object key, Entry entry, DatabaseCondition condition
+  ) {
+    if (!options.isRefreshing() || !entry.result.isDone() ||
+      System.nanoTime() - entry.loadedAt < options.refreshAfter().toNanos() ||
+      !entry.refreshing.compareAndSet(false, true)
+    ) {
+      return;
+    }
+    refreshes.increment();
+    load(key, entry, condition, true);
+  }
+
+  /**
+   * A load only becomes visible if its entry is still the cached entry of
+   * the key once the load completes, so that a write which invalidated the
+   * key while the load was in flight is never overridden by a stale row
+   */
+  private void load(
+    Object key, Entry entry, DatabaseCondition condition, boolean refresh
+  ) {
+    var start = System.nanoTime();
+    loader.apply(key, condition).whenComplete((row, throwable) -> {
+      loadLatency.record(System.nanoTime() - start);
+      if (throwable != null) {
+        loadFailures.increment();
+        if (refresh) {
+          entry.refreshing.set(false);
+        } else {
+          entries.asMap().remove(key, entry);
+          entry.result.completeExceptionally(throwable);
+        }
+        return;
+      }
+      if (refresh) {
+        var refreshed = new Entry();
+        refreshed.complete(row);
+        entries.asMap().replace(key, entry, refreshed);
+        return;
+      }
+      entry.complete(row);
+      entries.asMap().replace(key, entry, entry);
+    });
+  }
+
+  /**
+   * Is used to remove the row of a key
+   * @param key The cache key of the row
+   */
+  public void invalidate(Object key) {
+    entries.invalidate(key);
+  }
+
+  public void invalidateAll() {
+    entries.invalidateAll();
+  }
+
+  @Override
+  public void rowsInserted(DatabaseTable table, Collection<DatabaseRow> rows) {
+    for (var row : rows) {
+      invalidate(DatabaseRowKey.of(table, row));
+    }
+  }
+
+  @Override
+  public void rowsUpdated(DatabaseTable table, DatabaseCondition condition) {
+    invalidateCondition(condition);
+  }
+
+  @Override
+  public void rowsDeleted(DatabaseTable table, DatabaseCondition condition) {
+    invalidateCondition(condition);
+  }
+
+  @Override
+  public void tableTruncated(DatabaseTable table) {
+    invalidateAll();
+  }
+
+  @Override
+  public void writesReplayed(DatabaseTable table) {
+    invalidateAll();
+  }
+
+  private void invalidateCondition(DatabaseCondition condition) {
+    key(condition).ifPresentOrElse(this::invalidate, this::invalidateAll);
+  }
+
+  /**
+   * The share of reads that were served by the cache
+   * @return The hit ratio between zero and one
+   */
+  public double hitRatio() {
+    var hitCount = hits.sum();
+    var requestCount = hitCount + misses.sum();
+    return requestCount == 0 ? 1 : (double) hitCount / requestCount;
+  }
+
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  public long missCount() {
+    return misses.sum();
+  }
+
+  public long refreshCount() {
+    return refreshes.sum();
+  }
+
+  public long loadFailureCount() {
+    return loadFailures.sum();
+  }
+
+  public long evictionCount() {
+    return entries.stats().evictionCount();
+  }
+
+  public long size() {
+    return entries.size();
+  }
+
+  /**
+   * The latencies of all loads and refreshes in nanoseconds
+   * @return The load latency histogram
+   */
+  public DatabaseLatencyHistogram loadLatency() {
+    return loadLatency;
+  }
+
+  private static int estimateWeight(Optional<DatabaseRow> row) {
+    if (row.isEmpty()) {
+      return ENTRY_OVERHEAD;
+    }
+    var weight = ENTRY_OVERHEAD;
+    for (var value : row.get().valueView()) {
+      weight += VALUE_OVERHEAD + estimateWeight(value);
+    }
+    return weight;
+  }
+
+  private static int estimateWeight(Object value) {
+    if (value instanceof String string) {
+      return string.length() * 2;
+    }
+    if (value instanceof ByteBuffer buffer) {
+      return buffer.remaining();
+    }
+    if (value instanceof Collection<?> collection) {
+      var weight = 0;
+      for (var element : collection) {
+        weight += VALUE_OVERHEAD + estimateWeight(element);
+      }
+      return weight;
+    }
+    if (value instanceof Map<?, ?> map) {
+      var weight = 0;
+      for (var element : map.entrySet()) {
+        weight += VALUE_OVERHEAD * 2 + estimateWeight(element.getKey()) +
+          estimateWeight(element.getValue());
+      }
+      return weight;
+    }
+    return 8;
+  }
+
+  private static final class Entry {
+    private final CompletableFuture<Optional<DatabaseRow>> result =
+      new CompletableFuture<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile long loadedAt;
+    private volatile int weight = ENTRY_OVERHEAD;
+
+    private void complete(Optional<DatabaseRow> row) {
+      weight = estimateWeight(row);
+      loadedAt = System.nanoTime();
+      result.complete(row);
+    }
+
+    private int weight() {
+      return weight;
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package de.lukasbreuer.cassandra.orm.cache;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.time.Duration;
+
+@Getter
+@Accessors(fluent = true)
+@RequiredArgsConstructor(staticName = "create")
+public final class DatabaseRowCacheOptions {
+  private static final long DEFAULT_MAXIMUM_SIZE = 10000;
+  private static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(10);
+  private static final Duration DEFAULT_REFRESH_AFTER = Duration.ofMinutes(5);
+
+  public static DatabaseRowCacheOptions defaults() {
+    return create(DEFAULT_MAXIMUM_SIZE, 0, DEFAULT_TIME_TO_LIVE,
+      DEFAULT_REFRESH_AFTER);
+  }
+
+  /**
+   * The maximum number of cached rows, only used without a maximum weight
+   */
+  private final long maximumSize;
+  /**
+   * The maximum estimated number of bytes of all cached rows, a non positive
+   * value limits the cache by its size instead
+   */
+  private final long maximumWeight;
+  private final Duration timeToLive;
+  /**
+   * The age after which a read reloads the row in the background while the
+   * cached row is still served, a zero duration disables refreshing
+   */
+  private final Duration refreshAfter;
+
+  public boolean isWeighted() {
+    return maximumWeight > 0;
+  }
+
+  public boolean isRefreshing() {
+    return !refreshAfter.isZero() && !refreshAfter.isNegative();
+  }
+}
@@ -0,0 +1,85 @@
+package de.lukasbreuer.cassandra.orm.cache;
+
+import de.lukasbreuer.cassandra.orm.DatabaseRow;
+import de.lukasbreuer.cassandra.orm.DatabaseTable;
+import de.lukasbreuer.cassandra.orm.condition.DatabaseCondition;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Builds the cache keys of rows. A row of a table with a single key column
+ * is identified by the value of that column, a row of a table with a
+ * composite key by the list of all key column values
+ */
+public final class DatabaseRowKey {
+  private DatabaseRowKey() {
+  }
+
+  /**
+   * Is used to build the key of a condition. Only conditions that compare
+   * every key column for equality address a single row
+   * @param table The table of the row
+   * @param condition The condition with which the row can be found
+   * @return The key if the condition addresses a single row
+   */
+  public static Optional<Object> of(
+    DatabaseTable table, DatabaseCondition condition
+  ) {
+    if (condition.isFilteringAllowed()) {
+      return Optional.empty();
+    }
+    var keyColumns = table.statementTemplates().keyColumns();
+    var comparisons = condition.comparisons();
+    if (keyColumns.isEmpty() || comparisons.size() != keyColumns.size()) {
+      return Optional.empty();
+    }
+    var values = new Object[keyColumns.size()];
+    for (var comparison : comparisons) {
+      if (!comparison.isEquals() || comparison.value() == null) {
+        return Optional.empty();
+      }
+      var index = findKeyIndex(table, comparison.column());
+      if (index < 0 || values[index] != null) {
+        return Optional.empty();
+      }
+      values[index] = comparison.value();
+    }
+    return Optional.of(of(values));
+  }
+
+  /**
+   * Is used to build the key of a complete row
+   * @param table The table of the row
+   * @param row The row with the values of all columns
+   * @return The key of the row
+   */
+  public static Object of(DatabaseTable table, DatabaseRow row) {
+    var columns = table.columns();
+    var keyColumns = table.statementTemplates().keyColumns();
+    var key = new Object[keyColumns.size()];
+    for (var i = 0; i < keyColumns.size(); i++) {
+      key[i] = row.value(columns.indexOf(keyColumns.get(i)));
+    }
+    return of(key);
+  }
+
+  private static int findKeyIndex(DatabaseTable table, String column) {
+    var keyColumns = table.statementTemplates().keyColumns();
+    for (var i = 0; i < keyColumns.size(); i++) {
+      if (keyColumns.get(i).name().equals(column)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Is used to build the key of the values of all key columns
+   * @param keyValues The values in the order of the key columns
+   * @return The key of the row
+   */
+  public static Object of(Object[] keyValues) {
+    return keyValues.length == 1 ? keyValues[0] : Arrays.asList(keyValues);
+  }
+}
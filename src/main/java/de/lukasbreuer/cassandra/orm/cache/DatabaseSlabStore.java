@@ -0,0 +1,486 @@
+package de.lukasbreuer.cassandra.orm.cache;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Stores records in the chunks of a memory region, which is either direct
+ * memory or a memory mapped file. Like the slab allocator of memcached the
+ * region is split into pages, every page is assigned to a slab class on
+ * demand and split into the equally sized chunks of its class. Every class
+ * evicts with its own segmented LRU: new records enter the probationary
+ * segment and are promoted to the protected segment on their second access.
+ * <p>
+ * Lookups return heap copies of the records, which are taken while the store
+ * is locked. A freed chunk can therefore be reused right away, even by the
+ * put that evicted its record
+ */
+public final class DatabaseSlabStore {
+  private static final int INDEX_MAGIC = 0x534c4142;
+  private static final int INDEX_VERSION = 2;
+  private static final double PROTECTED_RATIO = 0.8;
+  private static final int CHUNK_ALIGNMENT = 8;
+
+  public static DatabaseSlabStore create(
+    ByteBuffer region, int pageSize, int minimumChunkSize,
+    double growthFactor, Duration timeToLive
+  ) {
+    return new DatabaseSlabStore(region, pageSize,
+      calculateChunkSizes(pageSize, minimumChunkSize, growthFactor),
+      timeToLive.toMillis());
+  }
+
+  private static int[] calculateChunkSizes(
+    int pageSize, int minimumChunkSize, double growthFactor
+  ) {
+    List<Integer> chunkSizes = Lists.newArrayList();
+    var chunkSize = align(Math.max(CHUNK_ALIGNMENT, minimumChunkSize));
+    while (chunkSize < pageSize / 2) {
+      chunkSizes.add(chunkSize);
+      chunkSize = align(Math.max(chunkSize + CHUNK_ALIGNMENT,
+        (int) Math.ceil(chunkSize * growthFactor)));
+    }
+    chunkSizes.add(pageSize);
+    return chunkSizes.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  private static int align(int size) {
+    return (size + CHUNK_ALIGNMENT - 1) / CHUNK_ALIGNMENT * CHUNK_ALIGNMENT;
+  }
+
+  private final ByteBuffer region;
+  private final int pageSize;
+  private final int[] chunkSizes;
+  private final long timeToLiveMillis;
+  private final int[] pageClasses;
+  private final SlabClass[] classes;
+  private final Map<Object, Location> locations = Maps.newHashMap();
+  private BiConsumer<Object, ByteBuffer> evictionListener = (key, record) -> {};
+  private int nextPage;
+  private long hits;
+  private long misses;
+  private long evictions;
+  private long rejections;
+  private long usedBytes;
+
+  private DatabaseSlabStore(
+    ByteBuffer region, int pageSize, int[] chunkSizes, long timeToLiveMillis
+  ) {
+    this.region = region;
+    this.pageSize = pageSize;
+    this.chunkSizes = chunkSizes;
+    this.timeToLiveMillis = timeToLiveMillis;
+    this.pageClasses = new int[region.capacity() / pageSize];
+    Arrays.fill(pageClasses, -1);
+    this.classes = new SlabClass[chunkSizes.length];
+    for (var i = 0; i < chunkSizes.length; i++) {
+      classes[i] = new SlabClass(chunkSizes[i]);
+    }
+  }
+
+  /**
+   * Is used to register the listener that receives every evicted record
+   * before its chunk is released. The record is a slice of the region that
+   * must not be kept after the listener returns
+   * @param evictionListener The consumer of the key and the record
+   */
+  public synchronized void updateEvictionListener(
+    BiConsumer<Object, ByteBuffer> evictionListener
+  ) {
+    this.evictionListener = evictionListener;
+  }
+
+  /**
+   * Is used to store the record of a key, replacing a previous record
+   * @param key The key of the record
+   * @param record The record
+   * @return Whether the record could be stored
+   */
+  public synchronized boolean put(Object key, byte[] record) {
+    remove(key);
+    var classIndex = findClass(record.length);
+    var offset = classIndex < 0 ? -1 : allocate(classes[classIndex]);
+    if (offset < 0) {
+      rejections++;
+      return false;
+    }
+    region.put(offset, record);
+    var location = new Location(classIndex, offset, record.length,
+      checksum(offset, record.length), System.currentTimeMillis());
+    locations.put(key, location);
+    classes[classIndex].probation.put(key, location);
+    usedBytes += record.length;
+    return true;
+  }
+
+  /**
+   * Is used to find the record of a key
+   * @param key The key of the record
+   * @return A read-only copy of the record if it is stored
+   */
+  public synchronized Optional<ByteBuffer> find(Object key) {
+    var location = locations.get(key);
+    if (location != null && isExpired(location)) {
+      remove(key);
+      location = null;
+    }
+    if (location == null) {
+      misses++;
+      return Optional.empty();
+    }
+    hits++;
+    promote(key, location);
+    var record = new byte[location.length];
+    region.get(location.offset, record);
+    return Optional.of(ByteBuffer.wrap(record).asReadOnlyBuffer());
+  }
+
+  /**
+   * Is used to remove the record of a key
+   * @param key The key of the record
+   * @return Whether a record was removed
+   */
+  public synchronized boolean remove(Object key) {
+    var location = locations.remove(key);
+    if (location == null) {
+      return false;
+    }
+    var slabClass = classes[location.classIndex];
+    slabClass.probation.remove(key);
+    slabClass.protectedEntries.remove(key);
+    release(slabClass, location);
+    return true;
+  }
+
+  public synchronized void clear() {
+    for (var key : List.copyOf(locations.keySet())) {
+      remove(key);
+    }
+  }
+
+  /**
+   * Is used to visit all records from the least to the most recently used.
+   * The records are slices of the region that must not be kept after the
+   * visitor returns
+   * @param visitor The consumer of the keys and records
+   */
+  public synchronized void forEach(BiConsumer<Object, ByteBuffer> visitor) {
+    for (var slabClass : classes) {
+      slabClass.probation.forEach((key, location) ->
+        visitor.accept(key, slice(location)));
+      slabClass.protectedEntries.forEach((key, location) ->
+        visitor.accept(key, slice(location)));
+    }
+  }
+
+  private boolean isExpired(Location location) {
+    return timeToLiveMillis > 0 &&
+      System.currentTimeMillis() - location.storedAt > timeToLiveMillis;
+  }
+
+  private int findClass(int length) {
+    for (var i = 0; i < chunkSizes.length; i++) {
+      if (length <= chunkSizes[i]) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private int allocate(SlabClass slabClass) {
+    if (!slabClass.freeChunks.isEmpty()) {
+      return slabClass.freeChunks.poll();
+    }
+    if (nextPage < pageClasses.length) {
+      assignPage(nextPage++, slabClass);
+      return slabClass.freeChunks.poll();
+    }
+    return evict(slabClass) ? slabClass.freeChunks.poll() : -1;
+  }
+
+  private void assignPage(int page, SlabClass slabClass) {
+    pageClasses[page] = indexOf(slabClass);
+    var chunksPerPage = pageSize / slabClass.chunkSize;
+    for (var i = 0; i < chunksPerPage; i++) {
+      slabClass.freeChunks.add(page * pageSize + i * slabClass.chunkSize);
+    }
+    slabClass.chunkCount += chunksPerPage;
+  }
+
+  private int indexOf(SlabClass slabClass) {
+    for (var i = 0; i < classes.length; i++) {
+      if (classes[i] == slabClass) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private boolean evict(SlabClass slabClass) {
+    var segment = slabClass.probation.isEmpty() ?
+      slabClass.protectedEntries : slabClass.probation;
+    if (segment.isEmpty()) {
+      return false;
+    }
+    var eldest = segment.entrySet().iterator().next();
+    var key = eldest.getKey();
+    var location = eldest.getValue();
+    evictionListener.accept(key, slice(location));
+    segment.remove(key);
+    locations.remove(key);
+    release(slabClass, location);
+    evictions++;
+    return true;
+  }
+
+  private void release(SlabClass slabClass, Location location) {
+    usedBytes -= location.length;
+    slabClass.freeChunks.add(location.offset);
+  }
+
+  private void promote(Object key, Location location) {
+    var slabClass = classes[location.classIndex];
+    if (slabClass.protectedEntries.get(key) != null) {
+      return;
+    }
+    slabClass.probation.remove(key);
+    slabClass.protectedEntries.put(key, location);
+    var protectedLimit = Math.max(1,
+      (int) (slabClass.chunkCount * PROTECTED_RATIO));
+    while (slabClass.protectedEntries.size() > protectedLimit) {
+      var eldest = slabClass.protectedEntries.entrySet().iterator().next();
+      slabClass.protectedEntries.remove(eldest.getKey());
+      slabClass.probation.put(eldest.getKey(), eldest.getValue());
+    }
+  }
+
+  private ByteBuffer slice(Location location) {
+    return region.slice(location.offset, location.length).asReadOnlyBuffer();
+  }
+
+  private int checksum(int offset, int length) {
+    var crc = new CRC32();
+    crc.update(region.slice(offset, length));
+    return (int) crc.getValue();
+  }
+
+  /**
+   * Is used to write the layout and the records of the store into an index
+   * file, so that a store on the same memory mapped file can be restored
+   * after a restart
+   * @param indexFile The path of the index file
+   * @throws IOException If the index cannot be written
+   */
+  public synchronized void writeIndex(Path indexFile) throws IOException {
+    if (region instanceof MappedByteBuffer mappedRegion) {
+      mappedRegion.force();
+    }
+    try (var output = new DataOutputStream(new BufferedOutputStream(
+      Files.newOutputStream(indexFile)))
+    ) {
+      output.writeInt(INDEX_MAGIC);
+      output.writeInt(INDEX_VERSION);
+      output.writeLong(System.currentTimeMillis());
+      output.writeInt(region.capacity());
+      output.writeInt(pageSize);
+      output.writeInt(chunkSizes.length);
+      for (var chunkSize : chunkSizes) {
+        output.writeInt(chunkSize);
+      }
+      output.writeInt(nextPage);
+      for (var page = 0; page < nextPage; page++) {
+        output.writeInt(pageClasses[page]);
+      }
+      output.writeInt(locations.size());
+      for (var slabClass : classes) {
+        writeLocations(output, slabClass.probation);
+        writeLocations(output, slabClass.protectedEntries);
+      }
+    }
+  }
+
+  private void writeLocations(
+    DataOutputStream output, Map<Object, Location> segment
+  ) throws IOException {
+    for (var location : segment.values()) {
+      output.writeInt(location.classIndex);
+      output.writeInt(location.offset);
+      output.writeInt(location.length);
+      output.writeInt(location.checksum);
+      output.writeLong(location.storedAt);
+    }
+  }
+
+  /**
+   * Is used to restore the records of an index file. The index is only used
+   * if it matches the layout of this store and is not older than the
+   * maximum age. Records whose checksum does not match are dropped
+   * @param indexFile The path of the index file
+   * @param maximumAge The maximum age of the index
+   * @return Whether the index was restored
+   * @throws IOException If the index cannot be read
+   */
+  public synchronized boolean restoreIndex(Path indexFile, Duration maximumAge)
+    throws IOException
+  {
+    try (var input = new DataInputStream(new BufferedInputStream(
+      Files.newInputStream(indexFile)))
+    ) {
+      if (input.readInt() != INDEX_MAGIC || input.readInt() != INDEX_VERSION ||
+        System.currentTimeMillis() - input.readLong() > maximumAge.toMillis() ||
+        input.readInt() != region.capacity() || input.readInt() != pageSize ||
+        !Arrays.equals(readInts(input, input.readInt()), chunkSizes)
+      ) {
+        return false;
+      }
+      var assignedPages = readInts(input, input.readInt());
+      List<Location> restoredLocations = Lists.newArrayList();
+      var entryCount = input.readInt();
+      for (var i = 0; i < entryCount; i++) {
+        restoredLocations.add(new Location(input.readInt(), input.readInt(),
+          input.readInt(), input.readInt(), input.readLong()));
+      }
+      restore(assignedPages, restoredLocations);
+      return true;
+    }
+  }
+
+  private boolean isValid(Location location, int[] assignedPages) {
+    if (location.classIndex < 0 || location.classIndex >= classes.length ||
+      location.offset < 0 || location.length < 0
+    ) {
+      return false;
+    }
+    var page = location.offset / pageSize;
+    var chunkSize = chunkSizes[location.classIndex];
+    return page < assignedPages.length &&
+      assignedPages[page] == location.classIndex &&
+      location.offset % pageSize % chunkSize == 0 &&
+      location.offset % pageSize + chunkSize <= pageSize &&
+      location.length <= chunkSize;
+  }
+
+  private int[] readInts(DataInputStream input, int length) throws IOException {
+    var values = new int[length];
+    for (var i = 0; i < length; i++) {
+      values[i] = input.readInt();
+    }
+    return values;
+  }
+
+  private void restore(int[] assignedPages, List<Location> restoredLocations) {
+    clear();
+    for (var slabClass : classes) {
+      slabClass.freeChunks.clear();
+      slabClass.chunkCount = 0;
+    }
+    Set<Integer> usedChunks = Sets.newHashSet();
+    for (var location : restoredLocations) {
+      if (!isValid(location, assignedPages) || isExpired(location) ||
+        checksum(location.offset, location.length) != location.checksum ||
+        !usedChunks.add(location.offset)
+      ) {
+        continue;
+      }
+      var key = DatabaseValueSerializer.deserializeKey(slice(location));
+      locations.put(key, location);
+      classes[location.classIndex].probation.put(key, location);
+      usedBytes += location.length;
+    }
+    Arrays.fill(pageClasses, -1);
+    for (var page = 0; page < assignedPages.length; page++) {
+      assignPage(page, classes[assignedPages[page]]);
+    }
+    nextPage = assignedPages.length;
+    for (var slabClass : classes) {
+      slabClass.freeChunks.removeIf(usedChunks::contains);
+    }
+  }
+
+  public synchronized long hitCount() {
+    return hits;
+  }
+
+  public synchronized long missCount() {
+    return misses;
+  }
+
+  public synchronized long evictionCount() {
+    return evictions;
+  }
+
+  /**
+   * The number of records that could not be stored, because they are larger
+   * than a page or their slab class had nothing to evict
+   * @return The rejection count
+   */
+  public synchronized long rejectionCount() {
+    return rejections;
+  }
+
+  public synchronized long usedBytes() {
+    return usedBytes;
+  }
+
+  public synchronized int size() {
+    return locations.size();
+  }
+
+  public int capacity() {
+    return region.capacity();
+  }
+
+  private static final class SlabClass {
+    private final int chunkSize;
+    private final Deque<Integer> freeChunks = new ArrayDeque<>();
+    private final LinkedHashMap<Object, Location> probation =
+      new LinkedHashMap<>(16, 0.75F, true);
+    private final LinkedHashMap<Object, Location> protectedEntries =
+      new LinkedHashMap<>(16, 0.75F, true);
+    private int chunkCount;
+
+    private SlabClass(int chunkSize) {
+      this.chunkSize = chunkSize;
+    }
+  }
+
+  private static final class Location {
+    private final int classIndex;
+    private final int offset;
+    private final int length;
+    private final int checksum;
+    private final long storedAt;
+
+    private Location(
+      int classIndex, int offset, int length, int checksum, long storedAt
+    ) {
+      this.classIndex = classIndex;
+      this.offset = offset;
+      this.length = length;
+      this.checksum = checksum;
+      this.storedAt = storedAt;
+    }
+  }
+}
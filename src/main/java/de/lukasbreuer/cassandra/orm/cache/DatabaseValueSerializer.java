@@ -0,0 +1,254 @@
+package de.lukasbreuer.cassandra.orm.cache;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import de.lukasbreuer.cassandra.orm.statement.DatabaseUnset;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Serializes cache keys and row values into a compact binary record. Blobs
+ * are deserialized as read-only slices of the record, so reading a record
+ * never copies its blobs
+ */
+public final class DatabaseValueSerializer {
+  private static final byte NULL = 0;
+  private static final byte STRING = 1;
+  private static final byte INTEGER = 2;
+  private static final byte LONG = 3;
+  private static final byte DOUBLE = 4;
+  private static final byte FLOAT = 5;
+  private static final byte BOOLEAN = 6;
+  private static final byte SHORT = 7;
+  private static final byte BYTE = 8;
+  private static final byte UUID_VALUE = 9;
+  private static final byte BLOB = 10;
+  private static final byte INSTANT = 11;
+  private static final byte LOCAL_DATE = 12;
+  private static final byte BIG_DECIMAL = 13;
+  private static final byte BIG_INTEGER = 14;
+  private static final byte LIST = 15;
+  private static final byte SET = 16;
+  private static final byte MAP = 17;
+  private static final byte UNSET = 18;
+
+  private DatabaseValueSerializer() {
+  }
+
+  /**
+   * Is used to serialize a key and the values of its row into one record
+   * @param key The cache key of the row
+   * @param values The values of the row
+   * @return The record
+   * @throws IllegalArgumentException If a value has an unsupported type
+   */
+  public static byte[] serialize(Object key, Object[] values) {
+    var bytes = new ByteArrayOutputStream();
+    var output = new DataOutputStream(bytes);
+    try {
+      write(output, key);
+      output.writeInt(values.length);
+      for (var value : values) {
+        write(output, value);
+      }
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Is used to read the key of a record
+   * @param record The record, positioned at its start
+   * @return The key
+   */
+  public static Object deserializeKey(ByteBuffer record) {
+    return read(record.duplicate());
+  }
+
+  /**
+   * Is used to read the values of a record
+   * @param record The record, positioned at its start
+   * @return The values of the row
+   */
+  public static Object[] deserializeValues(ByteBuffer record) {
+    var input = record.duplicate();
+    read(input);
+    var values = new Object[input.getInt()];
+    for (var i = 0; i < values.length; i++) {
+      values[i] = read(input);
+    }
+    return values;
+  }
+
+  private static void write(DataOutputStream output, Object value)
+    throws IOException
+  {
+    if (value == null) {
+      output.writeByte(NULL);
+    } else if (value == DatabaseUnset.VALUE) {
+      output.writeByte(UNSET);
+    } else if (value instanceof String string) {
+      output.writeByte(STRING);
+      writeBytes(output, string.getBytes(StandardCharsets.UTF_8));
+    } else if (value instanceof Integer number) {
+      output.writeByte(INTEGER);
+      output.writeInt(number);
+    } else if (value instanceof Long number) {
+      output.writeByte(LONG);
+      output.writeLong(number);
+    } else if (value instanceof Double number) {
+      output.writeByte(DOUBLE);
+      output.writeDouble(number);
+    } else if (value instanceof Float number) {
+      output.writeByte(FLOAT);
+      output.writeFloat(number);
+    } else if (value instanceof Boolean bool) {
+      output.writeByte(BOOLEAN);
+      output.writeBoolean(bool);
+    } else if (value instanceof Short number) {
+      output.writeByte(SHORT);
+      output.writeShort(number);
+    } else if (value instanceof Byte number) {
+      output.writeByte(BYTE);
+      output.writeByte(number);
+    } else if (value instanceof UUID uuid) {
+      output.writeByte(UUID_VALUE);
+      output.writeLong(uuid.getMostSignificantBits());
+      output.writeLong(uuid.getLeastSignificantBits());
+    } else if (value instanceof ByteBuffer buffer) {
+      output.writeByte(BLOB);
+      var blob = new byte[buffer.remaining()];
+      buffer.duplicate().get(blob);
+      writeBytes(output, blob);
+    } else if (value instanceof Instant instant) {
+      output.writeByte(INSTANT);
+      output.writeLong(instant.getEpochSecond());
+      output.writeInt(instant.getNano());
+    } else if (value instanceof LocalDate date) {
+      output.writeByte(LOCAL_DATE);
+      output.writeLong(date.toEpochDay());
+    } else if (value instanceof BigDecimal number) {
+      output.writeByte(BIG_DECIMAL);
+      writeBytes(output, number.toString().getBytes(StandardCharsets.UTF_8));
+    } else if (value instanceof BigInteger number) {
+      output.writeByte(BIG_INTEGER);
+      writeBytes(output, number.toByteArray());
+    } else if (value instanceof List<?> list) {
+      output.writeByte(LIST);
+      writeElements(output, list);
+    } else if (value instanceof Set<?> set) {
+      output.writeByte(SET);
+      writeElements(output, set);
+    } else if (value instanceof Map<?, ?> map) {
+      output.writeByte(MAP);
+      output.writeInt(map.size());
+      for (var entry : map.entrySet()) {
+        write(output, entry.getKey());
+        write(output, entry.getValue());
+      }
+    } else {
+      throw new IllegalArgumentException("Values of type " +
+        value.getClass().getName() + " cannot be serialized");
+    }
+  }
+
+  private static void writeBytes(DataOutputStream output, byte[] bytes)
+    throws IOException
+  {
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private static void writeElements(
+    DataOutputStream output, Iterable<?> elements
+  ) throws IOException {
+    List<Object> snapshot = Lists.newArrayList(elements);
+    output.writeInt(snapshot.size());
+    for (var element : snapshot) {
+      write(output, element);
+    }
+  }
+
+  private static Object read(ByteBuffer input) {
+    var type = input.get();
+    return switch (type) {
+      case NULL -> null;
+      case STRING -> new String(readBytes(input), StandardCharsets.UTF_8);
+      case INTEGER -> input.getInt();
+      case LONG -> input.getLong();
+      case DOUBLE -> input.getDouble();
+      case FLOAT -> input.getFloat();
+      case BOOLEAN -> input.get() != 0;
+      case SHORT -> input.getShort();
+      case BYTE -> input.get();
+      case UUID_VALUE -> new UUID(input.getLong(), input.getLong());
+      case BLOB -> readBlob(input);
+      case INSTANT -> Instant.ofEpochSecond(input.getLong(), input.getInt());
+      case LOCAL_DATE -> LocalDate.ofEpochDay(input.getLong());
+      case BIG_DECIMAL ->
+        new BigDecimal(new String(readBytes(input), StandardCharsets.UTF_8));
+      case BIG_INTEGER -> new BigInteger(readBytes(input));
+      case LIST -> readList(input);
+      case SET -> readSet(input);
+      case MAP -> readMap(input);
+      case UNSET -> DatabaseUnset.VALUE;
+      default -> throw new IllegalArgumentException(
+        "Unknown value type " + type);
+    };
+  }
+
+  private static byte[] readBytes(ByteBuffer input) {
+    var bytes = new byte[input.getInt()];
+    input.get(bytes);
+    return bytes;
+  }
+
+  private static ByteBuffer readBlob(ByteBuffer input) {
+    var length = input.getInt();
+    var blob = input.slice(input.position(), length).asReadOnlyBuffer();
+    input.position(input.position() + length);
+    return blob;
+  }
+
+  private static List<Object> readList(ByteBuffer input) {
+    var size = input.getInt();
+    List<Object> list = Lists.newArrayListWithCapacity(size);
+    for (var i = 0; i < size; i++) {
+      list.add(read(input));
+    }
+    return list;
+  }
+
+  private static Set<Object> readSet(ByteBuffer input) {
+    var size = input.getInt();
+    Set<Object> set = Sets.newLinkedHashSetWithExpectedSize(size);
+    for (var i = 0; i < size; i++) {
+      set.add(read(input));
+    }
+    return set;
+  }
+
+  private static Map<Object, Object> readMap(ByteBuffer input) {
+    var size = input.getInt();
+    Map<Object, Object> map = Maps.newLinkedHashMapWithExpectedSize(size);
+    for (var i = 0; i < size; i++) {
+      map.put(read(input), read(input));
+    }
+    return map;
+  }
+}
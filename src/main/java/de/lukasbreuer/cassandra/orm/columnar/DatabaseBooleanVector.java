@@ -0,0 +1,77 @@
+package de.lukasbreuer.cassandra.orm.columnar;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.BitSet;
+
+/**
+ * A column of boolean values, which are stored in a bitmap next to the null
+ * bitmap
+ */
+@Accessors(fluent = true)
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DatabaseBooleanVector implements DatabaseColumnVector {
+  private final BitSet values;
+  private final BitSet nulls;
+  private final int size;
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isNull(int index) {
+    return nulls.get(index);
+  }
+
+  @Override
+  public Object value(int index) {
+    return nulls.get(index) ? null : values.get(index);
+  }
+
+  /**
+   * Is used to read a value without boxing it
+   * @param index The index of the row
+   * @return The value or false if the value is null
+   */
+  public boolean get(int index) {
+    return values.get(index);
+  }
+
+  /**
+   * Is used to find the rows whose value is true
+   * @return The selection of the matching row indexes
+   */
+  public int[] filterTrue() {
+    return values.stream().toArray();
+  }
+
+  public int countTrue() {
+    return values.cardinality();
+  }
+
+  static final class Builder implements DatabaseVectorBuilder {
+    private final BitSet values = new BitSet();
+    private final BitSet nulls = new BitSet();
+    private int size;
+
+    @Override
+    public void append(Row row, int column) {
+      if (row.isNull(column)) {
+        nulls.set(size);
+      } else if (row.getBoolean(column)) {
+        values.set(size);
+      }
+      size++;
+    }
+
+    @Override
+    public DatabaseColumnVector build() {
+      return new DatabaseBooleanVector(values, nulls, size);
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package de.lukasbreuer.cassandra.orm.columnar;
+
+/**
+ * A single column of a row batch. The typed vectors store their values in
+ * primitive arrays or dictionaries, the boxed access is only a fallback
+ */
+public interface DatabaseColumnVector {
+  /**
+   * The number of rows of the vector
+   * @return The size
+   */
+  int size();
+
+  /**
+   * Is used to check whether the value of a row is null
+   * @param index The index of the row
+   * @return Whether the value is null
+   */
+  boolean isNull(int index);
+
+  /**
+   * Is used to read the boxed value of a row
+   * @param index The index of the row
+   * @return The value or null
+   */
+  Object value(int index);
+}
@@ -0,0 +1,164 @@
+package de.lukasbreuer.cassandra.orm.columnar;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * A dictionary encoded column of text or uuid values. Every distinct value is
+ * stored once and the rows refer to it by its code, so that filters evaluate
+ * their predicate once per distinct value and compare codes afterwards
+ * @param <T> The type of the values
+ */
+@Accessors(fluent = true)
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DatabaseDictionaryVector<T> implements DatabaseColumnVector {
+  private static final int NULL_CODE = -1;
+
+  private final List<T> dictionary;
+  private final Map<T, Integer> codesByValue;
+  private final int[] codes;
+  private final int size;
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isNull(int index) {
+    return codes[index] == NULL_CODE;
+  }
+
+  @Override
+  public T value(int index) {
+    var code = codes[index];
+    return code == NULL_CODE ? null : dictionary.get(code);
+  }
+
+  /**
+   * Is used to find the dictionary code of a row
+   * @param index The index of the row
+   * @return The code or -1 if the value is null
+   */
+  public int code(int index) {
+    return codes[index];
+  }
+
+  /**
+   * The distinct values of the column in the order of their codes
+   * @return The dictionary
+   */
+  public List<T> dictionary() {
+    return Collections.unmodifiableList(dictionary);
+  }
+
+  /**
+   * Is used to find the rows whose value equals a value
+   * @param value The value
+   * @return The selection of the matching row indexes
+   */
+  public int[] filterEquals(T value) {
+    var code = codesByValue.get(value);
+    if (code == null) {
+      return new int[0];
+    }
+    return filterCodes(candidate -> candidate == code);
+  }
+
+  /**
+   * Is used to find the rows whose value matches a predicate. The predicate is
+   * evaluated once per distinct value, null values never match
+   * @param predicate The predicate of the values
+   * @return The selection of the matching row indexes
+   */
+  public int[] filter(Predicate<T> predicate) {
+    var matches = new boolean[dictionary.size()];
+    for (var i = 0; i < matches.length; i++) {
+      matches[i] = predicate.test(dictionary.get(i));
+    }
+    return filterCodes(code -> code != NULL_CODE && matches[code]);
+  }
+
+  private int[] filterCodes(CodePredicate predicate) {
+    var selection = new int[size];
+    var selected = 0;
+    for (var i = 0; i < size; i++) {
+      if (predicate.test(codes[i])) {
+        selection[selected++] = i;
+      }
+    }
+    return Arrays.copyOf(selection, selected);
+  }
+
+  /**
+   * Is used to count the rows of every distinct value
+   * @return The counts indexed by the dictionary codes
+   */
+  public int[] countByCode() {
+    var counts = new int[dictionary.size()];
+    for (var i = 0; i < size; i++) {
+      if (codes[i] != NULL_CODE) {
+        counts[codes[i]]++;
+      }
+    }
+    return counts;
+  }
+
+  private interface CodePredicate {
+    boolean test(int code);
+  }
+
+  /**
+   * Reads the value of a column by its primitive index, so that the index is
+   * not boxed for every appended row
+   * @param <T> The type of the values
+   */
+  interface ValueReader<T> {
+    T read(Row row, int column);
+  }
+
+  static final class Builder<T> implements DatabaseVectorBuilder {
+    private final ValueReader<T> reader;
+    private final List<T> dictionary = Lists.newArrayList();
+    private final Map<T, Integer> codesByValue = Maps.newHashMap();
+    private int[] codes;
+    private int size;
+
+    Builder(ValueReader<T> reader, int capacity) {
+      this.reader = reader;
+      this.codes = new int[Math.max(1, capacity)];
+    }
+
+    @Override
+    public void append(Row row, int column) {
+      if (size == codes.length) {
+        codes = Arrays.copyOf(codes, size * 2);
+      }
+      if (row.isNull(column)) {
+        codes[size++] = NULL_CODE;
+        return;
+      }
+      var value = reader.read(row, column);
+      codes[size++] = codesByValue.computeIfAbsent(value, key -> {
+        dictionary.add(key);
+        return dictionary.size() - 1;
+      });
+    }
+
+    @Override
+    public DatabaseColumnVector build() {
+      return new DatabaseDictionaryVector<>(dictionary, codesByValue, codes,
+        size);
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package de.lukasbreuer.cassandra.orm.columnar;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import de.lukasbreuer.cassandra.orm.DatabaseDataType;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.OptionalInt;
+import java.util.function.IntPredicate;
+
+/**
+ * A column of int, smallint or tinyint values. Null values are stored as 0
+ * and are marked in the null bitmap, so that sums need no null checks
+ */
+@Accessors(fluent = true)
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DatabaseIntVector implements DatabaseColumnVector {
+  private final int[] values;
+  private final BitSet nulls;
+  private final int size;
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isNull(int index) {
+    return nulls.get(index);
+  }
+
+  @Override
+  public Object value(int index) {
+    return nulls.get(index) ? null : values[index];
+  }
+
+  /**
+   * Is used to read a value without boxing it
+   * @param index The index of the row
+   * @return The value or 0 if the value is null
+   */
+  public int get(int index) {
+    return values[index];
+  }
+
+  /**
+   * Is used to find the rows whose value matches a predicate. Null values
+   * never match
+   * @param predicate The predicate of the values
+   * @return The selection of the matching row indexes
+   */
+  public int[] filter(IntPredicate predicate) {
+    var selection = new int[size];
+    var selected = 0;
+    for (var i = 0; i < size; i++) {
+      if (!nulls.get(i) && predicate.test(values[i])) {
+        selection[selected++] = i;
+      }
+    }
+    return Arrays.copyOf(selection, selected);
+  }
+
+  public long sum() {
+    long sum = 0;
+    for (var i = 0; i < size; i++) {
+      sum += values[i];
+    }
+    return sum;
+  }
+
+  /**
+   * Is used to sum the values of a selection
+   * @param selection The selected row indexes
+   * @return The sum
+   */
+  public long sum(int[] selection) {
+    long sum = 0;
+    for (var index : selection) {
+      sum += values[index];
+    }
+    return sum;
+  }
+
+  public OptionalInt min() {
+    return aggregate(null, true);
+  }
+
+  public OptionalInt min(int[] selection) {
+    return aggregate(selection, true);
+  }
+
+  public OptionalInt max() {
+    return aggregate(null, false);
+  }
+
+  public OptionalInt max(int[] selection) {
+    return aggregate(selection, false);
+  }
+
+  private OptionalInt aggregate(int[] selection, boolean minimum) {
+    var count = selection == null ? size : selection.length;
+    var found = false;
+    int result = 0;
+    for (var i = 0; i < count; i++) {
+      var index = selection == null ? i : selection[i];
+      if (nulls.get(index)) {
+        continue;
+      }
+      var value = values[index];
+      if (!found || (minimum ? value < result : value > result)) {
+        result = value;
+        found = true;
+      }
+    }
+    return found ? OptionalInt.of(result) : OptionalInt.empty();
+  }
+
+  static final class Builder implements DatabaseVectorBuilder {
+    private final DatabaseDataType dataType;
+    private final BitSet nulls = new BitSet();
+    private int[] values;
+    private int size;
+
+    Builder(DatabaseDataType dataType, int capacity) {
+      this.dataType = dataType;
+      this.values = new int[Math.max(1, capacity)];
+    }
+
+    @Override
+    public void append(Row row, int column) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      if (row.isNull(column)) {
+        nulls.set(size);
+      } else {
+        values[size] = switch (dataType) {
+          case SMALLINT -> row.getShort(column);
+          case TINYINT -> row.getByte(column);
+          default -> row.getInt(column);
+        };
+      }
+      size++;
+    }
+
+    @Override
+    public DatabaseColumnVector build() {
+      return new DatabaseIntVector(values, nulls, size);
+    }
+  }
+}
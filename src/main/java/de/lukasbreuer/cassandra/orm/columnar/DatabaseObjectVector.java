@@ -0,0 +1,56 @@
+package de.lukasbreuer.cassandra.orm.columnar;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.Arrays;
+
+/**
+ * A column of the types without a specialized vector, whose values are
+ * stored boxed
+ */
+@Accessors(fluent = true)
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DatabaseObjectVector implements DatabaseColumnVector {
+  private final Object[] values;
+  private final int size;
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isNull(int index) {
+    return values[index] == null;
+  }
+
+  @Override
+  public Object value(int index) {
+    return values[index];
+  }
+
+  static final class Builder implements DatabaseVectorBuilder {
+    private Object[] values;
+    private int size;
+
+    Builder(int capacity) {
+      this.values = new Object[Math.max(1, capacity)];
+    }
+
+    @Override
+    public void append(Row row, int column) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = row.getObject(column);
+    }
+
+    @Override
+    public DatabaseColumnVector build() {
+      return new DatabaseObjectVector(values, size);
+    }
+  }
+}
@@ -0,0 +1,159 @@
+package de.lukasbreuer.cassandra.orm.columnar;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.google.common.collect.Lists;
+import de.lukasbreuer.cassandra.orm.DatabaseColumn;
+import de.lukasbreuer.cassandra.orm.DatabaseRow;
+import de.lukasbreuer.cassandra.orm.statement.DatabaseProjection;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The rows of a page in columnar layout. Every selected column is decoded
+ * into a vector that is chosen by the data type of the column, so that
+ * numeric columns are stored in primitive arrays and text or uuid columns
+ * in dictionaries instead of one cell object per value
+ */
+@Accessors(fluent = true)
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DatabaseRowBatch {
+  /**
+   * Is used to decode the current page of a result set. The rows of the
+   * page are consumed
+   * @param projection The projection of the query
+   * @param page The page of the result set
+   * @return The batch of the page
+   */
+  public static DatabaseRowBatch decode(
+    DatabaseProjection projection, AsyncResultSet page
+  ) {
+    return decode(projection, page.currentPage(), page.remaining());
+  }
+
+  /**
+   * Is used to decode rows of the driver
+   * @param projection The projection of the query
+   * @param rows The rows of the driver
+   * @param expectedSize The expected number of rows
+   * @return The batch of the rows
+   */
+  public static DatabaseRowBatch decode(
+    DatabaseProjection projection, Iterable<Row> rows, int expectedSize
+  ) {
+    var builders = new DatabaseVectorBuilder[projection.columnCount()];
+    for (var i = 0; i < builders.length; i++) {
+      builders[i] = createBuilder(projection.findColumn(i).orElse(null),
+        expectedSize);
+    }
+    var rowCount = 0;
+    for (var row : rows) {
+      for (var i = 0; i < builders.length; i++) {
+        builders[i].append(row, i);
+      }
+      rowCount++;
+    }
+    List<DatabaseColumnVector> vectors = Lists.newArrayList();
+    for (var builder : builders) {
+      vectors.add(builder.build());
+    }
+    return new DatabaseRowBatch(projection, rowCount, List.copyOf(vectors));
+  }
+
+  private static DatabaseVectorBuilder createBuilder(
+    DatabaseColumn column, int capacity
+  ) {
+    if (column == null) {
+      return new DatabaseObjectVector.Builder(capacity);
+    }
+    return switch (column.dataType()) {
+      case INT, SMALLINT, TINYINT ->
+        new DatabaseIntVector.Builder(column.dataType(), capacity);
+      case BIGINT, COUNTER -> new DatabaseLongVector.Builder(capacity);
+      case DOUBLE, FLOAT ->
+        new DatabaseDoubleVector.Builder(column.dataType(), capacity);
+      case BOOLEAN -> new DatabaseBooleanVector.Builder();
+      case TEXT, VARCHAR, ASCII ->
+        new DatabaseDictionaryVector.Builder<String>(Row::getString,
+          capacity);
+      case UUID, TIMEUUID ->
+        new DatabaseDictionaryVector.Builder<UUID>(Row::getUuid,
+          capacity);
+      default -> new DatabaseObjectVector.Builder(capacity);
+    };
+  }
+
+  private final DatabaseProjection projection;
+  @Getter
+  private final int rowCount;
+  @Getter
+  private final List<DatabaseColumnVector> vectors;
+
+  public DatabaseColumnVector vector(int index) {
+    return vectors.get(index);
+  }
+
+  /**
+   * Is used to find the vector of a selected column
+   * @param columnName The name of the column
+   * @return The vector of the column
+   */
+  public DatabaseColumnVector vector(String columnName) {
+    var index = projection.indexOf(columnName);
+    if (index < 0) {
+      throw new IllegalArgumentException("The column " + columnName +
+        " is not selected");
+    }
+    return vectors.get(index);
+  }
+
+  public DatabaseIntVector intVector(String columnName) {
+    return vector(columnName, DatabaseIntVector.class);
+  }
+
+  public DatabaseLongVector longVector(String columnName) {
+    return vector(columnName, DatabaseLongVector.class);
+  }
+
+  public DatabaseDoubleVector doubleVector(String columnName) {
+    return vector(columnName, DatabaseDoubleVector.class);
+  }
+
+  public DatabaseBooleanVector booleanVector(String columnName) {
+    return vector(columnName, DatabaseBooleanVector.class);
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> DatabaseDictionaryVector<T> dictionaryVector(String columnName) {
+    return vector(columnName, DatabaseDictionaryVector.class);
+  }
+
+  private <T extends DatabaseColumnVector> T vector(
+    String columnName, Class<T> vectorType
+  ) {
+    var vector = vector(columnName);
+    if (!vectorType.isInstance(vector)) {
+      throw new IllegalArgumentException("The column " + columnName +
+        " is no " + vectorType.getSimpleName());
+    }
+    return vectorType.cast(vector);
+  }
+
+  /**
+   * Is used to assemble a single row of the batch
+   * @param index The index of the row
+   * @return The row
+   */
+  public DatabaseRow row(int index) {
+    var values = new Object[vectors.size()];
+    for (var i = 0; i < values.length; i++) {
+      values[i] = vectors.get(i).value(index);
+    }
+    return DatabaseRow.of(values);
+  }
+}
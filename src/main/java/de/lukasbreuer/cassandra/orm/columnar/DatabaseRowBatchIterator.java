@@ -0,0 +1,49 @@
+package de.lukasbreuer.cassandra.orm.columnar;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import de.lukasbreuer.cassandra.orm.statement.DatabaseProjection;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Iterates the pages of a query as row batches and blocks while the next page
+ * is fetched. The next page is requested before the current page is decoded,
+ * so that fetching and decoding overlap
+ */
+public final class DatabaseRowBatchIterator
+  implements Iterator<DatabaseRowBatch>
+{
+  public static DatabaseRowBatchIterator create(
+    CompletableFuture<AsyncResultSet> firstPage, DatabaseProjection projection
+  ) {
+    return new DatabaseRowBatchIterator(firstPage, projection);
+  }
+
+  private final DatabaseProjection projection;
+  private CompletableFuture<AsyncResultSet> nextPage;
+
+  private DatabaseRowBatchIterator(
+    CompletableFuture<AsyncResultSet> firstPage, DatabaseProjection projection
+  ) {
+    this.nextPage = firstPage;
+    this.projection = projection;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return nextPage != null;
+  }
+
+  @Override
+  public DatabaseRowBatch next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    var currentPage = nextPage.join();
+    nextPage = currentPage.hasMorePages() ?
+      currentPage.fetchNextPage().toCompletableFuture() : null;
+    return DatabaseRowBatch.decode(projection, currentPage);
+  }
+}
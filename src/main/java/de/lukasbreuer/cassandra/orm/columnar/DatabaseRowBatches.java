@@ -0,0 +1,56 @@
+package de.lukasbreuer.cassandra.orm.columnar;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.google.common.collect.Lists;
+import de.lukasbreuer.cassandra.orm.statement.DatabaseProjection;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public final class DatabaseRowBatches {
+  private DatabaseRowBatches() {
+  }
+
+  /**
+   * Is used to create a lazy stream of one batch per page of a query
+   * @param firstPage The future that contains the first page of the query
+   * @param projection The projection of the query
+   * @return The stream of batches
+   */
+  public static Stream<DatabaseRowBatch> stream(
+    CompletableFuture<AsyncResultSet> firstPage, DatabaseProjection projection
+  ) {
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+      DatabaseRowBatchIterator.create(firstPage, projection),
+      Spliterator.ORDERED | Spliterator.NONNULL), false);
+  }
+
+  /**
+   * Is used to collect one batch per page of a query
+   * @param firstPage The first page of the query
+   * @param projection The projection of the query
+   * @return The future that contains the batches of all pages
+   */
+  public static CompletableFuture<List<DatabaseRowBatch>> collect(
+    AsyncResultSet firstPage, DatabaseProjection projection
+  ) {
+    return collect(firstPage, projection, Lists.newArrayList());
+  }
+
+  private static CompletableFuture<List<DatabaseRowBatch>> collect(
+    AsyncResultSet page, DatabaseProjection projection,
+    List<DatabaseRowBatch> batches
+  ) {
+    var nextPage = page.hasMorePages() ?
+      page.fetchNextPage().toCompletableFuture() : null;
+    batches.add(DatabaseRowBatch.decode(projection, page));
+    if (nextPage == null) {
+      return CompletableFuture.completedFuture(batches);
+    }
+    return nextPage.thenCompose(next -> collect(next, projection, batches));
+  }
+}
@@ -0,0 +1,14 @@
+package de.lukasbreuer.cassandra.orm.columnar;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+
+interface DatabaseVectorBuilder {
+  /**
+   * Is used to decode the value of a column and append it to the vector
+   * @param row The row of the driver
+   * @param column The index of the column inside of the row
+   */
+  void append(Row row, int column);
+
+  DatabaseColumnVector build();
+}
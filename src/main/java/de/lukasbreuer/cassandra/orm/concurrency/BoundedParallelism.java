@@ -0,0 +1,90 @@
+package de.lukasbreuer.cassandra.orm.concurrency;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class BoundedParallelism<T, R> {
+  /**
+   * Is used to run an asynchronous operation for every element while never
+   * having more than the given number of operations in flight
+   * @param elements The elements that are to be processed
+   * @param parallelism The maximum number of operations in flight
+   * @param operation The operation that is executed for every element
+   * @return A future that contains the results in the order of the elements
+   */
+  public static <T, R> CompletableFuture<List<R>> execute(
+    List<T> elements, int parallelism,
+    Function<T, CompletableFuture<R>> operation
+  ) {
+    if (elements.isEmpty()) {
+      return CompletableFuture.completedFuture(List.of());
+    }
+    var execution = new BoundedParallelism<>(elements, operation,
+      new Object[elements.size()]);
+    var workers = Math.min(Math.max(parallelism, 1), elements.size());
+    for (var i = 0; i < workers; i++) {
+      execution.next();
+    }
+    return execution.result;
+  }
+
+  private final List<T> elements;
+  private final Function<T, CompletableFuture<R>> operation;
+  private final Object[] results;
+  private final AtomicInteger nextIndex = new AtomicInteger();
+  private final AtomicInteger completed = new AtomicInteger();
+  private final CompletableFuture<List<R>> result = new CompletableFuture<>();
+
+  /**
+   * Completed operations continue inside of this loop instead of recursing,
+   * so that synchronously completed futures cannot overflow the stack
+   */
+  private void next() {
+    while (!result.isDone()) {
+      var index = nextIndex.getAndIncrement();
+      if (index >= elements.size()) {
+        return;
+      }
+      CompletableFuture<R> future;
+      try {
+        future = operation.apply(elements.get(index));
+      } catch (Throwable throwable) {
+        result.completeExceptionally(throwable);
+        return;
+      }
+      if (!future.isDone()) {
+        future.whenComplete((value, throwable) -> {
+          complete(index, value, throwable);
+          next();
+        });
+        return;
+      }
+      if (future.isCompletedExceptionally()) {
+        future.exceptionally(throwable -> {
+          result.completeExceptionally(throwable);
+          return null;
+        });
+        return;
+      }
+      complete(index, future.join(), null);
+    }
+  }
+
+  private void complete(int index, R value, Throwable throwable) {
+    if (throwable != null) {
+      result.completeExceptionally(throwable);
+      return;
+    }
+    results[index] = value;
+    if (completed.incrementAndGet() == elements.size()) {
+      result.complete((List<R>) (List<?>) Arrays.asList(results));
+    }
+  }
+}
@@ -80,6 +80,10 @@ public final class DatabaseComparison {
     return column;
   }
 
+  public Type type() {
+    return type;
+  }
+
   public Object value() {
     return value;
   }
@@ -97,6 +97,7 @@ public final class DatabaseCondition {
 
   private final List<DatabaseComparison> comparisons;
   private final Filtering filtering;
+  private volatile List<Object> shape;
 
   /**
    * Is used to build the column and placeholder combination
@@ -113,6 +114,28 @@ public final class DatabaseCondition {
     return condition.toString();
   }
 
+  /**
+   * Is used to get the shape of the condition, which consists of the
+   * filtering and of the column and type of every comparison. Conditions of
+   * the same shape build the same condition string, so the shape identifies
+   * compiled queries without building the string
+   * @return The condition shape
+   */
+  public List<Object> shape() {
+    var currentShape = shape;
+    if (currentShape == null) {
+      var parts = new Object[comparisons.size() * 2 + 1];
+      parts[0] = filtering;
+      for (var i = 0; i < comparisons.size(); i++) {
+        parts[i * 2 + 1] = comparisons.get(i).column();
+        parts[i * 2 + 2] = comparisons.get(i).type();
+      }
+      currentShape = List.of(parts);
+      shape = currentShape;
+    }
+    return currentShape;
+  }
+
   public String filteringAddition() {
     if (isFilteringAllowed()) {
       return " ALLOW FILTERING";
@@ -126,6 +149,7 @@ public final class DatabaseCondition {
    */
   public void concat(DatabaseCondition other) {
     comparisons.addAll(other.comparisons());
+    shape = null;
   }
 
   /**
@@ -0,0 +1,45 @@
+package de.lukasbreuer.cassandra.orm.count;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+@Getter
+@Accessors(fluent = true)
+@RequiredArgsConstructor(staticName = "create")
+public final class DatabaseCountEstimate {
+  public static DatabaseCountEstimate exact(long value) {
+    return create(value, 0, true);
+  }
+
+  /**
+   * An approximation can have an error bound of zero if all of its samples
+   * agree, which does not make it exact
+   */
+  public static DatabaseCountEstimate approximate(
+    long value, long errorBound
+  ) {
+    return create(value, errorBound, false);
+  }
+
+  private final long value;
+  /**
+   * The absolute deviation from the real count that is to be expected
+   */
+  private final long errorBound;
+  @Getter(AccessLevel.NONE)
+  private final boolean exact;
+
+  public boolean isExact() {
+    return exact;
+  }
+
+  public long lowerBound() {
+    return Math.max(0, value - errorBound);
+  }
+
+  public long upperBound() {
+    return value + errorBound;
+  }
+}
@@ -0,0 +1,20 @@
+package de.lukasbreuer.cassandra.orm.count;
+
+public enum DatabaseCountMode {
+  /**
+   * Counts exactly with a single query through one coordinator
+   */
+  SIMPLE,
+  /**
+   * Counts exactly by summing the counts of token ranges in parallel
+   */
+  PARALLEL,
+  /**
+   * Estimates the count from the size estimates of the cluster
+   */
+  APPROXIMATE;
+
+  public boolean isExact() {
+    return this != APPROXIMATE;
+  }
+}
@@ -0,0 +1,153 @@
+package de.lukasbreuer.cassandra.orm.count;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+import de.lukasbreuer.cassandra.orm.DatabaseOperation;
+import de.lukasbreuer.cassandra.orm.DatabaseRow;
+import de.lukasbreuer.cassandra.orm.DatabaseTable;
+import de.lukasbreuer.cassandra.orm.condition.DatabaseCondition;
+import de.lukasbreuer.cassandra.orm.scan.DatabaseScanListener;
+import de.lukasbreuer.cassandra.orm.scan.DatabaseScanOptions;
+import de.lukasbreuer.cassandra.orm.scan.DatabaseTableScan;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.LongAdder;
+
+@RequiredArgsConstructor(staticName = "create")
+public final class DatabaseTableCounter {
+  private static final String SIZE_ESTIMATES_QUERY = "SELECT range_start, " +
+    "range_end, partitions_count FROM system.size_estimates WHERE " +
+    "keyspace_name = ? AND table_name = ?;";
+  private static final String MURMUR3_PARTITIONER =
+    "org.apache.cassandra.dht.Murmur3Partitioner";
+  private static final String RANDOM_PARTITIONER =
+    "org.apache.cassandra.dht.RandomPartitioner";
+  static final BigInteger MURMUR3_RING_SIZE = BigInteger.TWO.pow(64);
+  static final BigInteger RANDOM_RING_SIZE = BigInteger.TWO.pow(127);
+  /**
+   * Two standard errors cover about 95 percent of the expected deviation
+   */
+  private static final double ERROR_BOUND_FACTOR = 2;
+
+  private final DatabaseTable table;
+
+  /**
+   * Is used to count the rows with the given mode
+   * @param mode The mode of counting
+   * @param options The options of the token range split in parallel mode
+   * @return The future that contains the count and its error bound
+   */
+  public CompletableFuture<DatabaseCountEstimate> count(
+    DatabaseCountMode mode, DatabaseScanOptions options
+  ) {
+    return switch (mode) {
+      case SIMPLE -> table.countFix(DatabaseCondition.empty())
+        .thenApply(DatabaseCountEstimate::exact);
+      case PARALLEL -> countParallel(options)
+        .thenApply(DatabaseCountEstimate::exact);
+      case APPROXIMATE -> estimate();
+    };
+  }
+
+  /**
+   * Is used to count the rows exactly by counting every token range on its
+   * own. No single request has to count more than one range
+   * @param options The options of the token range split
+   * @return The future that contains the number of rows
+   */
+  public CompletableFuture<Long> countParallel(DatabaseScanOptions options) {
+    var count = new LongAdder();
+    return DatabaseTableScan.create(table, "COUNT(*)", options)
+      .scan(new DatabaseScanListener() {
+        @Override
+        public CompletionStage<Void> acceptPage(
+          TokenRange range, List<DatabaseRow> rows
+        ) {
+          for (var row : rows) {
+            count.add(row.getLong(0));
+          }
+          return DatabaseScanListener.consumed();
+        }
+      }).thenApply(ignored -> count.sum());
+  }
+
+  /**
+   * Is used to estimate the number of partitions from the size estimates of
+   * the coordinator. The estimates only cover flushed data of the ranges the
+   * coordinator replicates and are refreshed periodically by the cluster,
+   * which is why their density is extrapolated over the whole token ring.
+   * For tables without clustering columns partitions and rows are equal
+   * @return The future that contains the estimate and its error bound
+   */
+  public CompletableFuture<DatabaseCountEstimate> estimate() {
+    var tokenMap = table.connection().metadata().getTokenMap();
+    if (tokenMap.isEmpty()) {
+      return CompletableFuture.failedFuture(new IllegalStateException(
+        "The token metadata of the cluster is not available"));
+    }
+    var partitioner = tokenMap.get().getPartitionerName();
+    BigInteger ringSize;
+    if (partitioner.endsWith(MURMUR3_PARTITIONER)) {
+      ringSize = MURMUR3_RING_SIZE;
+    } else if (partitioner.endsWith(RANDOM_PARTITIONER)) {
+      ringSize = RANDOM_RING_SIZE;
+    } else {
+      return CompletableFuture.failedFuture(new UnsupportedOperationException(
+        "Size estimates are not supported for " + partitioner));
+    }
+    return table.connection().execute(table, DatabaseOperation.COUNT,
+        SIZE_ESTIMATES_QUERY, table.keyspace().name(), table.name())
+      .thenApply(result -> extrapolate(result.currentPage(), ringSize));
+  }
+
+  /**
+   * The density of every range is a sample of the density of the whole ring,
+   * so the standard error of the mean density defines the error bound. A
+   * single range has no spread, so its estimate is bounded by itself
+   */
+  static DatabaseCountEstimate extrapolate(
+    Iterable<Row> rows, BigInteger ringSize
+  ) {
+    var ring = ringSize.doubleValue();
+    var sampleCount = 0;
+    var partitionSum = 0D;
+    var widthSum = 0D;
+    var densitySum = 0D;
+    var densitySquareSum = 0D;
+    for (var row : rows) {
+      var width = rangeWidth(row.getString(0), row.getString(1), ringSize);
+      var partitions = (double) row.getLong(2);
+      var density = partitions / width;
+      sampleCount++;
+      partitionSum += partitions;
+      widthSum += width;
+      densitySum += density;
+      densitySquareSum += density * density;
+    }
+    if (sampleCount == 0) {
+      return DatabaseCountEstimate.approximate(0, 0);
+    }
+    var value = Math.round(partitionSum / widthSum * ring);
+    if (sampleCount == 1) {
+      return DatabaseCountEstimate.approximate(value, value);
+    }
+    var meanDensity = densitySum / sampleCount;
+    var variance = Math.max(0, (densitySquareSum -
+      sampleCount * meanDensity * meanDensity) / (sampleCount - 1));
+    var standardError = Math.sqrt(variance / sampleCount) * ring;
+    return DatabaseCountEstimate.approximate(value,
+      Math.round(ERROR_BOUND_FACTOR * standardError));
+  }
+
+  private static double rangeWidth(
+    String start, String end, BigInteger ringSize
+  ) {
+    var width = new BigInteger(end).subtract(new BigInteger(start))
+      .mod(ringSize);
+    return width.signum() == 0 ? ringSize.doubleValue() : width.doubleValue();
+  }
+}
@@ -0,0 +1,40 @@
+package de.lukasbreuer.cassandra.orm.driver;
+
+import java.util.Arrays;
+
+/**
+ * Named starting points of the driver tuning, single settings of the
+ * configuration override the settings of the preset
+ */
+public enum DatabaseDriverPreset {
+  /**
+   * Few connections with many requests each and a lenient timeout, for
+   * applications that mix reads and writes at a high rate
+   */
+  HIGH_THROUGHPUT,
+  /**
+   * More connections with fewer requests each, short timeouts and small
+   * pages, so that single requests do not queue behind large ones
+   */
+  LOW_LATENCY,
+  /**
+   * Many connections with many requests each, compressed frames and a long
+   * timeout for large batches
+   */
+  BULK_INGEST;
+
+  /**
+   * Is used to find a preset by its name in the configuration
+   * @param name The name, e.g. "low-latency"
+   * @return The preset
+   */
+  public static DatabaseDriverPreset fromName(String name) {
+    var normalizedName = name.trim().replace('-', '_').toUpperCase();
+    return Arrays.stream(values())
+      .filter(preset -> preset.name().equals(normalizedName))
+      .findFirst()
+      .orElseThrow(() -> new IllegalArgumentException("The driver preset " +
+        name + " does not exist, expected one of " +
+        Arrays.toString(values())));
+  }
+}
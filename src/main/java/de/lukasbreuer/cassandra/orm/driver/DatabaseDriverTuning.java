@@ -0,0 +1,204 @@
+package de.lukasbreuer.cassandra.orm.driver;
+
+import com.datastax.oss.driver.api.core.DefaultConsistencyLevel;
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.ProgrammaticDriverConfigLoaderBuilder;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+import org.json.JSONObject;
+
+import java.time.Duration;
+
+/**
+ * The settings of the driver that decide how requests are spread over the
+ * connections to the cluster. Durations are configured in milliseconds, the
+ * coalescer interval in microseconds
+ */
+@Getter
+@Accessors(fluent = true)
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DatabaseDriverTuning {
+  private static final int MAXIMUM_STREAM_IDS = 32768;
+
+  /**
+   * Is used to find the tuning of a preset
+   * @param preset The preset
+   * @return The tuning
+   */
+  public static DatabaseDriverTuning of(DatabaseDriverPreset preset) {
+    return switch (preset) {
+      case HIGH_THROUGHPUT -> new DatabaseDriverTuning(preset, 2, 1, 2048,
+        Compression.NONE, 0, Duration.ofSeconds(30), Duration.ofSeconds(5),
+        Duration.ofNanos(10_000), Duration.ofSeconds(30),
+        Duration.ofSeconds(5), 5000, DefaultConsistencyLevel.LOCAL_ONE, true);
+      case LOW_LATENCY -> new DatabaseDriverTuning(preset, 4, 1, 512,
+        Compression.NONE, 0, Duration.ofSeconds(10), Duration.ofSeconds(2),
+        Duration.ofNanos(1_000), Duration.ofSeconds(2),
+        Duration.ofSeconds(2), 1000, DefaultConsistencyLevel.LOCAL_ONE, true);
+      case BULK_INGEST -> new DatabaseDriverTuning(preset, 8, 1, 4096,
+        Compression.LZ4, 0, Duration.ofSeconds(30), Duration.ofSeconds(10),
+        Duration.ofNanos(100_000), Duration.ofSeconds(60),
+        Duration.ofSeconds(10), 5000, DefaultConsistencyLevel.LOCAL_QUORUM,
+        true);
+    };
+  }
+
+  /**
+   * Is used to read the tuning from the configuration. The settings of the
+   * preset are used for all settings that are not configured
+   * @param json The driver section of the configuration
+   * @return The validated tuning
+   * @throws IllegalArgumentException If a setting is out of its range
+   */
+  public static DatabaseDriverTuning deserialize(JSONObject json) {
+    var preset = of(DatabaseDriverPreset.fromName(
+      json.optString("preset", "high-throughput")));
+    var tuning = new DatabaseDriverTuning(preset.preset,
+      json.optInt("localConnectionsPerNode", preset.localConnectionsPerNode),
+      json.optInt("remoteConnectionsPerNode", preset.remoteConnectionsPerNode),
+      json.optInt("maximumRequestsPerConnection",
+        preset.maximumRequestsPerConnection),
+      Compression.fromName(json.optString("compression",
+        preset.compression.name())),
+      json.optInt("ioThreads", preset.ioThreads),
+      optMillis(json, "heartbeatInterval", preset.heartbeatInterval),
+      optMillis(json, "heartbeatTimeout", preset.heartbeatTimeout),
+      Duration.ofNanos(json.optLong("coalescerInterval",
+        preset.coalescerInterval.toNanos() / 1000) * 1000),
+      optMillis(json, "requestTimeout", preset.requestTimeout),
+      optMillis(json, "connectTimeout", preset.connectTimeout),
+      json.optInt("pageSize", preset.pageSize),
+      DefaultConsistencyLevel.valueOf(json.optString("consistencyLevel",
+        preset.consistencyLevel.name()).toUpperCase()),
+      json.optBoolean("tcpNoDelay", preset.tcpNoDelay));
+    tuning.validate();
+    return tuning;
+  }
+
+  private static Duration optMillis(
+    JSONObject json, String key, Duration defaultValue
+  ) {
+    return Duration.ofMillis(json.optLong(key, defaultValue.toMillis()));
+  }
+
+  public enum Compression {
+    NONE,
+    LZ4,
+    SNAPPY;
+
+    public static Compression fromName(String name) {
+      return valueOf(name.trim().toUpperCase());
+    }
+
+    /**
+     * The name of the algorithm in the driver configuration
+     * @return The lower case name
+     */
+    public String driverName() {
+      return name().toLowerCase();
+    }
+  }
+
+  private final DatabaseDriverPreset preset;
+  /**
+   * The number of connections to every node of the local datacenter
+   */
+  private final int localConnectionsPerNode;
+  /**
+   * The number of connections to every node of remote datacenters
+   */
+  private final int remoteConnectionsPerNode;
+  /**
+   * The number of requests a single connection may have in flight
+   */
+  private final int maximumRequestsPerConnection;
+  /**
+   * The compression of the protocol frames, LZ4 requires lz4-java and
+   * Snappy requires snappy-java on the classpath
+   */
+  private final Compression compression;
+  /**
+   * The number of netty event loop threads, zero keeps the driver default
+   * of two threads per core
+   */
+  private final int ioThreads;
+  private final Duration heartbeatInterval;
+  private final Duration heartbeatTimeout;
+  /**
+   * The interval in which the coalescer flushes the writes of a connection,
+   * a longer interval sends fewer but larger network packets
+   */
+  private final Duration coalescerInterval;
+  private final Duration requestTimeout;
+  private final Duration connectTimeout;
+  private final int pageSize;
+  private final DefaultConsistencyLevel consistencyLevel;
+  private final boolean tcpNoDelay;
+
+  private void validate() {
+    checkPositive("localConnectionsPerNode", localConnectionsPerNode);
+    checkPositive("remoteConnectionsPerNode", remoteConnectionsPerNode);
+    checkPositive("maximumRequestsPerConnection",
+      maximumRequestsPerConnection);
+    if (maximumRequestsPerConnection > MAXIMUM_STREAM_IDS) {
+      throw new IllegalArgumentException("The setting " +
+        "maximumRequestsPerConnection must not exceed " + MAXIMUM_STREAM_IDS);
+    }
+    if (ioThreads < 0) {
+      throw new IllegalArgumentException("The setting ioThreads must not " +
+        "be negative");
+    }
+    checkPositive("heartbeatInterval", heartbeatInterval.toNanos());
+    checkPositive("heartbeatTimeout", heartbeatTimeout.toNanos());
+    checkPositive("coalescerInterval", coalescerInterval.toNanos());
+    checkPositive("requestTimeout", requestTimeout.toNanos());
+    checkPositive("connectTimeout", connectTimeout.toNanos());
+    checkPositive("pageSize", pageSize);
+    if (heartbeatTimeout.compareTo(heartbeatInterval) >= 0) {
+      throw new IllegalArgumentException("The setting heartbeatTimeout " +
+        "must be shorter than heartbeatInterval");
+    }
+  }
+
+  private static void checkPositive(String setting, long value) {
+    if (value <= 0) {
+      throw new IllegalArgumentException("The setting " + setting +
+        " must be positive, but is " + value);
+    }
+  }
+
+  /**
+   * Is used to apply the tuning to the configuration of the driver
+   * @param builder The builder of the driver configuration
+   * @return The same builder
+   */
+  public ProgrammaticDriverConfigLoaderBuilder apply(
+    ProgrammaticDriverConfigLoaderBuilder builder
+  ) {
+    builder
+      .withInt(DefaultDriverOption.CONNECTION_POOL_LOCAL_SIZE,
+        localConnectionsPerNode)
+      .withInt(DefaultDriverOption.CONNECTION_POOL_REMOTE_SIZE,
+        remoteConnectionsPerNode)
+      .withInt(DefaultDriverOption.CONNECTION_MAX_REQUESTS,
+        maximumRequestsPerConnection)
+      .withString(DefaultDriverOption.PROTOCOL_COMPRESSION,
+        compression.driverName())
+      .withDuration(DefaultDriverOption.HEARTBEAT_INTERVAL, heartbeatInterval)
+      .withDuration(DefaultDriverOption.HEARTBEAT_TIMEOUT, heartbeatTimeout)
+      .withDuration(DefaultDriverOption.COALESCER_INTERVAL, coalescerInterval)
+      .withDuration(DefaultDriverOption.REQUEST_TIMEOUT, requestTimeout)
+      .withDuration(DefaultDriverOption.CONNECTION_CONNECT_TIMEOUT,
+        connectTimeout)
+      .withInt(DefaultDriverOption.REQUEST_PAGE_SIZE, pageSize)
+      .withString(DefaultDriverOption.REQUEST_CONSISTENCY,
+        consistencyLevel.name())
+      .withBoolean(DefaultDriverOption.SOCKET_TCP_NODELAY, tcpNoDelay);
+    if (ioThreads > 0) {
+      builder.withInt(DefaultDriverOption.NETTY_IO_SIZE, ioThreads);
+    }
+    return builder;
+  }
+}
@@ -0,0 +1,301 @@
+package de.lukasbreuer.cassandra.orm.filter;
+
+import com.google.common.collect.Lists;
+import com.google.common.hash.BloomFilter;
+import de.lukasbreuer.cassandra.orm.DatabaseRow;
+import de.lukasbreuer.cassandra.orm.DatabaseTable;
+import de.lukasbreuer.cassandra.orm.cache.DatabaseRowKey;
+import de.lukasbreuer.cassandra.orm.condition.DatabaseCondition;
+import de.lukasbreuer.cassandra.orm.listener.DatabaseTableListener;
+import de.lukasbreuer.cassandra.orm.scan.DatabaseScanOptions;
+import de.lukasbreuer.cassandra.orm.scan.DatabaseTableScan;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A scalable Bloom filter of the row keys of a table, which answers
+ * definite negatives of existence checks without a request. Once the current
+ * stage reached its capacity a new stage with twice the capacity and half
+ * the false positive rate is added, so that the overall false positive rate
+ * stays below the configured rate no matter how many keys are added.
+ * <p>
+ * The filter only answers negatives once it is ready, which is the case
+ * after a complete bootstrap scan or after the table was declared empty.
+ * Afterwards it is kept up to date by the inserts and updates of the table
+ * object. Writes of other processes are not seen, in which case the filter
+ * has to be bootstrapped again.
+ * <p>
+ * The stages are an immutable list that is replaced as a whole, so that
+ * readers and writers always see a complete set of stages, even while the
+ * filter grows or is cleared by a truncation
+ */
+public final class DatabaseExistenceFilter implements DatabaseTableListener {
+  private static final int SNAPSHOT_MAGIC = 0x45584953;
+  private static final int SNAPSHOT_VERSION = 1;
+  private static final int GROWTH_FACTOR = 2;
+  private static final double TIGHTENING_RATIO = 0.5;
+
+  public static DatabaseExistenceFilter create(
+    long expectedInsertions, double falsePositiveRate
+  ) {
+    var filter = new DatabaseExistenceFilter(expectedInsertions,
+      falsePositiveRate);
+    filter.addStage();
+    return filter;
+  }
+
+  private final long initialCapacity;
+  private final double falsePositiveRate;
+  private volatile List<Stage> stages = List.of();
+  private final LongAdder negatives = new LongAdder();
+  private final LongAdder positives = new LongAdder();
+  private final LongAdder falsePositives = new LongAdder();
+  private volatile boolean ready;
+
+  private DatabaseExistenceFilter(
+    long initialCapacity, double falsePositiveRate
+  ) {
+    this.initialCapacity = Math.max(1, initialCapacity);
+    this.falsePositiveRate = falsePositiveRate;
+  }
+
+  private synchronized void addStage() {
+    stages = append(stages, createStage(stages.size()));
+  }
+
+  private Stage createStage(int index) {
+    var capacity = initialCapacity * (long) Math.pow(GROWTH_FACTOR, index);
+    var stageRate = falsePositiveRate * (1 - TIGHTENING_RATIO) *
+      Math.pow(TIGHTENING_RATIO, index);
+    return new Stage(BloomFilter.create(DatabaseKeyFunnel.INSTANCE,
+      capacity, stageRate), capacity, new AtomicLong());
+  }
+
+  private static List<Stage> append(List<Stage> stages, Stage stage) {
+    List<Stage> appended = Lists.newArrayList(stages);
+    appended.add(stage);
+    return List.copyOf(appended);
+  }
+
+  /**
+   * Is used to add the key of a row
+   * @param key The cache key of the row
+   */
+  public void put(Object key) {
+    var currentStages = stages;
+    var stage = currentStages.get(currentStages.size() - 1);
+    if (stage.filter.put(key) &&
+      stage.count.incrementAndGet() >= stage.capacity
+    ) {
+      synchronized (this) {
+        if (stages.get(stages.size() - 1) == stage) {
+          addStage();
+        }
+      }
+    }
+  }
+
+  /**
+   * Is used to check whether a key might exist. Before the filter is ready
+   * every key might exist
+   * @param key The cache key of the row
+   * @return False if the key does definitely not exist
+   */
+  public boolean mightContain(Object key) {
+    if (!ready) {
+      return true;
+    }
+    for (var stage : stages) {
+      if (stage.filter.mightContain(key)) {
+        positives.increment();
+        return true;
+      }
+    }
+    negatives.increment();
+    return false;
+  }
+
+  /**
+   * Is used to record the answer of the database for a key the filter
+   * considered as possibly existing
+   * @param exists Whether the row exists
+   */
+  public void recordConfirmation(boolean exists) {
+    if (!exists) {
+      falsePositives.increment();
+    }
+  }
+
+  /**
+   * Is used to declare that the filter contains all keys of the table, for
+   * example after the table was created empty
+   */
+  public void markReady() {
+    ready = true;
+  }
+
+  public void markUnready() {
+    ready = false;
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  /**
+   * Is used to add the keys of all rows with a parallel scan over the key
+   * columns. The filter is ready once the scan completed
+   * @param table The table whose keys are added
+   * @param options The options of the scan
+   * @return The future that contains the number of scanned keys
+   */
+  public CompletableFuture<Long> bootstrap(
+    DatabaseTable table, DatabaseScanOptions options
+  ) {
+    var columnNames = table.statementTemplates().keyProjection()
+      .columnNames();
+    return DatabaseTableScan.create(table, columnNames, options)
+      .scan(row -> put(DatabaseRowKey.of(row.values())))
+      .thenApply(keyCount -> {
+        markReady();
+        return keyCount;
+      });
+  }
+
+  @Override
+  public void rowsInserted(DatabaseTable table, Collection<DatabaseRow> rows) {
+    for (var row : rows) {
+      put(DatabaseRowKey.of(table, row));
+    }
+  }
+
+  /**
+   * Updates create missing rows, so their keys are added as well. If the key
+   * cannot be derived from the condition the filter cannot know which rows
+   * were created
+   */
+  @Override
+  public void rowsUpdated(DatabaseTable table, DatabaseCondition condition) {
+    DatabaseRowKey.of(table, condition)
+      .ifPresentOrElse(this::put, this::markUnready);
+  }
+
+  @Override
+  public synchronized void tableTruncated(DatabaseTable table) {
+    stages = List.of(createStage(0));
+  }
+
+  /**
+   * Is used to write the filter into a snapshot file
+   * @param file The path of the snapshot
+   * @throws IOException If the snapshot cannot be written
+   */
+  public synchronized void writeSnapshot(Path file) throws IOException {
+    try (var output = new DataOutputStream(new BufferedOutputStream(
+      Files.newOutputStream(file)))
+    ) {
+      output.writeInt(SNAPSHOT_MAGIC);
+      output.writeInt(SNAPSHOT_VERSION);
+      output.writeLong(initialCapacity);
+      output.writeDouble(falsePositiveRate);
+      output.writeBoolean(ready);
+      var currentStages = stages;
+      output.writeInt(currentStages.size());
+      for (var stage : currentStages) {
+        output.writeLong(stage.capacity);
+        output.writeLong(stage.count.get());
+        stage.filter.writeTo(output);
+      }
+    }
+  }
+
+  /**
+   * Is used to read a filter from a snapshot file. The filter is only as
+   * recent as the snapshot, writes after the snapshot are not contained
+   * @param file The path of the snapshot
+   * @return The filter
+   * @throws IOException If the snapshot cannot be read
+   */
+  public static DatabaseExistenceFilter readSnapshot(Path file)
+    throws IOException
+  {
+    try (var input = new DataInputStream(new BufferedInputStream(
+      Files.newInputStream(file)))
+    ) {
+      if (input.readInt() != SNAPSHOT_MAGIC ||
+        input.readInt() != SNAPSHOT_VERSION
+      ) {
+        throw new IOException("The file is no existence filter snapshot");
+      }
+      var filter = new DatabaseExistenceFilter(input.readLong(),
+        input.readDouble());
+      filter.ready = input.readBoolean();
+      var stageCount = input.readInt();
+      for (var i = 0; i < stageCount; i++) {
+        var capacity = input.readLong();
+        var count = new AtomicLong(input.readLong());
+        filter.stages = append(filter.stages, new Stage(BloomFilter.readFrom(
+          input, DatabaseKeyFunnel.INSTANCE), capacity, count));
+      }
+      if (filter.stages.isEmpty()) {
+        filter.addStage();
+      }
+      return filter;
+    }
+  }
+
+  /**
+   * The number of checks that were answered as definitely not existing
+   * @return The negative count
+   */
+  public long negativeCount() {
+    return negatives.sum();
+  }
+
+  public long positiveCount() {
+    return positives.sum();
+  }
+
+  public long falsePositiveCount() {
+    return falsePositives.sum();
+  }
+
+  /**
+   * The share of positive answers that the database did not confirm
+   * @return The observed false positive rate
+   */
+  public double observedFalsePositiveRate() {
+    var positiveCount = positives.sum();
+    return positiveCount == 0 ? 0 : (double) falsePositives.sum() /
+      positiveCount;
+  }
+
+  /**
+   * The sum of the expected false positive rates of all stages
+   * @return The expected false positive rate
+   */
+  public double expectedFalsePositiveRate() {
+    return stages.stream().mapToDouble(stage ->
+      stage.filter.expectedFpp()).sum();
+  }
+
+  public int stageCount() {
+    return stages.size();
+  }
+
+  private record Stage(
+    BloomFilter<Object> filter, long capacity, AtomicLong count
+  ) {
+  }
+}
@@ -0,0 +1,46 @@
+package de.lukasbreuer.cassandra.orm.filter;
+
+import com.google.common.hash.Funnel;
+import com.google.common.hash.PrimitiveSink;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Feeds the cache keys of rows into a hash function. Every value is prefixed
+ * with its type, so that equal looking values of different types do not
+ * collide. The funnel is an enum, so that serialized filters can be read
+ * with the same funnel again
+ */
+enum DatabaseKeyFunnel implements Funnel<Object> {
+  INSTANCE;
+
+  @Override
+  public void funnel(Object key, PrimitiveSink sink) {
+    if (key == null) {
+      sink.putByte((byte) 0);
+    } else if (key instanceof String string) {
+      sink.putByte((byte) 1).putString(string, StandardCharsets.UTF_8);
+    } else if (key instanceof Integer number) {
+      sink.putByte((byte) 2).putInt(number);
+    } else if (key instanceof Long number) {
+      sink.putByte((byte) 3).putLong(number);
+    } else if (key instanceof UUID uuid) {
+      sink.putByte((byte) 4).putLong(uuid.getMostSignificantBits())
+        .putLong(uuid.getLeastSignificantBits());
+    } else if (key instanceof ByteBuffer buffer) {
+      sink.putByte((byte) 5).putBytes(buffer.duplicate());
+    } else if (key instanceof List<?> list) {
+      sink.putByte((byte) 6).putInt(list.size());
+      for (var element : list) {
+        funnel(element, sink);
+      }
+    } else {
+      sink.putByte((byte) 7)
+        .putString(key.getClass().getName(), StandardCharsets.UTF_8)
+        .putString(key.toString(), StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package de.lukasbreuer.cassandra.orm.journal;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Getter
+@Accessors(fluent = true)
+@RequiredArgsConstructor(staticName = "create")
+public final class DatabaseJournalOptions {
+  private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+  private static final int DEFAULT_REPLAY_WINDOW = 256;
+  private static final int DEFAULT_REPLAY_PARALLELISM = 16;
+  private static final Duration DEFAULT_REPLAY_INTERVAL =
+    Duration.ofSeconds(5);
+
+  public static DatabaseJournalOptions defaults(Path directory) {
+    return create(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_REPLAY_WINDOW,
+      DEFAULT_REPLAY_PARALLELISM, DEFAULT_REPLAY_INTERVAL, false);
+  }
+
+  private final Path directory;
+  /**
+   * The size of a segment file, a full segment is rotated
+   */
+  private final int segmentSize;
+  /**
+   * The number of records that are replayed before the replay progress is
+   * stored in the segment
+   */
+  private final int replayWindow;
+  private final int replayParallelism;
+  /**
+   * The interval in which the replayer checks whether the connection is
+   * healthy again
+   */
+  private final Duration replayInterval;
+  /**
+   * Whether every append is forced to the storage device, otherwise the
+   * operating system writes the mapped segments back on its own
+   */
+  private final boolean forceEachAppend;
+}
@@ -0,0 +1,103 @@
+package de.lukasbreuer.cassandra.orm.journal;
+
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.google.common.collect.Lists;
+import de.lukasbreuer.cassandra.orm.DatabaseOperation;
+import de.lukasbreuer.cassandra.orm.cache.DatabaseValueSerializer;
+import de.lukasbreuer.cassandra.orm.statement.DatabaseUnset;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * A write operation of the journal, consisting of the statement shape, the
+ * bound values and the client timestamp of the original operation. Counter
+ * updates are replayed without a timestamp, since counters reject them
+ */
+@Getter
+@Accessors(fluent = true)
+@RequiredArgsConstructor(staticName = "create")
+public final class DatabaseJournalRecord {
+  /**
+   * Is used to create the records of a statement, a batch is journaled as
+   * one record per member. Members without a timestamp of their own are
+   * journaled with the timestamp of the batch, unset placeholders stay unset
+   * when the records are replayed
+   * @param table The full name of the table
+   * @param operation The type of the operation
+   * @param statement The bound or simple statement or the batch
+   * @param counter Whether the statement updates counters
+   * @return The records in the order of the members
+   * @throws IllegalArgumentException If a statement has named values
+   */
+  public static List<DatabaseJournalRecord> ofStatement(
+    String table, DatabaseOperation operation, Statement<?> statement,
+    boolean counter
+  ) {
+    if (!(statement instanceof BatchStatement batch)) {
+      return List.of(ofMember(table, operation, statement,
+        Statement.NO_DEFAULT_TIMESTAMP, counter));
+    }
+    List<DatabaseJournalRecord> records =
+      Lists.newArrayListWithCapacity(batch.size());
+    for (var member : batch) {
+      records.add(ofMember(table, operation, member,
+        batch.getQueryTimestamp(), counter));
+    }
+    return records;
+  }
+
+  private static DatabaseJournalRecord ofMember(
+    String table, DatabaseOperation operation, Statement<?> statement,
+    long batchTimestamp, boolean counter
+  ) {
+    var timestamp = counter ? Statement.NO_DEFAULT_TIMESTAMP :
+      statement.getQueryTimestamp() != Statement.NO_DEFAULT_TIMESTAMP ?
+        statement.getQueryTimestamp() : batchTimestamp;
+    if (statement instanceof BoundStatement boundStatement) {
+      var values = new Object[boundStatement.size()];
+      for (var i = 0; i < values.length; i++) {
+        values[i] = boundStatement.isSet(i) ? boundStatement.getObject(i) :
+          DatabaseUnset.VALUE;
+      }
+      return create(table, operation,
+        boundStatement.getPreparedStatement().getQuery(), timestamp, counter,
+        values);
+    }
+    if (statement instanceof SimpleStatement simpleStatement &&
+      simpleStatement.getNamedValues().isEmpty()
+    ) {
+      return create(table, operation, simpleStatement.getQuery(), timestamp,
+        counter, simpleStatement.getPositionalValues().toArray());
+    }
+    throw new IllegalArgumentException("Statements of type " +
+      statement.getClass().getName() + " cannot be journaled");
+  }
+
+  static DatabaseJournalRecord deserialize(byte[] payload) {
+    var record = ByteBuffer.wrap(payload);
+    var header = (List<?>) DatabaseValueSerializer.deserializeKey(record);
+    return create((String) header.get(0),
+      DatabaseOperation.valueOf((String) header.get(1)),
+      (String) header.get(2), (Long) header.get(3), (Boolean) header.get(4),
+      DatabaseValueSerializer.deserializeValues(record));
+  }
+
+  private final String table;
+  private final DatabaseOperation operation;
+  private final String query;
+  private final long timestamp;
+  private final boolean counter;
+  private final Object[] values;
+
+  byte[] serialize() {
+    return DatabaseValueSerializer.serialize(List.of(table, operation.name(),
+      query, timestamp, counter), values);
+  }
+}
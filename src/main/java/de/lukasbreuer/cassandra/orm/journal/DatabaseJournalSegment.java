@@ -0,0 +1,171 @@
+package de.lukasbreuer.cassandra.orm.journal;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only segment file of the journal, which is mapped into memory.
+ * The segment starts with a header that contains the offset up to which its
+ * records were replayed, followed by records of the form
+ * [length][crc32][payload]. A zero length marks the end of the written
+ * records, a record with a mismatching checksum was torn by a crash and
+ * ends the segment as well
+ */
+@Accessors(fluent = true)
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+final class DatabaseJournalSegment {
+  private static final int MAGIC = 0x4a524e4c;
+  private static final int HEADER_SIZE = 8;
+  private static final int RECORD_HEADER_SIZE = 8;
+
+  static DatabaseJournalSegment create(Path file, long id, int size)
+    throws IOException
+  {
+    var segment = new DatabaseJournalSegment(file, id, map(file, size));
+    segment.buffer.putInt(0, MAGIC);
+    segment.buffer.putInt(4, HEADER_SIZE);
+    segment.writeOffset = HEADER_SIZE;
+    return segment;
+  }
+
+  static DatabaseJournalSegment open(Path file, long id) throws IOException {
+    var segment = new DatabaseJournalSegment(file, id,
+      map(file, (int) Files.size(file)));
+    if (segment.buffer.getInt(0) != MAGIC) {
+      throw new IOException("The file " + file + " is no journal segment");
+    }
+    segment.writeOffset = segment.findWriteOffset();
+    return segment;
+  }
+
+  private static MappedByteBuffer map(Path file, int size) throws IOException {
+    try (var channel = FileChannel.open(file, StandardOpenOption.CREATE,
+      StandardOpenOption.READ, StandardOpenOption.WRITE)
+    ) {
+      return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+  }
+
+  private static int checksum(ByteBuffer payload) {
+    var crc = new CRC32();
+    crc.update(payload.duplicate());
+    return (int) crc.getValue();
+  }
+
+  private final Path file;
+  @Getter
+  private final long id;
+  private final MappedByteBuffer buffer;
+  @Getter
+  private int writeOffset;
+
+  private int findWriteOffset() {
+    var offset = HEADER_SIZE;
+    while (offset + RECORD_HEADER_SIZE <= buffer.capacity()) {
+      var length = buffer.getInt(offset);
+      if (length <= 0 || offset + RECORD_HEADER_SIZE + length >
+        buffer.capacity()
+      ) {
+        break;
+      }
+      var payload = buffer.slice(offset + RECORD_HEADER_SIZE, length);
+      if (checksum(payload) != buffer.getInt(offset + 4)) {
+        break;
+      }
+      offset += RECORD_HEADER_SIZE + length;
+    }
+    return offset;
+  }
+
+  /**
+   * Is used to append a record to the end of the segment
+   * @param payload The payload of the record
+   * @return Whether the segment had enough space left
+   */
+  boolean append(byte[] payload) {
+    if (writeOffset + RECORD_HEADER_SIZE + payload.length >
+      buffer.capacity()
+    ) {
+      return false;
+    }
+    buffer.put(writeOffset + RECORD_HEADER_SIZE, payload);
+    buffer.putInt(writeOffset + 4, checksum(ByteBuffer.wrap(payload)));
+    buffer.putInt(writeOffset, payload.length);
+    writeOffset += RECORD_HEADER_SIZE + payload.length;
+    return true;
+  }
+
+  /**
+   * Is used to read the records after an offset. The payloads are copied,
+   * so that they stay valid after the segment is deleted
+   * @param offset The offset of the first record
+   * @param maximumRecords The maximum number of records
+   * @param records The list to which the payloads are added
+   * @return The offset after the last read record
+   */
+  int read(int offset, int maximumRecords, List<byte[]> records) {
+    var count = 0;
+    while (offset < writeOffset && count < maximumRecords) {
+      var length = buffer.getInt(offset);
+      var payload = new byte[length];
+      buffer.get(offset + RECORD_HEADER_SIZE, payload);
+      records.add(payload);
+      offset += RECORD_HEADER_SIZE + length;
+      count++;
+    }
+    return offset;
+  }
+
+  /**
+   * Is used to count the records after an offset
+   * @param offset The offset of the first record
+   * @return The number of records
+   */
+  int count(int offset) {
+    var count = 0;
+    while (offset < writeOffset) {
+      offset += RECORD_HEADER_SIZE + buffer.getInt(offset);
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * The offset of the first record that was not replayed yet
+   * @return The replay offset
+   */
+  int replayOffset() {
+    return buffer.getInt(4);
+  }
+
+  void markReplayed(int offset) {
+    buffer.putInt(4, offset);
+  }
+
+  boolean isReplayed() {
+    return replayOffset() >= writeOffset;
+  }
+
+  /**
+   * Is used to write the changes of the segment to the storage device
+   */
+  void force() {
+    buffer.force();
+  }
+
+  void delete() throws IOException {
+    Files.deleteIfExists(file);
+  }
+}
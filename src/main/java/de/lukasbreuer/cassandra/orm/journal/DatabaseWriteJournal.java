@@ -0,0 +1,484 @@
+package de.lukasbreuer.cassandra.orm.journal;
+
+import com.datastax.oss.driver.api.core.AllNodesFailedException;
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.servererrors.UnavailableException;
+import com.datastax.oss.driver.api.core.servererrors.WriteTimeoutException;
+import com.google.common.collect.Lists;
+import de.lukasbreuer.cassandra.orm.DatabaseConnection;
+import de.lukasbreuer.cassandra.orm.DatabaseTable;
+import de.lukasbreuer.cassandra.orm.concurrency.BoundedParallelism;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A local write-ahead journal for write operations that could not be sent
+ * to the cluster. The records are appended to memory mapped segment files,
+ * which are rotated when they are full and deleted once they are replayed.
+ * <p>
+ * As soon as a write is journaled, the journal defers all further writes
+ * until a background replayer managed to drain it, so that no write waits
+ * for a timeout while the cluster is unreachable. The replayer drains the
+ * records in order, one window at a time with bounded parallelism. Since
+ * the records keep the client timestamp of their original operation, the
+ * order within a window does not matter and a window that is replayed twice
+ * after a failure writes the same cells again. Counter updates have no
+ * timestamp and are journaled only if they were certainly not sent, but a
+ * failed window may still apply its counter updates twice.
+ * <p>
+ * A record that fails for another reason than an unreachable cluster, e.g.
+ * because the schema changed, would fail on every replay. It is moved into
+ * the dead letter file of the journal instead, so that it does not keep the
+ * journal from draining
+ */
+@Accessors(fluent = true)
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DatabaseWriteJournal implements AutoCloseable {
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".journal";
+  private static final String DEAD_LETTER_FILE = "dead-letter.journal";
+
+  /**
+   * Is used to open the journal of a directory. Records that were journaled
+   * before are replayed once the connection is healthy
+   * @param connection The connection through which the records are replayed
+   * @param options The segment size and the replay parameters
+   * @return The opened journal
+   * @throws IOException If the segments cannot be opened
+   */
+  public static DatabaseWriteJournal open(
+    DatabaseConnection connection, DatabaseJournalOptions options
+  ) throws IOException {
+    return open(options, record -> replay(connection, record));
+  }
+
+  static DatabaseWriteJournal open(
+    DatabaseJournalOptions options,
+    Function<DatabaseJournalRecord, CompletableFuture<?>> execution
+  ) throws IOException {
+    Files.createDirectories(options.directory());
+    var journal = new DatabaseWriteJournal(execution, options,
+      Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "cassandra-journal-replay");
+        thread.setDaemon(true);
+        return thread;
+      }));
+    try (var files = Files.list(options.directory())) {
+      for (var file : files.filter(DatabaseWriteJournal::isSegment).sorted()
+        .toList()
+      ) {
+        var segment = DatabaseJournalSegment.open(file, segmentId(file));
+        journal.segments.add(segment);
+        journal.pendingRecords.addAndGet(segment.count(
+          segment.replayOffset()));
+      }
+    }
+    journal.deferring.set(journal.pendingRecords.get() > 0);
+    var interval = options.replayInterval().toNanos();
+    journal.replayer.scheduleWithFixedDelay(journal::replay, interval,
+      interval, TimeUnit.NANOSECONDS);
+    return journal;
+  }
+
+  private static boolean isSegment(Path file) {
+    var name = file.getFileName().toString();
+    return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+  }
+
+  private static long segmentId(Path file) {
+    var name = file.getFileName().toString();
+    return Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+      name.length() - SEGMENT_SUFFIX.length()));
+  }
+
+  private static CompletableFuture<?> replay(
+    DatabaseConnection connection, DatabaseJournalRecord record
+  ) {
+    return connection.prepareBinder(record.query()).thenCompose(binder -> {
+      var statement = binder.bindBuilder(record.values());
+      if (!record.counter()) {
+        statement.setQueryTimestamp(record.timestamp());
+      }
+      return connection.executeStatement(statement.build());
+    });
+  }
+
+  /**
+   * Writes that failed with one of these errors were not applied, or are
+   * applied again with the same timestamp by the replay
+   */
+  private static boolean isUnavailable(Throwable throwable, boolean counter) {
+    while (throwable instanceof CompletionException &&
+      throwable.getCause() != null
+    ) {
+      throwable = throwable.getCause();
+    }
+    if (throwable instanceof AllNodesFailedException ||
+      throwable instanceof RejectedExecutionException ||
+      throwable instanceof UnavailableException
+    ) {
+      return true;
+    }
+    return !counter && (throwable instanceof DriverTimeoutException ||
+      throwable instanceof WriteTimeoutException);
+  }
+
+  private final Function<DatabaseJournalRecord, CompletableFuture<?>>
+    execution;
+  @Getter
+  private final DatabaseJournalOptions options;
+  private final ScheduledExecutorService replayer;
+  private final Deque<DatabaseJournalSegment> segments = new ArrayDeque<>();
+  private final Map<String, DatabaseTable> tables = new ConcurrentHashMap<>();
+  private final AtomicBoolean deferring = new AtomicBoolean();
+  private final AtomicBoolean replaying = new AtomicBoolean();
+  private final AtomicLong pendingRecords = new AtomicLong();
+  private final LongAdder appendedRecords = new LongAdder();
+  private final LongAdder replayedRecords = new LongAdder();
+  private final LongAdder failedReplays = new LongAdder();
+  private final LongAdder deadLetteredRecords = new LongAdder();
+  private volatile double replayThroughput;
+
+  /**
+   * Whether writes are currently deferred into the journal instead of being
+   * sent to the cluster
+   * @return True while the journal is not drained
+   */
+  public boolean isDeferring() {
+    return deferring.get();
+  }
+
+  /**
+   * Is used to register a table whose listeners are notified once its
+   * journaled writes are replayed. Tables that read while the journal is not
+   * drained have to be registered, so that rows they cached in the meantime
+   * are invalidated
+   * @param table The table
+   */
+  public void registerTable(DatabaseTable table) {
+    if (!tables.containsKey(table.fullName())) {
+      tables.putIfAbsent(table.fullName(), table);
+    }
+  }
+
+  /**
+   * Is used to journal a write that failed, if the failure indicates that
+   * the cluster is unreachable
+   * @param record The failed write
+   * @param throwable The failure of the write
+   * @return Whether the write was journaled
+   */
+  public boolean journalFailure(
+    DatabaseJournalRecord record, Throwable throwable
+  ) {
+    if (!isUnavailable(throwable, record.counter())) {
+      return false;
+    }
+    append(record);
+    return true;
+  }
+
+  /**
+   * Is used to journal the records of a statement that failed, e.g. the
+   * members of a batch, if the failure indicates that the cluster is
+   * unreachable. The records of one statement share their table, so they
+   * are either all counter updates or none of them is
+   * @param records The records of the failed statement
+   * @param throwable The failure of the statement
+   * @return Whether the records were journaled
+   */
+  public boolean journalFailure(
+    List<DatabaseJournalRecord> records, Throwable throwable
+  ) {
+    if (records.isEmpty() ||
+      !isUnavailable(throwable, records.get(0).counter())
+    ) {
+      return false;
+    }
+    append(records);
+    return true;
+  }
+
+  /**
+   * Is used to append a write to the journal and to defer the following
+   * writes until the journal is replayed
+   * @param record The write that is to be journaled
+   * @throws UncheckedIOException If the segment cannot be written
+   */
+  public synchronized void append(DatabaseJournalRecord record) {
+    var payload = record.serialize();
+    try {
+      var segment = segments.peekLast();
+      if (segment == null || !segment.append(payload)) {
+        segment = rotate(segment);
+        if (!segment.append(payload)) {
+          throw new IOException("The record of " + payload.length +
+            " bytes is larger than a segment");
+        }
+      }
+      if (options.forceEachAppend()) {
+        segment.force();
+      }
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+    pendingRecords.incrementAndGet();
+    appendedRecords.increment();
+    deferring.set(true);
+  }
+
+  /**
+   * Is used to append the records of one statement to the journal, without
+   * records of other statements in between
+   * @param records The writes that are to be journaled
+   * @throws UncheckedIOException If the segment cannot be written
+   */
+  public synchronized void append(List<DatabaseJournalRecord> records) {
+    records.forEach(this::append);
+  }
+
+  private DatabaseJournalSegment rotate(DatabaseJournalSegment previous)
+    throws IOException
+  {
+    if (previous != null) {
+      previous.force();
+    }
+    var id = previous == null ? 0 : previous.id() + 1;
+    var segment = DatabaseJournalSegment.create(options.directory()
+      .resolve(String.format("%s%016d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX)),
+      id, options.segmentSize());
+    segments.add(segment);
+    return segment;
+  }
+
+  /**
+   * Is used to replay the journal right away instead of waiting for the next
+   * replay interval
+   * @return A future that is completed when the replay attempt is completed
+   */
+  public CompletableFuture<Void> replayNow() {
+    return CompletableFuture.runAsync(this::replay, replayer);
+  }
+
+  /**
+   * Replays windows until the journal is drained or a window fails. The
+   * progress is stored in the segment after every window, so that a restart
+   * continues behind the last replayed window
+   */
+  private void replay() {
+    if (!replaying.compareAndSet(false, true)) {
+      return;
+    }
+    var start = System.nanoTime();
+    var replayed = 0L;
+    try {
+      while (true) {
+        List<byte[]> payloads = Lists.newArrayList();
+        DatabaseJournalSegment segment;
+        int end;
+        synchronized (this) {
+          segment = segments.peekFirst();
+          if (segment == null) {
+            break;
+          }
+          end = segment.read(segment.replayOffset(), options.replayWindow(),
+            payloads);
+          if (payloads.isEmpty()) {
+            if (segment == segments.peekLast()) {
+              break;
+            }
+            segments.pollFirst();
+            segment.delete();
+            continue;
+          }
+        }
+        var records = payloads.stream()
+          .map(DatabaseJournalRecord::deserialize).toList();
+        BoundedParallelism.execute(records, options.replayParallelism(),
+          this::replayRecord).join();
+        synchronized (this) {
+          segment.markReplayed(end);
+          segment.force();
+          pendingRecords.addAndGet(-records.size());
+        }
+        notifyReplayed(records);
+        replayedRecords.add(records.size());
+        replayed += records.size();
+      }
+      synchronized (this) {
+        if (pendingRecords.get() == 0) {
+          deferring.set(false);
+        }
+      }
+    } catch (CompletionException | IOException exception) {
+      failedReplays.increment();
+    } finally {
+      if (replayed > 0) {
+        replayThroughput = replayed * 1e9 / (System.nanoTime() - start);
+      }
+      replaying.set(false);
+    }
+  }
+
+  /**
+   * A record that fails because the cluster is unreachable fails its window,
+   * which is retried on the next replay. Every other failure is final
+   */
+  private CompletableFuture<Void> replayRecord(DatabaseJournalRecord record) {
+    CompletableFuture<?> result;
+    try {
+      result = execution.apply(record);
+    } catch (RuntimeException exception) {
+      result = CompletableFuture.failedFuture(exception);
+    }
+    return result.handle((value, throwable) -> {
+      if (throwable == null) {
+        return null;
+      }
+      if (isUnavailable(throwable, record.counter())) {
+        throw throwable instanceof CompletionException completionException ?
+          completionException : new CompletionException(throwable);
+      }
+      deadLetter(record);
+      return null;
+    });
+  }
+
+  private synchronized void deadLetter(DatabaseJournalRecord record) {
+    var payload = record.serialize();
+    var frame = ByteBuffer.allocate(Integer.BYTES + payload.length)
+      .putInt(payload.length).put(payload).array();
+    try {
+      Files.write(deadLetterFile(), frame, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+    deadLetteredRecords.increment();
+  }
+
+  /**
+   * The listeners cannot be told which rows a replayed record wrote, so they
+   * are told that the table was written by the replay
+   */
+  private void notifyReplayed(List<DatabaseJournalRecord> records) {
+    var tableNames = new LinkedHashSet<String>();
+    records.forEach(record -> tableNames.add(record.table()));
+    for (var tableName : tableNames) {
+      var table = tables.get(tableName);
+      if (table != null) {
+        table.notifyListeners(listener -> listener.writesReplayed(table));
+      }
+    }
+  }
+
+  /**
+   * The file into which the records are moved that cannot be replayed
+   * @return The path of the dead letter file
+   */
+  public Path deadLetterFile() {
+    return options.directory().resolve(DEAD_LETTER_FILE);
+  }
+
+  /**
+   * Is used to read the records that could not be replayed, e.g. to apply
+   * them by hand after the schema was fixed
+   * @return The dead letter records in the order in which they failed
+   * @throws IOException If the dead letter file cannot be read
+   */
+  public synchronized List<DatabaseJournalRecord> readDeadLetters()
+    throws IOException
+  {
+    if (!Files.exists(deadLetterFile())) {
+      return List.of();
+    }
+    var input = ByteBuffer.wrap(Files.readAllBytes(deadLetterFile()));
+    List<DatabaseJournalRecord> records = Lists.newArrayList();
+    while (input.remaining() >= Integer.BYTES) {
+      var payload = new byte[input.getInt()];
+      input.get(payload);
+      records.add(DatabaseJournalRecord.deserialize(payload));
+    }
+    return records;
+  }
+
+  /**
+   * Is used to stop the replayer and to write all segments to the storage
+   * device. Records that were not replayed stay in the journal
+   */
+  @Override
+  public synchronized void close() {
+    replayer.shutdown();
+    segments.forEach(DatabaseJournalSegment::force);
+  }
+
+  /**
+   * The number of journaled writes that were not replayed yet
+   * @return The number of pending records
+   */
+  public long pendingRecords() {
+    return pendingRecords.get();
+  }
+
+  public long appendedRecords() {
+    return appendedRecords.sum();
+  }
+
+  public long replayedRecords() {
+    return replayedRecords.sum();
+  }
+
+  /**
+   * The number of replay attempts that stopped because a window failed
+   * @return The number of failed replays
+   */
+  public long failedReplays() {
+    return failedReplays.sum();
+  }
+
+  /**
+   * The number of records that were moved into the dead letter file
+   * @return The number of dead letter records
+   */
+  public long deadLetteredRecords() {
+    return deadLetteredRecords.sum();
+  }
+
+  /**
+   * The number of records per second of the last replay that replayed at
+   * least one record
+   * @return The replay throughput
+   */
+  public double replayThroughput() {
+    return replayThroughput;
+  }
+
+  public synchronized int segmentCount() {
+    return segments.size();
+  }
+}
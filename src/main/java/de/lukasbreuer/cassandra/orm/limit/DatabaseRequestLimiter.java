@@ -0,0 +1,191 @@
+package de.lukasbreuer.cassandra.orm.limit;
+
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.connection.BusyConnectionException;
+import com.datastax.oss.driver.api.core.servererrors.OverloadedException;
+import com.datastax.oss.driver.api.core.servererrors.ReadTimeoutException;
+import com.datastax.oss.driver.api.core.servererrors.WriteTimeoutException;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits the number of requests in flight with an additive increase /
+ * multiplicative decrease (AIMD) algorithm. The limit grows while requests
+ * complete below the latency threshold and shrinks as soon as requests are
+ * slower than the threshold or time out
+ */
+@Accessors(fluent = true)
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DatabaseRequestLimiter {
+  public static DatabaseRequestLimiter create(
+    Mode mode, int initialLimit, int minimumLimit, int maximumLimit,
+    int maximumQueueSize, Duration latencyThreshold, double backoffRatio
+  ) {
+    var limiter = new DatabaseRequestLimiter(mode, minimumLimit, maximumLimit,
+      maximumQueueSize, latencyThreshold.toNanos(), backoffRatio);
+    limiter.estimatedLimit = Math.min(Math.max(initialLimit, minimumLimit),
+      maximumLimit);
+    limiter.limit = (int) limiter.estimatedLimit;
+    return limiter;
+  }
+
+  public enum Mode {
+    QUEUE,
+    FAIL_FAST;
+
+    public boolean isQueue() {
+      return this == QUEUE;
+    }
+
+    public boolean isFailFast() {
+      return this == FAIL_FAST;
+    }
+  }
+
+  @Getter
+  private final Mode mode;
+  @Getter
+  private final int minimumLimit;
+  @Getter
+  private final int maximumLimit;
+  @Getter
+  private final int maximumQueueSize;
+  private final long latencyThreshold;
+  private final double backoffRatio;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger queueDepth = new AtomicInteger();
+  private final Queue<CompletableFuture<Permit>> queue =
+    new ConcurrentLinkedQueue<>();
+  private double estimatedLimit;
+  private volatile int limit;
+
+  /**
+   * Is used to acquire a permit for a single request. In queue mode the
+   * future is completed as soon as a permit is free, in fail fast mode it is
+   * completed exceptionally if no permit is free
+   * @return The future that contains the permit
+   */
+  public CompletableFuture<Permit> acquire() {
+    if (tryAcquire()) {
+      return CompletableFuture.completedFuture(new Permit());
+    }
+    if (mode.isFailFast() || queueDepth.incrementAndGet() > maximumQueueSize) {
+      if (mode.isQueue()) {
+        queueDepth.decrementAndGet();
+      }
+      return CompletableFuture.failedFuture(new RejectedExecutionException(
+        "The request limit of " + limit + " is exceeded"));
+    }
+    var permit = new CompletableFuture<Permit>();
+    queue.add(permit);
+    drain();
+    return permit;
+  }
+
+  private boolean tryAcquire() {
+    while (true) {
+      var current = inFlight.get();
+      if (current >= limit) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Hands free permits to the queued requests. Is called after every release
+   * and after every enqueue, so that no request waits while permits are free
+   */
+  private void drain() {
+    while (!queue.isEmpty() && tryAcquire()) {
+      var waiter = queue.poll();
+      if (waiter == null) {
+        inFlight.decrementAndGet();
+        continue;
+      }
+      queueDepth.decrementAndGet();
+      if (!waiter.complete(new Permit())) {
+        inFlight.decrementAndGet();
+      }
+    }
+  }
+
+  private synchronized void updateLimit(long latency, boolean dropped) {
+    if (dropped || latency > latencyThreshold) {
+      estimatedLimit = Math.max(minimumLimit, estimatedLimit * backoffRatio);
+    } else if (inFlight.get() * 2 >= limit) {
+      estimatedLimit = Math.min(maximumLimit,
+        estimatedLimit + 1 / estimatedLimit);
+    }
+    limit = (int) estimatedLimit;
+  }
+
+  private static boolean isDropped(Throwable throwable) {
+    while (throwable instanceof CompletionException &&
+      throwable.getCause() != null
+    ) {
+      throwable = throwable.getCause();
+    }
+    return throwable instanceof DriverTimeoutException ||
+      throwable instanceof OverloadedException ||
+      throwable instanceof ReadTimeoutException ||
+      throwable instanceof WriteTimeoutException ||
+      throwable instanceof BusyConnectionException;
+  }
+
+  /**
+   * The current number of permits
+   * @return The limit
+   */
+  public int limit() {
+    return limit;
+  }
+
+  /**
+   * The number of requests that currently hold a permit
+   * @return The number of requests in flight
+   */
+  public int inFlight() {
+    return inFlight.get();
+  }
+
+  /**
+   * The number of requests that are waiting for a permit
+   * @return The queue depth
+   */
+  public int queueDepth() {
+    return queueDepth.get();
+  }
+
+  public final class Permit {
+    private final long start = System.nanoTime();
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    /**
+     * Is used to return the permit once the request is completed
+     * @param throwable The failure of the request or null on success
+     */
+    public void release(Throwable throwable) {
+      if (!released.compareAndSet(false, true)) {
+        return;
+      }
+      updateLimit(System.nanoTime() - start,
+        throwable != null && isDropped(throwable));
+      inFlight.decrementAndGet();
+      drain();
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package de.lukasbreuer.cassandra.orm.listener;
+
+import de.lukasbreuer.cassandra.orm.DatabaseRow;
+import de.lukasbreuer.cassandra.orm.DatabaseTable;
+import de.lukasbreuer.cassandra.orm.condition.DatabaseCondition;
+
+import java.util.Collection;
+
+/**
+ * Is notified about the writes that pass through the table. The
+ * notification is sent once a write is completed, successful or not, since a
+ * failed write might still have been applied by some replicas
+ */
+public interface DatabaseTableListener {
+  /**
+   * Is called after rows were inserted
+   * @param table The table of the rows
+   * @param rows The inserted rows
+   */
+  default void rowsInserted(DatabaseTable table, Collection<DatabaseRow> rows) {
+  }
+
+  /**
+   * Is called after rows were updated
+   * @param table The table of the rows
+   * @param condition The condition with which the rows were found
+   */
+  default void rowsUpdated(DatabaseTable table, DatabaseCondition condition) {
+  }
+
+  /**
+   * Is called after rows were deleted
+   * @param table The table of the rows
+   * @param condition The condition with which the rows were found
+   */
+  default void rowsDeleted(DatabaseTable table, DatabaseCondition condition) {
+  }
+
+  /**
+   * Is called after all rows of the table were removed
+   * @param table The truncated table
+   */
+  default void tableTruncated(DatabaseTable table) {
+  }
+
+  /**
+   * Is called after writes of the table were replayed from the write
+   * journal, whose rows are not known anymore
+   * @param table The table of the replayed writes
+   */
+  default void writesReplayed(DatabaseTable table) {
+  }
+}
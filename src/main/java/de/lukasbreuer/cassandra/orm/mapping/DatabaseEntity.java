@@ -0,0 +1,21 @@
+package de.lukasbreuer.cassandra.orm.mapping;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a record or class whose mapper is generated at compile time. The
+ * mapper is generated into the same package and is named after the entity
+ * with the suffix Mapper. Every non static field of the entity is a column
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface DatabaseEntity {
+  /**
+   * The name of the table, by default the snake case name of the entity
+   * @return The table name
+   */
+  String name() default "";
+}
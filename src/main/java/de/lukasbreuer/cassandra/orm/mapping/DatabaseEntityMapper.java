@@ -0,0 +1,79 @@
+package de.lukasbreuer.cassandra.orm.mapping;
+
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.google.common.collect.Lists;
+import de.lukasbreuer.cassandra.orm.DatabaseColumn;
+import de.lukasbreuer.cassandra.orm.DatabaseConnection;
+import de.lukasbreuer.cassandra.orm.DatabaseKeyspace;
+import de.lukasbreuer.cassandra.orm.DatabaseRow;
+import de.lukasbreuer.cassandra.orm.DatabaseTable;
+import de.lukasbreuer.cassandra.orm.condition.DatabaseCondition;
+
+import java.util.List;
+
+/**
+ * Maps an entity from and to the columns of its table. Implementations are
+ * generated for every {@link DatabaseEntity} and bind and read the fields
+ * with the typed methods of the driver
+ * @param <T> The type of the entity
+ */
+public interface DatabaseEntityMapper<T> {
+  String tableName();
+
+  /**
+   * The columns of the table in the order in which they are bound and read
+   * @return The columns
+   */
+  List<DatabaseColumn> columns();
+
+  /**
+   * Is used to bind all columns of an entity in the order of the columns
+   * @param statement The builder of the statement
+   * @param entity The entity
+   * @return The builder of the statement
+   */
+  BoundStatementBuilder bind(BoundStatementBuilder statement, T entity);
+
+  /**
+   * Is used to read an entity from a row that contains all columns in the
+   * order of the columns
+   * @param row The row of the driver
+   * @return The entity
+   */
+  T decode(Row row);
+
+  /**
+   * Is used to convert an entity into a row, for example for the listeners
+   * of the table
+   * @param entity The entity
+   * @return The row
+   */
+  DatabaseRow toRow(T entity);
+
+  /**
+   * Is used to build the condition that finds the row of an entity
+   * @param entity The entity
+   * @return The condition of all key columns
+   */
+  DatabaseCondition keyCondition(T entity);
+
+  default BoundStatement bind(PreparedStatement statement, T entity) {
+    return bind(statement.boundStatementBuilder(), entity).build();
+  }
+
+  /**
+   * Is used to create the table of the entity
+   * @param connection The connection of the table
+   * @param keyspace The keyspace of the table
+   * @return The table
+   */
+  default DatabaseTable createTable(
+    DatabaseConnection connection, DatabaseKeyspace keyspace
+  ) {
+    return new DatabaseTable(connection, keyspace, tableName(),
+      Lists.newArrayList(columns()));
+  }
+}
@@ -0,0 +1,108 @@
+package de.lukasbreuer.cassandra.orm.mapping;
+
+import com.google.common.base.Suppliers;
+import de.lukasbreuer.cassandra.orm.DatabaseColumn;
+import de.lukasbreuer.cassandra.orm.DatabaseOperation;
+import de.lukasbreuer.cassandra.orm.DatabaseTable;
+import de.lukasbreuer.cassandra.orm.condition.DatabaseCondition;
+import de.lukasbreuer.cassandra.orm.stream.DatabaseRowStreams;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Reads and writes the entities of a table through their generated mapper.
+ * Entities are bound into and read from the statements of the driver
+ * directly, without an intermediate database row. Like the fix operations of
+ * the table the transformation processes are ignored
+ * @param <T> The type of the entities
+ */
+@Accessors(fluent = true)
+@RequiredArgsConstructor(staticName = "create")
+public final class DatabaseEntityTable<T> {
+  @Getter
+  private final DatabaseTable table;
+  @Getter
+  private final DatabaseEntityMapper<T> mapper;
+  private final Supplier<String> insertQuery =
+    Suppliers.memoize(this::buildInsertQuery);
+
+  /**
+   * Is used to insert an entity
+   * @param entity The entity
+   * @return A future that is completed when the insertion is completed
+   */
+  public CompletableFuture<Void> insert(T entity) {
+    var connection = table.connection();
+    return connection.prepare(insertQuery.get())
+      .thenCompose(statement -> connection.executeStatement(table,
+        DatabaseOperation.INSERT, mapper.bind(statement, entity)))
+      .whenComplete((value, throwable) -> notifyInserted(entity))
+      .thenApply(value -> null);
+  }
+
+  /**
+   * The mapper binds its fields in the order of its columns, which is not
+   * necessarily the order of the columns of the table
+   */
+  private String buildInsertQuery() {
+    var columnNames = mapper.columns().stream()
+      .map(DatabaseColumn::name).toList();
+    return "INSERT INTO " + table.fullName() + " (" +
+      String.join(", ", columnNames) + ") VALUES (" +
+      String.join(", ", Collections.nCopies(columnNames.size(), "?")) + ");";
+  }
+
+  /**
+   * The row of the entity is only built if there are listeners, which is
+   * then shared between all of them
+   */
+  private void notifyInserted(T entity) {
+    var row = Suppliers.memoize(() -> mapper.toRow(entity));
+    table.notifyListeners(listener ->
+      listener.rowsInserted(table, List.of(row.get())));
+  }
+
+  /**
+   * Is used to find a single entity
+   * @param condition The condition with which the entity can be found
+   * @return A future that contains the entity if it exists
+   */
+  public CompletableFuture<Optional<T>> find(DatabaseCondition condition) {
+    return findAll(condition)
+      .thenApply(entities -> entities.stream().findFirst());
+  }
+
+  public CompletableFuture<List<T>> findAll() {
+    return findAll(DatabaseCondition.empty());
+  }
+
+  /**
+   * Is used to find all entities of a condition
+   * @param condition The condition with which the entities can be found
+   * @return A future that contains the entities
+   */
+  public CompletableFuture<List<T>> findAll(DatabaseCondition condition) {
+    var templates = table.statementTemplates();
+    var columnNames = templates.projection(mapper.columns()).columnNames();
+    var query = templates.selectQuery(columnNames, condition, -1);
+    return table.connection().execute(table, DatabaseOperation.SELECT, query,
+        condition.values())
+      .thenCompose(result -> DatabaseRowStreams.collect(result,
+        mapper::decode));
+  }
+
+  public CompletableFuture<Boolean> exists(T entity) {
+    return table.exists(mapper.keyCondition(entity));
+  }
+
+  public CompletableFuture<Void> delete(T entity) {
+    return table.delete(mapper.keyCondition(entity));
+  }
+}
@@ -0,0 +1,32 @@
+package de.lukasbreuer.cassandra.orm.mapping;
+
+import de.lukasbreuer.cassandra.orm.DatabaseColumn;
+import de.lukasbreuer.cassandra.orm.DatabaseDataType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Configures the column of a field of an entity
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.FIELD, ElementType.RECORD_COMPONENT})
+public @interface DatabaseField {
+  /**
+   * The name of the column, by default the snake case name of the field
+   * @return The column name
+   */
+  String name() default "";
+
+  DatabaseColumn.Type type() default DatabaseColumn.Type.REGULAR;
+
+  /**
+   * The data type of the column, by default it is derived from the type of
+   * the field. Is used for types with more than one representation, for
+   * example timeuuid or counter
+   * @return The data type or no element for the derived type
+   */
+  DatabaseDataType[] dataType() default {};
+}
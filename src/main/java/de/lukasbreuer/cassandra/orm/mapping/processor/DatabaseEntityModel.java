@@ -0,0 +1,42 @@
+package de.lukasbreuer.cassandra.orm.mapping.processor;
+
+import de.lukasbreuer.cassandra.orm.DatabaseColumn;
+import de.lukasbreuer.cassandra.orm.DatabaseDataType;
+
+import java.util.List;
+
+/**
+ * The analyzed entity from which a mapper is generated
+ * @param packageName The package of the entity and its mapper
+ * @param entityName The canonical name of the entity
+ * @param mapperName The simple name of the mapper
+ * @param tableName The name of the table
+ * @param construction The way in which entities are constructed
+ * @param fields The mapped fields in the order of the columns
+ */
+record DatabaseEntityModel(
+  String packageName, String entityName, String mapperName, String tableName,
+  Construction construction, List<Field> fields
+) {
+  enum Construction {
+    CONSTRUCTOR,
+    FIELDS
+  }
+
+  /**
+   * A single mapped field
+   * @param name The name of the field
+   * @param columnName The name of the column
+   * @param columnType The key type of the column
+   * @param dataType The data type of the column
+   * @param fieldType The java type of the field
+   * @param boxed Whether the field is a boxed primitive
+   * @param accessor The expression that reads the field from an entity
+   */
+  record Field(
+    String name, String columnName, DatabaseColumn.Type columnType,
+    DatabaseDataType dataType, DatabaseFieldType fieldType, boolean boxed,
+    String accessor
+  ) {
+  }
+}
@@ -0,0 +1,270 @@
+package de.lukasbreuer.cassandra.orm.mapping.processor;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import de.lukasbreuer.cassandra.orm.DatabaseColumn;
+import de.lukasbreuer.cassandra.orm.mapping.DatabaseEntity;
+import de.lukasbreuer.cassandra.orm.mapping.DatabaseField;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Generates the mappers of all {@link DatabaseEntity} types. The generated
+ * mappers bind and read every field with the typed methods of the driver, so
+ * that neither reflection nor boxed value arrays are needed at runtime
+ */
+@SupportedAnnotationTypes("de.lukasbreuer.cassandra.orm.mapping.DatabaseEntity")
+public final class DatabaseEntityProcessor extends AbstractProcessor {
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(
+    Set<? extends TypeElement> annotations, RoundEnvironment environment
+  ) {
+    for (var element : environment.getElementsAnnotatedWith(
+      DatabaseEntity.class)
+    ) {
+      if (element.getKind() != ElementKind.RECORD &&
+        element.getKind() != ElementKind.CLASS
+      ) {
+        error(element, "Only records and classes can be database entities");
+        continue;
+      }
+      readEntity((TypeElement) element).ifPresent(entity ->
+        writeMapper(entity, element));
+    }
+    return true;
+  }
+
+  private Optional<DatabaseEntityModel> readEntity(TypeElement type) {
+    if (!type.getTypeParameters().isEmpty() ||
+      type.getModifiers().contains(Modifier.PRIVATE) ||
+      (type.getNestingKind() == NestingKind.MEMBER &&
+        !type.getModifiers().contains(Modifier.STATIC) &&
+        type.getKind() == ElementKind.CLASS)
+    ) {
+      error(type, "Database entities must not be generic, private or inner " +
+        "classes");
+      return Optional.empty();
+    }
+    var record = type.getKind() == ElementKind.RECORD;
+    var variables = record ? recordFields(type) : classFields(type);
+    List<DatabaseEntityModel.Field> fields = Lists.newArrayList();
+    Set<String> columnNames = Sets.newHashSet();
+    for (var variable : variables) {
+      var field = readField(type, variable, record);
+      if (field.isEmpty()) {
+        return Optional.empty();
+      }
+      if (!columnNames.add(field.get().columnName())) {
+        error(variable, "The column " + field.get().columnName() +
+          " is mapped twice");
+        return Optional.empty();
+      }
+      fields.add(field.get());
+    }
+    if (fields.stream().allMatch(field -> field.columnType().isRegular())) {
+      error(type, "Database entities need at least one key field");
+      return Optional.empty();
+    }
+    var construction = record ?
+      Optional.of(DatabaseEntityModel.Construction.CONSTRUCTOR) :
+      findConstruction(type, variables);
+    if (construction.isEmpty()) {
+      error(type, "Database entities need a constructor with all fields in " +
+        "declaration order or a no argument constructor and assignable fields");
+      return Optional.empty();
+    }
+    var annotation = type.getAnnotation(DatabaseEntity.class);
+    var tableName = annotation.name().isEmpty() ?
+      snakeCase(type.getSimpleName().toString()) : annotation.name();
+    var packageName = processingEnv.getElementUtils().getPackageOf(type)
+      .getQualifiedName().toString();
+    return Optional.of(new DatabaseEntityModel(packageName,
+      type.getQualifiedName().toString(), mapperName(type), tableName,
+      construction.get(), List.copyOf(fields)));
+  }
+
+  private List<VariableElement> recordFields(TypeElement type) {
+    return ElementFilter.fieldsIn(type.getEnclosedElements()).stream()
+      .filter(field -> !field.getModifiers().contains(Modifier.STATIC))
+      .toList();
+  }
+
+  private List<VariableElement> classFields(TypeElement type) {
+    return ElementFilter.fieldsIn(type.getEnclosedElements()).stream()
+      .filter(field -> !field.getModifiers().contains(Modifier.STATIC) &&
+        !field.getModifiers().contains(Modifier.TRANSIENT))
+      .toList();
+  }
+
+  private Optional<DatabaseEntityModel.Field> readField(
+    TypeElement type, VariableElement variable, boolean record
+  ) {
+    var name = variable.getSimpleName().toString();
+    var typeMirror = variable.asType();
+    var typeName = typeMirror.getKind().isPrimitive() ? typeMirror.toString() :
+      processingEnv.getTypeUtils().erasure(typeMirror).toString();
+    var fieldType = DatabaseFieldType.find(typeName);
+    if (fieldType.isEmpty()) {
+      error(variable, "The type " + typeName + " cannot be mapped");
+      return Optional.empty();
+    }
+    var annotation = variable.getAnnotation(DatabaseField.class);
+    var columnName = snakeCase(name);
+    var columnType = DatabaseColumn.Type.REGULAR;
+    var dataType = fieldType.get().dataType();
+    if (annotation != null) {
+      columnName = annotation.name().isEmpty() ? columnName :
+        annotation.name();
+      columnType = annotation.type();
+      if (annotation.dataType().length > 0) {
+        dataType = annotation.dataType()[0];
+      }
+    }
+    if (!fieldType.get().supports(dataType)) {
+      error(variable, "The type " + typeName + " cannot be mapped onto " +
+        dataType);
+      return Optional.empty();
+    }
+    var accessor = record ? Optional.of(name + "()") :
+      findAccessor(type, variable);
+    if (accessor.isEmpty()) {
+      error(variable, "The private field " + name + " needs an accessor");
+      return Optional.empty();
+    }
+    return Optional.of(new DatabaseEntityModel.Field(name, columnName,
+      columnType, dataType, fieldType.get(),
+      !typeMirror.getKind().isPrimitive() && fieldType.get().hasPrimitive(),
+      accessor.get()));
+  }
+
+  /**
+   * Non private fields are read directly, private fields through a fluent
+   * or a bean style accessor
+   */
+  private Optional<String> findAccessor(
+    TypeElement type, VariableElement variable
+  ) {
+    var name = variable.getSimpleName().toString();
+    if (!variable.getModifiers().contains(Modifier.PRIVATE)) {
+      return Optional.of(name);
+    }
+    var capitalized = Character.toUpperCase(name.charAt(0)) +
+      name.substring(1);
+    var candidates = List.of(name, "get" + capitalized, "is" + capitalized);
+    var types = processingEnv.getTypeUtils();
+    return ElementFilter.methodsIn(type.getEnclosedElements()).stream()
+      .filter(method -> method.getParameters().isEmpty() &&
+        !method.getModifiers().contains(Modifier.PRIVATE) &&
+        !method.getModifiers().contains(Modifier.STATIC) &&
+        candidates.contains(method.getSimpleName().toString()) &&
+        types.isSameType(method.getReturnType(), variable.asType()))
+      .map(method -> method.getSimpleName() + "()")
+      .findFirst();
+  }
+
+  private Optional<DatabaseEntityModel.Construction> findConstruction(
+    TypeElement type, List<VariableElement> fields
+  ) {
+    var types = processingEnv.getTypeUtils();
+    var constructors = ElementFilter.constructorsIn(type.getEnclosedElements())
+      .stream().filter(constructor ->
+        !constructor.getModifiers().contains(Modifier.PRIVATE)).toList();
+    for (var constructor : constructors) {
+      if (matchesFields(constructor, fields, types)) {
+        return Optional.of(DatabaseEntityModel.Construction.CONSTRUCTOR);
+      }
+    }
+    var assignable = fields.stream().noneMatch(field ->
+      field.getModifiers().contains(Modifier.PRIVATE) ||
+        field.getModifiers().contains(Modifier.FINAL));
+    var defaultConstructor = constructors.stream()
+      .anyMatch(constructor -> constructor.getParameters().isEmpty());
+    return assignable && defaultConstructor ?
+      Optional.of(DatabaseEntityModel.Construction.FIELDS) : Optional.empty();
+  }
+
+  private boolean matchesFields(
+    ExecutableElement constructor, List<VariableElement> fields,
+    Types types
+  ) {
+    var parameters = constructor.getParameters();
+    if (parameters.size() != fields.size()) {
+      return false;
+    }
+    for (var i = 0; i < fields.size(); i++) {
+      if (!types.isSameType(parameters.get(i).asType(),
+        fields.get(i).asType())
+      ) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Mappers of nested entities are named after all enclosing types
+   */
+  private String mapperName(TypeElement type) {
+    var name = new StringBuilder(type.getSimpleName());
+    var enclosing = type.getEnclosingElement();
+    while (enclosing instanceof TypeElement enclosingType) {
+      name.insert(0, enclosingType.getSimpleName() + "_");
+      enclosing = enclosingType.getEnclosingElement();
+    }
+    return name.append("Mapper").toString();
+  }
+
+  static String snakeCase(String name) {
+    var snakeCase = new StringBuilder();
+    for (var i = 0; i < name.length(); i++) {
+      var character = name.charAt(i);
+      if (Character.isUpperCase(character) && i > 0 &&
+        !Character.isUpperCase(name.charAt(i - 1))
+      ) {
+        snakeCase.append('_');
+      }
+      snakeCase.append(Character.toLowerCase(character));
+    }
+    return snakeCase.toString();
+  }
+
+  private void writeMapper(DatabaseEntityModel entity, Element element) {
+    var qualifiedName = entity.packageName().isEmpty() ? entity.mapperName() :
+      entity.packageName() + "." + entity.mapperName();
+    try (var writer = processingEnv.getFiler()
+      .createSourceFile(qualifiedName, element).openWriter()
+    ) {
+      writer.write(DatabaseMapperWriter.create(entity).write());
+    } catch (IOException exception) {
+      error(element, "The mapper cannot be written: " +
+        exception.getMessage());
+    }
+  }
+
+  private void error(Element element, String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message,
+      element);
+  }
+}
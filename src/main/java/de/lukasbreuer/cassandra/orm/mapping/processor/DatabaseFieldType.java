@@ -0,0 +1,95 @@
+package de.lukasbreuer.cassandra.orm.mapping.processor;
+
+import de.lukasbreuer.cassandra.orm.DatabaseDataType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The java types that can be mapped onto a column, together with the typed
+ * methods of the driver that bind and read them
+ */
+enum DatabaseFieldType {
+  TEXT("String", DatabaseDataType.TEXT, List.of(DatabaseDataType.ASCII,
+    DatabaseDataType.VARCHAR), "java.lang.String"),
+  INT("Int", DatabaseDataType.INT, List.of(), "int", "java.lang.Integer"),
+  BIGINT("Long", DatabaseDataType.BIGINT, List.of(DatabaseDataType.COUNTER),
+    "long", "java.lang.Long"),
+  DOUBLE("Double", DatabaseDataType.DOUBLE, List.of(), "double",
+    "java.lang.Double"),
+  FLOAT("Float", DatabaseDataType.FLOAT, List.of(), "float",
+    "java.lang.Float"),
+  BOOLEAN("Boolean", DatabaseDataType.BOOLEAN, List.of(), "boolean",
+    "java.lang.Boolean"),
+  SMALLINT("Short", DatabaseDataType.SMALLINT, List.of(), "short",
+    "java.lang.Short"),
+  TINYINT("Byte", DatabaseDataType.TINYINT, List.of(), "byte",
+    "java.lang.Byte"),
+  UUID("Uuid", DatabaseDataType.UUID, List.of(DatabaseDataType.TIMEUUID),
+    "java.util.UUID"),
+  TIMESTAMP("Instant", DatabaseDataType.TIMESTAMP, List.of(),
+    "java.time.Instant"),
+  DATE("LocalDate", DatabaseDataType.DATE, List.of(), "java.time.LocalDate"),
+  TIME("LocalTime", DatabaseDataType.TIME, List.of(), "java.time.LocalTime"),
+  BLOB("ByteBuffer", DatabaseDataType.BLOB, List.of(), "java.nio.ByteBuffer"),
+  DECIMAL("BigDecimal", DatabaseDataType.DECIMAL, List.of(),
+    "java.math.BigDecimal"),
+  VARINT("BigInteger", DatabaseDataType.VARINT, List.of(),
+    "java.math.BigInteger"),
+  INET("InetAddress", DatabaseDataType.INET, List.of(),
+    "java.net.InetAddress"),
+  DURATION("CqlDuration", DatabaseDataType.DURATION, List.of(),
+    "com.datastax.oss.driver.api.core.data.CqlDuration");
+
+  /**
+   * Is used to find the field type of a java type
+   * @param typeName The primitive or qualified name of the java type
+   * @return The field type if the java type can be mapped
+   */
+  static Optional<DatabaseFieldType> find(String typeName) {
+    return Arrays.stream(values())
+      .filter(fieldType -> fieldType.typeNames.contains(typeName))
+      .findFirst();
+  }
+
+  private final String accessorSuffix;
+  private final DatabaseDataType dataType;
+  private final List<DatabaseDataType> alternativeDataTypes;
+  private final List<String> typeNames;
+
+  DatabaseFieldType(
+    String accessorSuffix, DatabaseDataType dataType,
+    List<DatabaseDataType> alternativeDataTypes, String... typeNames
+  ) {
+    this.accessorSuffix = accessorSuffix;
+    this.dataType = dataType;
+    this.alternativeDataTypes = alternativeDataTypes;
+    this.typeNames = List.of(typeNames);
+  }
+
+  DatabaseDataType dataType() {
+    return dataType;
+  }
+
+  boolean supports(DatabaseDataType dataType) {
+    return this.dataType == dataType || alternativeDataTypes.contains(dataType);
+  }
+
+  /**
+   * Fields of a primitive field type that are not primitive are boxed and
+   * may be null
+   * @return Whether the field type has a primitive representation
+   */
+  boolean hasPrimitive() {
+    return typeNames.size() > 1;
+  }
+
+  String setter() {
+    return "set" + accessorSuffix;
+  }
+
+  String getter() {
+    return "get" + accessorSuffix;
+  }
+}
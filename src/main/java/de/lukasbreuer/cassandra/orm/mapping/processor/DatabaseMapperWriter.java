@@ -0,0 +1,159 @@
+package de.lukasbreuer.cassandra.orm.mapping.processor;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Writes the source code of the mapper of an entity
+ */
+@RequiredArgsConstructor(staticName = "create")
+final class DatabaseMapperWriter {
+  private static final String ORM = "de.lukasbreuer.cassandra.orm";
+  private static final String DRIVER = "com.datastax.oss.driver.api.core.cql";
+
+  private final DatabaseEntityModel entity;
+  private final StringBuilder source = new StringBuilder();
+
+  String write() {
+    if (!entity.packageName().isEmpty()) {
+      line(0, "package " + entity.packageName() + ";");
+      line(0, "");
+    }
+    line(0, "@javax.annotation.processing.Generated(\"" +
+      DatabaseEntityProcessor.class.getName() + "\")");
+    line(0, "public final class " + entity.mapperName() + " implements " +
+      ORM + ".mapping.DatabaseEntityMapper<" + entity.entityName() + "> {");
+    line(1, "private static final " + entity.mapperName() +
+      " INSTANCE = new " + entity.mapperName() + "();");
+    writeColumns();
+    line(0, "");
+    line(1, "public static " + entity.mapperName() + " create() {");
+    line(2, "return INSTANCE;");
+    line(1, "}");
+    line(0, "");
+    line(1, "private " + entity.mapperName() + "() {");
+    line(1, "}");
+    line(0, "");
+    line(1, "@Override");
+    line(1, "public String tableName() {");
+    line(2, "return \"" + entity.tableName() + "\";");
+    line(1, "}");
+    line(0, "");
+    line(1, "@Override");
+    line(1, "public java.util.List<" + ORM + ".DatabaseColumn> columns() {");
+    line(2, "return COLUMNS;");
+    line(1, "}");
+    writeBind();
+    writeDecode();
+    writeToRow();
+    writeKeyCondition();
+    line(0, "}");
+    return source.toString();
+  }
+
+  private void writeColumns() {
+    line(1, "private static final java.util.List<" + ORM +
+      ".DatabaseColumn> COLUMNS = java.util.List.of(");
+    var fields = entity.fields();
+    for (var i = 0; i < fields.size(); i++) {
+      var field = fields.get(i);
+      line(2, ORM + ".DatabaseColumn.create(\"" + field.columnName() + "\", " +
+        ORM + ".DatabaseDataType." + field.dataType() + ", " + ORM +
+        ".DatabaseColumn.Type." + field.columnType() + ")" +
+        (i < fields.size() - 1 ? "," : ");"));
+    }
+  }
+
+  private void writeBind() {
+    line(0, "");
+    line(1, "@Override");
+    line(1, "public " + DRIVER + ".BoundStatementBuilder bind(");
+    line(2, DRIVER + ".BoundStatementBuilder statement, " +
+      entity.entityName() + " entity");
+    line(1, ") {");
+    var fields = entity.fields();
+    for (var i = 0; i < fields.size(); i++) {
+      var field = fields.get(i);
+      var setter = field.fieldType().setter();
+      if (!field.boxed()) {
+        line(2, "statement." + setter + "(" + i + ", entity." +
+          field.accessor() + ");");
+        continue;
+      }
+      line(2, "var value" + i + " = entity." + field.accessor() + ";");
+      line(2, "if (value" + i + " == null) {");
+      line(3, "statement.setToNull(" + i + ");");
+      line(2, "} else {");
+      line(3, "statement." + setter + "(" + i + ", value" + i + ");");
+      line(2, "}");
+    }
+    line(2, "return statement;");
+    line(1, "}");
+  }
+
+  private void writeDecode() {
+    line(0, "");
+    line(1, "@Override");
+    line(1, "public " + entity.entityName() + " decode(" + DRIVER +
+      ".Row row) {");
+    var fields = entity.fields();
+    if (entity.construction() == DatabaseEntityModel.Construction.FIELDS) {
+      line(2, "var entity = new " + entity.entityName() + "();");
+      for (var i = 0; i < fields.size(); i++) {
+        line(2, "entity." + fields.get(i).name() + " = " +
+          readExpression(fields.get(i), i) + ";");
+      }
+      line(2, "return entity;");
+      line(1, "}");
+      return;
+    }
+    line(2, "return new " + entity.entityName() + "(");
+    for (var i = 0; i < fields.size(); i++) {
+      line(3, readExpression(fields.get(i), i) +
+        (i < fields.size() - 1 ? "," : ");"));
+    }
+    line(1, "}");
+  }
+
+  private String readExpression(DatabaseEntityModel.Field field, int index) {
+    var read = "row." + field.fieldType().getter() + "(" + index + ")";
+    return field.boxed() ? "row.isNull(" + index + ") ? null : " + read : read;
+  }
+
+  private void writeToRow() {
+    line(0, "");
+    line(1, "@Override");
+    line(1, "public " + ORM + ".DatabaseRow toRow(" + entity.entityName() +
+      " entity) {");
+    line(2, "return " + ORM + ".DatabaseRow.of(");
+    var fields = entity.fields();
+    for (var i = 0; i < fields.size(); i++) {
+      line(3, "entity." + fields.get(i).accessor() +
+        (i < fields.size() - 1 ? "," : ");"));
+    }
+    line(1, "}");
+  }
+
+  private void writeKeyCondition() {
+    line(0, "");
+    line(1, "@Override");
+    line(1, "public " + ORM + ".condition.DatabaseCondition keyCondition(" +
+      entity.entityName() + " entity) {");
+    line(2, "return " + ORM + ".condition.DatabaseCondition.of(");
+    var keyFields = entity.fields().stream()
+      .filter(field -> !field.columnType().isRegular()).toList();
+    for (var i = 0; i < keyFields.size(); i++) {
+      var field = keyFields.get(i);
+      line(3, ORM + ".condition.DatabaseComparison.create(\"" +
+        field.columnName() + "\", entity." + field.accessor() + ")" +
+        (i < keyFields.size() - 1 ? "," : ");"));
+    }
+    line(1, "}");
+  }
+
+  private void line(int depth, String content) {
+    if (!content.isEmpty()) {
+      source.append("  ".repeat(depth));
+    }
+    source.append(content).append('\n');
+  }
+}
@@ -0,0 +1,98 @@
+package de.lukasbreuer.cassandra.orm.metric;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A log-linear histogram in the style of HdrHistogram. Every power of two is
+ * divided into 32 linear sub buckets, so that recorded values are kept with a
+ * relative precision of about three percent. Recording never allocates
+ */
+@RequiredArgsConstructor(staticName = "create")
+public final class DatabaseLatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKET_COUNT =
+    (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final LongAccumulator maximum = new LongAccumulator(Math::max, 0);
+
+  /**
+   * Is used to record a single value
+   * @param value The value, negative values are recorded as zero
+   */
+  public void record(long value) {
+    value = Math.max(value, 0);
+    buckets.incrementAndGet(bucketIndex(value));
+    count.increment();
+    sum.add(value);
+    maximum.accumulate(value);
+  }
+
+  private static int bucketIndex(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+    var exponent = 63 - Long.numberOfLeadingZeros(value);
+    var shift = exponent - SUB_BUCKET_BITS;
+    var subBucket = (int) (value >>> shift) & (SUB_BUCKET_COUNT - 1);
+    return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+  }
+
+  private static long bucketLowerBound(int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+    var shift = index / SUB_BUCKET_COUNT - 1;
+    long subBucket = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+    return subBucket << shift;
+  }
+
+  private static long bucketUpperBound(int index) {
+    if (index == BUCKET_COUNT - 1) {
+      return Long.MAX_VALUE;
+    }
+    return bucketLowerBound(index + 1) - 1;
+  }
+
+  /**
+   * Is used to find the value below which the given percentage of all
+   * recorded values lies
+   * @param percentile The percentile between 0 and 100
+   * @return The (upper bound of the) value at the percentile
+   */
+  public long valueAtPercentile(double percentile) {
+    var total = count();
+    if (total == 0) {
+      return 0;
+    }
+    var target = Math.max(1, (long) Math.ceil(total * percentile / 100));
+    var cumulated = 0L;
+    for (var i = 0; i < BUCKET_COUNT; i++) {
+      cumulated += buckets.get(i);
+      if (cumulated >= target) {
+        return Math.min(bucketUpperBound(i), maximum());
+      }
+    }
+    return maximum();
+  }
+
+  public long count() {
+    return count.sum();
+  }
+
+  public long maximum() {
+    return maximum.get();
+  }
+
+  public double mean() {
+    var total = count();
+    return total == 0 ? 0 : (double) sum.sum() / total;
+  }
+}
@@ -0,0 +1,40 @@
+package de.lukasbreuer.cassandra.orm.metric;
+
+import de.lukasbreuer.cassandra.orm.DatabaseOperation;
+
+public interface DatabaseMetricRegistry {
+  /**
+   * Is called for every successfully completed request of a table
+   * @param table The full name of the table
+   * @param operation The type of the operation
+   * @param latency The latency of the request in nanoseconds
+   * @param rows The number of rows that were returned
+   * @param bytes The size of the response in bytes
+   */
+  void recordCall(
+    String table, DatabaseOperation operation, long latency, int rows, int bytes
+  );
+
+  /**
+   * Is called for every failed request of a table
+   * @param table The full name of the table
+   * @param operation The type of the operation
+   * @param latency The latency of the request in nanoseconds
+   * @param throwable The cause of the failure
+   */
+  void recordError(
+    String table, DatabaseOperation operation, long latency, Throwable throwable
+  );
+
+  /**
+   * Is called after a partial write that left null values unset, which a
+   * full write would have written as tombstones
+   * @param table The full name of the table
+   * @param operation The type of the operation
+   * @param tombstones The number of unset null values
+   */
+  default void recordAvoidedTombstones(
+    String table, DatabaseOperation operation, int tombstones
+  ) {
+  }
+}
@@ -0,0 +1,80 @@
+package de.lukasbreuer.cassandra.orm.metric;
+
+import de.lukasbreuer.cassandra.orm.DatabaseOperation;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The default registry that keeps all metrics in memory. The metrics of a
+ * table are allocated once, so that recording a request does not allocate
+ */
+@RequiredArgsConstructor(staticName = "create")
+public final class DatabaseMetrics implements DatabaseMetricRegistry {
+  private final Map<String, DatabaseOperationMetrics[]> tables =
+    new ConcurrentHashMap<>();
+
+  @Override
+  public void recordCall(
+    String table, DatabaseOperation operation, long latency, int rows, int bytes
+  ) {
+    findOrCreate(table, operation).recordCall(latency, rows, bytes);
+  }
+
+  @Override
+  public void recordError(
+    String table, DatabaseOperation operation, long latency, Throwable throwable
+  ) {
+    findOrCreate(table, operation).recordError(latency);
+  }
+
+  @Override
+  public void recordAvoidedTombstones(
+    String table, DatabaseOperation operation, int tombstones
+  ) {
+    findOrCreate(table, operation).recordAvoidedTombstones(tombstones);
+  }
+
+  private DatabaseOperationMetrics findOrCreate(
+    String table, DatabaseOperation operation
+  ) {
+    var operations = tables.get(table);
+    if (operations == null) {
+      operations = tables.computeIfAbsent(table, key -> createOperations());
+    }
+    return operations[operation.ordinal()];
+  }
+
+  private DatabaseOperationMetrics[] createOperations() {
+    var operations = new DatabaseOperationMetrics[
+      DatabaseOperation.values().length];
+    for (var i = 0; i < operations.length; i++) {
+      operations[i] = DatabaseOperationMetrics.create();
+    }
+    return operations;
+  }
+
+  /**
+   * Is used to find the metrics of a single operation type of a table
+   * @param table The full name of the table
+   * @param operation The type of the operation
+   * @return The metrics if the operation was recorded before
+   */
+  public Optional<DatabaseOperationMetrics> find(
+    String table, DatabaseOperation operation
+  ) {
+    return Optional.ofNullable(tables.get(table))
+      .map(operations -> operations[operation.ordinal()]);
+  }
+
+  /**
+   * The tables for which requests were recorded
+   * @return The full names of the tables
+   */
+  public Set<String> tables() {
+    return Set.copyOf(tables.keySet());
+  }
+}
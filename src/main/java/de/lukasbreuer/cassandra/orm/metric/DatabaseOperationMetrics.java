@@ -0,0 +1,64 @@
+package de.lukasbreuer.cassandra.orm.metric;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.concurrent.atomic.LongAdder;
+
+@Accessors(fluent = true)
+@RequiredArgsConstructor(staticName = "create")
+public final class DatabaseOperationMetrics {
+  @Getter
+  private final DatabaseLatencyHistogram latency =
+    DatabaseLatencyHistogram.create();
+  private final LongAdder calls = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+  private final LongAdder rows = new LongAdder();
+  private final LongAdder bytes = new LongAdder();
+  private final LongAdder avoidedTombstones = new LongAdder();
+
+  void recordCall(long latency, int rows, int bytes) {
+    this.latency.record(latency);
+    calls.increment();
+    this.rows.add(rows);
+    if (bytes > 0) {
+      this.bytes.add(bytes);
+    }
+  }
+
+  void recordError(long latency) {
+    this.latency.record(latency);
+    calls.increment();
+    errors.increment();
+  }
+
+  void recordAvoidedTombstones(int tombstones) {
+    avoidedTombstones.add(tombstones);
+  }
+
+  public long calls() {
+    return calls.sum();
+  }
+
+  public long errors() {
+    return errors.sum();
+  }
+
+  public long rows() {
+    return rows.sum();
+  }
+
+  public long bytes() {
+    return bytes.sum();
+  }
+
+  /**
+   * The number of null values that partial writes left unset instead of
+   * writing them as tombstones
+   * @return The number of avoided tombstones
+   */
+  public long avoidedTombstones() {
+    return avoidedTombstones.sum();
+  }
+}
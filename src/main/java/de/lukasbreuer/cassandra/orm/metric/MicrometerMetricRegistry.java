@@ -0,0 +1,97 @@
+package de.lukasbreuer.cassandra.orm.metric;
+
+import de.lukasbreuer.cassandra.orm.DatabaseOperation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the metrics of the connection to a micrometer registry. Micrometer
+ * is an optional dependency and has to be provided by the application
+ */
+@RequiredArgsConstructor(staticName = "create")
+public final class MicrometerMetricRegistry implements DatabaseMetricRegistry {
+  private final MeterRegistry registry;
+  private final Map<String, Meters[]> tables = new ConcurrentHashMap<>();
+
+  @Override
+  public void recordCall(
+    String table, DatabaseOperation operation, long latency, int rows, int bytes
+  ) {
+    var meters = findOrCreate(table, operation);
+    meters.latency.record(latency, TimeUnit.NANOSECONDS);
+    meters.rows.record(rows);
+    if (bytes > 0) {
+      meters.bytes.record(bytes);
+    }
+  }
+
+  @Override
+  public void recordError(
+    String table, DatabaseOperation operation, long latency, Throwable throwable
+  ) {
+    var meters = findOrCreate(table, operation);
+    meters.latency.record(latency, TimeUnit.NANOSECONDS);
+    meters.errors.increment();
+  }
+
+  @Override
+  public void recordAvoidedTombstones(
+    String table, DatabaseOperation operation, int tombstones
+  ) {
+    findOrCreate(table, operation).avoidedTombstones.increment(tombstones);
+  }
+
+  private Meters findOrCreate(String table, DatabaseOperation operation) {
+    var operations = tables.get(table);
+    if (operations == null) {
+      operations = tables.computeIfAbsent(table, this::createOperations);
+    }
+    return operations[operation.ordinal()];
+  }
+
+  private Meters[] createOperations(String table) {
+    var operations = new Meters[DatabaseOperation.values().length];
+    for (var operation : DatabaseOperation.values()) {
+      operations[operation.ordinal()] = createMeters(table, operation);
+    }
+    return operations;
+  }
+
+  private Meters createMeters(String table, DatabaseOperation operation) {
+    var operationName = operation.name().toLowerCase();
+    return new Meters(
+      Timer.builder("cassandra.orm.requests")
+        .tag("table", table).tag("operation", operationName)
+        .publishPercentileHistogram()
+        .register(registry),
+      DistributionSummary.builder("cassandra.orm.rows")
+        .tag("table", table).tag("operation", operationName)
+        .register(registry),
+      DistributionSummary.builder("cassandra.orm.bytes")
+        .baseUnit("bytes")
+        .tag("table", table).tag("operation", operationName)
+        .register(registry),
+      Counter.builder("cassandra.orm.errors")
+        .tag("table", table).tag("operation", operationName)
+        .register(registry),
+      Counter.builder("cassandra.orm.tombstones.avoided")
+        .tag("table", table).tag("operation", operationName)
+        .register(registry));
+  }
+
+  @RequiredArgsConstructor
+  private static final class Meters {
+    private final Timer latency;
+    private final DistributionSummary rows;
+    private final DistributionSummary bytes;
+    private final Counter errors;
+    private final Counter avoidedTombstones;
+  }
+}
@@ -0,0 +1,261 @@
+package de.lukasbreuer.cassandra.orm.paging;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import de.lukasbreuer.cassandra.orm.condition.DatabaseCondition;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Fetches the next pages of a sequential paging process in the background,
+ * as soon as a page is delivered. Prefetches are bounded by the look-ahead
+ * depth and by the number of buffered rows. A full page is reserved from the
+ * row budget before a prefetch is issued and the reservation is corrected to
+ * the actual rows once the page arrived, so that the budget is never
+ * exceeded. Prefetches that are not taken within the abandon timeout, or that
+ * belong to a paging process which jumped to another position, are cancelled
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DatabasePagePrefetcher {
+  public static DatabasePagePrefetcher create(
+    int lookAheadDepth, long maximumRows, Duration abandonTimeout
+  ) {
+    var bufferedRows = new AtomicLong();
+    Map<List<Object>, Set<List<Object>>> processes =
+      new ConcurrentHashMap<>();
+    Cache<List<Object>, Prefetch> prefetches = CacheBuilder.newBuilder()
+      .expireAfterWrite(abandonTimeout)
+      .removalListener((RemovalNotification<List<Object>, Prefetch>
+        notification) -> release(notification, bufferedRows, processes))
+      .build();
+    return new DatabasePagePrefetcher(lookAheadDepth, maximumRows,
+      bufferedRows, processes, prefetches);
+  }
+
+  private static void release(
+    RemovalNotification<List<Object>, Prefetch> notification,
+    AtomicLong bufferedRows, Map<List<Object>, Set<List<Object>>> processes
+  ) {
+    var prefetch = notification.getValue();
+    if (prefetch == null) {
+      return;
+    }
+    synchronized (prefetch) {
+      prefetch.removed = true;
+      bufferedRows.addAndGet(-prefetch.rows);
+      prefetch.rows = 0;
+    }
+    if (notification.wasEvicted()) {
+      unregister(processes, notification.getKey());
+      prefetch.result.cancel(false);
+    }
+  }
+
+  private static void unregister(
+    Map<List<Object>, Set<List<Object>>> processes, List<Object> prefetchKey
+  ) {
+    processes.computeIfPresent(processKeyOf(prefetchKey), (key, keys) -> {
+      keys.remove(prefetchKey);
+      return keys.isEmpty() ? null : keys;
+    });
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<Object> processKeyOf(List<Object> prefetchKey) {
+    return (List<Object>) prefetchKey.get(0);
+  }
+
+  private final int lookAheadDepth;
+  private final long maximumRows;
+  private final AtomicLong bufferedRows;
+  /**
+   * The keys of the prefetches of every paging process, so that a paging
+   * process is cancelled without visiting the prefetches of others
+   */
+  private final Map<List<Object>, Set<List<Object>>> processes;
+  private final Cache<List<Object>, Prefetch> prefetches;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * Is used to build the key of a sequential paging process
+   * @param partitionValue The partition key value of the paged rows
+   * @param condition The condition that is used for filtering
+   * @param order The direction in which sorting takes place
+   * @param pageSize The page size of the paging process
+   * @param direction The direction in which the pages are walked
+   * @return The key of the paging process
+   */
+  public List<Object> key(
+    Object partitionValue, DatabaseCondition condition, DatabaseOrder order,
+    int pageSize, DatabaseDirection direction
+  ) {
+    return Arrays.asList(partitionValue, condition.build(),
+      Arrays.asList(condition.values()), order, pageSize, direction);
+  }
+
+  /**
+   * Is used to fetch the page that starts at a paging state. A prefetched
+   * page is taken if available, otherwise the page is fetched and all
+   * prefetches of the paging process are cancelled, since it jumped to
+   * another position. Afterwards the following pages are prefetched
+   * @param processKey The key of the paging process
+   * @param pageState The paging state at which the page starts
+   * @param pageSize The maximum number of rows of a page
+   * @param fetcher The function that fetches the page of a paging state
+   * @return The future that contains the page
+   */
+  public CompletableFuture<AsyncResultSet> fetch(
+    List<Object> processKey, String pageState, int pageSize,
+    Function<String, CompletableFuture<AsyncResultSet>> fetcher
+  ) {
+    var prefetchKey = Arrays.<Object>asList(processKey, pageState);
+    var prefetch = prefetches.asMap().remove(prefetchKey);
+    CompletableFuture<AsyncResultSet> result;
+    if (prefetch != null && !prefetch.result.isCancelled()) {
+      unregister(processes, prefetchKey);
+      hits.increment();
+      result = prefetch.result;
+    } else {
+      misses.increment();
+      cancel(processKey);
+      result = fetcher.apply(pageState);
+    }
+    result.thenAccept(page -> prefetchAhead(processKey, page, pageSize,
+      lookAheadDepth, fetcher));
+    return result;
+  }
+
+  /**
+   * Walks along the already prefetched pages and starts the missing ones
+   * until the look-ahead depth is reached or the row budget is exhausted
+   */
+  private void prefetchAhead(
+    List<Object> processKey, AsyncResultSet page, int pageSize, int depth,
+    Function<String, CompletableFuture<AsyncResultSet>> fetcher
+  ) {
+    if (depth <= 0 || !page.hasMorePages()) {
+      return;
+    }
+    var pageState = page.getExecutionInfo().getSafePagingState().toString();
+    var prefetchKey = Arrays.<Object>asList(processKey, pageState);
+    var prefetch = prefetches.getIfPresent(prefetchKey);
+    if (prefetch == null) {
+      if (!reserve(pageSize)) {
+        return;
+      }
+      var created = new Prefetch(pageSize);
+      prefetch = prefetches.asMap().putIfAbsent(prefetchKey, created);
+      if (prefetch != null) {
+        bufferedRows.addAndGet(-pageSize);
+      } else {
+        prefetch = created;
+        processes.computeIfAbsent(processKey,
+          key -> ConcurrentHashMap.newKeySet()).add(prefetchKey);
+        fetcher.apply(pageState).whenComplete((result, throwable) -> {
+          if (throwable != null) {
+            created.result.completeExceptionally(throwable);
+            return;
+          }
+          buffer(created, result);
+          created.result.complete(result);
+        });
+      }
+    }
+    prefetch.result.thenAccept(nextPage -> prefetchAhead(processKey,
+      nextPage, pageSize, depth - 1, fetcher));
+  }
+
+  private boolean reserve(int rows) {
+    while (true) {
+      var current = bufferedRows.get();
+      if (current + rows > maximumRows) {
+        return false;
+      }
+      if (bufferedRows.compareAndSet(current, current + rows)) {
+        return true;
+      }
+    }
+  }
+
+  private void buffer(Prefetch prefetch, AsyncResultSet result) {
+    synchronized (prefetch) {
+      if (!prefetch.removed) {
+        bufferedRows.addAndGet(result.remaining() - prefetch.rows);
+        prefetch.rows = result.remaining();
+      }
+    }
+  }
+
+  /**
+   * Is used to cancel all prefetches of a paging process
+   * @param processKey The key of the paging process
+   */
+  public void cancel(List<Object> processKey) {
+    var prefetchKeys = processes.remove(processKey);
+    if (prefetchKeys == null) {
+      return;
+    }
+    for (var prefetchKey : prefetchKeys) {
+      var prefetch = prefetches.asMap().remove(prefetchKey);
+      if (prefetch != null) {
+        prefetch.result.cancel(false);
+      }
+    }
+  }
+
+  public void cancelAll() {
+    var cancelled = List.copyOf(prefetches.asMap().values());
+    processes.clear();
+    prefetches.invalidateAll();
+    cancelled.forEach(prefetch -> prefetch.result.cancel(false));
+  }
+
+  /**
+   * The number of pages that were served by a prefetch
+   * @return The hit count
+   */
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * The number of pages that had to be fetched on demand
+   * @return The miss count
+   */
+  public long missCount() {
+    return misses.sum();
+  }
+
+  /**
+   * The number of rows that are held or reserved by prefetches
+   * @return The number of buffered rows
+   */
+  public long bufferedRows() {
+    return bufferedRows.get();
+  }
+
+  private static final class Prefetch {
+    private final CompletableFuture<AsyncResultSet> result =
+      new CompletableFuture<>();
+    private int rows;
+    private boolean removed;
+
+    private Prefetch(int reservedRows) {
+      this.rows = reservedRows;
+    }
+  }
+}
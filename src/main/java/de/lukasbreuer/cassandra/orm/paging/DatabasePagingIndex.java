@@ -0,0 +1,245 @@
+package de.lukasbreuer.cassandra.orm.paging;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import de.lukasbreuer.cassandra.orm.DatabaseRow;
+import de.lukasbreuer.cassandra.orm.DatabaseTable;
+import de.lukasbreuer.cassandra.orm.condition.DatabaseCondition;
+import de.lukasbreuer.cassandra.orm.listener.DatabaseTableListener;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the number of rows and the paging states of the page boundaries of
+ * every paged query, so that neither a count nor a walk over the previous
+ * pages is required to jump to a page. Entries expire after their time to
+ * live and are invalidated by the writes of the table. The keys of the
+ * entries are indexed by their partition, so that a write only visits the
+ * entries of its own partition
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DatabasePagingIndex implements DatabaseTableListener {
+  private static final Object NO_PARTITION = new Object();
+
+  public static DatabasePagingIndex create(
+    Duration timeToLive, long maximumSize
+  ) {
+    Map<Object, Set<List<Object>>> partitions = new ConcurrentHashMap<>();
+    return new DatabasePagingIndex(CacheBuilder.newBuilder()
+      .expireAfterWrite(timeToLive)
+      .maximumSize(maximumSize)
+      .recordStats()
+      .removalListener((RemovalNotification<List<Object>, Entry> removal) -> {
+        if (removal.wasEvicted()) {
+          unregister(partitions, removal.getKey());
+        }
+      })
+      .build(), partitions);
+  }
+
+  /**
+   * Entries that are invalidated explicitly were already removed from the
+   * partition index, a key that is registered again in the meantime must
+   * not be removed by the late notification
+   */
+  private static void unregister(
+    Map<Object, Set<List<Object>>> partitions, List<Object> key
+  ) {
+    partitions.computeIfPresent(partitionOf(key.get(0)), (partition, keys) -> {
+      keys.remove(key);
+      return keys.isEmpty() ? null : keys;
+    });
+  }
+
+  private static Object partitionOf(Object partitionValue) {
+    return Objects.requireNonNullElse(partitionValue, NO_PARTITION);
+  }
+
+  private final Cache<List<Object>, Entry> entries;
+  private final Map<Object, Set<List<Object>>> partitions;
+
+  /**
+   * Is used to build the key of a paged query
+   * @param partitionValue The partition key value of the paged rows
+   * @param condition The condition that is used for filtering
+   * @param order The direction in which sorting takes place
+   * @param pageSize The page size of the paging process
+   * @return The key of the query
+   */
+  public List<Object> key(
+    Object partitionValue, DatabaseCondition condition, DatabaseOrder order,
+    int pageSize
+  ) {
+    return Arrays.asList(partitionValue, condition.build(),
+      Arrays.asList(condition.values()), order, pageSize);
+  }
+
+  /**
+   * Is used to find the cached number of rows of a paged query
+   * @param key The key of the query
+   * @return The number of rows if it is cached
+   */
+  public OptionalLong findRowCount(List<Object> key) {
+    var entry = entries.getIfPresent(key);
+    if (entry == null || entry.rowCount < 0) {
+      return OptionalLong.empty();
+    }
+    return OptionalLong.of(entry.rowCount);
+  }
+
+  public void updateRowCount(List<Object> key, long rowCount) {
+    partitions.computeIfAbsent(partitionOf(key.get(0)),
+      partition -> ConcurrentHashMap.newKeySet()).add(key);
+    entries.asMap().computeIfAbsent(key, value -> new Entry()).rowCount =
+      rowCount;
+  }
+
+  /**
+   * Is used to find the paging state at which a page starts in forward
+   * direction. The first page starts without a paging state
+   * @param key The key of the query
+   * @param page The number of the page, starting with zero
+   * @return The paging state if it is cached
+   */
+  public Optional<String> findPageState(List<Object> key, int page) {
+    if (page == 0) {
+      return Optional.of("");
+    }
+    var entry = entries.getIfPresent(key);
+    return entry == null ? Optional.empty() :
+      Optional.ofNullable(entry.pageStates.get(page));
+  }
+
+  /**
+   * Is used to find the closest page before or at the given page whose
+   * paging state is cached
+   * @param key The key of the query
+   * @param page The number of the page, starting with zero
+   * @return The closest known page
+   */
+  public int findClosestKnownPage(List<Object> key, int page) {
+    var entry = entries.getIfPresent(key);
+    if (entry == null) {
+      return 0;
+    }
+    for (var i = page; i > 0; i--) {
+      if (entry.pageStates.containsKey(i)) {
+        return i;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Is used to remember the paging state at which a page starts in forward
+   * direction. States are only stored for queries whose count is cached, so
+   * that both expire together
+   * @param key The key of the query
+   * @param page The number of the page, starting with zero
+   * @param pageState The paging state
+   */
+  public void updatePageState(List<Object> key, int page, String pageState) {
+    var entry = entries.getIfPresent(key);
+    if (entry != null && page > 0 && !pageState.isEmpty()) {
+      entry.pageStates.put(page, pageState);
+    }
+  }
+
+  /**
+   * Is used to remove all entries of a partition
+   * @param partitionValue The partition key value
+   */
+  public void invalidatePartition(Object partitionValue) {
+    var keys = partitions.remove(partitionOf(partitionValue));
+    if (keys != null) {
+      entries.invalidateAll(keys);
+    }
+  }
+
+  public void invalidateAll() {
+    partitions.clear();
+    entries.invalidateAll();
+  }
+
+  public long size() {
+    return entries.size();
+  }
+
+  /**
+   * Rows are paged by the value of the first partition key column, so for
+   * composite partition keys every partition that shares this value is
+   * invalidated
+   */
+  @Override
+  public void rowsInserted(DatabaseTable table, Collection<DatabaseRow> rows) {
+    var partitionKeyColumns = table.statementTemplates()
+      .partitionKeyColumns();
+    if (partitionKeyColumns.isEmpty()) {
+      invalidateAll();
+      return;
+    }
+    var index = table.columns().indexOf(partitionKeyColumns.get(0));
+    for (var row : rows) {
+      invalidatePartition(row.value(index));
+    }
+  }
+
+  @Override
+  public void rowsUpdated(DatabaseTable table, DatabaseCondition condition) {
+    invalidateCondition(table, condition);
+  }
+
+  @Override
+  public void rowsDeleted(DatabaseTable table, DatabaseCondition condition) {
+    invalidateCondition(table, condition);
+  }
+
+  @Override
+  public void tableTruncated(DatabaseTable table) {
+    invalidateAll();
+  }
+
+  @Override
+  public void writesReplayed(DatabaseTable table) {
+    invalidateAll();
+  }
+
+  /**
+   * Writes that compare the first partition key column for equality only
+   * invalidate the entries of that value, all other writes invalidate the
+   * whole index
+   */
+  private void invalidateCondition(
+    DatabaseTable table, DatabaseCondition condition
+  ) {
+    var partitionKeyColumns = table.statementTemplates()
+      .partitionKeyColumns();
+    if (!partitionKeyColumns.isEmpty()) {
+      var partitionKey = partitionKeyColumns.get(0).name();
+      for (var comparison : condition.comparisons()) {
+        if (comparison.isEquals() && comparison.column().equals(partitionKey)) {
+          invalidatePartition(comparison.value());
+          return;
+        }
+      }
+    }
+    invalidateAll();
+  }
+
+  private static final class Entry {
+    private volatile long rowCount = -1;
+    private final Map<Integer, String> pageStates = new ConcurrentHashMap<>();
+  }
+}
@@ -0,0 +1,24 @@
+package de.lukasbreuer.cassandra.orm.profile;
+
+import com.datastax.oss.driver.api.core.config.DriverOption;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Options of the driver configuration that are read by the extensions of
+ * this library instead of the driver
+ */
+@RequiredArgsConstructor
+public enum DatabaseDriverOption implements DriverOption {
+  /**
+   * The name of the execution profile from which a derived driver profile
+   * was created
+   */
+  EXECUTION_PROFILE("advanced.cassandra-orm.execution-profile");
+
+  private final String path;
+
+  @Override
+  public String getPath() {
+    return path;
+  }
+}
@@ -0,0 +1,123 @@
+package de.lukasbreuer.cassandra.orm.profile;
+
+import com.datastax.oss.driver.api.core.ConsistencyLevel;
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
+import de.lukasbreuer.cassandra.orm.speculation.DatabaseSpeculationOptions;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * A named set of execution parameters that is attached to a table or to
+ * single operations of a table, for example LOCAL_ONE with a short timeout
+ * for cache-like reads and a large page size with a long timeout for scans.
+ * Parameters that are not set keep the value of the driver configuration,
+ * parameters that are set on a statement itself take precedence
+ */
+@Getter
+@Accessors(fluent = true)
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DatabaseExecutionProfile {
+  public static DatabaseExecutionProfile create(String name) {
+    return new DatabaseExecutionProfile(name, Optional.empty(),
+      Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+      Optional.empty());
+  }
+
+  private final String name;
+  private final Optional<ConsistencyLevel> consistencyLevel;
+  private final Optional<ConsistencyLevel> serialConsistencyLevel;
+  private final Optional<Duration> timeout;
+  private final Optional<Integer> pageSize;
+  /**
+   * Whether the statements are idempotent, which replaces the idempotence
+   * that the table derives from the operation
+   */
+  private final Optional<Boolean> idempotence;
+  private final Optional<DatabaseSpeculationOptions> speculation;
+
+  public DatabaseExecutionProfile withConsistencyLevel(
+    ConsistencyLevel consistencyLevel
+  ) {
+    return new DatabaseExecutionProfile(name, Optional.of(consistencyLevel),
+      serialConsistencyLevel, timeout, pageSize, idempotence, speculation);
+  }
+
+  public DatabaseExecutionProfile withSerialConsistencyLevel(
+    ConsistencyLevel serialConsistencyLevel
+  ) {
+    return new DatabaseExecutionProfile(name, consistencyLevel,
+      Optional.of(serialConsistencyLevel), timeout, pageSize, idempotence,
+      speculation);
+  }
+
+  public DatabaseExecutionProfile withTimeout(Duration timeout) {
+    return new DatabaseExecutionProfile(name, consistencyLevel,
+      serialConsistencyLevel, Optional.of(timeout), pageSize, idempotence,
+      speculation);
+  }
+
+  public DatabaseExecutionProfile withPageSize(int pageSize) {
+    return new DatabaseExecutionProfile(name, consistencyLevel,
+      serialConsistencyLevel, timeout, Optional.of(pageSize), idempotence,
+      speculation);
+  }
+
+  public DatabaseExecutionProfile withIdempotence(boolean idempotence) {
+    return new DatabaseExecutionProfile(name, consistencyLevel,
+      serialConsistencyLevel, timeout, pageSize, Optional.of(idempotence),
+      speculation);
+  }
+
+  /**
+   * Is used to hedge the idempotent statements of the profile. The
+   * speculation of the profile replaces the speculation of the table
+   * @param speculation The delay and the number of executions
+   * @return The profile with speculation
+   */
+  public DatabaseExecutionProfile withSpeculation(
+    DatabaseSpeculationOptions speculation
+  ) {
+    return new DatabaseExecutionProfile(name, consistencyLevel,
+      serialConsistencyLevel, timeout, pageSize, idempotence,
+      Optional.of(speculation));
+  }
+
+  /**
+   * Is used to derive the driver profile of this profile. Deriving a profile
+   * is expensive, so the derived profile is created once per connection
+   * @param base The default profile of the driver
+   * @return The derived driver profile
+   */
+  public DriverExecutionProfile derive(DriverExecutionProfile base) {
+    var profile = base.withString(DatabaseDriverOption.EXECUTION_PROFILE,
+      name);
+    if (consistencyLevel.isPresent()) {
+      profile = profile.withString(DefaultDriverOption.REQUEST_CONSISTENCY,
+        consistencyLevel.get().name());
+    }
+    if (serialConsistencyLevel.isPresent()) {
+      profile = profile.withString(
+        DefaultDriverOption.REQUEST_SERIAL_CONSISTENCY,
+        serialConsistencyLevel.get().name());
+    }
+    if (timeout.isPresent()) {
+      profile = profile.withDuration(DefaultDriverOption.REQUEST_TIMEOUT,
+        timeout.get());
+    }
+    if (pageSize.isPresent()) {
+      profile = profile.withInt(DefaultDriverOption.REQUEST_PAGE_SIZE,
+        pageSize.get());
+    }
+    if (idempotence.isPresent()) {
+      profile = profile.withBoolean(
+        DefaultDriverOption.REQUEST_DEFAULT_IDEMPOTENCE, idempotence.get());
+    }
+    return profile;
+  }
+}
@@ -0,0 +1,44 @@
+package de.lukasbreuer.cassandra.orm.scan;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+import de.lukasbreuer.cassandra.orm.DatabaseRow;
+import de.lukasbreuer.cassandra.orm.columnar.DatabaseRowBatch;
+import de.lukasbreuer.cassandra.orm.statement.DatabaseProjection;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Receives the pages of a token range scan as columnar row batches instead
+ * of single rows
+ */
+public interface DatabaseScanBatchListener extends DatabaseScanListener {
+  /**
+   * Is called for every page of a range. The next page of the range is not
+   * requested before the returned stage is completed
+   * @param range The range of the page
+   * @param batch The rows of the page
+   * @return The stage that is completed once the batch is consumed
+   */
+  CompletionStage<Void> acceptBatch(TokenRange range, DatabaseRowBatch batch);
+
+  @Override
+  default CompletionStage<Void> acceptPage(
+    TokenRange range, DatabaseProjection projection, AsyncResultSet page
+  ) {
+    return acceptBatch(range, DatabaseRowBatch.decode(projection, page));
+  }
+
+  /**
+   * Batch listeners receive the pages of the scan through
+   * {@link #acceptBatch(TokenRange, DatabaseRowBatch)} only
+   */
+  @Override
+  default CompletionStage<Void> acceptPage(
+    TokenRange range, List<DatabaseRow> rows
+  ) {
+    throw new UnsupportedOperationException(
+      "Batch listeners do not receive single rows");
+  }
+}
@@ -0,0 +1,112 @@
+package de.lukasbreuer.cassandra.orm.scan;
+
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+import de.lukasbreuer.cassandra.orm.DatabaseRow;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Merges the pages of a parallel scan into a single blocking iteration. Once
+ * more pages than the capacity are buffered the ranges that deliver further
+ * pages are paused until the iteration catches up
+ */
+@RequiredArgsConstructor(staticName = "create")
+final class DatabaseScanBuffer
+  implements DatabaseScanListener, Iterator<DatabaseRow> {
+  private final int capacity;
+  private final Deque<List<DatabaseRow>> pages = new ArrayDeque<>();
+  private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+  private Iterator<DatabaseRow> rows = Collections.emptyIterator();
+  private boolean finished;
+  private boolean cancelled;
+  private Throwable failure;
+
+  @Override
+  public synchronized CompletionStage<Void> acceptPage(
+    TokenRange range, List<DatabaseRow> rows
+  ) {
+    if (cancelled) {
+      return CompletableFuture.failedFuture(
+        new CancellationException("The scan was cancelled"));
+    }
+    pages.add(rows);
+    notifyAll();
+    if (pages.size() <= capacity) {
+      return DatabaseScanListener.consumed();
+    }
+    var waiter = new CompletableFuture<Void>();
+    waiters.add(waiter);
+    return waiter;
+  }
+
+  synchronized void finish(Throwable throwable) {
+    finished = true;
+    failure = throwable;
+    notifyAll();
+  }
+
+  void cancel() {
+    List<CompletableFuture<Void>> released;
+    synchronized (this) {
+      cancelled = true;
+      pages.clear();
+      released = List.copyOf(waiters);
+      waiters.clear();
+      notifyAll();
+    }
+    released.forEach(waiter -> waiter.completeExceptionally(
+      new CancellationException("The scan was cancelled")));
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!rows.hasNext()) {
+      CompletableFuture<Void> released;
+      synchronized (this) {
+        awaitPage();
+        if (pages.isEmpty()) {
+          if (failure != null && !cancelled) {
+            throw new CompletionException(failure);
+          }
+          return false;
+        }
+        rows = pages.poll().iterator();
+        released = waiters.poll();
+      }
+      if (released != null) {
+        released.complete(null);
+      }
+    }
+    return true;
+  }
+
+  private void awaitPage() {
+    while (pages.isEmpty() && !finished && !cancelled) {
+      try {
+        wait();
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(
+          "Interrupted while waiting for the next page", exception);
+      }
+    }
+  }
+
+  @Override
+  public DatabaseRow next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return rows.next();
+  }
+}
@@ -0,0 +1,64 @@
+package de.lukasbreuer.cassandra.orm.scan;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+import de.lukasbreuer.cassandra.orm.DatabaseRow;
+import de.lukasbreuer.cassandra.orm.statement.DatabaseProjection;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Receives the rows of a token range scan. The pages of a single range are
+ * delivered in order, but pages of different ranges are delivered
+ * concurrently, so implementations have to be thread safe
+ */
+public interface DatabaseScanListener {
+  /**
+   * Is called for every page of a range. The next page of the range is not
+   * requested before the returned stage is completed
+   * @param range The range of the page
+   * @param rows The rows of the page
+   * @return The stage that is completed once the page is consumed
+   */
+  CompletionStage<Void> acceptPage(TokenRange range, List<DatabaseRow> rows);
+
+  /**
+   * Is called for every page of a range with the page of the driver. By
+   * default the rows of the page are decoded and handed to the row based
+   * callback
+   * @param range The range of the page
+   * @param projection The projection of the scan
+   * @param page The page of the driver
+   * @return The stage that is completed once the page is consumed
+   */
+  default CompletionStage<Void> acceptPage(
+    TokenRange range, DatabaseProjection projection, AsyncResultSet page
+  ) {
+    return acceptPage(range, projection.decodeAll(page.currentPage()));
+  }
+
+  /**
+   * Is called after the last page of a range was consumed
+   * @param range The completed range
+   */
+  default void rangeCompleted(TokenRange range) {
+  }
+
+  /**
+   * Is called when a page request of a range failed and is retried. The
+   * retry continues with the page that failed
+   * @param range The range of the failed request
+   * @param attempt The number of the failed attempt
+   * @param throwable The failure of the request
+   */
+  default void rangeRetried(
+    TokenRange range, int attempt, Throwable throwable
+  ) {
+  }
+
+  static CompletionStage<Void> consumed() {
+    return CompletableFuture.completedFuture(null);
+  }
+}
@@ -0,0 +1,42 @@
+package de.lukasbreuer.cassandra.orm.scan;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.time.Duration;
+
+@Getter
+@Accessors(fluent = true)
+@RequiredArgsConstructor(staticName = "create")
+public final class DatabaseScanOptions {
+  private static final int DEFAULT_SPLIT_COUNT = 256;
+  private static final int DEFAULT_PARALLELISM = 8;
+  private static final int DEFAULT_MAXIMUM_ATTEMPTS = 3;
+  private static final Duration DEFAULT_RETRY_DELAY = Duration.ofMillis(100);
+  private static final int DEFAULT_PAGE_SIZE = 1000;
+
+  public static DatabaseScanOptions defaults() {
+    return create(DEFAULT_SPLIT_COUNT, DEFAULT_PARALLELISM,
+      DEFAULT_MAXIMUM_ATTEMPTS, DEFAULT_RETRY_DELAY, DEFAULT_PAGE_SIZE);
+  }
+
+  /**
+   * The minimum number of sub-ranges into which the token ring is split
+   */
+  private final int splitCount;
+  /**
+   * The maximum number of sub-ranges that are scanned at the same time
+   */
+  private final int parallelism;
+  /**
+   * The number of attempts of every single page request of a sub-range
+   */
+  private final int maximumAttempts;
+  /**
+   * The delay before the first retry of a page request, which doubles with
+   * every further attempt
+   */
+  private final Duration retryDelay;
+  private final int pageSize;
+}
@@ -0,0 +1,301 @@
+package de.lukasbreuer.cassandra.orm.scan;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+import com.google.common.collect.Lists;
+import de.lukasbreuer.cassandra.orm.DatabaseOperation;
+import de.lukasbreuer.cassandra.orm.DatabaseRow;
+import de.lukasbreuer.cassandra.orm.DatabaseTable;
+import de.lukasbreuer.cassandra.orm.columnar.DatabaseRowBatch;
+import de.lukasbreuer.cassandra.orm.concurrency.BoundedParallelism;
+import de.lukasbreuer.cassandra.orm.statement.DatabaseProjection;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Scans a whole table by splitting the token ring into sub-ranges, which are
+ * queried in parallel and routed to the replicas that own them. Instead of
+ * one long running coordinator query every sub-range is paged on its own, and
+ * a failed page request is retried from the failed page onwards after an
+ * exponential backoff. Once a sub-range fails for good, or the returned
+ * future is cancelled, the other sub-ranges stop requesting further pages
+ */
+@RequiredArgsConstructor(staticName = "create")
+public final class DatabaseTableScan {
+  private static final int MAXIMUM_BACKOFF_SHIFT = 10;
+
+  private final DatabaseTable table;
+  private final String columnNames;
+  private final DatabaseScanOptions options;
+
+  /**
+   * Is used to split the token ring into the sub-ranges of the scan. Every
+   * range of the ring is split evenly, so that no sub-range spans the tokens
+   * of more than one replica set
+   * @return The non wrapping sub-ranges
+   */
+  public List<TokenRange> splitRanges() {
+    var tokenMap = table.connection().metadata().getTokenMap()
+      .orElseThrow(() -> new IllegalStateException(
+        "The token metadata of the cluster is not available"));
+    var ringRanges = tokenMap.getTokenRanges();
+    var splitsPerRange = Math.max(1,
+      (options.splitCount() + ringRanges.size() - 1) / ringRanges.size());
+    List<TokenRange> ranges = Lists.newArrayList();
+    for (var ringRange : ringRanges) {
+      var splits = splitsPerRange > 1 ?
+        ringRange.splitEvenly(splitsPerRange) : List.of(ringRange);
+      for (var split : splits) {
+        ranges.addAll(split.unwrap());
+      }
+    }
+    return ranges;
+  }
+
+  /**
+   * Is used to scan the table and hand every row to a sink. The sink is
+   * called from multiple threads and has to be thread safe
+   * @param sink The consumer of the rows
+   * @return The future that contains the number of scanned rows
+   */
+  public CompletableFuture<Long> scan(Consumer<DatabaseRow> sink) {
+    return scan((range, rows) -> {
+      rows.forEach(sink);
+      return DatabaseScanListener.consumed();
+    });
+  }
+
+  /**
+   * Is used to scan the table and hand every page as columnar batch to a
+   * sink. The sink is called from multiple threads and has to be thread safe
+   * @param sink The consumer of the batches
+   * @return The future that contains the number of scanned rows
+   */
+  public CompletableFuture<Long> scanBatches(Consumer<DatabaseRowBatch> sink) {
+    return scan((DatabaseScanBatchListener) (range, batch) -> {
+      sink.accept(batch);
+      return DatabaseScanListener.consumed();
+    });
+  }
+
+  /**
+   * Is used to scan the table and hand the rows of every page to a callback
+   * together with their range. The pages are handed over as they arrive, so
+   * that no range has to fit into memory, and the end of a range is
+   * signalled separately. Both callbacks are called from multiple threads
+   * @param pageCallback The consumer of the ranges and the rows of a page
+   * @param completionCallback The consumer of the completed ranges
+   * @return The future that contains the number of scanned rows
+   */
+  public CompletableFuture<Long> scanRanges(
+    BiConsumer<TokenRange, List<DatabaseRow>> pageCallback,
+    Consumer<TokenRange> completionCallback
+  ) {
+    return scan(new DatabaseScanListener() {
+      @Override
+      public CompletionStage<Void> acceptPage(
+        TokenRange range, List<DatabaseRow> rows
+      ) {
+        pageCallback.accept(range, rows);
+        return DatabaseScanListener.consumed();
+      }
+
+      @Override
+      public void rangeCompleted(TokenRange range) {
+        completionCallback.accept(range);
+      }
+    });
+  }
+
+  /**
+   * Is used to scan the table into a merged blocking stream. The scan pauses
+   * as long as the consumer of the stream falls behind, and closing the
+   * stream cancels the scan
+   * @return The stream of all rows
+   */
+  public Stream<DatabaseRow> stream() {
+    var buffer = DatabaseScanBuffer.create(
+      Math.max(1, options.parallelism() * 2));
+    scan(buffer).whenComplete((rows, throwable) -> buffer.finish(throwable));
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(buffer,
+      Spliterator.NONNULL), false).onClose(buffer::cancel);
+  }
+
+  /**
+   * Is used to scan the table while the listener receives the pages of the
+   * ranges
+   * @param listener The listener of the scan
+   * @return The future that contains the number of scanned rows
+   */
+  public CompletableFuture<Long> scan(DatabaseScanListener listener) {
+    List<TokenRange> ranges;
+    try {
+      ranges = splitRanges();
+    } catch (IllegalStateException exception) {
+      return CompletableFuture.failedFuture(exception);
+    }
+    var templates = table.statementTemplates();
+    var connection = table.connection();
+    var boundedStatement = connection.prepare(
+      templates.tokenRangeQuery(columnNames, true));
+    var unboundedStatement = connection.prepare(
+      templates.tokenRangeQuery(columnNames, false));
+    return boundedStatement.thenCombine(unboundedStatement,
+        (bounded, unbounded) -> List.of(bounded, unbounded))
+      .thenCompose(statements -> scan(ranges,
+        templates.projection(columnNames), listener, (range, pagingState) ->
+          executePage(range, isBounded(range) ? statements.get(0) :
+            statements.get(1), pagingState)));
+  }
+
+  /**
+   * Is used to scan the given ranges, while the page request is called with
+   * the paging state of the requested page, or null for the first page
+   */
+  CompletableFuture<Long> scan(
+    List<TokenRange> ranges, DatabaseProjection projection,
+    DatabaseScanListener listener,
+    BiFunction<TokenRange, ByteBuffer, CompletableFuture<AsyncResultSet>>
+      pageRequest
+  ) {
+    var cancellation = new CompletableFuture<Void>();
+    var result = BoundedParallelism.execute(ranges, options.parallelism(),
+        range -> scanRange(new RangeScan(range, projection, listener,
+          pageRequest, cancellation)))
+      .thenApply(rowCounts ->
+        rowCounts.stream().mapToLong(Long::longValue).sum());
+    result.whenComplete((rowCount, throwable) -> cancellation.complete(null));
+    return result;
+  }
+
+  /**
+   * After unwrapping only the ranges that end at the minimum token of the
+   * ring have an end that is not greater than their start
+   */
+  private static boolean isBounded(TokenRange range) {
+    return range.getEnd().compareTo(range.getStart()) > 0;
+  }
+
+  private CompletableFuture<Long> scanRange(RangeScan scan) {
+    fetchPage(scan, null, 1);
+    return scan.result;
+  }
+
+  private void fetchPage(RangeScan scan, ByteBuffer pagingState, int attempt) {
+    if (isCancelled(scan)) {
+      return;
+    }
+    scan.pageRequest.apply(scan.range, pagingState)
+      .whenComplete((page, throwable) -> {
+        if (throwable == null) {
+          acceptPage(scan, page);
+          return;
+        }
+        if (attempt >= options.maximumAttempts()) {
+          scan.result.completeExceptionally(throwable);
+          return;
+        }
+        scan.listener.rangeRetried(scan.range, attempt, throwable);
+        CompletableFuture.delayedExecutor(retryDelay(attempt),
+            TimeUnit.MILLISECONDS)
+          .execute(() -> fetchPage(scan, pagingState, attempt + 1));
+      });
+  }
+
+  /**
+   * The delay doubles with every attempt, and half of it is random, so that
+   * ranges that failed at the same time do not retry at the same time
+   */
+  private long retryDelay(int attempt) {
+    var delay = options.retryDelay().toMillis() <<
+      Math.min(attempt - 1, MAXIMUM_BACKOFF_SHIFT);
+    return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+  }
+
+  private boolean isCancelled(RangeScan scan) {
+    if (!scan.cancellation.isDone()) {
+      return false;
+    }
+    scan.result.completeExceptionally(
+      new CancellationException("The scan was cancelled"));
+    return true;
+  }
+
+  private CompletableFuture<AsyncResultSet> executePage(
+    TokenRange range, PreparedStatement preparedStatement,
+    ByteBuffer pagingState
+  ) {
+    var statement = preparedStatement.bind().setToken(0, range.getStart());
+    if (isBounded(range)) {
+      statement = statement.setToken(1, range.getEnd());
+    }
+    statement = statement.setRoutingKeyspace(table.keyspace().name())
+      .setRoutingToken(range.getEnd())
+      .setPageSize(options.pageSize())
+      .setIdempotent(true);
+    if (pagingState != null) {
+      statement = statement.setPagingState(pagingState);
+    }
+    return table.connection().executeStatement(table, DatabaseOperation.SCAN,
+      statement);
+  }
+
+  private void acceptPage(RangeScan scan, AsyncResultSet page) {
+    if (isCancelled(scan)) {
+      return;
+    }
+    scan.rowCount += page.remaining();
+    CompletableFuture<Void> consumption;
+    try {
+      consumption = scan.listener.acceptPage(scan.range, scan.projection, page)
+        .toCompletableFuture();
+    } catch (RuntimeException exception) {
+      scan.result.completeExceptionally(exception);
+      return;
+    }
+    consumption.whenComplete((ignored, throwable) -> {
+      if (throwable != null) {
+        scan.result.completeExceptionally(throwable);
+        return;
+      }
+      if (page.hasMorePages()) {
+        fetchPage(scan, page.getExecutionInfo().getPagingState(), 1);
+        return;
+      }
+      scan.listener.rangeCompleted(scan.range);
+      scan.result.complete(scan.rowCount);
+    });
+  }
+
+  /**
+   * The pages of a single range are fetched one after another, so the row
+   * count needs no synchronization. The cancellation is shared by all ranges
+   * of a scan
+   */
+  @RequiredArgsConstructor
+  private static final class RangeScan {
+    private final TokenRange range;
+    private final DatabaseProjection projection;
+    private final DatabaseScanListener listener;
+    private final BiFunction<TokenRange, ByteBuffer,
+      CompletableFuture<AsyncResultSet>> pageRequest;
+    private final CompletableFuture<Void> cancellation;
+    private final CompletableFuture<Long> result = new CompletableFuture<>();
+    private long rowCount;
+  }
+}
@@ -3,9 +3,17 @@ package de.lukasbreuer.cassandra.orm.skeleton;
 import de.lukasbreuer.cassandra.orm.DatabaseColumn;
 import de.lukasbreuer.cassandra.orm.DatabaseConnection;
 import de.lukasbreuer.cassandra.orm.DatabaseKeyspace;
+import de.lukasbreuer.cassandra.orm.DatabaseRow;
 import de.lukasbreuer.cassandra.orm.DatabaseTable;
+import de.lukasbreuer.cassandra.orm.condition.DatabaseCondition;
+import de.lukasbreuer.cassandra.orm.filter.DatabaseExistenceFilter;
+import de.lukasbreuer.cassandra.orm.listener.DatabaseTableListener;
+import de.lukasbreuer.cassandra.orm.statement.DatabaseStatementTemplates;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface AbstractDatabaseTable {
   /**
@@ -61,6 +69,33 @@ public interface AbstractDatabaseTable {
     List<DatabaseColumn> columns, String prefix, String suffix
   );
 
+  /**
+   * Is used to find the precompiled statement templates of the table
+   * @return The statement templates
+   */
+  DatabaseStatementTemplates statementTemplates();
+
+  /**
+   * Is used to notify the listeners of the table about a write
+   * @param notification The notification of a single listener
+   */
+  void notifyListeners(Consumer<DatabaseTableListener> notification);
+
+  /**
+   * Is used to find a single row through the enabled row caches
+   * @param condition The condition with which the row can be found
+   * @return The future that contains the row if a cache covers the condition
+   */
+  Optional<CompletableFuture<Optional<DatabaseRow>>> findCachedRow(
+    DatabaseCondition condition
+  );
+
+  /**
+   * Is used to find the existence filter of the table
+   * @return The existence filter if it is enabled
+   */
+  Optional<DatabaseExistenceFilter> existenceFilter();
+
   /**
    * Is used to find a single primary key column
    * @return The single primary key column
@@ -1,5 +1,6 @@
 package de.lukasbreuer.cassandra.orm.skeleton;
 
+import de.lukasbreuer.cassandra.orm.DatabaseOperation;
 import de.lukasbreuer.cassandra.orm.aggregation.DatabaseAggregation;
 
 import java.math.BigDecimal;
@@ -23,7 +24,8 @@ public interface AggregatableDatabaseTable extends AbstractDatabaseTable {
     query.append(" FROM ");
     query.append(fullName());
     query.append(";");
-    return connection().execute(query).thenApply(result ->
+    return connection().execute(table(), DatabaseOperation.AGGREGATE,
+      query.toString()).thenApply(result ->
       result.one().get(0, BigDecimal.class));
   }
 }
@@ -1,6 +1,11 @@
 package de.lukasbreuer.cassandra.orm.skeleton;
 
+import de.lukasbreuer.cassandra.orm.DatabaseOperation;
 import de.lukasbreuer.cassandra.orm.condition.DatabaseCondition;
+import de.lukasbreuer.cassandra.orm.count.DatabaseCountEstimate;
+import de.lukasbreuer.cassandra.orm.count.DatabaseCountMode;
+import de.lukasbreuer.cassandra.orm.count.DatabaseTableCounter;
+import de.lukasbreuer.cassandra.orm.scan.DatabaseScanOptions;
 
 import java.util.concurrent.CompletableFuture;
 
@@ -38,16 +43,34 @@ public interface CountableDatabaseTable extends AbstractDatabaseTable {
    * @return The number of rows
    */
   default CompletableFuture<Long> countFix(DatabaseCondition condition) {
-    var query = new StringBuilder("SELECT COUNT(*) FROM ");
-    query.append(fullName());
-    var conditionValue = condition.build();
-    if (!conditionValue.isEmpty()) {
-      query.append(" WHERE ");
-      query.append(conditionValue);
-    }
-    query.append(condition.filteringAddition());
-    query.append(";");
-    return connection().execute(query, condition.values())
+    var query = statementTemplates().countQuery(condition);
+    return connection().execute(table(), DatabaseOperation.COUNT, query,
+        condition.values())
       .thenApply(result -> result.one().get(0, Long.class));
   }
+
+  /**
+   * Is used to find the number of rows inside a database table with a
+   * specific mode of counting
+   * @param mode The mode of counting
+   * @return The count and its error bound
+   */
+  default CompletableFuture<DatabaseCountEstimate> count(
+    DatabaseCountMode mode
+  ) {
+    return count(mode, DatabaseScanOptions.defaults());
+  }
+
+  /**
+   * Is used to find the number of rows inside a database table with a
+   * specific mode of counting
+   * @param mode The mode of counting
+   * @param options The options of the token range split in parallel mode
+   * @return The count and its error bound
+   */
+  default CompletableFuture<DatabaseCountEstimate> count(
+    DatabaseCountMode mode, DatabaseScanOptions options
+  ) {
+    return DatabaseTableCounter.create(table()).count(mode, options);
+  }
 }
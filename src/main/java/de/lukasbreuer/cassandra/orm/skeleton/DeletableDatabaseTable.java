@@ -1,5 +1,6 @@
 package de.lukasbreuer.cassandra.orm.skeleton;
 
+import de.lukasbreuer.cassandra.orm.DatabaseOperation;
 import de.lukasbreuer.cassandra.orm.condition.DatabaseCondition;
 
 import java.util.concurrent.CompletableFuture;
@@ -29,15 +30,11 @@ public interface DeletableDatabaseTable extends AbstractDatabaseTable {
    * @return A future that is completed when the deletion is completed
    */
   default CompletableFuture<Void> deleteFix(DatabaseCondition condition) {
-    var query = new StringBuilder("DELETE FROM ");
-    query.append(fullName());
-    var conditionValue = condition.build();
-    if (!conditionValue.isEmpty()) {
-      query.append(" WHERE ");
-      query.append(conditionValue);
-    }
-    query.append(";");
-    return connection().execute(query, condition.values())
+    var query = statementTemplates().deleteQuery(condition);
+    return connection().execute(table(), DatabaseOperation.DELETE, query,
+        condition.values())
+      .whenComplete((value, throwable) -> notifyListeners(listener ->
+        listener.rowsDeleted(table(), condition)))
       .thenApply(value -> null);
   }
 }
@@ -1,5 +1,7 @@
 package de.lukasbreuer.cassandra.orm.skeleton;
 
+import de.lukasbreuer.cassandra.orm.DatabaseOperation;
+
 import java.util.concurrent.CompletableFuture;
 
 public interface DroppableDatabaseTable extends AbstractDatabaseTable,
@@ -26,7 +28,8 @@ public interface DroppableDatabaseTable extends AbstractDatabaseTable,
     query.append(fullName());
     query.append(";");
     unregisterTable();
-    return connection().execute(query).thenApply(value -> null);
+    return connection().execute(table(), DatabaseOperation.DROP,
+      query.toString()).thenApply(value -> null);
   }
 
   /**
@@ -1,10 +1,14 @@
 package de.lukasbreuer.cassandra.orm.skeleton;
 
 import com.google.common.collect.Lists;
+import de.lukasbreuer.cassandra.orm.DatabaseOperation;
 import de.lukasbreuer.cassandra.orm.DatabaseRow;
+import de.lukasbreuer.cassandra.orm.cache.DatabaseRowKey;
 import de.lukasbreuer.cassandra.orm.condition.DatabaseComparison;
 import de.lukasbreuer.cassandra.orm.condition.DatabaseCondition;
+import de.lukasbreuer.cassandra.orm.filter.DatabaseExistenceFilter;
 
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 public interface ExistableDatabaseTable extends AbstractDatabaseTable {
@@ -26,6 +30,30 @@ public interface ExistableDatabaseTable extends AbstractDatabaseTable {
    * @return A future that contains the existence boolean
    */
   default CompletableFuture<Boolean> exists(DatabaseCondition condition) {
+    var filter = existenceFilter().filter(DatabaseExistenceFilter::isReady);
+    if (filter.isEmpty()) {
+      return existsConfirmed(condition);
+    }
+    var key = DatabaseRowKey.of(table(), condition);
+    if (key.isEmpty()) {
+      return existsConfirmed(condition);
+    }
+    if (!filter.get().mightContain(key.get())) {
+      return CompletableFuture.completedFuture(false);
+    }
+    return existsConfirmed(condition).thenApply(exists -> {
+      filter.get().recordConfirmation(exists);
+      return exists;
+    });
+  }
+
+  private CompletableFuture<Boolean> existsConfirmed(
+    DatabaseCondition condition
+  ) {
+    var cachedRow = findCachedRow(condition);
+    if (cachedRow.isPresent()) {
+      return cachedRow.get().thenApply(Optional::isPresent);
+    }
     return existsFix(condition);
   }
 
@@ -36,9 +64,7 @@ public interface ExistableDatabaseTable extends AbstractDatabaseTable {
    * @return A future that contains the existence boolean
    */
   default CompletableFuture<Boolean> existsFix(DatabaseRow row) {
-    var primaryKeyColumns = columns().stream()
-      .filter(column -> !column.type().isRegular())
-      .toList();
+    var primaryKeyColumns = statementTemplates().keyColumns();
     var comparisons = Lists.<DatabaseComparison>newArrayList();
     for (var i = 0; i < primaryKeyColumns.size(); i++) {
       comparisons.add(DatabaseComparison.create(primaryKeyColumns.get(i).name(),
@@ -54,19 +80,9 @@ public interface ExistableDatabaseTable extends AbstractDatabaseTable {
    * @return A future that contains the existence boolean
    */
   default CompletableFuture<Boolean> existsFix(DatabaseCondition condition) {
-    var query = new StringBuilder("SELECT ");
-    query.append(columnNameCompilation());
-    query.append(" FROM ");
-    query.append(fullName());
-    var conditionValue = condition.build();
-    if (!conditionValue.isEmpty()) {
-      query.append(" WHERE ");
-      query.append(conditionValue);
-    }
-    query.append(condition.filteringAddition());
-    query.append(" LIMIT 1");
-    query.append(";");
-    return connection().execute(query, condition.values())
+    var query = statementTemplates().existsQuery(condition);
+    return connection().execute(table(), DatabaseOperation.EXISTS, query,
+        condition.values())
       .thenApply(result -> result.remaining() > 0);
   }
 }
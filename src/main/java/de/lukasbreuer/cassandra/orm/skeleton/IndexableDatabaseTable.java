@@ -1,5 +1,7 @@
 package de.lukasbreuer.cassandra.orm.skeleton;
 
+import de.lukasbreuer.cassandra.orm.DatabaseOperation;
+
 import java.util.concurrent.CompletableFuture;
 
 public interface IndexableDatabaseTable extends AbstractDatabaseTable {
@@ -48,8 +50,9 @@ public interface IndexableDatabaseTable extends AbstractDatabaseTable {
   private CompletableFuture<Void> createIndexAsync(
     String column, String addition, String customType
   ) {
-    return connection().execute(indexCreationQuery(column, addition,
-      customType)).thenApply(value -> null);
+    return connection().execute(table(), DatabaseOperation.INDEX,
+      indexCreationQuery(column, addition, customType))
+      .thenApply(value -> null);
   }
 
   /**
@@ -132,8 +135,8 @@ public interface IndexableDatabaseTable extends AbstractDatabaseTable {
   }
 
   private CompletableFuture<Void> dropIndexAsync(String column, String addition) {
-    return connection().execute(indexDropQuery(column, addition))
-      .thenApply(value -> null);
+    return connection().execute(table(), DatabaseOperation.INDEX,
+      indexDropQuery(column, addition)).thenApply(value -> null);
   }
 
   /**
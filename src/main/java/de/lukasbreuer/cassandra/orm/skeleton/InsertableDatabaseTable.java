@@ -1,7 +1,18 @@
 package de.lukasbreuer.cassandra.orm.skeleton;
 
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import de.lukasbreuer.cassandra.orm.DatabaseOperation;
 import de.lukasbreuer.cassandra.orm.DatabaseRow;
+import de.lukasbreuer.cassandra.orm.batch.DatabaseBatchGrouping;
+import de.lukasbreuer.cassandra.orm.batch.DatabaseBatchOptions;
+import de.lukasbreuer.cassandra.orm.concurrency.BoundedParallelism;
+import de.lukasbreuer.cassandra.orm.statement.DatabaseStatementBinder;
+import de.lukasbreuer.cassandra.orm.write.DatabasePartialWrite;
+import de.lukasbreuer.cassandra.orm.write.DatabaseWriteMode;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 public interface InsertableDatabaseTable extends AbstractDatabaseTable {
@@ -24,6 +35,19 @@ public interface InsertableDatabaseTable extends AbstractDatabaseTable {
     return insertFix(row, addition);
   }
 
+  /**
+   * Inserts a new database row into the database table
+   * @param row The database row that is to be inserted
+   * @param addition An addition insertion argument (for example for ttl)
+   * @param mode Whether all columns or only the modified columns are written
+   * @return A future that is completed when the insertion is completed
+   */
+  default CompletableFuture<Void> insert(
+    DatabaseRow row, String addition, DatabaseWriteMode mode
+  ) {
+    return insertFix(row, addition, mode);
+  }
+
   /**
    * Inserts a new database row into the database table ignoring
    * transformation processes
@@ -42,16 +66,113 @@ public interface InsertableDatabaseTable extends AbstractDatabaseTable {
    * @return A future that is completed when the insertion is completed
    */
   default CompletableFuture<Void> insertFix(DatabaseRow row, String addition) {
-    var query = new StringBuilder("INSERT INTO ");
-    query.append(fullName());
-    query.append(" (");
-    query.append(columnNameCompilation());
-    query.append(") VALUES (");
-    query.append(row.placeholderCompilation());
-    query.append(") ");
-    query.append(addition);
-    query.append(";");
-    return connection().execute(query, row.values())
+    var query = statementTemplates().insertQuery(addition);
+    return connection().execute(table(), DatabaseOperation.INSERT, query,
+        row.values())
+      .whenComplete((value, throwable) -> notifyListeners(listener ->
+        listener.rowsInserted(table(), List.of(row))))
+      .thenApply(value -> null);
+  }
+
+  /**
+   * Inserts a new database row into the database table ignoring
+   * transformation processes. A partial insertion writes the key columns and
+   * the modified columns of the row only, and marks the row as unmodified
+   * once it is written
+   * @param row The database row that is to be inserted
+   * @param addition An addition insertion argument (for example for ttl)
+   * @param mode Whether all columns or only the modified columns are written
+   * @return A future that is completed when the insertion is completed
+   */
+  default CompletableFuture<Void> insertFix(
+    DatabaseRow row, String addition, DatabaseWriteMode mode
+  ) {
+    if (mode.isFull()) {
+      return insertFix(row, addition);
+    }
+    var templates = statementTemplates();
+    var dirtyCells = row.dirtyCells();
+    var writtenColumns = templates.writtenColumns(dirtyCells);
+    var write = DatabasePartialWrite.create(row, writtenColumns);
+    return connection().execute(table(), DatabaseOperation.INSERT,
+        templates.insertQuery(writtenColumns, addition), write.values())
+      .whenComplete((value, throwable) -> notifyListeners(listener ->
+        listener.rowsInserted(table(), List.of(row))))
+      .thenApply(value -> {
+        row.markClean(dirtyCells);
+        connection().metricRegistry().recordAvoidedTombstones(fullName(),
+          DatabaseOperation.INSERT, write.avoidedTombstones());
+        return null;
+      });
+  }
+
+  /**
+   * Inserts multiple database rows into the database table. The rows are
+   * grouped by their partition and every group is sent as an unlogged batch
+   * @param rows The database rows that are to be inserted
+   * @return A future that is completed when all insertions are completed
+   */
+  default CompletableFuture<Void> insertAll(Collection<DatabaseRow> rows) {
+    return insertAll(rows, DatabaseBatchOptions.defaults());
+  }
+
+  /**
+   * Inserts multiple database rows into the database table. The rows are
+   * grouped by their partition and every group is sent as an unlogged batch
+   * @param rows The database rows that are to be inserted
+   * @param options The batch size and the number of parallel batches
+   * @return A future that is completed when all insertions are completed
+   */
+  default CompletableFuture<Void> insertAll(
+    Collection<DatabaseRow> rows, DatabaseBatchOptions options
+  ) {
+    return insertAll(rows, "", options);
+  }
+
+  /**
+   * Inserts multiple database rows into the database table. The rows are
+   * grouped by their partition and every group is sent as an unlogged batch
+   * @param rows The database rows that are to be inserted
+   * @param addition An addition insertion argument (for example for ttl)
+   * @param options The batch size and the number of parallel batches
+   * @return A future that is completed when all insertions are completed
+   */
+  default CompletableFuture<Void> insertAll(
+    Collection<DatabaseRow> rows, String addition, DatabaseBatchOptions options
+  ) {
+    return insertBatchFix(rows, addition, options);
+  }
+
+  /**
+   * Inserts multiple database rows into the database table ignoring
+   * transformation processes
+   * @param rows The database rows that are to be inserted
+   * @param addition An addition insertion argument (for example for ttl)
+   * @param options The batch size and the number of parallel batches
+   * @return A future that is completed when all insertions are completed
+   */
+  default CompletableFuture<Void> insertBatchFix(
+    Collection<DatabaseRow> rows, String addition, DatabaseBatchOptions options
+  ) {
+    if (rows.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+    var templates = statementTemplates();
+    var groups = DatabaseBatchGrouping.groupByPartition(rows,
+      templates.partitionIndexes(), options.maximumBatchSize());
+    return connection().prepareBinder(templates.insertQuery(addition))
+      .thenCompose(binder -> BoundedParallelism.execute(groups,
+        options.parallelism(), group -> connection().executeStatement(table(),
+          DatabaseOperation.INSERT, createBatchStatement(binder, group))))
+      .whenComplete((value, throwable) -> notifyListeners(listener ->
+        listener.rowsInserted(table(), rows)))
       .thenApply(value -> null);
   }
+
+  private Statement<?> createBatchStatement(
+    DatabaseStatementBinder binder, List<DatabaseRow> rows
+  ) {
+    return DatabaseBatchGrouping.createStatement(DefaultBatchType.UNLOGGED,
+      rows.stream().map(row -> binder.bind(row.values())).toList());
+  }
 }
@@ -4,22 +4,41 @@ import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
 import com.datastax.oss.driver.api.core.cql.PagingState;
 import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import de.lukasbreuer.cassandra.orm.DatabaseOperation;
 import de.lukasbreuer.cassandra.orm.DatabaseRow;
 import de.lukasbreuer.cassandra.orm.condition.DatabaseCondition;
 import de.lukasbreuer.cassandra.orm.paging.DatabaseDirection;
 import de.lukasbreuer.cassandra.orm.paging.DatabaseOrder;
 import de.lukasbreuer.cassandra.orm.paging.DatabasePage;
+import de.lukasbreuer.cassandra.orm.paging.DatabasePagePrefetcher;
+import de.lukasbreuer.cassandra.orm.paging.DatabasePagingIndex;
 import com.google.common.collect.Lists;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 public interface PageableDatabaseTable extends AbstractDatabaseTable,
   CountableDatabaseTable
 {
   /**
-   * Used to find a specific page inside the table
+   * Is used to find the paging index of the table
+   * @return The paging index if it is enabled
+   */
+  Optional<DatabasePagingIndex> pagingIndex();
+
+  /**
+   * Is used to find the page prefetcher of the table
+   * @return The page prefetcher if prefetching is enabled
+   */
+  Optional<DatabasePagePrefetcher> pagePrefetcher();
+
+  /**
+   * Used to find a specific page inside the table. With an enabled paging
+   * index the count is skipped while it is cached and every page can be
+   * reached, otherwise only the first and the last page are available
    * @param partitionValue The partition key value that specifies the
    *                       basic set of elements to be paged
    * @param condition The condition that is used for filtering
@@ -32,8 +51,71 @@ public interface PageableDatabaseTable extends AbstractDatabaseTable,
     Object partitionValue, DatabaseCondition condition, DatabaseOrder order,
     int pageSize, int targetPage
   ) {
-    return countPagingRows(partitionValue, condition).thenCompose(count ->
-      selectPage(partitionValue, condition, order, pageSize, count, targetPage));
+    var pagingIndex = pagingIndex();
+    if (pagingIndex.isEmpty()) {
+      return countPagingRows(partitionValue, condition).thenCompose(count ->
+        selectPage(partitionValue, condition, order, pageSize, count,
+          targetPage));
+    }
+    var index = pagingIndex.get();
+    var key = index.key(partitionValue, condition, order, pageSize);
+    return countIndexedRows(index, key, partitionValue, condition)
+      .thenCompose(count -> selectIndexedPage(index, key, partitionValue,
+        condition, order, pageSize, count, targetPage));
+  }
+
+  private CompletableFuture<DatabasePage<DatabaseRow>> selectIndexedPage(
+    DatabasePagingIndex index, List<Object> key, Object partitionValue,
+    DatabaseCondition condition, DatabaseOrder order, int pageSize,
+    long rowNumber, int targetPage
+  ) {
+    var pageNumber = calculatePageNumber(pageSize, rowNumber);
+    if (targetPage == 0) {
+      return selectPage(partitionValue, condition, order, pageSize, rowNumber,
+        targetPage).thenApply(page -> {
+          index.updatePageState(key, 1, page.pageState());
+          return page;
+        });
+    }
+    if (targetPage < 0 || targetPage >= pageNumber - 1) {
+      return selectPage(partitionValue, condition, order, pageSize, rowNumber,
+        targetPage);
+    }
+    var closestPage = index.findClosestKnownPage(key, targetPage);
+    var pageState = index.findPageState(key, closestPage);
+    if (pageState.isEmpty()) {
+      closestPage = 0;
+      pageState = Optional.of("");
+    }
+    return walkIndexedPages(index, key,
+      createPagingCondition(partitionValue, condition), order, pageSize,
+      pageNumber, closestPage, pageState.get(), targetPage);
+  }
+
+  /**
+   * Walks forward from a known page boundary to the target page and
+   * remembers the boundary of every page on the way, so that the next jump
+   * to any of these pages only needs a single fetch
+   */
+  private CompletableFuture<DatabasePage<DatabaseRow>> walkIndexedPages(
+    DatabasePagingIndex index, List<Object> key,
+    DatabaseCondition pagingCondition, DatabaseOrder order, int pageSize,
+    int pageNumber, int currentPage, String pageState, int targetPage
+  ) {
+    var statement = createPagingStatement(pagingCondition, order, pageSize,
+      pageState);
+    return connection().execute(table(), DatabaseOperation.PAGE, statement,
+        pagingCondition.values())
+      .thenCompose(result -> {
+        var page = createDatabasePage(pageNumber, result,
+          DatabaseDirection.FORWARD);
+        index.updatePageState(key, currentPage + 1, page.pageState());
+        if (currentPage >= targetPage || page.pageState().isEmpty()) {
+          return CompletableFuture.completedFuture(page);
+        }
+        return walkIndexedPages(index, key, pagingCondition, order, pageSize,
+          pageNumber, currentPage + 1, page.pageState(), targetPage);
+      });
   }
 
   private CompletableFuture<DatabasePage<DatabaseRow>> selectPage(
@@ -61,7 +143,8 @@ public interface PageableDatabaseTable extends AbstractDatabaseTable,
       var offset = (int) (rowNumber % pageSize);
       statement = statement.setPageSize(offset == 0 ? pageSize : offset);
     }
-    return connection().execute(statement, pagingCondition.values())
+    return connection().execute(table(), DatabaseOperation.PAGE, statement,
+        pagingCondition.values())
       .thenApply(result -> createDatabasePage(pageNumber, result, direction));
   }
 
@@ -82,7 +165,12 @@ public interface PageableDatabaseTable extends AbstractDatabaseTable,
     int pageSize, String pageState, DatabaseDirection startingPoint,
     DatabaseDirection direction
   ) {
-    return countPagingRows(partitionValue, condition).thenCompose(count ->
+    var pagingIndex = pagingIndex();
+    var rowCount = pagingIndex.isEmpty() ?
+      countPagingRows(partitionValue, condition) :
+      countIndexedRows(pagingIndex.get(), pagingIndex.get().key(
+        partitionValue, condition, order, pageSize), partitionValue, condition);
+    return rowCount.thenCompose(count ->
       shiftPage(partitionValue, condition, order,
         pageSize, count, pageState, startingPoint, direction));
   }
@@ -103,25 +191,44 @@ public interface PageableDatabaseTable extends AbstractDatabaseTable,
   ) {
     var pageNumber = calculatePageNumber(pageSize, rowNumber);
     var pagingCondition = createPagingCondition(partitionValue, condition);
-    var statement = createPagingStatement(pagingCondition,
-      direction.isForward() ? order : order.reverse(), pageSize, pageState);
-    return connection().execute(statement, pagingCondition.values())
-      .thenCompose(result -> findShiftedPage(pageSize, pageNumber, result,
-        startingPoint, direction));
+    var pagingOrder = direction.isForward() ? order : order.reverse();
+    Function<String, CompletableFuture<AsyncResultSet>> fetcher = state ->
+      connection().execute(table(), DatabaseOperation.PAGE,
+        createPagingStatement(pagingCondition, pagingOrder, pageSize, state),
+        pagingCondition.values());
+    var prefetcher = pagePrefetcher();
+    var sequentialFetcher = fetcher;
+    if (prefetcher.isPresent()) {
+      var processKey = prefetcher.get().key(partitionValue, condition, order,
+        pageSize, direction);
+      sequentialFetcher = state -> prefetcher.get().fetch(processKey, state,
+        pageSize, fetcher);
+    }
+    var firstResult = startingPoint == direction ?
+      sequentialFetcher.apply(pageState) : fetcher.apply(pageState);
+    var hopFetcher = sequentialFetcher;
+    return firstResult.thenCompose(result -> findShiftedPage(pageSize,
+      pageNumber, result, startingPoint, direction, hopFetcher));
   }
 
+  /**
+   * A reversal needs a second hop behind the first page. The hop goes
+   * through the prefetcher like every sequential page, so that it is limited,
+   * recorded and counted against the look-ahead budget of the paging process
+   */
   private CompletableFuture<DatabasePage<DatabaseRow>> findShiftedPage(
     int pageSize, int pageNumber, AsyncResultSet firstResult,
-    DatabaseDirection startingPoint, DatabaseDirection direction
+    DatabaseDirection startingPoint, DatabaseDirection direction,
+    Function<String, CompletableFuture<AsyncResultSet>> fetcher
   ) {
-    if (startingPoint == direction) {
+    if (startingPoint == direction || !firstResult.hasMorePages()) {
       return CompletableFuture.completedFuture(createDatabasePage(pageNumber,
         firstResult, direction));
     }
-    return (CompletableFuture<DatabasePage<DatabaseRow>>)
-      firstResult.fetchNextPage().thenApply(secondResult ->
-        createDatabasePage(pageNumber, firstResult,
-          combineShiftResults(pageSize, firstResult, secondResult), direction));
+    return fetcher.apply(firstResult.getExecutionInfo().getSafePagingState()
+        .toString())
+      .thenApply(secondResult -> createDatabasePage(pageNumber, firstResult,
+        combineShiftResults(pageSize, firstResult, secondResult), direction));
   }
 
   private List<Row> combineShiftResults(
@@ -152,7 +259,8 @@ public interface PageableDatabaseTable extends AbstractDatabaseTable,
     if (direction.isBackward()) {
       Collections.reverse(rows);
     }
-    return DatabasePage.create(DatabaseRow.multiple(rows, columns().size()),
+    return DatabasePage.create(statementTemplates()
+        .allColumnsProjection().decodeAll(rows),
       resultSet.hasMorePages() ?
         resultSet.getExecutionInfo().getSafePagingState().toString() : "",
       pageNumber);
@@ -162,22 +270,8 @@ public interface PageableDatabaseTable extends AbstractDatabaseTable,
     DatabaseCondition condition, DatabaseOrder order, int pageSize,
     String pageState
   ) {
-    var query = new StringBuilder("SELECT ");
-    query.append(columnNameCompilation());
-    query.append(" FROM ");
-    query.append(fullName());
-    var conditionValue = condition.build();
-    if (!conditionValue.isEmpty()) {
-      query.append(" WHERE ");
-      query.append(conditionValue);
-    }
-    query.append(" ORDER BY ");
-    query.append(columns().stream().filter(column -> column.type().isClusteringKey())
-      .findFirst().get().name());
-    query.append(" ");
-    query.append(order.value());
-    query.append(" ALLOW FILTERING;");
-    var statement = SimpleStatement.builder(query.toString())
+    var statement = SimpleStatement.builder(statementTemplates()
+        .pagingQuery(condition, order))
       .setPageSize(pageSize).build();
     if (!pageState.isEmpty()) {
       statement = statement.setPagingState(PagingState.fromString(pageState)
@@ -192,6 +286,20 @@ public interface PageableDatabaseTable extends AbstractDatabaseTable,
     return count(createPagingCondition(partitionValue, condition));
   }
 
+  private CompletableFuture<Long> countIndexedRows(
+    DatabasePagingIndex index, List<Object> key, Object partitionValue,
+    DatabaseCondition condition
+  ) {
+    var rowCount = index.findRowCount(key);
+    if (rowCount.isPresent()) {
+      return CompletableFuture.completedFuture(rowCount.getAsLong());
+    }
+    return countPagingRows(partitionValue, condition).thenApply(count -> {
+      index.updateRowCount(key, count);
+      return count;
+    });
+  }
+
   private DatabaseCondition createPagingCondition(
     Object partitionValue, DatabaseCondition condition
   ) {
@@ -1,12 +1,26 @@
 package de.lukasbreuer.cassandra.orm.skeleton;
 
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
 import de.lukasbreuer.cassandra.orm.DatabaseColumn;
+import de.lukasbreuer.cassandra.orm.DatabaseOperation;
 import de.lukasbreuer.cassandra.orm.DatabaseRow;
+import de.lukasbreuer.cassandra.orm.columnar.DatabaseRowBatch;
+import de.lukasbreuer.cassandra.orm.columnar.DatabaseRowBatches;
 import de.lukasbreuer.cassandra.orm.condition.DatabaseCondition;
+import de.lukasbreuer.cassandra.orm.scan.DatabaseScanOptions;
+import de.lukasbreuer.cassandra.orm.scan.DatabaseTableScan;
+import de.lukasbreuer.cassandra.orm.stream.DatabaseRowIterator;
+import de.lukasbreuer.cassandra.orm.stream.DatabaseRowPublisher;
+import de.lukasbreuer.cassandra.orm.stream.DatabaseRowStreams;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface SelectableDatabaseTable extends AbstractDatabaseTable {
   /**
@@ -25,8 +39,8 @@ public interface SelectableDatabaseTable extends AbstractDatabaseTable {
   default CompletableFuture<List<DatabaseRow>> selectAllRowsColumns(
     List<DatabaseColumn> columns
   ) {
-
-    return selectAllRows(selectColumnNameCompilation(columns));
+    return selectAllRows(statementTemplates().projection(columns)
+      .columnNames());
   }
 
   /**
@@ -45,14 +59,12 @@ public interface SelectableDatabaseTable extends AbstractDatabaseTable {
    * @return List of all possible rows
    */
   default CompletableFuture<List<DatabaseRow>> selectAllRowsFix(String columnNames) {
-    var query = new StringBuilder("SELECT ");
-    query.append(columnNames);
-    query.append(" FROM ");
-    query.append(fullName());
-    query.append(";");
-    var columnCount = columnNames.length() - columnNames.replace(",", "").length() + 1;
-    return connection().execute(query).thenApply(result ->
-      DatabaseRow.multiple(result.currentPage(), columnCount));
+    var query = statementTemplates().selectQuery(columnNames,
+      DatabaseCondition.empty(), -1);
+    var projection = statementTemplates().projection(columnNames);
+    return connection().execute(table(), DatabaseOperation.SELECT, query)
+      .thenCompose(result -> DatabaseRowStreams.collect(result,
+        projection::decode));
   }
 
   /**
@@ -72,8 +84,8 @@ public interface SelectableDatabaseTable extends AbstractDatabaseTable {
   default CompletableFuture<DatabaseRow> selectRow(
     DatabaseCondition condition
   ) {
-    return selectRows(condition)
-      .thenApply(rows -> rows.isEmpty() ? DatabaseRow.of() : rows.get(0));
+    return selectRowSecure(condition)
+      .thenApply(row -> row.orElseGet(DatabaseRow::of));
   }
 
   /**
@@ -98,7 +110,8 @@ public interface SelectableDatabaseTable extends AbstractDatabaseTable {
   default CompletableFuture<DatabaseRow> selectRowColumns(
     DatabaseCondition condition, List<DatabaseColumn> columns
   ) {
-    return selectRows(condition, selectColumnNameCompilation(columns))
+    var columnNames = statementTemplates().projection(columns).columnNames();
+    return selectRows(condition, columnNames)
       .thenApply(rows -> rows.isEmpty() ? DatabaseRow.of() : rows.get(0));
   }
 
@@ -124,7 +137,8 @@ public interface SelectableDatabaseTable extends AbstractDatabaseTable {
   default CompletableFuture<List<DatabaseRow>> selectRowsColumns(
     DatabaseCondition condition, List<DatabaseColumn> columns
   ) {
-    return selectRows(condition, selectColumnNameCompilation(columns));
+    return selectRows(condition, statementTemplates().projection(columns)
+      .columnNames());
   }
 
   /**
@@ -144,6 +158,10 @@ public interface SelectableDatabaseTable extends AbstractDatabaseTable {
   default CompletableFuture<Optional<DatabaseRow>> selectRowSecure(
     DatabaseCondition condition
   ) {
+    var cachedRow = findCachedRow(condition);
+    if (cachedRow.isPresent()) {
+      return cachedRow.get();
+    }
     return selectRows(condition).thenApply(rows -> rows.stream().findFirst());
   }
 
@@ -205,34 +223,186 @@ public interface SelectableDatabaseTable extends AbstractDatabaseTable {
   default CompletableFuture<List<DatabaseRow>> selectRowsFix(
     DatabaseCondition condition, String columnNames, long limit
   ) {
-    var query = new StringBuilder("SELECT ");
-    query.append(columnNames);
-    query.append(" FROM ");
-    query.append(fullName());
-    var conditionValue = condition.build();
-    if (!conditionValue.isEmpty()) {
-      query.append(" WHERE ");
-      query.append(conditionValue);
-    }
-    if (limit > 0) {
-      query.append(" LIMIT ");
-      query.append(limit);
-    }
-    query.append(condition.filteringAddition());
-    query.append(";");
-    var columnCount = columnNames.length() - columnNames.replace(",", "").length() + 1;
-    return connection().execute(query, condition.values()).thenApply(result ->
-      DatabaseRow.multiple(result.currentPage(), columnCount));
-  }
-
-  private String selectColumnNameCompilation(List<DatabaseColumn> columns) {
-    var compilation = new StringBuilder();
-    for (var i = 0; i < columns.size(); i++) {
-      compilation.append(columns.get(i).name());
-      if (i < columns.size() - 1) {
-        compilation.append(", ");
-      }
+    var query = statementTemplates().selectQuery(columnNames, condition, limit);
+    var projection = statementTemplates().projection(columnNames);
+    return connection().execute(table(), DatabaseOperation.SELECT, query,
+        condition.values()).thenCompose(result -> DatabaseRowStreams.collect(
+      result, projection::decode));
+  }
+
+  /**
+   * Is used to publish all rows of the table page by page
+   * @return The publisher of the rows
+   */
+  default Flow.Publisher<DatabaseRow> publishAllRows() {
+    return publishRows(DatabaseCondition.empty());
+  }
+
+  /**
+   * Is used to publish the rows of a condition page by page
+   * @param condition The condition with which the rows can be found
+   * @return The publisher of the rows
+   */
+  default Flow.Publisher<DatabaseRow> publishRows(DatabaseCondition condition) {
+    return publishRows(condition, columnNameCompilation(), -1);
+  }
+
+  /**
+   * Is used to publish the rows of a condition page by page. The query is
+   * executed for every subscriber once it requests the first row
+   * @param condition The condition with which the rows can be found
+   * @param columnNames The names of the columns to be selected
+   * @param pageSize The number of rows per page or a non positive value for
+   *                 the page size of the driver
+   * @return The publisher of the rows
+   */
+  default Flow.Publisher<DatabaseRow> publishRows(
+    DatabaseCondition condition, String columnNames, int pageSize
+  ) {
+    var projection = statementTemplates().projection(columnNames);
+    return DatabaseRowPublisher.create(
+      () -> executeStreamQuery(condition, columnNames, pageSize),
+      projection::decode);
+  }
+
+  /**
+   * Is used to stream all rows of the table page by page
+   * @return The lazy stream of the rows
+   */
+  default Stream<DatabaseRow> streamAllRows() {
+    return streamRows(DatabaseCondition.empty());
+  }
+
+  /**
+   * Is used to stream the rows of a condition page by page
+   * @param condition The condition with which the rows can be found
+   * @return The lazy stream of the rows
+   */
+  default Stream<DatabaseRow> streamRows(DatabaseCondition condition) {
+    return streamRows(condition, columnNameCompilation(), -1);
+  }
+
+  /**
+   * Is used to stream the rows of a condition page by page. The stream
+   * blocks while the next page is fetched
+   * @param condition The condition with which the rows can be found
+   * @param columnNames The names of the columns to be selected
+   * @param pageSize The number of rows per page or a non positive value for
+   *                 the page size of the driver
+   * @return The lazy stream of the rows
+   */
+  default Stream<DatabaseRow> streamRows(
+    DatabaseCondition condition, String columnNames, int pageSize
+  ) {
+    var projection = statementTemplates().projection(columnNames);
+    return DatabaseRowStreams.stream(
+      executeStreamQuery(condition, columnNames, pageSize),
+      projection::decode);
+  }
+
+  /**
+   * Is used to iterate the rows of a condition page by page. The iterator
+   * blocks while the next page is fetched
+   * @param condition The condition with which the rows can be found
+   * @param columnNames The names of the columns to be selected
+   * @param pageSize The number of rows per page or a non positive value for
+   *                 the page size of the driver
+   * @return The iterator of the rows
+   */
+  default Iterator<DatabaseRow> iterateRows(
+    DatabaseCondition condition, String columnNames, int pageSize
+  ) {
+    var projection = statementTemplates().projection(columnNames);
+    return DatabaseRowIterator.create(
+      executeStreamQuery(condition, columnNames, pageSize),
+      projection::decode);
+  }
+
+  /**
+   * Is used to find all rows of the table as columnar batches, one batch per
+   * page
+   * @param columnNames The names of the columns to be selected
+   * @return A future that contains the batches
+   */
+  default CompletableFuture<List<DatabaseRowBatch>> selectAllRowBatches(
+    String columnNames
+  ) {
+    return selectRowBatches(DatabaseCondition.empty(), columnNames);
+  }
+
+  /**
+   * Is used to find the rows of a condition as columnar batches, one batch
+   * per page
+   * @param condition The condition with which the rows can be found
+   * @param columnNames The names of the columns to be selected
+   * @return A future that contains the batches
+   */
+  default CompletableFuture<List<DatabaseRowBatch>> selectRowBatches(
+    DatabaseCondition condition, String columnNames
+  ) {
+    var projection = statementTemplates().projection(columnNames);
+    return executeStreamQuery(condition, columnNames, -1)
+      .thenCompose(result -> DatabaseRowBatches.collect(result, projection));
+  }
+
+  /**
+   * Is used to stream the rows of a condition as columnar batches, one batch
+   * per page. The stream blocks while the next page is fetched
+   * @param condition The condition with which the rows can be found
+   * @param columnNames The names of the columns to be selected
+   * @param pageSize The number of rows per page or a non positive value for
+   *                 the page size of the driver
+   * @return The lazy stream of the batches
+   */
+  default Stream<DatabaseRowBatch> streamRowBatches(
+    DatabaseCondition condition, String columnNames, int pageSize
+  ) {
+    return DatabaseRowBatches.stream(
+      executeStreamQuery(condition, columnNames, pageSize),
+      statementTemplates().projection(columnNames));
+  }
+
+  /**
+   * Is used to scan all rows of the table in parallel token ranges
+   * @param sink The thread safe consumer of the rows
+   * @return The future that contains the number of scanned rows
+   */
+  default CompletableFuture<Long> scanAllRows(Consumer<DatabaseRow> sink) {
+    return scan(DatabaseScanOptions.defaults()).scan(sink);
+  }
+
+  /**
+   * Is used to create a parallel token range scan over all columns
+   * @param options The options of the scan
+   * @return The scan, which can be run with a sink, a listener, per range
+   * callbacks or as a merged stream
+   */
+  default DatabaseTableScan scan(DatabaseScanOptions options) {
+    return scan(columnNameCompilation(), options);
+  }
+
+  /**
+   * Is used to create a parallel token range scan
+   * @param columnNames The names of the columns to be selected
+   * @param options The options of the scan
+   * @return The scan, which can be run with a sink, a listener, per range
+   * callbacks or as a merged stream
+   */
+  default DatabaseTableScan scan(
+    String columnNames, DatabaseScanOptions options
+  ) {
+    return DatabaseTableScan.create(table(), columnNames, options);
+  }
+
+  private CompletableFuture<AsyncResultSet> executeStreamQuery(
+    DatabaseCondition condition, String columnNames, int pageSize
+  ) {
+    var query = statementTemplates().selectQuery(columnNames, condition, -1);
+    var statement = SimpleStatement.builder(query);
+    if (pageSize > 0) {
+      statement.setPageSize(pageSize);
     }
-    return compilation.toString();
+    return connection().execute(table(), DatabaseOperation.SELECT,
+      statement.build(), condition.values());
   }
 }
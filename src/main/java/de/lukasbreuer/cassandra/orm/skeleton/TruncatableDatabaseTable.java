@@ -1,5 +1,7 @@
 package de.lukasbreuer.cassandra.orm.skeleton;
 
+import de.lukasbreuer.cassandra.orm.DatabaseOperation;
+
 import java.util.concurrent.CompletableFuture;
 
 public interface TruncatableDatabaseTable extends AbstractDatabaseTable {
@@ -11,6 +13,10 @@ public interface TruncatableDatabaseTable extends AbstractDatabaseTable {
     var query = new StringBuilder("TRUNCATE TABLE ");
     query.append(fullName());
     query.append(";");
-    return connection().execute(query).thenApply(value -> null);
+    return connection().execute(table(), DatabaseOperation.TRUNCATE,
+        query.toString())
+      .whenComplete((value, throwable) -> notifyListeners(listener ->
+        listener.tableTruncated(table())))
+      .thenApply(value -> null);
   }
 }
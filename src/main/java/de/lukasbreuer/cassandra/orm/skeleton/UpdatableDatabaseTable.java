@@ -1,7 +1,11 @@
 package de.lukasbreuer.cassandra.orm.skeleton;
 
+import de.lukasbreuer.cassandra.orm.DatabaseOperation;
 import de.lukasbreuer.cassandra.orm.DatabaseRow;
+import de.lukasbreuer.cassandra.orm.condition.DatabaseComparison;
 import de.lukasbreuer.cassandra.orm.condition.DatabaseCondition;
+import de.lukasbreuer.cassandra.orm.write.DatabasePartialWrite;
+import de.lukasbreuer.cassandra.orm.write.DatabaseWriteMode;
 
 import java.util.concurrent.CompletableFuture;
 
@@ -52,24 +56,23 @@ public interface UpdatableDatabaseTable extends AbstractDatabaseTable {
   default CompletableFuture<Void> update(
     DatabaseCondition condition, DatabaseRow row, String addition
   ) {
-    return update(condition, row, buildUpdateChange(), addition);
+    return update(condition, row, statementTemplates().updateChange(),
+      addition);
   }
 
-  private String buildUpdateChange() {
-    var pairs = new StringBuilder();
-    var columns = columns();
-    for (var i = 0; i < columns.size(); i++) {
-      var column = columns.get(i);
-      if (!column.type().isRegular()) {
-        continue;
-      }
-      pairs.append(column.name());
-      pairs.append(" = ?");
-      if (i < columns.size() - 1) {
-        pairs.append(", ");
-      }
-    }
-    return pairs.toString();
+  /**
+   * Updates a row inside the database table
+   * @param condition The condition with which the row can be found
+   * @param row The updated row (with all the columns)
+   * @param addition An addition update argument (for example for ttl)
+   * @param mode Whether all columns or only the modified columns are written
+   * @return A future that is completed when the update is completed
+   */
+  default CompletableFuture<Void> update(
+    DatabaseCondition condition, DatabaseRow row, String addition,
+    DatabaseWriteMode mode
+  ) {
+    return updateFix(condition, row, addition, mode);
   }
 
   /**
@@ -92,33 +95,9 @@ public interface UpdatableDatabaseTable extends AbstractDatabaseTable {
   default CompletableFuture<Void> updateCounter(
     DatabaseCondition condition, DatabaseRow row
   ) {
-    var values = row.values();
-    for (var i = condition.values().length; i < values.length; i++) {
-      values[i] = Math.abs((long) values[i]);
-    }
-    return update(condition, DatabaseRow.of(values),
-      buildUpdateCounterChange(row), "");
-  }
-
-  private String buildUpdateCounterChange(DatabaseRow row) {
-    var pairs = new StringBuilder();
-    var columns = columns();
-    for (var i = 0; i < columns.size(); i++) {
-      var column = columns.get(i);
-      if (!column.type().isRegular()) {
-        continue;
-      }
-      pairs.append(column.name());
-      pairs.append(" = ");
-      pairs.append(column.name());
-      var value = row.findCell(i).longValue();
-      pairs.append(value >= 0 ? " + " : " - ");
-      pairs.append("?");
-      if (i < columns.size() - 1) {
-        pairs.append(", ");
-      }
-    }
-    return pairs.toString();
+    var templates = statementTemplates();
+    return update(condition, row,
+      templates.counterChange(templates.regularColumns()), "");
   }
 
   private CompletableFuture<Void> update(
@@ -140,23 +119,53 @@ public interface UpdatableDatabaseTable extends AbstractDatabaseTable {
     DatabaseCondition condition, DatabaseRow row, String updateChange,
     String addition
   ) {
-    var query = new StringBuilder("UPDATE ");
-    query.append(fullName());
-    if (!addition.isEmpty()) {
-      query.append(" ");
+    var query = statementTemplates().updateQuery(updateChange, condition,
+      addition);
+    return connection().execute(table(), DatabaseOperation.UPDATE, query,
+        buildUpdateValues(condition, row))
+      .whenComplete((value, throwable) -> notifyListeners(listener ->
+        listener.rowsUpdated(table(), condition)))
+      .thenApply(value -> null);
+  }
+
+  /**
+   * Updates a row inside the database table ignoring transformation
+   * processes. A partial update changes the modified regular columns of the
+   * row only, and marks the row as unmodified once it is written
+   * @param condition The condition with which the row can be found
+   * @param row The updated row (with all the columns)
+   * @param addition An addition update argument (for example for ttl)
+   * @param mode Whether all columns or only the modified columns are written
+   * @return A future that is completed when the update is completed
+   */
+  default CompletableFuture<Void> updateFix(
+    DatabaseCondition condition, DatabaseRow row, String addition,
+    DatabaseWriteMode mode
+  ) {
+    var templates = statementTemplates();
+    if (mode.isFull()) {
+      return updateFix(condition, row, templates.updateChange(), addition);
     }
-    query.append(addition);
-    query.append(" SET ");
-    query.append(updateChange);
-    var conditionValue = condition.build();
-    if (!conditionValue.isEmpty()) {
-      query.append(" WHERE ");
-      query.append(conditionValue);
+    var dirtyCells = row.dirtyCells();
+    var changedColumns = templates.changedColumns(dirtyCells);
+    if (changedColumns.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
     }
-    query.append(condition.filteringAddition());
-    query.append(";");
-    return connection().execute(query, buildUpdateValues(condition, row))
-      .thenApply(value -> null);
+    var write = DatabasePartialWrite.create(row, changedColumns,
+      condition.comparisons().stream().map(DatabaseComparison::value)
+        .toArray());
+    var query = templates.updateQuery(templates.updateChange(changedColumns),
+      condition, addition);
+    return connection().execute(table(), DatabaseOperation.UPDATE, query,
+        write.values())
+      .whenComplete((value, throwable) -> notifyListeners(listener ->
+        listener.rowsUpdated(table(), condition)))
+      .thenApply(value -> {
+        row.markClean(dirtyCells);
+        connection().metricRegistry().recordAvoidedTombstones(fullName(),
+          DatabaseOperation.UPDATE, write.avoidedTombstones());
+        return null;
+      });
   }
 
   private Object[] buildUpdateValues(DatabaseCondition condition, DatabaseRow row) {
@@ -169,7 +178,7 @@ public interface UpdatableDatabaseTable extends AbstractDatabaseTable {
       if (comparisons.stream().anyMatch(entry -> entry.column().equals(column))) {
         continue;
       }
-      values[valueIndex] = row.values()[i];
+      values[valueIndex] = row.value(i);
       valueIndex++;
     }
     for (var comparison : comparisons) {
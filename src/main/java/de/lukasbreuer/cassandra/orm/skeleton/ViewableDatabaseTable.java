@@ -2,6 +2,7 @@ package de.lukasbreuer.cassandra.orm.skeleton;
 
 import com.datastax.oss.driver.api.core.metadata.schema.ViewMetadata;
 import de.lukasbreuer.cassandra.orm.DatabaseColumn;
+import de.lukasbreuer.cassandra.orm.DatabaseOperation;
 import de.lukasbreuer.cassandra.orm.DatabaseTable;
 import com.google.common.collect.Lists;
 import de.lukasbreuer.iteron.AsyncIterator;
@@ -176,7 +177,8 @@ public interface ViewableDatabaseTable extends AbstractDatabaseTable {
     query.append(addition);
     query.append(fullName());
     query.append(";");
-    return connection().execute(query).thenApply(value -> null);
+    return connection().execute(table(), DatabaseOperation.VIEW,
+      query.toString()).thenApply(value -> null);
   }
 
   /**
@@ -206,6 +208,7 @@ public interface ViewableDatabaseTable extends AbstractDatabaseTable {
     query.append(addition);
     query.append(keyspaceName + "." + viewName);
     query.append(";");
-    return connection().execute(query).thenApply(value -> null);
+    return connection().execute(table(), DatabaseOperation.VIEW,
+      query.toString()).thenApply(value -> null);
   }
 }
@@ -0,0 +1,89 @@
+package de.lukasbreuer.cassandra.orm.speculation;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.time.Duration;
+
+@Getter
+@Accessors(fluent = true)
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DatabaseSpeculationOptions {
+  private static final int DEFAULT_MAXIMUM_EXECUTIONS = 2;
+  private static final int DEFAULT_WINDOW_SIZE = 1000;
+
+  /**
+   * Hedges a request after a fixed delay
+   * @param delay The delay after which the hedge request is sent
+   * @return The options
+   */
+  public static DatabaseSpeculationOptions fixed(Duration delay) {
+    return new DatabaseSpeculationOptions(Mode.FIXED, delay, 0,
+      DEFAULT_MAXIMUM_EXECUTIONS, DEFAULT_WINDOW_SIZE, false);
+  }
+
+  /**
+   * Hedges a request after the observed latency percentile of the reads of
+   * the table, which is recalculated after every window of reads
+   * @param percentile The percentile between 0 and 100 (for example 95)
+   * @param minimumDelay The delay used before the first window is complete
+   *                     and the lower bound of the delay
+   * @return The options
+   */
+  public static DatabaseSpeculationOptions adaptive(
+    double percentile, Duration minimumDelay
+  ) {
+    return new DatabaseSpeculationOptions(Mode.ADAPTIVE, minimumDelay,
+      percentile, DEFAULT_MAXIMUM_EXECUTIONS, DEFAULT_WINDOW_SIZE, false);
+  }
+
+  public enum Mode {
+    FIXED,
+    ADAPTIVE;
+
+    public boolean isAdaptive() {
+      return this == ADAPTIVE;
+    }
+  }
+
+  private final Mode mode;
+  private final Duration delay;
+  private final double percentile;
+  /**
+   * The maximum number of executions of a request, including the first one
+   */
+  private final int maximumExecutions;
+  /**
+   * The number of reads after which the adaptive delay is recalculated
+   */
+  private final int windowSize;
+  /**
+   * Whether the writes of the table are marked as idempotent as well, so
+   * that they are hedged. Counter updates are never hedged
+   */
+  private final boolean hedgingWrites;
+
+  public DatabaseSpeculationOptions withMaximumExecutions(
+    int maximumExecutions
+  ) {
+    return new DatabaseSpeculationOptions(mode, delay, percentile,
+      maximumExecutions, windowSize, hedgingWrites);
+  }
+
+  public DatabaseSpeculationOptions withWindowSize(int windowSize) {
+    return new DatabaseSpeculationOptions(mode, delay, percentile,
+      maximumExecutions, windowSize, hedgingWrites);
+  }
+
+  /**
+   * Is used to opt in to hedged writes, which may apply a write twice. Only
+   * writes that can be applied twice safely should be hedged
+   * @return The options with hedged writes
+   */
+  public DatabaseSpeculationOptions withHedgedWrites() {
+    return new DatabaseSpeculationOptions(mode, delay, percentile,
+      maximumExecutions, windowSize, true);
+  }
+}
@@ -0,0 +1,189 @@
+package de.lukasbreuer.cassandra.orm.speculation;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.context.DriverContext;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.session.Request;
+import com.datastax.oss.driver.api.core.specex.SpeculativeExecutionPolicy;
+import de.lukasbreuer.cassandra.orm.profile.DatabaseDriverOption;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The speculative execution policy of the driver, which hedges the requests
+ * of every table with the speculation of that table. The driver consults the
+ * policy for idempotent requests only, the table of a request is taken from
+ * the column definitions of its prepared statement. Requests with a derived
+ * execution profile are hedged with the speculation of that profile instead
+ * <p>
+ * Simple statements carry no column definitions, so they are only hedged
+ * through their execution profile. The connection binds its simple
+ * statements to prepared statements before they reach the driver, so that
+ * only simple statements that are executed on the session directly are
+ * affected
+ */
+public final class DatabaseSpeculativeExecutionPolicy
+  implements SpeculativeExecutionPolicy
+{
+  private final Map<String, DatabaseTableSpeculation> tables =
+    new ConcurrentHashMap<>();
+  private final Map<String, DatabaseTableSpeculation> profiles =
+    new ConcurrentHashMap<>();
+
+  /**
+   * Is called by the driver, which instantiates the configured policy
+   * @param context The context of the driver
+   * @param profileName The name of the execution profile
+   */
+  public DatabaseSpeculativeExecutionPolicy(
+    DriverContext context, String profileName
+  ) {
+  }
+
+  /**
+   * Is used to hedge the requests of a table
+   * @param table The full name of the table
+   * @param options The delay and the number of executions
+   */
+  public void register(String table, DatabaseSpeculationOptions options) {
+    tables.put(table, DatabaseTableSpeculation.create(options));
+  }
+
+  public void unregister(String table) {
+    tables.remove(table);
+  }
+
+  /**
+   * Is used to hedge the requests of an execution profile
+   * @param profile The name of the execution profile
+   * @param options The delay and the number of executions
+   */
+  public void registerProfile(
+    String profile, DatabaseSpeculationOptions options
+  ) {
+    profiles.put(profile, DatabaseTableSpeculation.create(options));
+  }
+
+  public void unregisterProfile(String profile) {
+    profiles.remove(profile);
+  }
+
+  /**
+   * Is used to find the speculation options of a table
+   * @param table The full name of the table
+   * @return The options if the requests of the table are hedged
+   */
+  public Optional<DatabaseSpeculationOptions> find(String table) {
+    return Optional.ofNullable(tables.get(table))
+      .map(DatabaseTableSpeculation::options);
+  }
+
+  /**
+   * Is used to record the latency of a read of a table, which adapts the
+   * delay of an adaptive speculation
+   * @param table The full name of the table
+   * @param latency The latency in nanoseconds
+   */
+  public void recordLatency(String table, long latency) {
+    var speculation = tables.get(table);
+    if (speculation != null) {
+      speculation.recordLatency(latency);
+    }
+  }
+
+  /**
+   * Is used to record the latency of a request of an execution profile
+   * @param profile The name of the execution profile
+   * @param latency The latency in nanoseconds
+   */
+  public void recordProfileLatency(String profile, long latency) {
+    var speculation = profiles.get(profile);
+    if (speculation != null) {
+      speculation.recordLatency(latency);
+    }
+  }
+
+  @Override
+  public long nextExecution(
+    Node node, CqlIdentifier keyspace, Request request, int runningExecutions
+  ) {
+    var speculation = findProfileSpeculation(request);
+    if (speculation == null) {
+      var table = findTable(request);
+      speculation = table == null ? null : tables.get(table);
+    }
+    if (speculation == null ||
+      runningExecutions >= speculation.options().maximumExecutions()
+    ) {
+      return -1;
+    }
+    return speculation.delayMillis();
+  }
+
+  private DatabaseTableSpeculation findProfileSpeculation(Request request) {
+    var profile = request.getExecutionProfile();
+    if (profile == null ||
+      !profile.isDefined(DatabaseDriverOption.EXECUTION_PROFILE)
+    ) {
+      return null;
+    }
+    return profiles.get(profile.getString(
+      DatabaseDriverOption.EXECUTION_PROFILE));
+  }
+
+  /**
+   * Is used to find the table of a request. A batch belongs to a table if
+   * all of its bound statements belong to that table
+   * @param request The request of the driver
+   * @return The full name of the table or null if it is unknown
+   */
+  String findTable(Request request) {
+    if (request instanceof BoundStatement statement) {
+      return findTable(statement);
+    }
+    if (request instanceof BatchStatement batch) {
+      return findTable(batch);
+    }
+    return null;
+  }
+
+  private String findTable(BatchStatement batch) {
+    String batchTable = null;
+    for (var statement : batch) {
+      if (!(statement instanceof BoundStatement boundStatement)) {
+        return null;
+      }
+      var table = findTable(boundStatement);
+      if (table == null || (batchTable != null && !batchTable.equals(table))) {
+        return null;
+      }
+      batchTable = table;
+    }
+    return batchTable;
+  }
+
+  private String findTable(BoundStatement statement) {
+    var preparedStatement = statement.getPreparedStatement();
+    var table = findTable(preparedStatement.getResultSetDefinitions());
+    return table != null ? table :
+      findTable(preparedStatement.getVariableDefinitions());
+  }
+
+  private String findTable(ColumnDefinitions definitions) {
+    if (definitions.size() == 0) {
+      return null;
+    }
+    var definition = definitions.get(0);
+    return definition.getKeyspace().asInternal() + "." +
+      definition.getTable().asInternal();
+  }
+
+  @Override
+  public void close() {
+  }
+}
@@ -0,0 +1,47 @@
+package de.lukasbreuer.cassandra.orm.speculation;
+
+import de.lukasbreuer.cassandra.orm.metric.DatabaseLatencyHistogram;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The speculation of a single table. The adaptive delay is calculated from
+ * the latencies of the last complete window only, so that it follows the
+ * current state of the cluster instead of its whole history
+ */
+@Accessors(fluent = true)
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+final class DatabaseTableSpeculation {
+  static DatabaseTableSpeculation create(DatabaseSpeculationOptions options) {
+    var speculation = new DatabaseTableSpeculation(options);
+    speculation.delayMillis = options.delay().toMillis();
+    return speculation;
+  }
+
+  @Getter
+  private final DatabaseSpeculationOptions options;
+  private final AtomicLong samples = new AtomicLong();
+  private volatile DatabaseLatencyHistogram window =
+    DatabaseLatencyHistogram.create();
+  @Getter
+  private volatile long delayMillis;
+
+  void recordLatency(long latency) {
+    if (!options.mode().isAdaptive()) {
+      return;
+    }
+    var current = window;
+    current.record(latency);
+    if (samples.incrementAndGet() % options.windowSize() != 0) {
+      return;
+    }
+    window = DatabaseLatencyHistogram.create();
+    delayMillis = Math.max(options.delay().toMillis(), TimeUnit.NANOSECONDS
+      .toMillis(current.valueAtPercentile(options.percentile())));
+  }
+}
@@ -0,0 +1,141 @@
+package de.lukasbreuer.cassandra.orm.statement;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import de.lukasbreuer.cassandra.orm.DatabaseCell;
+import de.lukasbreuer.cassandra.orm.DatabaseColumn;
+import de.lukasbreuer.cassandra.orm.DatabaseRow;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The compiled selection list of a query. Decoded rows are laid out in the
+ * order of the selection list. The positions and table columns of the
+ * selected columns are resolved once, so that reading a row needs neither
+ * the selection string nor a lookup per cell
+ */
+@Accessors(fluent = true)
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DatabaseProjection {
+  /**
+   * Compiles the projection of a selection list
+   * @param tableColumns The columns of the table
+   * @param columnNames The selection list, separated by commas
+   * @return The compiled projection
+   */
+  static DatabaseProjection compile(
+    List<DatabaseColumn> tableColumns, String columnNames
+  ) {
+    var names = splitColumnNames(columnNames);
+    Map<String, Integer> tablePositions = Maps.newHashMap();
+    for (var i = 0; i < tableColumns.size(); i++) {
+      tablePositions.put(tableColumns.get(i).name(), i);
+    }
+    Map<String, Integer> indexes = Maps.newHashMap();
+    List<Optional<DatabaseColumn>> selectedColumns = Lists.newArrayList();
+    for (var i = 0; i < names.size(); i++) {
+      indexes.putIfAbsent(names.get(i), i);
+      var tableIndex = tablePositions.get(names.get(i));
+      selectedColumns.add(tableIndex == null ? Optional.empty() :
+        Optional.of(tableColumns.get(tableIndex)));
+    }
+    return new DatabaseProjection(List.copyOf(names), columnNames,
+      Map.copyOf(indexes), List.copyOf(selectedColumns));
+  }
+
+  /**
+   * Commas inside of function calls, for example token(a, b), do not
+   * separate selected columns
+   */
+  private static List<String> splitColumnNames(String columnNames) {
+    List<String> names = Lists.newArrayList();
+    var depth = 0;
+    var start = 0;
+    for (var i = 0; i < columnNames.length(); i++) {
+      var character = columnNames.charAt(i);
+      if (character == '(') {
+        depth++;
+      } else if (character == ')') {
+        depth--;
+      } else if (character == ',' && depth == 0) {
+        names.add(columnNames.substring(start, i).trim());
+        start = i + 1;
+      }
+    }
+    names.add(columnNames.substring(start).trim());
+    return names;
+  }
+
+  @Getter
+  private final List<String> names;
+  @Getter
+  private final String columnNames;
+  private final Map<String, Integer> indexes;
+  private final List<Optional<DatabaseColumn>> selectedColumns;
+
+  /**
+   * The number of selected columns
+   * @return The column count
+   */
+  public int columnCount() {
+    return names.size();
+  }
+
+  /**
+   * Is used to find the position of a column inside of the decoded rows
+   * @param columnName The name of the column
+   * @return The position or -1 if the column is not selected
+   */
+  public int indexOf(String columnName) {
+    return indexes.getOrDefault(columnName, -1);
+  }
+
+  /**
+   * Is used to find the table column of a selected column
+   * @param index The position inside of the decoded rows
+   * @return The table column or empty if the selection is no table column
+   */
+  public Optional<DatabaseColumn> findColumn(int index) {
+    return selectedColumns.get(index);
+  }
+
+  /**
+   * Is used to decode a row of the driver
+   * @param row The row of the driver
+   * @return The decoded row
+   */
+  public DatabaseRow decode(Row row) {
+    return DatabaseRow.of(row, names.size());
+  }
+
+  /**
+   * Is used to decode the rows of the driver
+   * @param rows The rows of the driver
+   * @return The decoded rows
+   */
+  public List<DatabaseRow> decodeAll(Iterable<Row> rows) {
+    return DatabaseRow.multiple(rows, names.size());
+  }
+
+  /**
+   * Is used to find a cell of a decoded row by the name of its column
+   * @param row The decoded row
+   * @param columnName The name of the column
+   * @return The cell
+   */
+  public DatabaseCell findCell(DatabaseRow row, String columnName) {
+    var index = indexOf(columnName);
+    if (index < 0) {
+      throw new IllegalArgumentException("The column " + columnName +
+        " is not selected");
+    }
+    return row.findCell(index);
+  }
+}
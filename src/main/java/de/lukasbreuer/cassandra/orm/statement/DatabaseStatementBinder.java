@@ -0,0 +1,170 @@
+package de.lukasbreuer.cassandra.orm.statement;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.type.codec.PrimitiveBooleanCodec;
+import com.datastax.oss.driver.api.core.type.codec.PrimitiveDoubleCodec;
+import com.datastax.oss.driver.api.core.type.codec.PrimitiveIntCodec;
+import com.datastax.oss.driver.api.core.type.codec.PrimitiveLongCodec;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
+import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+/**
+ * Binds the values of a prepared statement with the codecs of its variables.
+ * The codecs are resolved once when the statement is prepared, instead of
+ * being looked up by the runtime class of every value on every request
+ */
+@Accessors(fluent = true)
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DatabaseStatementBinder {
+  public static DatabaseStatementBinder create(
+    PreparedStatement statement, CodecRegistry codecRegistry,
+    ProtocolVersion protocolVersion
+  ) {
+    var definitions = statement.getVariableDefinitions();
+    var codecs = new TypeCodec<?>[definitions.size()];
+    for (var i = 0; i < codecs.length; i++) {
+      codecs[i] = codecRegistry.codecFor(definitions.get(i).getType());
+    }
+    return new DatabaseStatementBinder(statement, codecs, protocolVersion);
+  }
+
+  @Getter
+  private final PreparedStatement statement;
+  private final TypeCodec<?>[] codecs;
+  private final ProtocolVersion protocolVersion;
+
+  /**
+   * Is used to bind the values of all placeholders. Placeholders without a
+   * value or with {@link DatabaseUnset#VALUE} stay unset
+   * @param values The placeholder values
+   * @return The bound statement
+   */
+  public BoundStatement bind(Object... values) {
+    return bindBuilder(values).build();
+  }
+
+  /**
+   * Is used to bind the values of all placeholders into a builder, whose
+   * execution parameters can be changed without copying the statement
+   * @param values The placeholder values
+   * @return The builder of the bound statement
+   */
+  public BoundStatementBuilder bindBuilder(Object... values) {
+    if (values.length > codecs.length) {
+      throw new IllegalArgumentException("The statement has " + codecs.length +
+        " placeholders, but " + values.length + " values were given");
+    }
+    var builder = statement.boundStatementBuilder();
+    for (var i = 0; i < values.length; i++) {
+      bindValue(builder, i, values[i]);
+    }
+    return builder;
+  }
+
+  /**
+   * Is used to start a typed binding, whose primitive setters do not box
+   * @return The binding with all placeholders unset
+   */
+  public Binding binding() {
+    return new Binding(statement.boundStatementBuilder());
+  }
+
+  /**
+   * Values that the resolved codec does not accept, for example a subclass
+   * with a custom codec, are bound through the codec lookup of the driver
+   */
+  @SuppressWarnings("unchecked")
+  private void bindValue(
+    BoundStatementBuilder builder, int index, Object value
+  ) {
+    if (value == DatabaseUnset.VALUE) {
+      return;
+    }
+    if (value == null) {
+      builder.setToNull(index);
+      return;
+    }
+    var codec = (TypeCodec<Object>) codecs[index];
+    if (codec.accepts(value)) {
+      builder.setBytesUnsafe(index, codec.encode(value, protocolVersion));
+      return;
+    }
+    builder.set(index, value, (Class<Object>) value.getClass());
+  }
+
+  @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+  public final class Binding {
+    private final BoundStatementBuilder builder;
+
+    public Binding setInt(int index, int value) {
+      if (codecs[index] instanceof PrimitiveIntCodec codec) {
+        builder.setBytesUnsafe(index,
+          codec.encodePrimitive(value, protocolVersion));
+      } else {
+        builder.setInt(index, value);
+      }
+      return this;
+    }
+
+    public Binding setLong(int index, long value) {
+      if (codecs[index] instanceof PrimitiveLongCodec codec) {
+        builder.setBytesUnsafe(index,
+          codec.encodePrimitive(value, protocolVersion));
+      } else {
+        builder.setLong(index, value);
+      }
+      return this;
+    }
+
+    public Binding setDouble(int index, double value) {
+      if (codecs[index] instanceof PrimitiveDoubleCodec codec) {
+        builder.setBytesUnsafe(index,
+          codec.encodePrimitive(value, protocolVersion));
+      } else {
+        builder.setDouble(index, value);
+      }
+      return this;
+    }
+
+    public Binding setBoolean(int index, boolean value) {
+      if (codecs[index] instanceof PrimitiveBooleanCodec codec) {
+        builder.setBytesUnsafe(index,
+          codec.encodePrimitive(value, protocolVersion));
+      } else {
+        builder.setBoolean(index, value);
+      }
+      return this;
+    }
+
+    /**
+     * Is used to bind a value with the resolved codec of its placeholder
+     * @param index The index of the placeholder
+     * @param value The value, null or {@link DatabaseUnset#VALUE}
+     * @return The binding
+     */
+    public Binding setObject(int index, Object value) {
+      bindValue(builder, index, value);
+      return this;
+    }
+
+    public Binding unset(int index) {
+      builder.unset(index);
+      return this;
+    }
+
+    public BoundStatementBuilder builder() {
+      return builder;
+    }
+
+    public BoundStatement build() {
+      return builder.build();
+    }
+  }
+}
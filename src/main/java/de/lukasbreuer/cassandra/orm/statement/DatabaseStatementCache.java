@@ -0,0 +1,119 @@
+package de.lukasbreuer.cassandra.orm.statement;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+@Accessors(fluent = true)
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DatabaseStatementCache {
+  public static DatabaseStatementCache create(
+    CqlSession session, long maximumSize
+  ) {
+    return new DatabaseStatementCache(session, CacheBuilder.newBuilder()
+      .maximumSize(maximumSize)
+      .recordStats()
+      .build());
+  }
+
+  private final CqlSession session;
+  private final Cache<String, CompletableFuture<DatabaseStatementBinder>>
+    statements;
+
+  /**
+   * Is used to find the prepared statement of a query. Concurrent callers of
+   * the same query share one in-flight prepare request
+   * @param query The query that is to be prepared
+   * @return The future that contains the prepared statement
+   */
+  public CompletableFuture<PreparedStatement> prepare(String query) {
+    return prepareBinder(query).thenApply(DatabaseStatementBinder::statement);
+  }
+
+  /**
+   * Is used to find the binder of the prepared statement of a query, whose
+   * codecs are resolved once per prepared statement
+   * @param query The query that is to be prepared
+   * @return The future that contains the binder
+   */
+  public CompletableFuture<DatabaseStatementBinder> prepareBinder(
+    String query
+  ) {
+    CompletableFuture<DatabaseStatementBinder> statement;
+    try {
+      statement = statements.get(query, () -> session.prepareAsync(query)
+        .toCompletableFuture().thenApply(preparedStatement ->
+          DatabaseStatementBinder.create(preparedStatement,
+            session.getContext().getCodecRegistry(),
+            session.getContext().getProtocolVersion())));
+    } catch (ExecutionException exception) {
+      return CompletableFuture.failedFuture(exception.getCause());
+    }
+    if (statement.isDone()) {
+      invalidateIfFailed(query, statement);
+      return statement;
+    }
+    statement.whenComplete((value, throwable) ->
+      invalidateIfFailed(query, statement));
+    return statement;
+  }
+
+  private void invalidateIfFailed(
+    String query, CompletableFuture<DatabaseStatementBinder> statement
+  ) {
+    if (statement.isCompletedExceptionally()) {
+      statements.asMap().remove(query, statement);
+    }
+  }
+
+  /**
+   * Removes all cached statements, e.g. after the schema has changed
+   */
+  public void invalidateAll() {
+    statements.invalidateAll();
+  }
+
+  /**
+   * The number of lookups that were served by an already cached statement
+   * @return The hit count
+   */
+  public long hitCount() {
+    return statements.stats().hitCount();
+  }
+
+  /**
+   * The number of lookups that required a new prepare request
+   * @return The miss count
+   */
+  public long missCount() {
+    return statements.stats().missCount();
+  }
+
+  /**
+   * The number of statements that were removed because the cache was full
+   * @return The eviction count
+   */
+  public long evictionCount() {
+    return statements.stats().evictionCount();
+  }
+
+  /**
+   * The number of statements that are currently cached
+   * @return The size of the cache
+   */
+  public long size() {
+    return statements.size();
+  }
+
+  public CacheStats stats() {
+    return statements.stats();
+  }
+}
@@ -0,0 +1,538 @@
+package de.lukasbreuer.cassandra.orm.statement;
+
+import de.lukasbreuer.cassandra.orm.DatabaseColumn;
+import de.lukasbreuer.cassandra.orm.DatabaseDataType;
+import de.lukasbreuer.cassandra.orm.condition.DatabaseCondition;
+import de.lukasbreuer.cassandra.orm.paging.DatabaseOrder;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+@Accessors(fluent = true)
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DatabaseStatementTemplates {
+  private static final int MAXIMUM_SHAPES = 256;
+
+  /**
+   * Compiles the statement templates of a table. The templates are immutable
+   * and have to be compiled again whenever the columns of the table change
+   * @param fullName The full name of the table
+   * @param columns The columns of the table
+   * @return The compiled templates
+   */
+  public static DatabaseStatementTemplates compile(
+    String fullName, List<DatabaseColumn> columns
+  ) {
+    var snapshot = List.copyOf(columns);
+    var keyColumns = snapshot.stream()
+      .filter(column -> !column.type().isRegular()).toList();
+    return new DatabaseStatementTemplates(fullName, snapshot,
+      columnNameCompilation(snapshot),
+      snapshot.stream().filter(column -> column.type().isPrimaryKey())
+        .toList(),
+      snapshot.stream().filter(column -> column.type().isPartitionKey())
+        .toList(),
+      keyColumns, findPartitionIndexes(snapshot), findKeyIndexes(snapshot),
+      buildUpdateChange(snapshot),
+      DatabaseProjection.compile(snapshot, columnNameCompilation(snapshot)),
+      DatabaseProjection.compile(snapshot, columnNameCompilation(keyColumns)),
+      snapshot.stream().anyMatch(column ->
+        column.dataType() == DatabaseDataType.COUNTER));
+  }
+
+  /**
+   * The partition of a table is defined by its partition key columns or by
+   * its single primary key column
+   */
+  private static int[] findPartitionIndexes(List<DatabaseColumn> columns) {
+    var partitionIndexes = IntStream.range(0, columns.size())
+      .filter(i -> columns.get(i).type().isPartitionKey()).toArray();
+    if (partitionIndexes.length > 0) {
+      return partitionIndexes;
+    }
+    return IntStream.range(0, columns.size())
+      .filter(i -> columns.get(i).type().isPrimaryKey()).toArray();
+  }
+
+  private static BitSet findKeyIndexes(List<DatabaseColumn> columns) {
+    var keyIndexes = new BitSet(columns.size());
+    for (var i = 0; i < columns.size(); i++) {
+      if (!columns.get(i).type().isRegular()) {
+        keyIndexes.set(i);
+      }
+    }
+    return keyIndexes;
+  }
+
+  private static String columnNameCompilation(List<DatabaseColumn> columns) {
+    var compilation = new StringBuilder();
+    for (var i = 0; i < columns.size(); i++) {
+      compilation.append(columns.get(i).name());
+      if (i < columns.size() - 1) {
+        compilation.append(", ");
+      }
+    }
+    return compilation.toString();
+  }
+
+  private static String placeholderCompilation(int number) {
+    var compilation = new StringBuilder();
+    for (var i = 0; i < number; i++) {
+      if (i > 0) {
+        compilation.append(", ");
+      }
+      compilation.append("?");
+    }
+    return compilation.toString();
+  }
+
+  private static String buildUpdateChange(List<DatabaseColumn> columns) {
+    var pairs = new StringBuilder();
+    for (var i = 0; i < columns.size(); i++) {
+      var column = columns.get(i);
+      if (!column.type().isRegular()) {
+        continue;
+      }
+      pairs.append(column.name());
+      pairs.append(" = ?");
+      if (i < columns.size() - 1) {
+        pairs.append(", ");
+      }
+    }
+    return pairs.toString();
+  }
+
+  @Getter
+  private final String fullName;
+  @Getter
+  private final List<DatabaseColumn> columns;
+  @Getter
+  private final String columnNames;
+  @Getter
+  private final List<DatabaseColumn> primaryKeyColumns;
+  @Getter
+  private final List<DatabaseColumn> partitionKeyColumns;
+  @Getter
+  private final List<DatabaseColumn> keyColumns;
+  private final int[] partitionIndexes;
+  private final BitSet keyIndexes;
+  @Getter
+  private final String updateChange;
+  @Getter
+  private final DatabaseProjection allColumnsProjection;
+  @Getter
+  private final DatabaseProjection keyProjection;
+  /**
+   * Whether the table has counter columns, whose updates are neither
+   * idempotent nor written with a client timestamp
+   */
+  @Getter
+  private final boolean counter;
+  private final Map<String, DatabaseProjection> projections =
+    new ConcurrentHashMap<>();
+  private final Map<List<DatabaseColumn>, DatabaseProjection>
+    columnProjections = new ConcurrentHashMap<>();
+  private final Map<String, String> insertQueries = new ConcurrentHashMap<>();
+  private final Map<String, String> partialInsertQueries =
+    new ConcurrentHashMap<>();
+  private final Map<SelectShape, String> selectQueries =
+    new ConcurrentHashMap<>();
+  private final Map<List<Object>, String> existsQueries =
+    new ConcurrentHashMap<>();
+  private final Map<List<Object>, String> countQueries =
+    new ConcurrentHashMap<>();
+  private final Map<List<Object>, String> deleteQueries =
+    new ConcurrentHashMap<>();
+  private final Map<UpdateShape, String> updateQueries =
+    new ConcurrentHashMap<>();
+  private final Map<String, String> updateChanges = new ConcurrentHashMap<>();
+  private final Map<String, String> counterChanges = new ConcurrentHashMap<>();
+  private final Map<String, String> tokenRangeQueries =
+    new ConcurrentHashMap<>();
+  private final Map<PagingShape, String> pagingQueries =
+    new ConcurrentHashMap<>();
+
+  /**
+   * Is used to find the indexes of the columns that define the partition
+   * @return The column indexes
+   */
+  public int[] partitionIndexes() {
+    return partitionIndexes.clone();
+  }
+
+  /**
+   * Is used to find the compiled projection of a selection list
+   * @param columnNames The name of the columns that should be selected
+   * @return The projection
+   */
+  public DatabaseProjection projection(String columnNames) {
+    if (columnNames.equals(this.columnNames)) {
+      return allColumnsProjection;
+    }
+    return memoize(projections, columnNames, () ->
+      DatabaseProjection.compile(columns, columnNames));
+  }
+
+  /**
+   * Is used to find the compiled projection of a list of columns
+   * @param columns The columns that should be selected
+   * @return The projection
+   */
+  public DatabaseProjection projection(List<DatabaseColumn> columns) {
+    var projection = columnProjections.get(columns);
+    if (projection != null) {
+      return projection;
+    }
+    return memoize(columnProjections, List.copyOf(columns), () ->
+      projection(columnNameCompilation(columns)));
+  }
+
+  /**
+   * Is used to find the insertion query for all columns of the table
+   * @param addition An addition insertion argument (for example for ttl)
+   * @return The insertion query
+   */
+  public String insertQuery(String addition) {
+    return memoize(insertQueries, addition, () -> {
+      var query = new StringBuilder("INSERT INTO ");
+      query.append(fullName);
+      query.append(" (");
+      query.append(columnNames);
+      query.append(") VALUES (");
+      query.append(placeholderCompilation(columns.size()));
+      query.append(") ");
+      query.append(addition);
+      query.append(";");
+      return query.toString();
+    });
+  }
+
+  /**
+   * Is used to find the columns that a partial write of a row writes, which
+   * are the modified columns and the key columns that identify the row
+   * @param dirtyCells The indexes of the modified cells of the row
+   * @return The indexes of the written columns
+   */
+  public BitSet writtenColumns(BitSet dirtyCells) {
+    var writtenColumns = (BitSet) keyIndexes.clone();
+    writtenColumns.or(dirtyCells);
+    writtenColumns.clear(columns.size(), Math.max(columns.size(),
+      writtenColumns.length()));
+    return writtenColumns;
+  }
+
+  /**
+   * Is used to find the regular columns that a partial update of a row
+   * changes, the key columns are part of the condition instead
+   * @param dirtyCells The indexes of the modified cells of the row
+   * @return The indexes of the changed columns
+   */
+  public BitSet changedColumns(BitSet dirtyCells) {
+    var changedColumns = (BitSet) dirtyCells.clone();
+    changedColumns.andNot(keyIndexes);
+    changedColumns.clear(columns.size(), Math.max(columns.size(),
+      changedColumns.length()));
+    return changedColumns;
+  }
+
+  /**
+   * Is used to find the insertion query for a subset of the columns. The
+   * shape is cached per set of columns
+   * @param writtenColumns The indexes of the columns that are written
+   * @param addition An addition insertion argument (for example for ttl)
+   * @return The insertion query
+   */
+  public String insertQuery(BitSet writtenColumns, String addition) {
+    return memoize(partialInsertQueries, writtenColumns + "|" + addition,
+      () -> {
+      var query = new StringBuilder("INSERT INTO ");
+      query.append(fullName);
+      query.append(" (");
+      query.append(columnNameCompilation(writtenColumns.stream()
+        .mapToObj(columns::get).toList()));
+      query.append(") VALUES (");
+      query.append(placeholderCompilation(writtenColumns.cardinality()));
+      query.append(") ");
+      query.append(addition);
+      query.append(";");
+      return query.toString();
+    });
+  }
+
+  /**
+   * Is used to find the regular columns of the table, which are the columns
+   * that a full update changes
+   * @return The indexes of the regular columns
+   */
+  public BitSet regularColumns() {
+    var regularColumns = new BitSet(columns.size());
+    regularColumns.set(0, columns.size());
+    regularColumns.andNot(keyIndexes);
+    return regularColumns;
+  }
+
+  /**
+   * Is used to find the key value pairs of an update for a subset of the
+   * columns. Only the regular columns of the subset are changed, the shape is
+   * cached per set of columns
+   * @param writtenColumns The indexes of the columns that are written
+   * @return The key value pairs
+   */
+  public String updateChange(BitSet writtenColumns) {
+    return memoize(updateChanges, writtenColumns.toString(), () -> {
+      var pairs = new StringBuilder();
+      writtenColumns.stream().mapToObj(columns::get)
+        .filter(column -> column.type().isRegular())
+        .forEach(column -> {
+          if (!pairs.isEmpty()) {
+            pairs.append(", ");
+          }
+          pairs.append(column.name());
+          pairs.append(" = ?");
+        });
+      return pairs.toString();
+    });
+  }
+
+  /**
+   * Is used to find the key value pairs of a counter update that adds a
+   * value to each of the given columns. The shape is cached per set of
+   * columns
+   * @param changedColumns The indexes of the changed counter columns
+   * @return The key value pairs
+   */
+  public String counterChange(BitSet changedColumns) {
+    return memoize(counterChanges, changedColumns.toString(), () -> {
+      var pairs = new StringBuilder();
+      changedColumns.stream().mapToObj(columns::get).forEach(column -> {
+        if (!pairs.isEmpty()) {
+          pairs.append(", ");
+        }
+        pairs.append(column.name());
+        pairs.append(" = ");
+        pairs.append(column.name());
+        pairs.append(" + ?");
+      });
+      return pairs.toString();
+    });
+  }
+
+  /**
+   * Is used to find the selection query of a condition shape
+   * @param columnNames The name of the columns that should be selected
+   * @param condition The condition with which the rows can be found
+   * @param limit The limit of entries that should be returned
+   * @return The selection query
+   */
+  public String selectQuery(
+    String columnNames, DatabaseCondition condition, long limit
+  ) {
+    Supplier<String> compilation = () -> {
+      var query = new StringBuilder("SELECT ");
+      query.append(columnNames);
+      query.append(" FROM ");
+      query.append(fullName);
+      appendCondition(query, condition.build());
+      if (limit > 0) {
+        query.append(" LIMIT ");
+        query.append(limit);
+      }
+      query.append(condition.filteringAddition());
+      query.append(";");
+      return query.toString();
+    };
+    if (limit > 0) {
+      return compilation.get();
+    }
+    return memoize(selectQueries, new SelectShape(columnNames,
+      condition.shape()), compilation);
+  }
+
+  /**
+   * Is used to find the existence query of a condition shape. Only the key
+   * columns are selected, since the existence does not depend on the values
+   * @param condition The condition with which the row can be found
+   * @return The existence query
+   */
+  public String existsQuery(DatabaseCondition condition) {
+    return memoize(existsQueries, condition.shape(), () -> {
+      var query = new StringBuilder("SELECT ");
+      query.append(keyProjection.columnNames());
+      query.append(" FROM ");
+      query.append(fullName);
+      appendCondition(query, condition.build());
+      query.append(condition.filteringAddition());
+      query.append(" LIMIT 1");
+      query.append(";");
+      return query.toString();
+    });
+  }
+
+  /**
+   * Is used to find the counting query of a condition shape
+   * @param condition The condition for counting
+   * @return The counting query
+   */
+  public String countQuery(DatabaseCondition condition) {
+    return memoize(countQueries, condition.shape(), () -> {
+      var query = new StringBuilder("SELECT COUNT(*) FROM ");
+      query.append(fullName);
+      appendCondition(query, condition.build());
+      query.append(condition.filteringAddition());
+      query.append(";");
+      return query.toString();
+    });
+  }
+
+  /**
+   * Is used to find the deletion query of a condition shape
+   * @param condition The condition with which the rows can be found
+   * @return The deletion query
+   */
+  public String deleteQuery(DatabaseCondition condition) {
+    return memoize(deleteQueries, condition.shape(), () -> {
+      var query = new StringBuilder("DELETE FROM ");
+      query.append(fullName);
+      appendCondition(query, condition.build());
+      query.append(";");
+      return query.toString();
+    });
+  }
+
+  /**
+   * Is used to find the update query of a condition shape
+   * @param updateChange The key value pairs
+   * @param condition The condition with which the row can be found
+   * @param addition An addition update argument (for example for ttl)
+   * @return The update query
+   */
+  public String updateQuery(
+    String updateChange, DatabaseCondition condition, String addition
+  ) {
+    var key = new UpdateShape(updateChange, condition.shape(), addition);
+    return memoize(updateQueries, key, () -> {
+      var query = new StringBuilder("UPDATE ");
+      query.append(fullName);
+      if (!addition.isEmpty()) {
+        query.append(" ");
+      }
+      query.append(addition);
+      query.append(" SET ");
+      query.append(updateChange);
+      appendCondition(query, condition.build());
+      query.append(condition.filteringAddition());
+      query.append(";");
+      return query.toString();
+    });
+  }
+
+  /**
+   * Is used to find the query that selects the rows of a token range. The
+   * query binds the exclusive start token and, if bounded, the inclusive end
+   * token of the range
+   * @param columnNames The name of the columns that should be selected
+   * @param bounded Whether the range ends before the end of the token ring
+   * @return The token range query
+   */
+  public String tokenRangeQuery(String columnNames, boolean bounded) {
+    Supplier<String> compilation = () -> {
+      var token = new StringBuilder("token(");
+      for (var i = 0; i < partitionIndexes.length; i++) {
+        if (i > 0) {
+          token.append(", ");
+        }
+        token.append(columns.get(partitionIndexes[i]).name());
+      }
+      token.append(")");
+      var query = new StringBuilder("SELECT ");
+      query.append(columnNames);
+      query.append(" FROM ");
+      query.append(fullName);
+      query.append(" WHERE ");
+      query.append(token);
+      query.append(" > ?");
+      if (bounded) {
+        query.append(" AND ");
+        query.append(token);
+        query.append(" <= ?");
+      }
+      query.append(";");
+      return query.toString();
+    };
+    return memoize(tokenRangeQueries, columnNames + "|" + bounded,
+      compilation);
+  }
+
+  /**
+   * Is used to find the query of a paging process, which sorts the rows by
+   * the first clustering column of the table
+   * @param condition The condition with which the paged rows can be found
+   * @param order The direction in which sorting takes place
+   * @return The paging query
+   */
+  public String pagingQuery(DatabaseCondition condition, DatabaseOrder order) {
+    return memoize(pagingQueries, new PagingShape(condition.shape(), order),
+      () -> {
+      var query = new StringBuilder("SELECT ");
+      query.append(columnNames);
+      query.append(" FROM ");
+      query.append(fullName);
+      appendCondition(query, condition.build());
+      query.append(" ORDER BY ");
+      query.append(columns.stream()
+        .filter(column -> column.type().isClusteringKey())
+        .findFirst().get().name());
+      query.append(" ");
+      query.append(order.value());
+      query.append(" ALLOW FILTERING;");
+      return query.toString();
+    });
+  }
+
+  private void appendCondition(StringBuilder query, String conditionValue) {
+    if (!conditionValue.isEmpty()) {
+      query.append(" WHERE ");
+      query.append(conditionValue);
+    }
+  }
+
+  /**
+   * The number of shapes per operation is bounded, so that callers with
+   * literal (non placeholder) query parts cannot grow the templates endlessly
+   */
+  private <K, T> T memoize(
+    Map<K, T> queries, K key, Supplier<T> compilation
+  ) {
+    var query = queries.get(key);
+    if (query != null) {
+      return query;
+    }
+    query = compilation.get();
+    if (queries.size() < MAXIMUM_SHAPES) {
+      var previous = queries.putIfAbsent(key, query);
+      return previous != null ? previous : query;
+    }
+    return query;
+  }
+
+  private record SelectShape(String columnNames, List<Object> conditionShape) {
+  }
+
+  private record PagingShape(
+    List<Object> conditionShape, DatabaseOrder order
+  ) {
+  }
+
+  private record UpdateShape(
+    String updateChange, List<Object> conditionShape, String addition
+  ) {
+  }
+}
@@ -0,0 +1,10 @@
+package de.lukasbreuer.cassandra.orm.statement;
+
+/**
+ * Marks a placeholder value that is not bound at all. Unlike null, an unset
+ * value neither writes a tombstone nor overwrites the current value of the
+ * column
+ */
+public enum DatabaseUnset {
+  VALUE
+}
@@ -0,0 +1,59 @@
+package de.lukasbreuer.cassandra.orm.stream;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import de.lukasbreuer.cassandra.orm.DatabaseRow;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Iterates the rows of a query page by page and blocks while the next page is
+ * fetched. The next page is requested as soon as the current page is
+ * reached, so at most one page is held ahead of the iteration
+ */
+public final class DatabaseRowIterator implements Iterator<DatabaseRow> {
+  public static DatabaseRowIterator create(
+    CompletableFuture<AsyncResultSet> firstPage,
+    Function<Row, DatabaseRow> decoder
+  ) {
+    return new DatabaseRowIterator(firstPage, decoder);
+  }
+
+  private final Function<Row, DatabaseRow> decoder;
+  private CompletableFuture<AsyncResultSet> nextPage;
+  private AsyncResultSet currentPage;
+  private Iterator<Row> rows;
+
+  private DatabaseRowIterator(
+    CompletableFuture<AsyncResultSet> firstPage,
+    Function<Row, DatabaseRow> decoder
+  ) {
+    this.nextPage = firstPage;
+    this.decoder = decoder;
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (rows == null || !rows.hasNext()) {
+      if (nextPage == null) {
+        return false;
+      }
+      currentPage = nextPage.join();
+      rows = currentPage.currentPage().iterator();
+      nextPage = currentPage.hasMorePages() ?
+        currentPage.fetchNextPage().toCompletableFuture() : null;
+    }
+    return true;
+  }
+
+  @Override
+  public DatabaseRow next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return decoder.apply(rows.next());
+  }
+}
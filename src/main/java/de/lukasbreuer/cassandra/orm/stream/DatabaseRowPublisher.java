@@ -0,0 +1,144 @@
+package de.lukasbreuer.cassandra.orm.stream;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import de.lukasbreuer.cassandra.orm.DatabaseRow;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Publishes the rows of a query page by page. The query is executed once the
+ * subscriber requests the first row and at most one page is fetched ahead of
+ * the page that is currently emitted, so that the memory stays bounded by two
+ * pages no matter how many rows the query returns
+ */
+@RequiredArgsConstructor(staticName = "create")
+public final class DatabaseRowPublisher implements Flow.Publisher<DatabaseRow> {
+  private final Supplier<CompletableFuture<AsyncResultSet>> query;
+  private final Function<Row, DatabaseRow> decoder;
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super DatabaseRow> subscriber) {
+    subscriber.onSubscribe(new RowSubscription(subscriber));
+  }
+
+  @RequiredArgsConstructor
+  private final class RowSubscription implements Flow.Subscription {
+    private final Flow.Subscriber<? super DatabaseRow> subscriber;
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicInteger work = new AtomicInteger();
+    private volatile boolean cancelled;
+    private volatile AsyncResultSet arrivedPage;
+    private volatile Throwable failure;
+    private boolean started;
+    private boolean done;
+    private boolean waiting;
+    private AsyncResultSet currentPage;
+    private Iterator<Row> rows;
+    private CompletionStage<AsyncResultSet> prefetchedPage;
+
+    @Override
+    public void request(long number) {
+      if (number <= 0) {
+        failure = new IllegalArgumentException(
+          "The number of requested rows has to be positive");
+      } else {
+        demand.getAndAccumulate(number, (current, added) ->
+          current + added < 0 ? Long.MAX_VALUE : current + added);
+      }
+      drain();
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      drain();
+    }
+
+    /**
+     * All state changes happen inside of this loop, which is only entered by
+     * one thread at a time
+     */
+    private void drain() {
+      if (work.getAndIncrement() != 0) {
+        return;
+      }
+      var missed = 1;
+      do {
+        if (!done) {
+          emit();
+        }
+        missed = work.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    private void emit() {
+      if (cancelled) {
+        done = true;
+        return;
+      }
+      if (failure != null) {
+        done = true;
+        subscriber.onError(failure);
+        return;
+      }
+      acceptArrivedPage();
+      while (demand.get() > 0 && rows != null && rows.hasNext()) {
+        subscriber.onNext(decoder.apply(rows.next()));
+        demand.decrementAndGet();
+        if (cancelled) {
+          done = true;
+          return;
+        }
+      }
+      if (waiting || (rows != null && rows.hasNext())) {
+        return;
+      }
+      if (!started) {
+        if (demand.get() > 0) {
+          started = true;
+          awaitPage(query.get());
+        }
+        return;
+      }
+      if (currentPage.hasMorePages()) {
+        awaitPage(prefetchedPage);
+        return;
+      }
+      done = true;
+      subscriber.onComplete();
+    }
+
+    private void acceptArrivedPage() {
+      var page = arrivedPage;
+      if (page == null) {
+        return;
+      }
+      arrivedPage = null;
+      waiting = false;
+      currentPage = page;
+      rows = page.currentPage().iterator();
+      prefetchedPage = page.hasMorePages() ? page.fetchNextPage() : null;
+    }
+
+    private void awaitPage(CompletionStage<AsyncResultSet> page) {
+      waiting = true;
+      page.whenComplete((result, throwable) -> {
+        if (throwable != null) {
+          failure = throwable;
+        } else {
+          arrivedPage = result;
+        }
+        drain();
+      });
+    }
+  }
+}
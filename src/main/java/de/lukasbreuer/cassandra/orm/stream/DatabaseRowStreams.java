@@ -0,0 +1,60 @@
+package de.lukasbreuer.cassandra.orm.stream;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.google.common.collect.Lists;
+import de.lukasbreuer.cassandra.orm.DatabaseRow;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public final class DatabaseRowStreams {
+  private DatabaseRowStreams() {
+  }
+
+  /**
+   * Is used to create a lazy stream that follows all pages of a query
+   * @param firstPage The future that contains the first page of the query
+   * @param decoder The function that creates the database rows
+   * @return The stream of rows
+   */
+  public static Stream<DatabaseRow> stream(
+    CompletableFuture<AsyncResultSet> firstPage,
+    Function<Row, DatabaseRow> decoder
+  ) {
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+      DatabaseRowIterator.create(firstPage, decoder),
+      Spliterator.ORDERED | Spliterator.NONNULL), false);
+  }
+
+  /**
+   * Is used to collect the rows of all pages of a query
+   * @param firstPage The first page of the query
+   * @param decoder The function that decodes the rows
+   * @return The future that contains all rows
+   * @param <T> The type of the decoded rows
+   */
+  public static <T> CompletableFuture<List<T>> collect(
+    AsyncResultSet firstPage, Function<Row, T> decoder
+  ) {
+    return collect(firstPage, decoder, Lists.newArrayList());
+  }
+
+  private static <T> CompletableFuture<List<T>> collect(
+    AsyncResultSet page, Function<Row, T> decoder, List<T> rows
+  ) {
+    for (var row : page.currentPage()) {
+      rows.add(decoder.apply(row));
+    }
+    if (!page.hasMorePages()) {
+      return CompletableFuture.completedFuture(rows);
+    }
+    return page.fetchNextPage().toCompletableFuture()
+      .thenCompose(nextPage -> collect(nextPage, decoder, rows));
+  }
+}
@@ -0,0 +1,521 @@
+package de.lukasbreuer.cassandra.orm.write;
+
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.google.common.collect.Lists;
+import de.lukasbreuer.cassandra.orm.DatabaseOperation;
+import de.lukasbreuer.cassandra.orm.DatabaseRow;
+import de.lukasbreuer.cassandra.orm.DatabaseTable;
+import de.lukasbreuer.cassandra.orm.batch.DatabaseBatchGrouping;
+import de.lukasbreuer.cassandra.orm.cache.DatabaseRowKey;
+import de.lukasbreuer.cassandra.orm.concurrency.BoundedParallelism;
+import de.lukasbreuer.cassandra.orm.condition.DatabaseComparison;
+import de.lukasbreuer.cassandra.orm.condition.DatabaseCondition;
+import de.lukasbreuer.cassandra.orm.statement.DatabaseStatementBinder;
+import de.lukasbreuer.cassandra.orm.statement.DatabaseStatementTemplates;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * Coalesces counter increments of a table in memory. The deltas of a row are
+ * summed per counter column on striped accumulators, so that concurrent
+ * increments of hot rows neither lock nor send a request each. The summed
+ * deltas are written as counter batches grouped by partition, whenever the
+ * flush interval has passed or enough increments are pending, and once more
+ * when the buffer is closed or the virtual machine shuts down. Closing waits
+ * for the flushes in flight and flushes again until no delta is pending
+ */
+@Accessors(fluent = true)
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DatabaseCounterBuffer implements AutoCloseable {
+  public static DatabaseCounterBuffer create(
+    DatabaseTable table, DatabaseCounterBufferOptions options
+  ) {
+    return create(table, table.statementTemplates(), options,
+      DatabaseCounterBuffer::executeGroup);
+  }
+
+  static DatabaseCounterBuffer create(
+    DatabaseTable table, DatabaseStatementTemplates templates,
+    DatabaseCounterBufferOptions options,
+    BiFunction<DatabaseCounterBuffer, List<CounterUpdate>,
+      CompletableFuture<Void>> groupWriter
+  ) {
+    var executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      var thread = new Thread(runnable, "cassandra-counter-buffer-" +
+        templates.fullName());
+      thread.setDaemon(true);
+      return thread;
+    });
+    var buffer = new DatabaseCounterBuffer(table, options, templates,
+      findPartitionPositions(templates), groupWriter, executor);
+    var interval = options.flushInterval().toNanos();
+    executor.scheduleWithFixedDelay(buffer::flushQuietly, interval, interval,
+      TimeUnit.NANOSECONDS);
+    Runtime.getRuntime().addShutdownHook(buffer.shutdownHook);
+    return buffer;
+  }
+
+  /**
+   * The positions of the partition columns inside of the key values, which
+   * are ordered like the key columns of the table
+   */
+  private static int[] findPartitionPositions(
+    DatabaseStatementTemplates templates
+  ) {
+    var keyColumns = templates.keyColumns();
+    return Arrays.stream(templates.partitionIndexes())
+      .map(index -> keyColumns.indexOf(templates.columns().get(index)))
+      .toArray();
+  }
+
+  private final DatabaseTable table;
+  @Getter
+  private final DatabaseCounterBufferOptions options;
+  private final DatabaseStatementTemplates templates;
+  private final int[] partitionPositions;
+  private final BiFunction<DatabaseCounterBuffer, List<CounterUpdate>,
+    CompletableFuture<Void>> groupWriter;
+  private final ScheduledExecutorService executor;
+  private final Map<Object, PendingCounter> pending =
+    new ConcurrentHashMap<>();
+  private final Set<CompletableFuture<Void>> inFlight =
+    ConcurrentHashMap.newKeySet();
+  private final LongAdder pendingDeltas = new LongAdder();
+  private final LongAdder flushedDeltas = new LongAdder();
+  private final LongAdder failedFlushes = new LongAdder();
+  private final LongAdder droppedDeltas = new LongAdder();
+  private final AtomicLong oldestPendingTime = new AtomicLong();
+  private final AtomicBoolean flushRequested = new AtomicBoolean();
+  private final AtomicBoolean closed = new AtomicBoolean();
+  private final Thread shutdownHook = new Thread(this::flushOnShutdown,
+    "cassandra-counter-buffer-shutdown");
+  private volatile long lastFlushLag;
+
+  /**
+   * Is used to buffer the increment of a single counter column
+   * @param column The name of the counter column
+   * @param delta The value that is added, negative values decrement
+   * @param keyValues The values of the key columns in their order
+   */
+  public void increment(String column, long delta, Object... keyValues) {
+    var columnIndex = findColumnIndex(column);
+    if (keyValues.length != templates.keyColumns().size()) {
+      throw new IllegalArgumentException("Expected " +
+        templates.keyColumns().size() + " key values, but got " +
+        keyValues.length);
+    }
+    checkOpen();
+    add(keyValues.clone(), columnIndex, delta);
+  }
+
+  /**
+   * Is used to buffer the increments of a row, the same row that would be
+   * passed to a counter update. Counter cells without a value are skipped
+   * @param row The row with the key values and the counter deltas
+   */
+  public void increment(DatabaseRow row) {
+    var columns = templates.columns();
+    var keyColumns = templates.keyColumns();
+    checkOpen();
+    var keyValues = new Object[keyColumns.size()];
+    for (var i = 0; i < keyValues.length; i++) {
+      keyValues[i] = row.value(columns.indexOf(keyColumns.get(i)));
+    }
+    for (var i = 0; i < columns.size(); i++) {
+      if (columns.get(i).type().isRegular() && !row.isNull(i)) {
+        add(keyValues, i, row.getLong(i));
+      }
+    }
+  }
+
+  private int findColumnIndex(String column) {
+    var columns = templates.columns();
+    for (var i = 0; i < columns.size(); i++) {
+      if (columns.get(i).name().equals(column)) {
+        if (!columns.get(i).type().isRegular()) {
+          throw new IllegalArgumentException("The column " + column +
+            " is not a counter column");
+        }
+        return i;
+      }
+    }
+    throw new IllegalArgumentException("The table " + templates.fullName() +
+      " has no column " + column);
+  }
+
+  /**
+   * A counter that was retired by a flush may still receive the delta of a
+   * writer that found it before the retirement. Whatever the final drain of
+   * the flush missed is moved into a new counter by the writer itself, and
+   * since every drain resets the accumulators atomically, no delta is lost
+   * or counted twice
+   */
+  private void add(Object[] keyValues, int columnIndex, long delta) {
+    if (delta == 0) {
+      return;
+    }
+    oldestPendingTime.compareAndSet(0, System.nanoTime());
+    var key = DatabaseRowKey.of(keyValues);
+    while (delta != 0) {
+      var counter = pending.computeIfAbsent(key, value ->
+        new PendingCounter(keyValues, templates.columns().size()));
+      counter.deltas[columnIndex].add(delta);
+      if (!counter.retired) {
+        break;
+      }
+      delta = counter.deltas[columnIndex].sumThenReset();
+    }
+    pendingDeltas.increment();
+    if (pendingDeltas.sum() >= options.maximumPendingDeltas() &&
+      flushRequested.compareAndSet(false, true)
+    ) {
+      requestFlush();
+    }
+  }
+
+  /**
+   * A closed buffer does not accept flush requests anymore, its pending
+   * deltas are written by the final flush of the close instead
+   */
+  private void requestFlush() {
+    try {
+      executor.execute(this::flushQuietly);
+    } catch (RejectedExecutionException exception) {
+      flushRequested.set(false);
+    }
+  }
+
+  private void checkOpen() {
+    if (closed.get()) {
+      throw new IllegalStateException("The counter buffer of " +
+        templates.fullName() + " is closed");
+    }
+  }
+
+  /**
+   * Is used to write all buffered deltas. The deltas of failed batches are
+   * buffered again, so that they are retried by the next flush, until their
+   * last attempt failed. Since counter updates are not idempotent, a batch
+   * that timed out after it was applied is counted twice in that case
+   * @return A future that is completed when all deltas are written
+   */
+  public CompletableFuture<Void> flush() {
+    flushRequested.set(false);
+    pendingDeltas.reset();
+    var oldestPending = oldestPendingTime.getAndSet(0);
+    var updates = drain();
+    if (updates.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+    var groups = DatabaseBatchGrouping.groupByPartition(updates,
+      this::partitionKey, options.maximumBatchSize());
+    var result = BoundedParallelism.execute(groups, options.parallelism(),
+        this::writeGroup)
+      .whenComplete((value, throwable) ->
+        lastFlushLag = System.nanoTime() - oldestPending)
+      .<Void>thenApply(value -> null);
+    inFlight.add(result);
+    result.whenComplete((value, throwable) -> inFlight.remove(result));
+    return result;
+  }
+
+  private void flushQuietly() {
+    flush().exceptionally(throwable -> null);
+  }
+
+  private void flushOnShutdown() {
+    closed.set(true);
+    flushUntilDrained();
+  }
+
+  /**
+   * Failed batches buffer their deltas again before their flush completes,
+   * so once no flush is in flight and a drain finds nothing, every delta was
+   * either written or dropped after its last attempt
+   */
+  private void flushUntilDrained() {
+    executor.shutdown();
+    try {
+      executor.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+    while (true) {
+      for (var flush : List.copyOf(inFlight)) {
+        flush.exceptionally(throwable -> null).join();
+      }
+      if (inFlight.isEmpty() && !hasPendingDeltas()) {
+        return;
+      }
+      flush().exceptionally(throwable -> null).join();
+    }
+  }
+
+  private boolean hasPendingDeltas() {
+    return pending.values().stream().anyMatch(PendingCounter::hasDeltas);
+  }
+
+  private List<CounterUpdate> drain() {
+    var updates = Lists.<CounterUpdate>newArrayList();
+    for (var entry : pending.entrySet()) {
+      var counter = entry.getValue();
+      var update = counter.drain();
+      if (update == null) {
+        if (!pending.remove(entry.getKey(), counter)) {
+          continue;
+        }
+        counter.retired = true;
+        update = counter.drain();
+      }
+      if (update != null) {
+        updates.add(update);
+      }
+    }
+    return updates;
+  }
+
+  private Object partitionKey(CounterUpdate update) {
+    var values = new Object[partitionPositions.length];
+    for (var i = 0; i < partitionPositions.length; i++) {
+      values[i] = update.keyValues()[partitionPositions[i]];
+    }
+    return Arrays.asList(values);
+  }
+
+  private CompletableFuture<Void> writeGroup(List<CounterUpdate> group) {
+    return groupWriter.apply(this, group)
+      .whenComplete((value, throwable) -> {
+        if (throwable != null) {
+          failedFlushes.increment();
+          group.forEach(this::restore);
+          return;
+        }
+        for (var update : group) {
+          flushedDeltas.add(update.changedColumns().cardinality());
+        }
+      });
+  }
+
+  private CompletableFuture<Void> executeGroup(List<CounterUpdate> group) {
+    var statements = group.stream().map(this::bindUpdate).toList();
+    return CompletableFuture.allOf(statements.toArray(CompletableFuture[]::new))
+      .thenCompose(value -> table.connection().executeStatement(table,
+        DatabaseOperation.UPDATE, DatabaseBatchGrouping.createStatement(
+          DefaultBatchType.COUNTER, statements.stream()
+            .map(CompletableFuture::join).toList())))
+      .thenRun(() -> group.forEach(update ->
+        table.notifyListeners(listener -> listener.rowsUpdated(table,
+          keyCondition(update.keyValues())))));
+  }
+
+  private CompletableFuture<BoundStatement> bindUpdate(CounterUpdate update) {
+    var condition = keyCondition(update.keyValues());
+    var query = templates.updateQuery(templates.counterChange(
+      update.changedColumns()), condition, "");
+    return table.connection().prepareBinder(query)
+      .thenApply(binder -> bindUpdate(binder, update));
+  }
+
+  /**
+   * The deltas are bound through the primitive setters of the binding, so
+   * that no delta is boxed on its way to the counter codec
+   */
+  private BoundStatement bindUpdate(
+    DatabaseStatementBinder binder, CounterUpdate update
+  ) {
+    var binding = binder.binding();
+    var valueIndex = 0;
+    for (var i = update.changedColumns().nextSetBit(0); i >= 0;
+      i = update.changedColumns().nextSetBit(i + 1)
+    ) {
+      binding.setLong(valueIndex, update.deltas()[i]);
+      valueIndex++;
+    }
+    for (var keyValue : update.keyValues()) {
+      binding.setObject(valueIndex, keyValue);
+      valueIndex++;
+    }
+    return binding.build();
+  }
+
+  private DatabaseCondition keyCondition(Object[] keyValues) {
+    var keyColumns = templates.keyColumns();
+    var comparisons = Lists.<DatabaseComparison>newArrayList();
+    for (var i = 0; i < keyValues.length; i++) {
+      comparisons.add(DatabaseComparison.create(keyColumns.get(i).name(),
+        keyValues[i]));
+    }
+    return DatabaseCondition.create(comparisons);
+  }
+
+  private void restore(CounterUpdate update) {
+    var changedColumns = update.changedColumns();
+    var attempts = update.attempts() + 1;
+    if (attempts >= options.maximumAttempts()) {
+      droppedDeltas.add(changedColumns.cardinality());
+      return;
+    }
+    for (var i = changedColumns.nextSetBit(0); i >= 0;
+      i = changedColumns.nextSetBit(i + 1)
+    ) {
+      add(update.keyValues(), i, update.deltas()[i]);
+    }
+    var counter = pending.get(DatabaseRowKey.of(update.keyValues()));
+    if (counter != null) {
+      counter.failedAttempts = Math.max(counter.failedAttempts, attempts);
+    }
+  }
+
+  /**
+   * Is used to close the buffer. No increments are accepted anymore and all
+   * pending deltas are written before this method returns
+   */
+  @Override
+  public void close() {
+    if (!closed.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      Runtime.getRuntime().removeShutdownHook(shutdownHook);
+    } catch (IllegalStateException exception) {
+      return;
+    }
+    flushUntilDrained();
+  }
+
+  /**
+   * The number of increments that were buffered since the last flush started
+   * @return The number of pending deltas
+   */
+  public long pendingDeltas() {
+    return pendingDeltas.sum();
+  }
+
+  /**
+   * The number of rows with buffered deltas
+   * @return The number of pending rows
+   */
+  public int pendingRows() {
+    return pending.size();
+  }
+
+  /**
+   * The age of the oldest increment that was not flushed yet
+   * @return The current flush lag
+   */
+  public Duration flushLag() {
+    var oldestPending = oldestPendingTime.get();
+    if (oldestPending == 0) {
+      return Duration.ZERO;
+    }
+    return Duration.ofNanos(System.nanoTime() - oldestPending);
+  }
+
+  /**
+   * The time from the oldest increment of the last flush until the last
+   * flush was completed
+   * @return The flush lag of the last flush
+   */
+  public Duration lastFlushLag() {
+    return Duration.ofNanos(lastFlushLag);
+  }
+
+  /**
+   * The number of summed column deltas that were written
+   * @return The number of flushed deltas
+   */
+  public long flushedDeltas() {
+    return flushedDeltas.sum();
+  }
+
+  /**
+   * The number of batches that failed and were buffered again
+   * @return The number of failed flushes
+   */
+  public long failedFlushes() {
+    return failedFlushes.sum();
+  }
+
+  /**
+   * The number of summed column deltas that were dropped after their last
+   * attempt failed
+   * @return The number of dropped deltas
+   */
+  public long droppedDeltas() {
+    return droppedDeltas.sum();
+  }
+
+  private static final class PendingCounter {
+    private final Object[] keyValues;
+    private final LongAdder[] deltas;
+    private volatile boolean retired;
+    private volatile int failedAttempts;
+
+    private PendingCounter(Object[] keyValues, int columnCount) {
+      this.keyValues = keyValues;
+      this.deltas = new LongAdder[columnCount];
+      for (var i = 0; i < columnCount; i++) {
+        deltas[i] = new LongAdder();
+      }
+    }
+
+    /**
+     * Is used to take the summed deltas of all columns
+     * @return The update or null if no column has a delta
+     */
+    private CounterUpdate drain() {
+      var attempts = failedAttempts;
+      var values = new long[deltas.length];
+      var changedColumns = new BitSet(deltas.length);
+      for (var i = 0; i < deltas.length; i++) {
+        values[i] = deltas[i].sumThenReset();
+        if (values[i] != 0) {
+          changedColumns.set(i);
+        }
+      }
+      if (changedColumns.isEmpty()) {
+        return null;
+      }
+      failedAttempts = 0;
+      return new CounterUpdate(keyValues, values, changedColumns, attempts);
+    }
+
+    private boolean hasDeltas() {
+      for (var delta : deltas) {
+        if (delta.sum() != 0) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  /**
+   * The summed deltas of a row that are written together
+   * @param attempts The number of failed writes of the deltas
+   */
+  record CounterUpdate(
+    Object[] keyValues, long[] deltas, BitSet changedColumns, int attempts
+  ) {
+  }
+}
@@ -0,0 +1,38 @@
+package de.lukasbreuer.cassandra.orm.write;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.time.Duration;
+
+@Getter
+@Accessors(fluent = true)
+@RequiredArgsConstructor(staticName = "create")
+public final class DatabaseCounterBufferOptions {
+  private static final long DEFAULT_MAXIMUM_PENDING_DELTAS = 100000;
+  private static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(1);
+  private static final int DEFAULT_MAXIMUM_BATCH_SIZE = 50;
+  private static final int DEFAULT_PARALLELISM = 8;
+  private static final int DEFAULT_MAXIMUM_ATTEMPTS = 5;
+
+  public static DatabaseCounterBufferOptions defaults() {
+    return create(DEFAULT_MAXIMUM_PENDING_DELTAS, DEFAULT_FLUSH_INTERVAL,
+      DEFAULT_MAXIMUM_BATCH_SIZE, DEFAULT_PARALLELISM,
+      DEFAULT_MAXIMUM_ATTEMPTS);
+  }
+
+  /**
+   * The number of buffered increments after which a flush is started before
+   * the flush interval has passed
+   */
+  private final long maximumPendingDeltas;
+  private final Duration flushInterval;
+  private final int maximumBatchSize;
+  private final int parallelism;
+  /**
+   * The number of times the deltas of a row are written before they are
+   * dropped
+   */
+  private final int maximumAttempts;
+}
@@ -0,0 +1,48 @@
+package de.lukasbreuer.cassandra.orm.write;
+
+import de.lukasbreuer.cassandra.orm.DatabaseRow;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.BitSet;
+
+/**
+ * The values of a partial write of a row. Null values of the columns that
+ * are not written would have been written as tombstones by a full write
+ */
+@Getter
+@Accessors(fluent = true)
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DatabasePartialWrite {
+  /**
+   * Collects the values of the written columns of a row
+   * @param row The row that is written
+   * @param writtenColumns The indexes of the columns that are written
+   * @param additionalValues Values that are bound after the row values
+   * @return The partial write
+   */
+  public static DatabasePartialWrite create(
+    DatabaseRow row, BitSet writtenColumns, Object... additionalValues
+  ) {
+    var values = new Object[writtenColumns.cardinality() +
+      additionalValues.length];
+    var valueIndex = 0;
+    var avoidedTombstones = 0;
+    for (var i = 0; i < row.cellNumber(); i++) {
+      if (writtenColumns.get(i)) {
+        values[valueIndex] = row.value(i);
+        valueIndex++;
+      } else if (row.isNull(i)) {
+        avoidedTombstones++;
+      }
+    }
+    System.arraycopy(additionalValues, 0, values, valueIndex,
+      additionalValues.length);
+    return new DatabasePartialWrite(values, avoidedTombstones);
+  }
+
+  private final Object[] values;
+  private final int avoidedTombstones;
+}
@@ -0,0 +1,46 @@
+package de.lukasbreuer.cassandra.orm.write;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.time.Duration;
+
+@Getter
+@Accessors(fluent = true)
+@RequiredArgsConstructor(staticName = "create")
+public final class DatabaseWriteBehindOptions {
+  private static final int DEFAULT_MAXIMUM_QUEUED_ROWS = 100000;
+  private static final int DEFAULT_FLUSH_ROWS = 1000;
+  private static final Duration DEFAULT_LINGER = Duration.ofMillis(5);
+  private static final int DEFAULT_MAXIMUM_BATCH_SIZE = 50;
+  private static final int DEFAULT_PARALLELISM = 8;
+  private static final int DEFAULT_MAXIMUM_ATTEMPTS = 3;
+
+  public static DatabaseWriteBehindOptions defaults() {
+    return create(DEFAULT_MAXIMUM_QUEUED_ROWS, DEFAULT_FLUSH_ROWS,
+      DEFAULT_LINGER, DEFAULT_MAXIMUM_BATCH_SIZE, DEFAULT_PARALLELISM,
+      DEFAULT_MAXIMUM_ATTEMPTS);
+  }
+
+  /**
+   * The maximum number of accepted rows that are not written yet, including
+   * the rows of batches in flight. Writers are blocked while it is reached
+   */
+  private final int maximumQueuedRows;
+  /**
+   * The number of buffered rows after which a flush is started before the
+   * linger time has passed
+   */
+  private final int flushRows;
+  /**
+   * The maximum time that an accepted row waits for further rows
+   */
+  private final Duration linger;
+  private final int maximumBatchSize;
+  private final int parallelism;
+  /**
+   * The number of times a row is written before it is dropped
+   */
+  private final int maximumAttempts;
+}
@@ -0,0 +1,354 @@
+package de.lukasbreuer.cassandra.orm.write;
+
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import de.lukasbreuer.cassandra.orm.DatabaseOperation;
+import de.lukasbreuer.cassandra.orm.DatabaseRow;
+import de.lukasbreuer.cassandra.orm.DatabaseTable;
+import de.lukasbreuer.cassandra.orm.batch.DatabaseBatchGrouping;
+import de.lukasbreuer.cassandra.orm.cache.DatabaseRowKey;
+import de.lukasbreuer.cassandra.orm.concurrency.BoundedParallelism;
+import de.lukasbreuer.cassandra.orm.statement.DatabaseStatementBinder;
+import de.lukasbreuer.cassandra.orm.statement.DatabaseStatementTemplates;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiFunction;
+
+/**
+ * Writes the rows of a table behind the back of the callers. Accepted rows
+ * are queued on a lock-free queue, which a single flush thread drains into a
+ * buffer that keeps the last write of every primary key only. The buffer is
+ * written as unlogged batches grouped by partition, whenever enough rows are
+ * buffered or the oldest row lingered long enough.
+ *
+ * Every row is written with the client timestamp of its acceptance, so that
+ * a later write of a key wins even if its batch overtakes an earlier batch
+ * or an earlier batch is retried. For the same reason retries are
+ * idempotent. The caches of the table are invalidated once a row is written,
+ * not when it is accepted
+ */
+@Accessors(fluent = true)
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DatabaseWriteBehindWriter implements AutoCloseable {
+  private static final String TIMESTAMP_ADDITION = "USING TIMESTAMP ?";
+
+  public static DatabaseWriteBehindWriter create(
+    DatabaseTable table, DatabaseWriteBehindOptions options
+  ) {
+    return create(table, table.statementTemplates(), options,
+      DatabaseWriteBehindWriter::executeGroup);
+  }
+
+  static DatabaseWriteBehindWriter create(
+    DatabaseTable table, DatabaseStatementTemplates templates,
+    DatabaseWriteBehindOptions options,
+    BiFunction<DatabaseWriteBehindWriter, List<PendingWrite>,
+      CompletableFuture<Void>> groupWriter
+  ) {
+    var writer = new DatabaseWriteBehindWriter(table, options, templates,
+      findKeyIndexes(templates), groupWriter,
+      new Semaphore(options.maximumQueuedRows()));
+    writer.flushThread.setDaemon(true);
+    writer.flushThread.start();
+    return writer;
+  }
+
+  private static int[] findKeyIndexes(DatabaseStatementTemplates templates) {
+    return templates.keyColumns().stream()
+      .mapToInt(column -> templates.columns().indexOf(column)).toArray();
+  }
+
+  private final DatabaseTable table;
+  @Getter
+  private final DatabaseWriteBehindOptions options;
+  private final DatabaseStatementTemplates templates;
+  private final int[] keyIndexes;
+  private final BiFunction<DatabaseWriteBehindWriter, List<PendingWrite>,
+    CompletableFuture<Void>> groupWriter;
+  private final Semaphore capacity;
+  private final Queue<PendingWrite> queue = new ConcurrentLinkedQueue<>();
+  private final Map<Object, PendingWrite> buffer = Maps.newLinkedHashMap();
+  private final Set<CompletableFuture<Void>> flushes =
+    ConcurrentHashMap.newKeySet();
+  private final AtomicLong lastTimestamp = new AtomicLong();
+  private final AtomicBoolean closed = new AtomicBoolean();
+  private final LongAdder acceptedRows = new LongAdder();
+  private final LongAdder coalescedRows = new LongAdder();
+  private final LongAdder writtenRows = new LongAdder();
+  private final LongAdder retriedRows = new LongAdder();
+  private final LongAdder droppedRows = new LongAdder();
+  private final Thread flushThread = new Thread(this::runFlushLoop,
+    "cassandra-write-behind");
+  private long oldestBufferedTime;
+
+  /**
+   * Is used to accept a row for writing. The caller is blocked while the
+   * maximum number of queued rows is reached
+   * @param row The row that is to be written
+   */
+  public void write(DatabaseRow row) {
+    checkOpen();
+    capacity.acquireUninterruptibly();
+    enqueue(row);
+  }
+
+  /**
+   * Is used to accept a row for writing without blocking longer than the
+   * timeout if the maximum number of queued rows is reached
+   * @param row The row that is to be written
+   * @param timeout The maximum time to wait for a free slot
+   * @return Whether the row was accepted
+   */
+  public boolean tryWrite(DatabaseRow row, Duration timeout) {
+    checkOpen();
+    try {
+      if (!capacity.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+        return false;
+      }
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+    enqueue(row);
+    return true;
+  }
+
+  private void checkOpen() {
+    if (closed.get()) {
+      throw new IllegalStateException("The write behind writer of " +
+        templates.fullName() + " is closed");
+    }
+  }
+
+  private void enqueue(DatabaseRow row) {
+    var values = row.values();
+    var keyValues = new Object[keyIndexes.length];
+    for (var i = 0; i < keyIndexes.length; i++) {
+      keyValues[i] = values[keyIndexes[i]];
+    }
+    queue.add(new PendingWrite(DatabaseRowKey.of(keyValues), values,
+      nextTimestamp(), 1));
+    acceptedRows.increment();
+    if (capacity.availablePermits() == 0 ||
+      acceptedRows.sum() % options.flushRows() == 0
+    ) {
+      LockSupport.unpark(flushThread);
+    }
+  }
+
+  /**
+   * The timestamps are strictly increasing microseconds, so that two writes
+   * of the same key within one millisecond are still ordered
+   */
+  private long nextTimestamp() {
+    var now = System.currentTimeMillis() * 1000;
+    return lastTimestamp.updateAndGet(last -> Math.max(now, last + 1));
+  }
+
+  private void runFlushLoop() {
+    var linger = options.linger().toNanos();
+    while (!closed.get() || !queue.isEmpty() || !buffer.isEmpty()) {
+      drainQueue();
+      if (buffer.isEmpty()) {
+        LockSupport.parkNanos(this, linger);
+        continue;
+      }
+      var lingered = System.nanoTime() - oldestBufferedTime;
+      if (closed.get() || buffer.size() >= options.flushRows() ||
+        lingered >= linger || capacity.availablePermits() == 0
+      ) {
+        flushBuffer();
+        continue;
+      }
+      LockSupport.parkNanos(this, linger - lingered);
+    }
+  }
+
+  /**
+   * A buffered row is replaced by a queued row of the same key only if the
+   * queued row is newer, a retried row never replaces a newer row. The slot
+   * of the replaced row is released immediately
+   */
+  private void drainQueue() {
+    PendingWrite write;
+    while ((write = queue.poll()) != null) {
+      if (buffer.isEmpty()) {
+        oldestBufferedTime = System.nanoTime();
+      }
+      var previous = buffer.get(write.key());
+      if (previous == null) {
+        buffer.put(write.key(), write);
+        continue;
+      }
+      coalescedRows.increment();
+      capacity.release();
+      if (write.timestamp() > previous.timestamp()) {
+        buffer.put(write.key(), write);
+      }
+    }
+  }
+
+  private void flushBuffer() {
+    var writes = List.copyOf(buffer.values());
+    buffer.clear();
+    var groups = DatabaseBatchGrouping.groupByPartition(writes,
+      this::partitionKey, options.maximumBatchSize());
+    var flush = BoundedParallelism.execute(groups, options.parallelism(),
+      this::writeGroup).<Void>thenApply(value -> null);
+    flushes.add(flush);
+    flush.whenComplete((value, throwable) -> flushes.remove(flush));
+  }
+
+  private Object partitionKey(PendingWrite write) {
+    var partitionIndexes = templates.partitionIndexes();
+    var values = new Object[partitionIndexes.length];
+    for (var i = 0; i < partitionIndexes.length; i++) {
+      values[i] = write.values()[partitionIndexes[i]];
+    }
+    return Arrays.asList(values);
+  }
+
+  /**
+   * A failed group is retried on its own, so that the other groups of the
+   * same flush are not written twice
+   */
+  private CompletableFuture<Void> writeGroup(List<PendingWrite> group) {
+    return groupWriter.apply(this, group).handle((value, throwable) -> {
+      if (throwable != null) {
+        group.forEach(this::retry);
+        return null;
+      }
+      writtenRows.add(group.size());
+      capacity.release(group.size());
+      return null;
+    });
+  }
+
+  private CompletableFuture<Void> executeGroup(List<PendingWrite> group) {
+    return table.connection()
+      .prepareBinder(templates.insertQuery(TIMESTAMP_ADDITION))
+      .thenCompose(binder -> table.connection().executeStatement(table,
+        DatabaseOperation.INSERT, DatabaseBatchGrouping.createStatement(
+          DefaultBatchType.UNLOGGED, bindGroup(binder, group))))
+      .thenRun(() -> {
+        var rows = Lists.<DatabaseRow>newArrayList();
+        group.forEach(write -> rows.add(DatabaseRow.of(write.values())));
+        table.notifyListeners(listener -> listener.rowsInserted(table, rows));
+      });
+  }
+
+  private List<BoundStatement> bindGroup(
+    DatabaseStatementBinder binder, List<PendingWrite> group
+  ) {
+    return group.stream().map(write -> {
+      var binding = binder.binding();
+      var values = write.values();
+      for (var i = 0; i < values.length; i++) {
+        binding.setObject(i, values[i]);
+      }
+      return binding.setLong(values.length, write.timestamp()).build();
+    }).toList();
+  }
+
+  private void retry(PendingWrite write) {
+    if (write.attempt() >= options.maximumAttempts()) {
+      droppedRows.increment();
+      capacity.release();
+      return;
+    }
+    retriedRows.increment();
+    queue.add(new PendingWrite(write.key(), write.values(),
+      write.timestamp(), write.attempt() + 1));
+    LockSupport.unpark(flushThread);
+  }
+
+  /**
+   * Is used to close the writer. No rows are accepted anymore and all
+   * accepted rows are written, or dropped after their last attempt, before
+   * this method returns. Retries of the last flushes are queued after the
+   * flush thread stopped, they are written by the calling thread instead
+   */
+  @Override
+  public void close() {
+    if (!closed.compareAndSet(false, true)) {
+      return;
+    }
+    LockSupport.unpark(flushThread);
+    joinFlushThread();
+    while (!flushes.isEmpty() || !queue.isEmpty()) {
+      CompletableFuture.allOf(flushes.toArray(CompletableFuture[]::new))
+        .exceptionally(throwable -> null).join();
+      runFlushLoop();
+    }
+  }
+
+  private void joinFlushThread() {
+    try {
+      flushThread.join();
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * The number of accepted rows that are not written yet
+   * @return The number of queued rows
+   */
+  public int queuedRows() {
+    return options.maximumQueuedRows() - capacity.availablePermits();
+  }
+
+  public long acceptedRows() {
+    return acceptedRows.sum();
+  }
+
+  /**
+   * The number of rows that were replaced by a newer row of the same primary
+   * key before they were written
+   * @return The number of coalesced rows
+   */
+  public long coalescedRows() {
+    return coalescedRows.sum();
+  }
+
+  public long writtenRows() {
+    return writtenRows.sum();
+  }
+
+  public long retriedRows() {
+    return retriedRows.sum();
+  }
+
+  /**
+   * The number of rows that were not written after their last attempt
+   * @return The number of dropped rows
+   */
+  public long droppedRows() {
+    return droppedRows.sum();
+  }
+
+  record PendingWrite(
+    Object key, Object[] values, long timestamp, int attempt
+  ) {
+  }
+}
@@ -0,0 +1,21 @@
+package de.lukasbreuer.cassandra.orm.write;
+
+public enum DatabaseWriteMode {
+  /**
+   * Writes every column of the row, null values are written as tombstones
+   */
+  FULL,
+  /**
+   * Writes the key columns and the modified columns of the row only. Absent
+   * values are left unset, so that they do not write tombstones
+   */
+  PARTIAL;
+
+  public boolean isFull() {
+    return this == FULL;
+  }
+
+  public boolean isPartial() {
+    return this == PARTIAL;
+  }
+}
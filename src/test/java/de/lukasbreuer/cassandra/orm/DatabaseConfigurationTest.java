@@ -0,0 +1,64 @@
+package de.lukasbreuer.cassandra.orm;
+
+import de.lukasbreuer.cassandra.orm.driver.DatabaseDriverPreset;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+final class DatabaseConfigurationTest {
+  private static final int DEFAULT_PORT = 9042;
+
+  @Test
+  void testParseContactPoint() {
+    Assertions.assertEquals(parse("cassandra"),
+      InetSocketAddress.createUnresolved("cassandra", DEFAULT_PORT));
+    Assertions.assertEquals(parse(" cassandra:9043 "),
+      InetSocketAddress.createUnresolved("cassandra", 9043));
+    Assertions.assertEquals(parse("::1"),
+      InetSocketAddress.createUnresolved("::1", DEFAULT_PORT));
+    Assertions.assertEquals(parse("[::1]"),
+      InetSocketAddress.createUnresolved("::1", DEFAULT_PORT));
+    Assertions.assertEquals(parse("[::1]:9043"),
+      InetSocketAddress.createUnresolved("::1", 9043));
+  }
+
+  @Test
+  void testMalformedContactPoint() {
+    Assertions.assertThrows(IllegalArgumentException.class, () ->
+      parse("[::1"));
+    Assertions.assertThrows(IllegalArgumentException.class, () ->
+      parse("[::1]9043"));
+    Assertions.assertThrows(IllegalArgumentException.class, () ->
+      parse("[::1]:"));
+    Assertions.assertThrows(IllegalArgumentException.class, () ->
+      parse("cassandra:port"));
+    Assertions.assertThrows(IllegalArgumentException.class, () ->
+      parse("cassandra:70000"));
+  }
+
+  @Test
+  void testMissingDriverSection() {
+    var tuning = DatabaseConfiguration.deserializeDriverTuning(
+      new JSONObject());
+    Assertions.assertEquals(tuning.preset(),
+      DatabaseDriverPreset.HIGH_THROUGHPUT);
+    Assertions.assertEquals(tuning.requestTimeout(), Duration.ofSeconds(30));
+  }
+
+  @Test
+  void testDriverSection() {
+    var tuning = DatabaseConfiguration.deserializeDriverTuning(
+      new JSONObject().put("driver", new JSONObject()
+        .put("preset", "low-latency")
+        .put("requestTimeout", 500)));
+    Assertions.assertEquals(tuning.preset(), DatabaseDriverPreset.LOW_LATENCY);
+    Assertions.assertEquals(tuning.requestTimeout(), Duration.ofMillis(500));
+  }
+
+  private static InetSocketAddress parse(String contactPoint) {
+    return DatabaseConfiguration.parseContactPoint(contactPoint, DEFAULT_PORT);
+  }
+}
@@ -0,0 +1,46 @@
+package de.lukasbreuer.cassandra.orm;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+final class DatabaseRowTest {
+  @Test
+  void testDatabaseRow() {
+    var row = DatabaseRow.of("key", 5, 7L, null, true);
+    Assertions.assertEquals(row.getInt(1), 5);
+    Assertions.assertEquals(row.getLong(2), 7L);
+    Assertions.assertEquals(row.getDouble(3), 0);
+    Assertions.assertTrue(row.isNull(3));
+    Assertions.assertTrue(row.getBoolean(4));
+    Assertions.assertEquals(row.valueView().get(0), "key");
+    Assertions.assertThrows(UnsupportedOperationException.class,
+      () -> row.valueView().set(0, "other"));
+    row.updateCell(0, "other");
+    Assertions.assertEquals(row.findCell(0).stringValue(), "other");
+    Assertions.assertEquals(row.copy().value(0), "other");
+  }
+
+  @Test
+  void testDirtyTracking() {
+    var row = DatabaseRow.of("key", null, 7L);
+    Assertions.assertTrue(row.isDirty(0));
+    Assertions.assertFalse(row.isDirty(1));
+    row.markClean();
+    Assertions.assertFalse(row.isDirty());
+    row.updateCell(1, null);
+    Assertions.assertTrue(row.isDirty(1));
+    Assertions.assertTrue(row.copy().isDirty(1));
+    Assertions.assertEquals(row.concat(row).dirtyCells().cardinality(), 2);
+  }
+
+  @Test
+  void testMarkWrittenCellsClean() {
+    var row = DatabaseRow.of("key", "name", null);
+    var writtenCells = row.dirtyCells();
+    row.updateCell(2, 5);
+    row.markClean(writtenCells);
+    Assertions.assertFalse(row.isDirty(0));
+    Assertions.assertFalse(row.isDirty(1));
+    Assertions.assertTrue(row.isDirty(2));
+  }
+}
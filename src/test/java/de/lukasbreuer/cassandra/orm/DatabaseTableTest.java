@@ -0,0 +1,30 @@
+package de.lukasbreuer.cassandra.orm;
+
+import de.lukasbreuer.cassandra.orm.profile.DatabaseExecutionProfile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+final class DatabaseTableTest {
+  @Test
+  void testExecutionProfilePrecedence() {
+    var table = new DatabaseTable(DatabaseConnection.create(null), null,
+      "users", List.of(DatabaseColumn.create("id", DatabaseDataType.TEXT,
+        DatabaseColumn.Type.PRIMARY_KEY)));
+    var tableProfile = DatabaseExecutionProfile.create("table");
+    var scanProfile = DatabaseExecutionProfile.create("scan");
+    Assertions.assertEquals(table.executionProfile(DatabaseOperation.SELECT),
+      Optional.empty());
+    table.updateExecutionProfile(scanProfile, DatabaseOperation.SCAN);
+    table.updateExecutionProfile(tableProfile);
+    Assertions.assertEquals(table.executionProfile(DatabaseOperation.SCAN),
+      Optional.of(scanProfile));
+    Assertions.assertEquals(table.executionProfile(DatabaseOperation.SELECT),
+      Optional.of(tableProfile));
+    table.removeExecutionProfiles();
+    Assertions.assertEquals(table.executionProfile(DatabaseOperation.SCAN),
+      Optional.empty());
+  }
+}
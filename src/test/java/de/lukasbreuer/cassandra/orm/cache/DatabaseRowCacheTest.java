@@ -0,0 +1,93 @@
+package de.lukasbreuer.cassandra.orm.cache;
+
+import de.lukasbreuer.cassandra.orm.DatabaseRow;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class DatabaseRowCacheTest {
+  private static DatabaseRowCacheOptions options(Duration refreshAfter) {
+    return DatabaseRowCacheOptions.create(100, 0, Duration.ofMinutes(1),
+      refreshAfter);
+  }
+
+  @Test
+  void testNegativeCaching() {
+    var loads = new AtomicInteger();
+    var cache = DatabaseRowCache.create(null, options(Duration.ZERO),
+      (key, condition) -> {
+        loads.incrementAndGet();
+        return CompletableFuture.completedFuture(Optional.empty());
+      });
+    Assertions.assertTrue(cache.find("a", null).join().isEmpty());
+    Assertions.assertTrue(cache.find("a", null).join().isEmpty());
+    Assertions.assertEquals(loads.get(), 1);
+    Assertions.assertEquals(cache.hitCount(), 1L);
+    Assertions.assertEquals(cache.missCount(), 1L);
+    Assertions.assertEquals(cache.size(), 1L);
+  }
+
+  @Test
+  void testCopies() {
+    var cache = DatabaseRowCache.create(null, options(Duration.ZERO),
+      (key, condition) -> CompletableFuture.completedFuture(
+        Optional.of(DatabaseRow.of("a", 1))));
+    var first = cache.find("a", null).join().orElseThrow();
+    first.updateCell(1, 2);
+    var second = cache.find("a", null).join().orElseThrow();
+    Assertions.assertNotSame(first, second);
+    Assertions.assertEquals(second.value(1), 1);
+  }
+
+  @Test
+  void testStaleLoadGuard() {
+    var pendingLoad = new CompletableFuture<Optional<DatabaseRow>>();
+    var loads = new AtomicInteger();
+    var cache = DatabaseRowCache.create(null, options(Duration.ZERO),
+      (key, condition) -> loads.incrementAndGet() == 1 ? pendingLoad :
+        CompletableFuture.completedFuture(Optional.of(DatabaseRow.of("a", 2))));
+    var staleRead = cache.find("a", null);
+    cache.invalidate("a");
+    pendingLoad.complete(Optional.of(DatabaseRow.of("a", 1)));
+    Assertions.assertEquals(staleRead.join().orElseThrow().value(1), 1);
+    Assertions.assertEquals(cache.find("a", null).join().orElseThrow()
+      .value(1), 2);
+    Assertions.assertEquals(loads.get(), 2);
+    Assertions.assertEquals(cache.missCount(), 2L);
+  }
+
+  @Test
+  void testRefresh() throws InterruptedException {
+    var loads = new AtomicInteger();
+    var cache = DatabaseRowCache.create(null, options(Duration.ofMillis(50)),
+      (key, condition) -> CompletableFuture.completedFuture(
+        Optional.of(DatabaseRow.of("a", loads.incrementAndGet()))));
+    Assertions.assertEquals(cache.find("a", null).join().orElseThrow()
+      .value(1), 1);
+    Thread.sleep(100);
+    Assertions.assertEquals(cache.find("a", null).join().orElseThrow()
+      .value(1), 1);
+    Assertions.assertEquals(cache.find("a", null).join().orElseThrow()
+      .value(1), 2);
+    Assertions.assertEquals(cache.refreshCount(), 1L);
+  }
+
+  @Test
+  void testFailedLoadIsNotCached() {
+    var loads = new AtomicInteger();
+    var cache = DatabaseRowCache.create(null, options(Duration.ZERO),
+      (key, condition) -> loads.incrementAndGet() == 1 ?
+        CompletableFuture.failedFuture(new IllegalStateException()) :
+        CompletableFuture.completedFuture(Optional.empty()));
+    Assertions.assertThrows(CompletionException.class, () ->
+      cache.find("a", null).join());
+    Assertions.assertTrue(cache.find("a", null).join().isEmpty());
+    Assertions.assertEquals(cache.loadFailureCount(), 1L);
+    Assertions.assertEquals(loads.get(), 2);
+  }
+}
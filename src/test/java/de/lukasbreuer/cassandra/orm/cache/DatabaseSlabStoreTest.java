@@ -0,0 +1,81 @@
+package de.lukasbreuer.cassandra.orm.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+final class DatabaseSlabStoreTest {
+  @Test
+  void testDatabaseSlabStore() {
+    var store = DatabaseSlabStore.create(ByteBuffer.allocateDirect(4096),
+      1024, 64, 1.25, Duration.ZERO);
+    var blob = ByteBuffer.wrap(new byte[] {1, 2, 3});
+    var record = DatabaseValueSerializer.serialize(List.of("key", 1),
+      new Object[] {"value", 5L, blob, null});
+    Assertions.assertTrue(store.put(List.of("key", 1), record));
+    var found = store.find(Arrays.asList("key", 1)).orElseThrow();
+    var values = DatabaseValueSerializer.deserializeValues(found);
+    Assertions.assertEquals(values[0], "value");
+    Assertions.assertEquals(values[1], 5L);
+    Assertions.assertEquals(values[2], blob);
+    Assertions.assertTrue(((ByteBuffer) values[2]).isReadOnly());
+    Assertions.assertNull(values[3]);
+    Assertions.assertEquals(DatabaseValueSerializer.deserializeKey(found),
+      List.of("key", 1));
+  }
+
+  @Test
+  void testSegmentedEviction() {
+    var store = DatabaseSlabStore.create(ByteBuffer.allocateDirect(4096),
+      1024, 64, 1.25, Duration.ZERO);
+    store.put(-1, DatabaseValueSerializer.serialize(-1, new Object[] {"hot"}));
+    store.find(-1);
+    for (var i = 0; i < 200; i++) {
+      store.put(i, DatabaseValueSerializer.serialize(i, new Object[] {"" + i}));
+    }
+    Assertions.assertTrue(store.evictionCount() > 0);
+    Assertions.assertTrue(store.find(-1).isPresent());
+    Assertions.assertTrue(store.find(199).isPresent());
+    Assertions.assertTrue(store.find(0).isEmpty());
+  }
+
+  @Test
+  void testFullStoreReusesEvictedChunk() {
+    var store = DatabaseSlabStore.create(ByteBuffer.allocateDirect(1024),
+      1024, 1024, 1.25, Duration.ZERO);
+    var blob = ByteBuffer.wrap(new byte[] {1, 2, 3});
+    Assertions.assertTrue(store.put("first", DatabaseValueSerializer.serialize(
+      "first", new Object[] {blob})));
+    var found = store.find("first").orElseThrow();
+    Assertions.assertTrue(store.put("second", DatabaseValueSerializer
+      .serialize("second", new Object[] {ByteBuffer.wrap(new byte[] {4})})));
+    Assertions.assertEquals(store.rejectionCount(), 0);
+    Assertions.assertEquals(store.evictionCount(), 1);
+    Assertions.assertEquals(DatabaseValueSerializer.deserializeValues(
+      found)[0], blob);
+  }
+
+  @Test
+  void testIndexRestore() throws Exception {
+    var region = ByteBuffer.allocateDirect(4096);
+    var store = DatabaseSlabStore.create(region, 1024, 64, 1.25,
+      Duration.ZERO);
+    store.put("key", DatabaseValueSerializer.serialize("key",
+      new Object[] {"value"}));
+    var indexFile = Files.createTempFile("slab", ".index");
+    store.writeIndex(indexFile);
+    var restoredStore = DatabaseSlabStore.create(region, 1024, 64, 1.25,
+      Duration.ZERO);
+    Assertions.assertTrue(restoredStore.restoreIndex(indexFile,
+      Duration.ofMinutes(1)));
+    var values = DatabaseValueSerializer.deserializeValues(
+      restoredStore.find("key").orElseThrow());
+    Assertions.assertEquals(values[0], "value");
+    Files.delete(indexFile);
+  }
+}
@@ -0,0 +1,31 @@
+package de.lukasbreuer.cassandra.orm.columnar;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+
+final class DatabaseBooleanVectorTest {
+  @Test
+  void testDatabaseBooleanVector() {
+    var builder = new DatabaseBooleanVector.Builder();
+    for (var value : new Boolean[] {true, null, false, true}) {
+      builder.append(row(value), 0);
+    }
+    var vector = (DatabaseBooleanVector) builder.build();
+    Assertions.assertEquals(vector.size(), 4);
+    Assertions.assertTrue(vector.isNull(1));
+    Assertions.assertNull(vector.value(1));
+    Assertions.assertFalse(vector.get(1));
+    Assertions.assertEquals(vector.value(2), false);
+    Assertions.assertArrayEquals(vector.filterTrue(), new int[] {0, 3});
+    Assertions.assertEquals(vector.countTrue(), 2);
+  }
+
+  private static Row row(Boolean value) {
+    return (Row) Proxy.newProxyInstance(Row.class.getClassLoader(),
+      new Class<?>[] {Row.class}, (proxy, method, arguments) ->
+        method.getName().equals("isNull") ? value == null : value);
+  }
+}
@@ -0,0 +1,55 @@
+package de.lukasbreuer.cassandra.orm.columnar;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class DatabaseDictionaryVectorTest {
+  @Test
+  void testDecode() {
+    var vector = build("red", null, "blue", "red");
+    Assertions.assertEquals(vector.size(), 4);
+    Assertions.assertEquals(vector.dictionary(), List.of("red", "blue"));
+    Assertions.assertEquals(vector.code(0), vector.code(3));
+    Assertions.assertEquals(vector.code(1), -1);
+    Assertions.assertTrue(vector.isNull(1));
+    Assertions.assertNull(vector.value(1));
+    Assertions.assertEquals(vector.value(2), "blue");
+    Assertions.assertArrayEquals(vector.countByCode(), new int[] {2, 1});
+  }
+
+  @Test
+  void testFilter() {
+    var vector = build("red", null, "blue", "red");
+    Assertions.assertArrayEquals(vector.filterEquals("red"),
+      new int[] {0, 3});
+    Assertions.assertArrayEquals(vector.filterEquals("green"), new int[0]);
+    var evaluations = new AtomicInteger();
+    var selection = vector.filter(value -> {
+      evaluations.incrementAndGet();
+      return value.startsWith("b");
+    });
+    Assertions.assertArrayEquals(selection, new int[] {2});
+    Assertions.assertEquals(evaluations.get(), 2);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static DatabaseDictionaryVector<String> build(String... values) {
+    var builder = new DatabaseDictionaryVector.Builder<String>(
+      Row::getString, 1);
+    for (var value : values) {
+      builder.append(row(value), 0);
+    }
+    return (DatabaseDictionaryVector<String>) builder.build();
+  }
+
+  private static Row row(String value) {
+    return (Row) Proxy.newProxyInstance(Row.class.getClassLoader(),
+      new Class<?>[] {Row.class}, (proxy, method, arguments) ->
+        method.getName().equals("isNull") ? value == null : value);
+  }
+}
@@ -0,0 +1,63 @@
+package de.lukasbreuer.cassandra.orm.columnar;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import de.lukasbreuer.cassandra.orm.DatabaseDataType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.OptionalDouble;
+
+final class DatabaseDoubleVectorTest {
+  @Test
+  void testAggregates() {
+    var vector = build(DatabaseDataType.DOUBLE, 1.5, null, -0.5, 4.0);
+    Assertions.assertEquals(vector.size(), 4);
+    Assertions.assertTrue(vector.isNull(1));
+    Assertions.assertNull(vector.value(1));
+    Assertions.assertEquals(vector.sum(), 5.0);
+    Assertions.assertEquals(vector.min(), OptionalDouble.of(-0.5));
+    Assertions.assertEquals(vector.max(), OptionalDouble.of(4.0));
+  }
+
+  @Test
+  void testFilter() {
+    var vector = build(DatabaseDataType.DOUBLE, 1.5, null, -0.5, 4.0);
+    var selection = vector.filter(value -> value > 0);
+    Assertions.assertArrayEquals(selection, new int[] {0, 3});
+    Assertions.assertEquals(vector.sum(selection), 5.5);
+    Assertions.assertEquals(vector.min(selection), OptionalDouble.of(1.5));
+    Assertions.assertEquals(vector.max(selection), OptionalDouble.of(4.0));
+  }
+
+  @Test
+  void testOnlyNulls() {
+    var vector = build(DatabaseDataType.DOUBLE, (Object) null);
+    Assertions.assertEquals(vector.sum(), 0.0);
+    Assertions.assertTrue(vector.min().isEmpty());
+    Assertions.assertTrue(vector.max().isEmpty());
+  }
+
+  @Test
+  void testDecodeFloats() {
+    var vector = build(DatabaseDataType.FLOAT, 0.25f, null);
+    Assertions.assertEquals(vector.get(0), 0.25);
+    Assertions.assertTrue(vector.isNull(1));
+  }
+
+  private static DatabaseDoubleVector build(
+    DatabaseDataType dataType, Object... values
+  ) {
+    var builder = new DatabaseDoubleVector.Builder(dataType, 1);
+    for (var value : values) {
+      builder.append(row(value), 0);
+    }
+    return (DatabaseDoubleVector) builder.build();
+  }
+
+  private static Row row(Object value) {
+    return (Row) Proxy.newProxyInstance(Row.class.getClassLoader(),
+      new Class<?>[] {Row.class}, (proxy, method, arguments) ->
+        method.getName().equals("isNull") ? value == null : value);
+  }
+}
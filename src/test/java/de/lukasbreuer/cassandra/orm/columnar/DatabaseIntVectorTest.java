@@ -0,0 +1,68 @@
+package de.lukasbreuer.cassandra.orm.columnar;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import de.lukasbreuer.cassandra.orm.DatabaseDataType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.OptionalInt;
+
+final class DatabaseIntVectorTest {
+  @Test
+  void testAggregates() {
+    var vector = build(DatabaseDataType.INT, 3, null, -2, 7);
+    Assertions.assertEquals(vector.size(), 4);
+    Assertions.assertTrue(vector.isNull(1));
+    Assertions.assertNull(vector.value(1));
+    Assertions.assertEquals(vector.get(1), 0);
+    Assertions.assertEquals(vector.value(2), -2);
+    Assertions.assertEquals(vector.sum(), 8);
+    Assertions.assertEquals(vector.min(), OptionalInt.of(-2));
+    Assertions.assertEquals(vector.max(), OptionalInt.of(7));
+  }
+
+  @Test
+  void testFilter() {
+    var vector = build(DatabaseDataType.INT, 3, null, -2, 7);
+    var selection = vector.filter(value -> value <= 3);
+    Assertions.assertArrayEquals(selection, new int[] {0, 2});
+    Assertions.assertEquals(vector.sum(selection), 1);
+    Assertions.assertEquals(vector.min(selection), OptionalInt.of(-2));
+    Assertions.assertEquals(vector.max(selection), OptionalInt.of(3));
+    Assertions.assertArrayEquals(vector.filter(value -> value == 0),
+      new int[0]);
+  }
+
+  @Test
+  void testOnlyNulls() {
+    var vector = build(DatabaseDataType.INT, null, null);
+    Assertions.assertEquals(vector.sum(), 0);
+    Assertions.assertTrue(vector.min().isEmpty());
+    Assertions.assertTrue(vector.max(new int[] {1}).isEmpty());
+  }
+
+  @Test
+  void testDecodeSmallTypes() {
+    var smallints = build(DatabaseDataType.SMALLINT, (short) 300, null);
+    Assertions.assertEquals(smallints.get(0), 300);
+    var tinyints = build(DatabaseDataType.TINYINT, (byte) -5);
+    Assertions.assertEquals(tinyints.get(0), -5);
+  }
+
+  private static DatabaseIntVector build(
+    DatabaseDataType dataType, Object... values
+  ) {
+    var builder = new DatabaseIntVector.Builder(dataType, 1);
+    for (var value : values) {
+      builder.append(row(value), 0);
+    }
+    return (DatabaseIntVector) builder.build();
+  }
+
+  private static Row row(Object value) {
+    return (Row) Proxy.newProxyInstance(Row.class.getClassLoader(),
+      new Class<?>[] {Row.class}, (proxy, method, arguments) ->
+        method.getName().equals("isNull") ? value == null : value);
+  }
+}
@@ -0,0 +1,55 @@
+package de.lukasbreuer.cassandra.orm.columnar;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.OptionalLong;
+
+final class DatabaseLongVectorTest {
+  @Test
+  void testAggregates() {
+    var vector = build(5_000_000_000L, null, -1L, 2L);
+    Assertions.assertEquals(vector.size(), 4);
+    Assertions.assertTrue(vector.isNull(1));
+    Assertions.assertNull(vector.value(1));
+    Assertions.assertEquals(vector.value(0), 5_000_000_000L);
+    Assertions.assertEquals(vector.sum(), 5_000_000_001L);
+    Assertions.assertEquals(vector.min(), OptionalLong.of(-1));
+    Assertions.assertEquals(vector.max(), OptionalLong.of(5_000_000_000L));
+  }
+
+  @Test
+  void testFilter() {
+    var vector = build(5_000_000_000L, null, -1L, 2L);
+    var selection = vector.filter(value -> value < 10);
+    Assertions.assertArrayEquals(selection, new int[] {2, 3});
+    Assertions.assertEquals(vector.sum(selection), 1);
+    Assertions.assertEquals(vector.min(selection), OptionalLong.of(-1));
+    Assertions.assertEquals(vector.max(selection), OptionalLong.of(2));
+  }
+
+  @Test
+  void testOnlyNulls() {
+    var vector = build(null, null);
+    Assertions.assertEquals(vector.sum(), 0);
+    Assertions.assertTrue(vector.min().isEmpty());
+    Assertions.assertTrue(vector.max().isEmpty());
+    Assertions.assertArrayEquals(vector.filter(value -> true), new int[0]);
+  }
+
+  private static DatabaseLongVector build(Object... values) {
+    var builder = new DatabaseLongVector.Builder(1);
+    for (var value : values) {
+      builder.append(row(value), 0);
+    }
+    return (DatabaseLongVector) builder.build();
+  }
+
+  private static Row row(Object value) {
+    return (Row) Proxy.newProxyInstance(Row.class.getClassLoader(),
+      new Class<?>[] {Row.class}, (proxy, method, arguments) ->
+        method.getName().equals("isNull") ? value == null : value);
+  }
+}
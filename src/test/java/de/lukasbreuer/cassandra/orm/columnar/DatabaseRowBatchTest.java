@@ -0,0 +1,49 @@
+package de.lukasbreuer.cassandra.orm.columnar;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import de.lukasbreuer.cassandra.orm.DatabaseColumn;
+import de.lukasbreuer.cassandra.orm.DatabaseDataType;
+import de.lukasbreuer.cassandra.orm.statement.DatabaseStatementTemplates;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+final class DatabaseRowBatchTest {
+  private static final List<DatabaseColumn> COLUMNS = List.of(
+    DatabaseColumn.create("id", DatabaseDataType.TEXT,
+      DatabaseColumn.Type.PRIMARY_KEY),
+    DatabaseColumn.create("age", DatabaseDataType.INT,
+      DatabaseColumn.Type.REGULAR),
+    DatabaseColumn.create("score", DatabaseDataType.DOUBLE,
+      DatabaseColumn.Type.REGULAR));
+
+  @Test
+  void testDecode() {
+    var projection = DatabaseStatementTemplates.compile("test.users", COLUMNS)
+      .projection("score, id, age, writetime(age)");
+    var batch = DatabaseRowBatch.decode(projection, List.of(
+      row(2.5, "a", 30, 1L), row(null, "b", null, 2L)), 1);
+    Assertions.assertEquals(batch.rowCount(), 2);
+    Assertions.assertEquals(batch.intVector("age").sum(), 30);
+    Assertions.assertTrue(batch.doubleVector("score").isNull(1));
+    Assertions.assertEquals(batch.<String>dictionaryVector("id").dictionary(),
+      List.of("a", "b"));
+    Assertions.assertTrue(batch.vector(3) instanceof DatabaseObjectVector);
+    Assertions.assertEquals(batch.row(0).value(1), "a");
+    Assertions.assertNull(batch.row(1).value(2));
+    Assertions.assertThrows(IllegalArgumentException.class, () ->
+      batch.longVector("age"));
+    Assertions.assertThrows(IllegalArgumentException.class, () ->
+      batch.vector("name"));
+  }
+
+  private static Row row(Object... values) {
+    return (Row) Proxy.newProxyInstance(Row.class.getClassLoader(),
+      new Class<?>[] {Row.class}, (proxy, method, arguments) -> {
+        var value = values[(int) arguments[0]];
+        return method.getName().equals("isNull") ? value == null : value;
+      });
+  }
+}
@@ -0,0 +1,66 @@
+package de.lukasbreuer.cassandra.orm.count;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.math.BigInteger;
+import java.util.List;
+
+final class DatabaseTableCounterTest {
+  private static final BigInteger QUARTER = BigInteger.TWO.pow(62);
+  private static final BigInteger EIGHTH = BigInteger.TWO.pow(61);
+
+  @Test
+  void testExtrapolation() {
+    var estimate = DatabaseTableCounter.extrapolate(List.of(
+      range(BigInteger.ZERO, QUARTER, 100),
+      range(QUARTER, QUARTER.add(EIGHTH), 50)),
+      DatabaseTableCounter.MURMUR3_RING_SIZE);
+    Assertions.assertEquals(estimate.value(), 400L);
+    Assertions.assertEquals(estimate.errorBound(), 0L);
+    Assertions.assertFalse(estimate.isExact());
+  }
+
+  @Test
+  void testErrorBound() {
+    var estimate = DatabaseTableCounter.extrapolate(List.of(
+      range(BigInteger.ZERO, QUARTER, 100),
+      range(QUARTER, QUARTER.shiftLeft(1), 300)),
+      DatabaseTableCounter.MURMUR3_RING_SIZE);
+    Assertions.assertEquals(estimate.value(), 800L);
+    Assertions.assertEquals(estimate.errorBound(), 800L);
+    Assertions.assertEquals(estimate.lowerBound(), 0L);
+    Assertions.assertEquals(estimate.upperBound(), 1600L);
+  }
+
+  @Test
+  void testWrappingRange() {
+    var estimate = DatabaseTableCounter.extrapolate(List.of(
+      range(QUARTER, QUARTER.negate(), 10)),
+      DatabaseTableCounter.MURMUR3_RING_SIZE);
+    Assertions.assertEquals(estimate.value(), 20L);
+    Assertions.assertEquals(estimate.errorBound(), 20L);
+  }
+
+  @Test
+  void testNoEstimates() {
+    var estimate = DatabaseTableCounter.extrapolate(List.of(),
+      DatabaseTableCounter.RANDOM_RING_SIZE);
+    Assertions.assertEquals(estimate.value(), 0L);
+    Assertions.assertFalse(estimate.isExact());
+    Assertions.assertTrue(DatabaseCountEstimate.exact(5).isExact());
+  }
+
+  private static Row range(BigInteger start, BigInteger end, long partitions) {
+    return (Row) Proxy.newProxyInstance(Row.class.getClassLoader(),
+      new Class<?>[] {Row.class}, (proxy, method, arguments) ->
+        switch (method.getName()) {
+          case "getString" -> (int) arguments[0] == 0 ? start.toString() :
+            end.toString();
+          case "getLong" -> partitions;
+          default -> null;
+        });
+  }
+}
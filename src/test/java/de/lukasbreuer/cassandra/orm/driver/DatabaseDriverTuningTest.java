@@ -0,0 +1,48 @@
+package de.lukasbreuer.cassandra.orm.driver;
+
+import com.datastax.oss.driver.api.core.DefaultConsistencyLevel;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+final class DatabaseDriverTuningTest {
+  @Test
+  void testPresetOverrides() {
+    var tuning = DatabaseDriverTuning.deserialize(new JSONObject()
+      .put("preset", "low-latency")
+      .put("localConnectionsPerNode", 6)
+      .put("compression", "lz4")
+      .put("coalescerInterval", 50));
+    Assertions.assertEquals(tuning.preset(), DatabaseDriverPreset.LOW_LATENCY);
+    Assertions.assertEquals(tuning.localConnectionsPerNode(), 6);
+    Assertions.assertEquals(tuning.compression(),
+      DatabaseDriverTuning.Compression.LZ4);
+    Assertions.assertEquals(tuning.coalescerInterval(),
+      Duration.ofNanos(50_000));
+    Assertions.assertEquals(tuning.requestTimeout(), Duration.ofSeconds(2));
+  }
+
+  @Test
+  void testDefaults() {
+    var tuning = DatabaseDriverTuning.deserialize(new JSONObject());
+    Assertions.assertEquals(tuning.preset(),
+      DatabaseDriverPreset.HIGH_THROUGHPUT);
+    Assertions.assertEquals(tuning.consistencyLevel(),
+      DefaultConsistencyLevel.LOCAL_ONE);
+  }
+
+  @Test
+  void testValidation() {
+    Assertions.assertThrows(IllegalArgumentException.class, () ->
+      DatabaseDriverTuning.deserialize(new JSONObject()
+        .put("maximumRequestsPerConnection", 40000)));
+    Assertions.assertThrows(IllegalArgumentException.class, () ->
+      DatabaseDriverTuning.deserialize(new JSONObject()
+        .put("heartbeatTimeout", 60000)));
+    Assertions.assertThrows(IllegalArgumentException.class, () ->
+      DatabaseDriverTuning.deserialize(new JSONObject()
+        .put("preset", "fastest")));
+  }
+}
@@ -0,0 +1,77 @@
+package de.lukasbreuer.cassandra.orm.filter;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+final class DatabaseExistenceFilterTest {
+  @Test
+  void testDatabaseExistenceFilter() {
+    var filter = DatabaseExistenceFilter.create(100, 0.01);
+    Assertions.assertTrue(filter.mightContain("absent"));
+    filter.markReady();
+    for (var i = 0; i < 1000; i++) {
+      filter.put(List.of("key", i));
+    }
+    Assertions.assertTrue(filter.stageCount() > 1);
+    for (var i = 0; i < 1000; i++) {
+      Assertions.assertTrue(filter.mightContain(List.of("key", i)));
+    }
+    var falsePositives = 0;
+    for (var i = 1000; i < 11000; i++) {
+      if (filter.mightContain(List.of("key", i))) {
+        falsePositives++;
+      }
+    }
+    Assertions.assertTrue(falsePositives < 200);
+  }
+
+  @Test
+  void testTruncationDuringPuts() throws InterruptedException {
+    var filter = DatabaseExistenceFilter.create(10, 0.01);
+    filter.markReady();
+    var writer = new Thread(() -> {
+      for (var i = 0; i < 100_000; i++) {
+        filter.put(i);
+      }
+    });
+    var failure = new AtomicReference<Throwable>();
+    writer.setUncaughtExceptionHandler((thread, throwable) ->
+      failure.set(throwable));
+    writer.start();
+    while (writer.isAlive()) {
+      filter.tableTruncated(null);
+    }
+    writer.join();
+    Assertions.assertNull(failure.get());
+    filter.tableTruncated(null);
+    Assertions.assertEquals(filter.stageCount(), 1);
+    filter.put("key");
+    Assertions.assertTrue(filter.mightContain("key"));
+  }
+
+  @Test
+  void testSnapshot() throws IOException {
+    var filter = DatabaseExistenceFilter.create(100, 0.01);
+    filter.markReady();
+    for (var i = 0; i < 300; i++) {
+      filter.put(i);
+    }
+    var snapshot = Files.createTempFile("existence", ".filter");
+    try {
+      filter.writeSnapshot(snapshot);
+      var restored = DatabaseExistenceFilter.readSnapshot(snapshot);
+      Assertions.assertTrue(restored.isReady());
+      Assertions.assertEquals(restored.stageCount(), filter.stageCount());
+      for (var i = 0; i < 300; i++) {
+        Assertions.assertTrue(restored.mightContain(i));
+      }
+    } finally {
+      Files.deleteIfExists(snapshot);
+    }
+  }
+}
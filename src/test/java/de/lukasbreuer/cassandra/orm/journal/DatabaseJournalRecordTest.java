@@ -0,0 +1,26 @@
+package de.lukasbreuer.cassandra.orm.journal;
+
+import de.lukasbreuer.cassandra.orm.DatabaseOperation;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+final class DatabaseJournalRecordTest {
+  @Test
+  void testSerialization() {
+    var blob = ByteBuffer.wrap(new byte[] {1, 2, 3});
+    var record = DatabaseJournalRecord.create("test.users",
+      DatabaseOperation.UPDATE, "UPDATE test.users SET age = ? WHERE id = ?",
+      1_700_000_000_123_456L, false,
+      new Object[] {42, "id", blob, null, List.of("a", "b")});
+    var deserialized = DatabaseJournalRecord.deserialize(record.serialize());
+    Assertions.assertEquals(deserialized.table(), "test.users");
+    Assertions.assertEquals(deserialized.operation(), DatabaseOperation.UPDATE);
+    Assertions.assertEquals(deserialized.query(), record.query());
+    Assertions.assertEquals(deserialized.timestamp(), 1_700_000_000_123_456L);
+    Assertions.assertFalse(deserialized.counter());
+    Assertions.assertArrayEquals(deserialized.values(), record.values());
+  }
+}
@@ -0,0 +1,49 @@
+package de.lukasbreuer.cassandra.orm.journal;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+final class DatabaseJournalSegmentTest {
+  @TempDir
+  Path directory;
+
+  @Test
+  void testAppendAndReopen() throws IOException {
+    var file = directory.resolve("segment.journal");
+    var segment = DatabaseJournalSegment.create(file, 0, 64);
+    Assertions.assertTrue(segment.append(new byte[] {1, 2, 3}));
+    Assertions.assertTrue(segment.append(new byte[] {4}));
+    Assertions.assertFalse(segment.append(new byte[48]));
+    segment.force();
+    var reopened = DatabaseJournalSegment.open(file, 0);
+    Assertions.assertEquals(reopened.writeOffset(), segment.writeOffset());
+    List<byte[]> records = Lists.newArrayList();
+    var end = reopened.read(reopened.replayOffset(), 1, records);
+    Assertions.assertArrayEquals(records.get(0), new byte[] {1, 2, 3});
+    reopened.markReplayed(end);
+    Assertions.assertEquals(reopened.count(reopened.replayOffset()), 1);
+  }
+
+  @Test
+  void testTornRecord() throws IOException {
+    var file = directory.resolve("segment.journal");
+    var segment = DatabaseJournalSegment.create(file, 0, 64);
+    segment.append(new byte[] {1, 2, 3});
+    segment.append(new byte[] {4, 5});
+    segment.force();
+    try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {9}), segment.writeOffset() - 1);
+    }
+    var reopened = DatabaseJournalSegment.open(file, 0);
+    Assertions.assertEquals(reopened.count(reopened.replayOffset()), 1);
+  }
+}
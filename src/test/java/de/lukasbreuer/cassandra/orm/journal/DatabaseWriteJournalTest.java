@@ -0,0 +1,188 @@
+package de.lukasbreuer.cassandra.orm.journal;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinition;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
+import de.lukasbreuer.cassandra.orm.DatabaseOperation;
+import de.lukasbreuer.cassandra.orm.statement.DatabaseUnset;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+final class DatabaseWriteJournalTest {
+  @TempDir
+  Path directory;
+
+  @Test
+  void testDeferralAndReplay() throws IOException {
+    var available = new AtomicBoolean();
+    List<DatabaseJournalRecord> replayed = new CopyOnWriteArrayList<>();
+    var journal = DatabaseWriteJournal.open(options(), record -> {
+      if (!available.get()) {
+        return CompletableFuture.failedFuture(
+          new RejectedExecutionException("unreachable"));
+      }
+      replayed.add(record);
+      return CompletableFuture.completedFuture(null);
+    });
+    Assertions.assertFalse(journal.isDeferring());
+    Assertions.assertFalse(journal.journalFailure(record(1),
+      new IllegalStateException("invalid query")));
+    Assertions.assertTrue(journal.journalFailure(record(2),
+      new RejectedExecutionException("unreachable")));
+    journal.append(record(3));
+    journal.append(record(4));
+    Assertions.assertTrue(journal.isDeferring());
+    journal.replayNow().join();
+    Assertions.assertEquals(journal.failedReplays(), 1);
+    Assertions.assertEquals(journal.pendingRecords(), 3);
+    Assertions.assertTrue(journal.isDeferring());
+    available.set(true);
+    journal.replayNow().join();
+    Assertions.assertFalse(journal.isDeferring());
+    Assertions.assertEquals(journal.pendingRecords(), 0);
+    Assertions.assertEquals(replayed.stream()
+      .map(DatabaseJournalRecord::timestamp).sorted().toList(),
+      List.of(2L, 3L, 4L));
+    journal.close();
+  }
+
+  @Test
+  void testDeadLetter() throws IOException {
+    var journal = DatabaseWriteJournal.open(options(), record ->
+      record.timestamp() == 2 ? CompletableFuture.failedFuture(
+        new IllegalStateException("Undefined column name")) :
+        CompletableFuture.completedFuture(null));
+    journal.append(record(1));
+    journal.append(record(2));
+    journal.append(record(3));
+    journal.replayNow().join();
+    Assertions.assertFalse(journal.isDeferring());
+    Assertions.assertEquals(journal.replayedRecords(), 3);
+    Assertions.assertEquals(journal.deadLetteredRecords(), 1);
+    var deadLetters = journal.readDeadLetters();
+    Assertions.assertEquals(deadLetters.size(), 1);
+    Assertions.assertEquals(deadLetters.get(0).timestamp(), 2);
+    journal.close();
+  }
+
+  @Test
+  void testBatchDuringOutage() throws IOException {
+    var available = new AtomicBoolean();
+    List<DatabaseJournalRecord> replayed = new CopyOnWriteArrayList<>();
+    var journal = DatabaseWriteJournal.open(options(), record -> {
+      if (!available.get()) {
+        return CompletableFuture.failedFuture(
+          new RejectedExecutionException("unreachable"));
+      }
+      replayed.add(record);
+      return CompletableFuture.completedFuture(null);
+    });
+    var prepared = prepare("INSERT INTO test.users (id, name) VALUES (?, ?)");
+    var batch = BatchStatement.newInstance(DefaultBatchType.UNLOGGED,
+      bind(prepared, "a", "Alice"), bind(prepared, "b", null)
+        .setQueryTimestamp(9)).setQueryTimestamp(7);
+    var records = DatabaseJournalRecord.ofStatement("test.users",
+      DatabaseOperation.INSERT, batch, false);
+    Assertions.assertTrue(journal.journalFailure(records,
+      new RejectedExecutionException("unreachable")));
+    Assertions.assertTrue(journal.isDeferring());
+    Assertions.assertEquals(journal.pendingRecords(), 2);
+    available.set(true);
+    journal.replayNow().join();
+    Assertions.assertFalse(journal.isDeferring());
+    var replayedRecords = replayed.stream().sorted(Comparator.comparingLong(
+      DatabaseJournalRecord::timestamp)).toList();
+    Assertions.assertEquals(replayedRecords.size(), 2);
+    var first = replayedRecords.get(0);
+    var second = replayedRecords.get(1);
+    Assertions.assertEquals(first.query(), prepared.getQuery());
+    Assertions.assertEquals(Arrays.asList(first.values()),
+      List.of("a", "Alice"));
+    Assertions.assertEquals(first.timestamp(), 7);
+    Assertions.assertEquals(Arrays.asList(second.values()),
+      List.of("b", DatabaseUnset.VALUE));
+    Assertions.assertEquals(second.timestamp(), 9);
+    journal.close();
+  }
+
+  private DatabaseJournalOptions options() {
+    return DatabaseJournalOptions.create(directory, 4096, 2, 2,
+      Duration.ofHours(1), false);
+  }
+
+  private DatabaseJournalRecord record(long timestamp) {
+    return DatabaseJournalRecord.create("test.users", DatabaseOperation.INSERT,
+      "INSERT INTO test.users (id) VALUES (?)", timestamp, false,
+      new Object[] {"id-" + timestamp});
+  }
+
+  private static PreparedStatement prepare(String query) {
+    var definition = fake(ColumnDefinition.class, (proxy, method, arguments) ->
+      method.equals("getType") ? DataTypes.TEXT : null);
+    var definitions = fake(ColumnDefinitions.class,
+      (proxy, method, arguments) -> switch (method) {
+        case "size" -> 2;
+        case "get" -> definition;
+        default -> null;
+      });
+    return fake(PreparedStatement.class,
+      (proxy, method, arguments) -> switch (method) {
+        case "getQuery" -> query;
+        case "getVariableDefinitions" -> definitions;
+        default -> null;
+      });
+  }
+
+  /**
+   * Like the builders of prepared statements, the builder starts with all
+   * placeholders unset, a null value leaves the placeholder unset
+   */
+  private static BoundStatement bind(
+    PreparedStatement statement, String... values
+  ) {
+    var definitions = statement.getVariableDefinitions();
+    var builder = new BoundStatementBuilder(statement, definitions,
+      new ByteBuffer[definitions.size()], null, null, null, null, null,
+      Map.of(), null, false, Long.MIN_VALUE, null, -1, null, null, null,
+      CodecRegistry.DEFAULT, ProtocolVersion.DEFAULT);
+    for (var i = 0; i < definitions.size(); i++) {
+      builder.unset(i);
+      if (values[i] != null) {
+        builder.setString(i, values[i]);
+      }
+    }
+    return builder.build();
+  }
+
+  private static <T> T fake(Class<T> type, Answer answer) {
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(),
+      new Class<?>[] {type}, (proxy, method, arguments) ->
+        answer.apply(proxy, method.getName(), arguments)));
+  }
+
+  private interface Answer {
+    Object apply(Object proxy, String method, Object[] arguments);
+  }
+}
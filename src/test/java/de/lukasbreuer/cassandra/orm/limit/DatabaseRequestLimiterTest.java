@@ -0,0 +1,57 @@
+package de.lukasbreuer.cassandra.orm.limit;
+
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+final class DatabaseRequestLimiterTest {
+  @Test
+  void testQueueMode() {
+    var limiter = DatabaseRequestLimiter.create(
+      DatabaseRequestLimiter.Mode.QUEUE, 1, 1, 4, 1, Duration.ofSeconds(1),
+      0.5);
+    var first = limiter.acquire();
+    var second = limiter.acquire();
+    var third = limiter.acquire();
+    Assertions.assertTrue(first.isDone());
+    Assertions.assertFalse(second.isDone());
+    Assertions.assertTrue(third.isCompletedExceptionally());
+    Assertions.assertEquals(limiter.queueDepth(), 1);
+    first.join().release(null);
+    Assertions.assertTrue(second.isDone());
+    Assertions.assertEquals(limiter.queueDepth(), 0);
+    Assertions.assertEquals(limiter.inFlight(), 1);
+  }
+
+  @Test
+  void testFailFastMode() {
+    var limiter = DatabaseRequestLimiter.create(
+      DatabaseRequestLimiter.Mode.FAIL_FAST, 1, 1, 4, 10, Duration.ofSeconds(1),
+      0.5);
+    Assertions.assertTrue(limiter.acquire().isDone());
+    Assertions.assertTrue(limiter.acquire().isCompletedExceptionally());
+    Assertions.assertEquals(limiter.queueDepth(), 0);
+  }
+
+  @Test
+  void testLimitAdaption() {
+    var limiter = DatabaseRequestLimiter.create(
+      DatabaseRequestLimiter.Mode.QUEUE, 8, 2, 16, 10, Duration.ofSeconds(1),
+      0.5);
+    limiter.acquire().join().release(new DriverTimeoutException("timeout"));
+    Assertions.assertEquals(limiter.limit(), 4);
+    for (var i = 0; i < 100; i++) {
+      var permits = new DatabaseRequestLimiter.Permit[limiter.limit()];
+      for (var j = 0; j < permits.length; j++) {
+        permits[j] = limiter.acquire().join();
+      }
+      for (var permit : permits) {
+        permit.release(null);
+      }
+    }
+    Assertions.assertTrue(limiter.limit() > 4);
+    Assertions.assertTrue(limiter.limit() <= 16);
+  }
+}
@@ -0,0 +1,15 @@
+package de.lukasbreuer.cassandra.orm.mapping.processor;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+final class DatabaseEntityProcessorTest {
+  @Test
+  void testSnakeCase() {
+    Assertions.assertEquals(DatabaseEntityProcessor.snakeCase("firstName"),
+      "first_name");
+    Assertions.assertEquals(DatabaseEntityProcessor.snakeCase("UserSession"),
+      "user_session");
+    Assertions.assertEquals(DatabaseEntityProcessor.snakeCase("id"), "id");
+  }
+}
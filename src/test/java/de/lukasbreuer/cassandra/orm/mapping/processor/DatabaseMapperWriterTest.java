@@ -0,0 +1,84 @@
+package de.lukasbreuer.cassandra.orm.mapping.processor;
+
+import de.lukasbreuer.cassandra.orm.DatabaseColumn;
+import de.lukasbreuer.cassandra.orm.mapping.DatabaseEntityMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.ToolProvider;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+final class DatabaseMapperWriterTest {
+  private static final String ENTITY = """
+    package sample;
+
+    import de.lukasbreuer.cassandra.orm.DatabaseColumn;
+    import de.lukasbreuer.cassandra.orm.mapping.DatabaseEntity;
+    import de.lukasbreuer.cassandra.orm.mapping.DatabaseField;
+
+    @DatabaseEntity
+    public record UserSession(
+      int loginCount,
+      @DatabaseField(type = DatabaseColumn.Type.PRIMARY_KEY) String userId,
+      Long lastSeen
+    ) {
+    }
+    """;
+
+  @TempDir
+  Path directory;
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testGeneratedMapper() throws Exception {
+    var output = compile();
+    try (var loader = new URLClassLoader(new URL[] {output.toUri().toURL()},
+      getClass().getClassLoader())
+    ) {
+      var entityType = loader.loadClass("sample.UserSession");
+      var mapper = (DatabaseEntityMapper<Object>) loader
+        .loadClass("sample.UserSessionMapper").getMethod("create")
+        .invoke(null);
+      Assertions.assertEquals(mapper.tableName(), "user_session");
+      Assertions.assertEquals(mapper.columns().stream()
+        .map(DatabaseColumn::name).toList(),
+        List.of("login_count", "user_id", "last_seen"));
+      var entity = entityType.getConstructor(int.class, String.class,
+        Long.class).newInstance(3, "alice", null);
+      var row = mapper.toRow(entity);
+      Assertions.assertEquals(row.getInt(0), 3);
+      Assertions.assertEquals(row.value(1), "alice");
+      Assertions.assertTrue(row.isNull(2));
+      Assertions.assertArrayEquals(mapper.keyCondition(entity).values(),
+        new Object[] {"alice"});
+    }
+  }
+
+  private Path compile() throws Exception {
+    var source = directory.resolve("sample/UserSession.java");
+    Files.createDirectories(source.getParent());
+    Files.writeString(source, ENTITY);
+    var output = Files.createDirectories(directory.resolve("classes"));
+    var compiler = ToolProvider.getSystemJavaCompiler();
+    var diagnostics = new DiagnosticCollector<JavaFileObject>();
+    try (var fileManager = compiler.getStandardFileManager(diagnostics, null,
+      null)
+    ) {
+      var task = compiler.getTask(null, fileManager, diagnostics,
+        List.of("-d", output.toString(), "-classpath",
+          System.getProperty("java.class.path")), null,
+        fileManager.getJavaFileObjects(source));
+      task.setProcessors(List.of(new DatabaseEntityProcessor()));
+      Assertions.assertTrue(task.call(),
+        diagnostics.getDiagnostics().toString());
+    }
+    return output;
+  }
+}
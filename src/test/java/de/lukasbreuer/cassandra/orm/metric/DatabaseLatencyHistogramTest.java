@@ -0,0 +1,31 @@
+package de.lukasbreuer.cassandra.orm.metric;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+final class DatabaseLatencyHistogramTest {
+  @Test
+  void testDatabaseLatencyHistogram() {
+    var histogram = DatabaseLatencyHistogram.create();
+    for (var i = 1; i <= 1000; i++) {
+      histogram.record(i * 1000L);
+    }
+    Assertions.assertEquals(histogram.count(), 1000);
+    Assertions.assertEquals(histogram.maximum(), 1000000);
+    Assertions.assertEquals(histogram.mean(), 500500, 0.001);
+    var median = histogram.valueAtPercentile(50);
+    Assertions.assertTrue(Math.abs(median - 500000) <= 500000 * 0.04);
+    var tail = histogram.valueAtPercentile(99);
+    Assertions.assertTrue(Math.abs(tail - 990000) <= 990000 * 0.04);
+    Assertions.assertEquals(histogram.valueAtPercentile(100), 1000000);
+  }
+
+  @Test
+  void testSmallValues() {
+    var histogram = DatabaseLatencyHistogram.create();
+    histogram.record(3);
+    histogram.record(-5);
+    Assertions.assertEquals(histogram.valueAtPercentile(50), 0);
+    Assertions.assertEquals(histogram.valueAtPercentile(100), 3);
+  }
+}
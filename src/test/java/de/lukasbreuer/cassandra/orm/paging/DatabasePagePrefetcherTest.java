@@ -0,0 +1,115 @@
+package de.lukasbreuer.cassandra.orm.paging;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.PagingState;
+import de.lukasbreuer.cassandra.orm.condition.DatabaseCondition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+final class DatabasePagePrefetcherTest {
+  private static final int PAGE_SIZE = 10;
+
+  @Test
+  void testPrefetchAhead() {
+    var prefetcher = DatabasePagePrefetcher.create(2, 100,
+      Duration.ofMinutes(1));
+    var key = key(prefetcher, "partition");
+    List<String> fetched = new CopyOnWriteArrayList<>();
+    Function<String, CompletableFuture<AsyncResultSet>> fetcher = state -> {
+      fetched.add(state);
+      return CompletableFuture.completedFuture(page(state, PAGE_SIZE));
+    };
+    prefetcher.fetch(key, "", PAGE_SIZE, fetcher).join();
+    Assertions.assertEquals(fetched, List.of("", "p1", "p2"));
+    Assertions.assertEquals(prefetcher.bufferedRows(), 20L);
+    prefetcher.fetch(key, "p1", PAGE_SIZE, fetcher).join();
+    Assertions.assertEquals(fetched, List.of("", "p1", "p2", "p3"));
+    Assertions.assertEquals(prefetcher.hitCount(), 1L);
+    Assertions.assertEquals(prefetcher.missCount(), 1L);
+    Assertions.assertEquals(prefetcher.bufferedRows(), 20L);
+  }
+
+  @Test
+  void testRowBudgetIsReservedBeforeFetching() {
+    var prefetcher = DatabasePagePrefetcher.create(3, 15,
+      Duration.ofMinutes(1));
+    Map<String, CompletableFuture<AsyncResultSet>> pending =
+      new ConcurrentHashMap<>();
+    for (var partition : List.of("first", "second")) {
+      var key = key(prefetcher, partition);
+      prefetcher.fetch(key, "", PAGE_SIZE, state -> state.isEmpty() ?
+        CompletableFuture.completedFuture(page(state, PAGE_SIZE)) :
+        pending.computeIfAbsent(partition + state,
+          value -> new CompletableFuture<>())).join();
+    }
+    Assertions.assertEquals(pending.keySet(), Set.of("firstp1"));
+    Assertions.assertEquals(prefetcher.bufferedRows(), 10L);
+    pending.get("firstp1").complete(page("p1", 4));
+    Assertions.assertEquals(prefetcher.bufferedRows(), 14L);
+  }
+
+  @Test
+  void testCancel() {
+    var prefetcher = DatabasePagePrefetcher.create(1, 100,
+      Duration.ofMinutes(1));
+    Map<String, CompletableFuture<AsyncResultSet>> pending =
+      new ConcurrentHashMap<>();
+    var first = key(prefetcher, "first");
+    var second = key(prefetcher, "second");
+    for (var key : List.of(first, second)) {
+      prefetcher.fetch(key, "", PAGE_SIZE, state -> state.isEmpty() ?
+        CompletableFuture.completedFuture(page(state, PAGE_SIZE)) :
+        pending.computeIfAbsent(key.get(0) + state,
+          value -> new CompletableFuture<>())).join();
+    }
+    Assertions.assertEquals(prefetcher.bufferedRows(), 20L);
+    prefetcher.cancel(first);
+    Assertions.assertEquals(prefetcher.bufferedRows(), 10L);
+    var hit = prefetcher.fetch(second, "p1", PAGE_SIZE, state ->
+      CompletableFuture.failedFuture(new IllegalStateException()));
+    Assertions.assertEquals(prefetcher.hitCount(), 1L);
+    pending.get("secondp1").complete(page("p1", PAGE_SIZE));
+    Assertions.assertFalse(hit.isCompletedExceptionally());
+  }
+
+  private static List<Object> key(
+    DatabasePagePrefetcher prefetcher, String partition
+  ) {
+    return prefetcher.key(partition, DatabaseCondition.empty(),
+      DatabaseOrder.ASCENDING, PAGE_SIZE, DatabaseDirection.FORWARD);
+  }
+
+  /**
+   * Pages are numbered by their paging state, every page but the fifth has
+   * a following page
+   */
+  private static AsyncResultSet page(String state, int rows) {
+    var number = state.isEmpty() ? 0 : Integer.parseInt(state.substring(1));
+    var nextState = number < 5 ? "p" + (number + 1) : null;
+    var pagingState = proxy(PagingState.class, method -> nextState);
+    var executionInfo = proxy(ExecutionInfo.class, method -> pagingState);
+    return proxy(AsyncResultSet.class, method -> switch (method) {
+      case "hasMorePages" -> nextState != null;
+      case "remaining" -> rows;
+      case "getExecutionInfo" -> executionInfo;
+      default -> throw new UnsupportedOperationException(method);
+    });
+  }
+
+  private static <T> T proxy(Class<T> type, Function<String, Object> answer) {
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(),
+      new Class<?>[] {type}, (proxy, method, arguments) ->
+        answer.apply(method.getName())));
+  }
+}
@@ -0,0 +1,55 @@
+package de.lukasbreuer.cassandra.orm.paging;
+
+import de.lukasbreuer.cassandra.orm.condition.DatabaseCondition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+final class DatabasePagingIndexTest {
+  @Test
+  void testDatabasePagingIndex() {
+    var index = DatabasePagingIndex.create(Duration.ofMinutes(1), 100);
+    var condition = DatabaseCondition.of("name", "value");
+    var key = index.key("partition", condition, DatabaseOrder.ASCENDING, 10);
+    Assertions.assertTrue(index.findRowCount(key).isEmpty());
+    index.updatePageState(key, 1, "first");
+    Assertions.assertTrue(index.findPageState(key, 1).isEmpty());
+    index.updateRowCount(key, 42);
+    index.updatePageState(key, 1, "first");
+    index.updatePageState(key, 3, "third");
+    Assertions.assertEquals(index.findRowCount(key).getAsLong(), 42);
+    Assertions.assertEquals(index.findPageState(key, 0).get(), "");
+    Assertions.assertEquals(index.findPageState(key, 3).get(), "third");
+    Assertions.assertEquals(index.findClosestKnownPage(key, 2), 1);
+    Assertions.assertEquals(index.findClosestKnownPage(key, 4), 3);
+    Assertions.assertEquals(index.key("partition", DatabaseCondition.of(
+      "name", "value"), DatabaseOrder.ASCENDING, 10), key);
+    index.invalidatePartition("other");
+    Assertions.assertEquals(index.size(), 1);
+    index.invalidatePartition("partition");
+    Assertions.assertTrue(index.findRowCount(key).isEmpty());
+  }
+
+  @Test
+  void testInvalidatePartition() {
+    var index = DatabasePagingIndex.create(Duration.ofMinutes(1), 100);
+    var ascending = index.key("first", DatabaseCondition.empty(),
+      DatabaseOrder.ASCENDING, 10);
+    var descending = index.key("first", DatabaseCondition.empty(),
+      DatabaseOrder.DESCENDING, 10);
+    var other = index.key("second", DatabaseCondition.empty(),
+      DatabaseOrder.ASCENDING, 10);
+    index.updateRowCount(ascending, 1);
+    index.updateRowCount(descending, 2);
+    index.updateRowCount(other, 3);
+    index.invalidatePartition("first");
+    Assertions.assertTrue(index.findRowCount(ascending).isEmpty());
+    Assertions.assertTrue(index.findRowCount(descending).isEmpty());
+    Assertions.assertEquals(index.findRowCount(other).getAsLong(), 3);
+    index.updateRowCount(ascending, 4);
+    Assertions.assertEquals(index.findRowCount(ascending).getAsLong(), 4);
+    index.invalidatePartition("first");
+    Assertions.assertTrue(index.findRowCount(ascending).isEmpty());
+  }
+}
@@ -0,0 +1,33 @@
+package de.lukasbreuer.cassandra.orm.profile;
+
+import com.datastax.oss.driver.api.core.DefaultConsistencyLevel;
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverConfigLoader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+final class DatabaseExecutionProfileTest {
+  @Test
+  void testDerive() {
+    var base = DriverConfigLoader.programmaticBuilder().build()
+      .getInitialConfig().getDefaultProfile();
+    var profile = DatabaseExecutionProfile.create("cache")
+      .withConsistencyLevel(DefaultConsistencyLevel.LOCAL_ONE)
+      .withTimeout(Duration.ofMillis(200))
+      .withIdempotence(true)
+      .derive(base);
+    Assertions.assertEquals(profile.getString(
+      DatabaseDriverOption.EXECUTION_PROFILE), "cache");
+    Assertions.assertEquals(profile.getString(
+      DefaultDriverOption.REQUEST_CONSISTENCY), "LOCAL_ONE");
+    Assertions.assertEquals(profile.getDuration(
+      DefaultDriverOption.REQUEST_TIMEOUT), Duration.ofMillis(200));
+    Assertions.assertTrue(profile.getBoolean(
+      DefaultDriverOption.REQUEST_DEFAULT_IDEMPOTENCE));
+    Assertions.assertEquals(profile.getInt(
+      DefaultDriverOption.REQUEST_PAGE_SIZE), base.getInt(
+      DefaultDriverOption.REQUEST_PAGE_SIZE));
+  }
+}
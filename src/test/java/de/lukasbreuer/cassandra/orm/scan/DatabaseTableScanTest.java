@@ -0,0 +1,182 @@
+package de.lukasbreuer.cassandra.orm.scan;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+import de.lukasbreuer.cassandra.orm.DatabaseRow;
+import de.lukasbreuer.cassandra.orm.statement.DatabaseProjection;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class DatabaseTableScanTest {
+  private static DatabaseTableScan scan(
+    int parallelism, int maximumAttempts, Duration retryDelay
+  ) {
+    return DatabaseTableScan.create(null, "id",
+      DatabaseScanOptions.create(1, parallelism, maximumAttempts, retryDelay,
+        10));
+  }
+
+  @Test
+  void testRetryFromPagingState() {
+    var range = range("range");
+    var pagingState = ByteBuffer.wrap(new byte[] {1, 2, 3});
+    var failures = new AtomicInteger(2);
+    List<ByteBuffer> requests = new CopyOnWriteArrayList<>();
+    var listener = new RecordingListener();
+    long rowCount = scan(1, 3, Duration.ofMillis(1)).scan(List.of(range),
+      null, listener, (pageRange, state) -> {
+        requests.add(state);
+        if (state == null) {
+          return CompletableFuture.completedFuture(page(3, pagingState));
+        }
+        return failures.getAndDecrement() > 0 ?
+          CompletableFuture.failedFuture(new IllegalStateException()) :
+          CompletableFuture.completedFuture(page(2, null));
+      }).join();
+    Assertions.assertEquals(rowCount, 5L);
+    Assertions.assertNull(requests.get(0));
+    Assertions.assertEquals(requests.subList(1, requests.size()),
+      List.of(pagingState, pagingState, pagingState));
+    Assertions.assertEquals(listener.retries.get(), 2);
+    Assertions.assertEquals(listener.pageSizes, List.of(3, 2));
+    Assertions.assertEquals(listener.completedRanges, List.of(range));
+  }
+
+  @Test
+  void testRetryBackoff() {
+    var attempts = new AtomicInteger();
+    var start = System.nanoTime();
+    long rowCount = scan(1, 3, Duration.ofMillis(40)).scan(
+      List.of(range("range")), null, new RecordingListener(),
+      (pageRange, state) -> attempts.incrementAndGet() < 3 ?
+        CompletableFuture.failedFuture(new IllegalStateException()) :
+        CompletableFuture.completedFuture(page(1, null))).join();
+    var elapsed = Duration.ofNanos(System.nanoTime() - start);
+    Assertions.assertEquals(rowCount, 1L);
+    Assertions.assertEquals(attempts.get(), 3);
+    Assertions.assertTrue(elapsed.compareTo(Duration.ofMillis(60)) >= 0);
+  }
+
+  @Test
+  void testFailureCancelsSiblings() {
+    var failing = range("failing");
+    var sibling = range("sibling");
+    var siblingPage = new CompletableFuture<AsyncResultSet>();
+    var siblingRequests = new AtomicInteger();
+    var listener = new RecordingListener();
+    var result = scan(2, 1, Duration.ofMillis(1)).scan(
+      List.of(sibling, failing), null, listener, (range, state) -> {
+        if (range == failing) {
+          return CompletableFuture.failedFuture(new IllegalStateException());
+        }
+        siblingRequests.incrementAndGet();
+        return siblingPage;
+      });
+    var failure = Assertions.assertThrows(CompletionException.class,
+      result::join);
+    Assertions.assertTrue(failure.getCause() instanceof IllegalStateException);
+    siblingPage.complete(page(4, ByteBuffer.wrap(new byte[] {1})));
+    Assertions.assertEquals(siblingRequests.get(), 1);
+    Assertions.assertTrue(listener.pageSizes.isEmpty());
+    Assertions.assertTrue(listener.completedRanges.isEmpty());
+  }
+
+  @Test
+  void testCancel() {
+    var range = range("range");
+    var firstPage = new CompletableFuture<AsyncResultSet>();
+    var requests = new AtomicInteger();
+    var listener = new RecordingListener();
+    var result = scan(1, 3, Duration.ofMillis(1)).scan(List.of(range), null,
+      listener, (pageRange, state) -> {
+        requests.incrementAndGet();
+        return state == null ? firstPage :
+          CompletableFuture.completedFuture(page(1, null));
+      });
+    result.cancel(false);
+    firstPage.complete(page(2, ByteBuffer.wrap(new byte[] {1})));
+    Assertions.assertThrows(CancellationException.class, result::join);
+    Assertions.assertEquals(requests.get(), 1);
+    Assertions.assertTrue(listener.pageSizes.isEmpty());
+  }
+
+  private static TokenRange range(String name) {
+    return fake(TokenRange.class, (method, arguments) -> switch (method) {
+      case "toString" -> name;
+      default -> null;
+    });
+  }
+
+  private static AsyncResultSet page(int rowCount, ByteBuffer pagingState) {
+    var executionInfo = fake(ExecutionInfo.class, (method, arguments) ->
+      method.equals("getPagingState") ? pagingState : null);
+    return fake(AsyncResultSet.class, (method, arguments) -> switch (method) {
+      case "remaining" -> rowCount;
+      case "hasMorePages" -> pagingState != null;
+      case "getExecutionInfo" -> executionInfo;
+      default -> null;
+    });
+  }
+
+  private static <T> T fake(Class<T> type, Answer answer) {
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(),
+      new Class<?>[] {type}, (proxy, method, arguments) -> switch (
+        method.getName()) {
+        case "equals" -> proxy == arguments[0];
+        case "hashCode" -> System.identityHashCode(proxy);
+        default -> answer.apply(method.getName(), arguments);
+      }));
+  }
+
+  private interface Answer {
+    Object apply(String method, Object[] arguments);
+  }
+
+  private static final class RecordingListener
+    implements DatabaseScanListener
+  {
+    private final List<Integer> pageSizes = new CopyOnWriteArrayList<>();
+    private final List<TokenRange> completedRanges =
+      new CopyOnWriteArrayList<>();
+    private final AtomicInteger retries = new AtomicInteger();
+
+    @Override
+    public CompletionStage<Void> acceptPage(
+      TokenRange range, List<DatabaseRow> rows
+    ) {
+      return DatabaseScanListener.consumed();
+    }
+
+    @Override
+    public CompletionStage<Void> acceptPage(
+      TokenRange range, DatabaseProjection projection, AsyncResultSet page
+    ) {
+      pageSizes.add(page.remaining());
+      return DatabaseScanListener.consumed();
+    }
+
+    @Override
+    public void rangeCompleted(TokenRange range) {
+      completedRanges.add(range);
+    }
+
+    @Override
+    public void rangeRetried(
+      TokenRange range, int attempt, Throwable throwable
+    ) {
+      retries.incrementAndGet();
+    }
+  }
+}
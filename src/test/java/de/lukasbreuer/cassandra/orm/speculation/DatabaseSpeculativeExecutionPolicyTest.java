@@ -0,0 +1,104 @@
+package de.lukasbreuer.cassandra.orm.speculation;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchableStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinition;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+final class DatabaseSpeculativeExecutionPolicyTest {
+  @Test
+  void testFindTable() {
+    var policy = new DatabaseSpeculativeExecutionPolicy(null, "default");
+    Assertions.assertEquals(policy.findTable(select("test", "users")),
+      "test.users");
+    Assertions.assertEquals(policy.findTable(insert("test", "users")),
+      "test.users");
+    Assertions.assertEquals(policy.findTable(batch(insert("test", "users"),
+      insert("test", "users"))), "test.users");
+    Assertions.assertNull(policy.findTable(batch(insert("test", "users"),
+      insert("test", "sessions"))));
+    Assertions.assertNull(policy.findTable(fake(SimpleStatement.class,
+      Map.of())));
+  }
+
+  @Test
+  void testNextExecution() {
+    var policy = new DatabaseSpeculativeExecutionPolicy(null, "default");
+    var statement = select("test", "users");
+    Assertions.assertEquals(policy.nextExecution(null, null, statement, 1),
+      -1);
+    policy.register("test.users", DatabaseSpeculationOptions.fixed(
+      Duration.ofMillis(20)));
+    Assertions.assertEquals(policy.nextExecution(null, null, statement, 1),
+      20);
+    Assertions.assertEquals(policy.nextExecution(null, null,
+      batch(insert("test", "users")), 1), 20);
+    Assertions.assertEquals(policy.nextExecution(null, null, statement, 2),
+      -1);
+    policy.unregister("test.users");
+    Assertions.assertEquals(policy.nextExecution(null, null, statement, 1),
+      -1);
+  }
+
+  private static BoundStatement select(String keyspace, String table) {
+    return bound(definitions(keyspace, table), definitions(keyspace, table));
+  }
+
+  private static BoundStatement insert(String keyspace, String table) {
+    return bound(definitions(), definitions(keyspace, table));
+  }
+
+  private static BoundStatement bound(
+    ColumnDefinitions resultSetDefinitions,
+    ColumnDefinitions variableDefinitions
+  ) {
+    var preparedStatement = fake(PreparedStatement.class, Map.of(
+      "getResultSetDefinitions", arguments -> resultSetDefinitions,
+      "getVariableDefinitions", arguments -> variableDefinitions));
+    return fake(BoundStatement.class, Map.of("getPreparedStatement",
+      arguments -> preparedStatement));
+  }
+
+  private static BatchStatement batch(BoundStatement... statements) {
+    List<BatchableStatement<?>> children = List.of(statements);
+    return fake(BatchStatement.class, Map.of("iterator",
+      arguments -> children.iterator()));
+  }
+
+  private static ColumnDefinitions definitions() {
+    return fake(ColumnDefinitions.class, Map.of("size", arguments -> 0));
+  }
+
+  private static ColumnDefinitions definitions(
+    String keyspace, String table
+  ) {
+    var definition = fake(ColumnDefinition.class, Map.of(
+      "getKeyspace", arguments -> CqlIdentifier.fromInternal(keyspace),
+      "getTable", arguments -> CqlIdentifier.fromInternal(table)));
+    return fake(ColumnDefinitions.class, Map.of(
+      "size", arguments -> 1,
+      "get", arguments -> definition));
+  }
+
+  private static <T> T fake(
+    Class<T> type, Map<String, Function<Object[], Object>> answers
+  ) {
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(),
+      new Class<?>[] {type}, (proxy, method, arguments) -> {
+        var answer = answers.get(method.getName());
+        return answer == null ? null : answer.apply(arguments);
+      }));
+  }
+}
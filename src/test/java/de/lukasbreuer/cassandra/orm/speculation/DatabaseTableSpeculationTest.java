@@ -0,0 +1,32 @@
+package de.lukasbreuer.cassandra.orm.speculation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+final class DatabaseTableSpeculationTest {
+  @Test
+  void testAdaptiveDelay() {
+    var speculation = DatabaseTableSpeculation.create(DatabaseSpeculationOptions
+      .adaptive(95, Duration.ofMillis(5)).withWindowSize(10));
+    Assertions.assertEquals(speculation.delayMillis(), 5);
+    for (var i = 0; i < 10; i++) {
+      speculation.recordLatency(TimeUnit.MILLISECONDS.toNanos(40));
+    }
+    Assertions.assertTrue(speculation.delayMillis() >= 40);
+    for (var i = 0; i < 10; i++) {
+      speculation.recordLatency(TimeUnit.MILLISECONDS.toNanos(1));
+    }
+    Assertions.assertEquals(speculation.delayMillis(), 5);
+  }
+
+  @Test
+  void testFixedDelay() {
+    var speculation = DatabaseTableSpeculation.create(
+      DatabaseSpeculationOptions.fixed(Duration.ofMillis(20)));
+    speculation.recordLatency(TimeUnit.SECONDS.toNanos(1));
+    Assertions.assertEquals(speculation.delayMillis(), 20);
+  }
+}
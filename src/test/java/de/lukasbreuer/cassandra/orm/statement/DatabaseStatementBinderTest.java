@@ -0,0 +1,106 @@
+package de.lukasbreuer.cassandra.orm.statement;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.cql.BoundStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinition;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+final class DatabaseStatementBinderTest {
+  private static final DatabaseStatementBinder BINDER =
+    DatabaseStatementBinder.create(prepare(DataTypes.INT, DataTypes.TEXT,
+      DataTypes.BIGINT), CodecRegistry.DEFAULT, ProtocolVersion.DEFAULT);
+
+  @Test
+  void testBind() {
+    var statement = BINDER.bind(5, null, DatabaseUnset.VALUE);
+    Assertions.assertEquals(statement.getInt(0), 5);
+    Assertions.assertTrue(statement.isSet(1));
+    Assertions.assertTrue(statement.isNull(1));
+    Assertions.assertFalse(statement.isSet(2));
+  }
+
+  @Test
+  void testMissingValuesStayUnset() {
+    var statement = BINDER.bind(2);
+    Assertions.assertEquals(statement.getInt(0), 2);
+    Assertions.assertFalse(statement.isSet(1));
+    Assertions.assertFalse(statement.isSet(2));
+    Assertions.assertThrows(IllegalArgumentException.class, () ->
+      BINDER.bind(1, "name", 2L, 3));
+  }
+
+  @Test
+  void testTypedBinding() {
+    var statement = BINDER.binding()
+      .setInt(0, 7)
+      .setObject(1, "name")
+      .setLong(2, 9L)
+      .build();
+    Assertions.assertEquals(statement.getInt(0), 7);
+    Assertions.assertEquals(statement.getString(1), "name");
+    Assertions.assertEquals(statement.getLong(2), 9L);
+    var unset = BINDER.binding().setObject(0, DatabaseUnset.VALUE)
+      .setObject(1, null).build();
+    Assertions.assertFalse(unset.isSet(0));
+    Assertions.assertTrue(unset.isNull(1));
+    Assertions.assertFalse(unset.isSet(2));
+  }
+
+  private static PreparedStatement prepare(DataType... types) {
+    var definitions = fake(ColumnDefinitions.class,
+      (proxy, method, arguments) -> switch (method) {
+        case "size" -> types.length;
+        case "get" -> definition(types[(int) arguments[0]]);
+        default -> null;
+      });
+    return fake(PreparedStatement.class,
+      (proxy, method, arguments) -> switch (method) {
+        case "getVariableDefinitions" -> definitions;
+        case "boundStatementBuilder" ->
+          builder((PreparedStatement) proxy, definitions);
+        default -> null;
+      });
+  }
+
+  private static ColumnDefinition definition(DataType type) {
+    return fake(ColumnDefinition.class, (proxy, method, arguments) ->
+      method.equals("getType") ? type : null);
+  }
+
+  /**
+   * Like the builders of prepared statements, the builder starts with all
+   * placeholders unset
+   */
+  private static BoundStatementBuilder builder(
+    PreparedStatement statement, ColumnDefinitions definitions
+  ) {
+    var builder = new BoundStatementBuilder(statement, definitions,
+      new ByteBuffer[definitions.size()], null, null, null, null, null,
+      Map.of(), null, false, Long.MIN_VALUE, null, -1, null, null, null,
+      CodecRegistry.DEFAULT, ProtocolVersion.DEFAULT);
+    for (var i = 0; i < definitions.size(); i++) {
+      builder.unset(i);
+    }
+    return builder;
+  }
+
+  private static <T> T fake(Class<T> type, Answer answer) {
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(),
+      new Class<?>[] {type}, (proxy, method, arguments) ->
+        answer.apply(proxy, method.getName(), arguments)));
+  }
+
+  private interface Answer {
+    Object apply(Object proxy, String method, Object[] arguments);
+  }
+}
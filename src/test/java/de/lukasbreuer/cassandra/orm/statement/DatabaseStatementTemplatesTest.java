@@ -0,0 +1,112 @@
+package de.lukasbreuer.cassandra.orm.statement;
+
+import de.lukasbreuer.cassandra.orm.DatabaseColumn;
+import de.lukasbreuer.cassandra.orm.DatabaseDataType;
+import de.lukasbreuer.cassandra.orm.condition.DatabaseCondition;
+import de.lukasbreuer.cassandra.orm.paging.DatabaseOrder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+
+final class DatabaseStatementTemplatesTest {
+  private static final List<DatabaseColumn> COLUMNS = List.of(
+    DatabaseColumn.create("id", DatabaseDataType.TEXT,
+      DatabaseColumn.Type.PRIMARY_KEY),
+    DatabaseColumn.create("name", DatabaseDataType.TEXT,
+      DatabaseColumn.Type.REGULAR),
+    DatabaseColumn.create("age", DatabaseDataType.INT,
+      DatabaseColumn.Type.REGULAR));
+
+  @Test
+  void testProjection() {
+    var templates = DatabaseStatementTemplates.compile("test.users", COLUMNS);
+    var projection = templates.projection("age, token(id, name), id");
+    Assertions.assertEquals(projection.columnCount(), 3);
+    Assertions.assertEquals(projection.indexOf("id"), 2);
+    Assertions.assertSame(projection.findColumn(0).get(), COLUMNS.get(2));
+    Assertions.assertTrue(projection.findColumn(1).isEmpty());
+    Assertions.assertSame(projection,
+      templates.projection("age, token(id, name), id"));
+    Assertions.assertSame(templates.projection(COLUMNS),
+      templates.allColumnsProjection());
+    var keyColumns = List.of(COLUMNS.get(0));
+    Assertions.assertSame(templates.projection(keyColumns),
+      templates.projection(List.of(COLUMNS.get(0))));
+  }
+
+  @Test
+  void testExistsQuery() {
+    var templates = DatabaseStatementTemplates.compile("test.users", COLUMNS);
+    var query = templates.existsQuery(DatabaseCondition.of("id", "a"));
+    Assertions.assertTrue(query.startsWith("SELECT id FROM test.users"));
+    Assertions.assertSame(templates.existsQuery(DatabaseCondition.of("id",
+      "b")), query);
+    Assertions.assertEquals(templates.existsQuery(DatabaseCondition.of("id",
+      "a", DatabaseCondition.Filtering.ALLOWED)),
+      "SELECT id FROM test.users WHERE id = ? ALLOW FILTERING LIMIT 1;");
+  }
+
+  @Test
+  void testUpdateQuery() {
+    var templates = DatabaseStatementTemplates.compile("test.users", COLUMNS);
+    var condition = DatabaseCondition.of("id", "a");
+    Assertions.assertEquals(templates.updateQuery("age = ?", condition, ""),
+      "UPDATE test.users SET age = ? WHERE id = ?;");
+    condition.concat(DatabaseCondition.of("name", "b"));
+    Assertions.assertEquals(templates.updateQuery("age = ?", condition, ""),
+      "UPDATE test.users SET age = ? WHERE id = ? AND name = ?;");
+    Assertions.assertEquals(templates.updateQuery("age = ?", condition,
+      "USING TTL 10"),
+      "UPDATE test.users USING TTL 10 SET age = ? WHERE id = ? AND name = ?;");
+  }
+
+  @Test
+  void testPartialWriteQueries() {
+    var templates = DatabaseStatementTemplates.compile("test.users", COLUMNS);
+    var dirtyCells = new BitSet();
+    dirtyCells.set(2);
+    var writtenColumns = templates.writtenColumns(dirtyCells);
+    Assertions.assertEquals(templates.insertQuery(writtenColumns, ""),
+      "INSERT INTO test.users (id, age) VALUES (?, ?) ;");
+    Assertions.assertEquals(templates.updateChange(
+      templates.changedColumns(writtenColumns)), "age = ?");
+    Assertions.assertEquals(templates.counterChange(dirtyCells),
+      "age = age + ?");
+  }
+
+  @Test
+  void testPagingQuery() {
+    var templates = DatabaseStatementTemplates.compile("test.messages",
+      List.of(DatabaseColumn.create("channel", DatabaseDataType.TEXT,
+        DatabaseColumn.Type.PARTITION_KEY),
+      DatabaseColumn.create("sent", DatabaseDataType.BIGINT,
+        DatabaseColumn.Type.CLUSTERING_KEY)));
+    var condition = DatabaseCondition.of("channel", "a",
+      DatabaseCondition.Filtering.ALLOWED);
+    var query = templates.pagingQuery(condition, DatabaseOrder.DESCENDING);
+    Assertions.assertEquals(query, "SELECT channel, sent FROM test.messages " +
+      "WHERE channel = ? ORDER BY sent DESC ALLOW FILTERING;");
+    Assertions.assertSame(templates.pagingQuery(DatabaseCondition.of(
+      "channel", "b", DatabaseCondition.Filtering.ALLOWED),
+      DatabaseOrder.DESCENDING), query);
+    Assertions.assertTrue(templates.pagingQuery(condition,
+      DatabaseOrder.ASCENDING).contains("ORDER BY sent ASC"));
+  }
+
+  @Test
+  void testCounterChange() {
+    var templates = DatabaseStatementTemplates.compile("test.scores",
+      List.of(COLUMNS.get(0),
+        DatabaseColumn.create("wins", DatabaseDataType.COUNTER,
+          DatabaseColumn.Type.REGULAR),
+        DatabaseColumn.create("losses", DatabaseDataType.COUNTER,
+          DatabaseColumn.Type.REGULAR)));
+    Assertions.assertTrue(templates.counter());
+    Assertions.assertFalse(DatabaseStatementTemplates.compile("test.users",
+      COLUMNS).counter());
+    Assertions.assertEquals(templates.counterChange(
+      templates.regularColumns()), "wins = wins + ?, losses = losses + ?");
+  }
+}
@@ -0,0 +1,170 @@
+package de.lukasbreuer.cassandra.orm.stream;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.google.common.collect.Lists;
+import de.lukasbreuer.cassandra.orm.DatabaseRow;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+final class DatabaseRowPublisherTest {
+  @Test
+  void testDemand() {
+    var fetches = new AtomicInteger();
+    var third = page(fetches, null, 5, 6);
+    var second = page(fetches, third, 3, 4);
+    var first = page(fetches, second, 1, 2);
+    var queries = new AtomicInteger();
+    var subscriber = new RecordingSubscriber();
+    DatabaseRowPublisher.create(() -> {
+      queries.incrementAndGet();
+      return CompletableFuture.completedFuture(first);
+    }, DatabaseRowPublisherTest::decode).subscribe(subscriber);
+    Assertions.assertEquals(queries.get(), 0);
+    subscriber.subscription.request(1);
+    Assertions.assertEquals(subscriber.values, List.of(1));
+    Assertions.assertEquals(queries.get(), 1);
+    Assertions.assertEquals(fetches.get(), 1);
+    subscriber.subscription.request(2);
+    Assertions.assertEquals(subscriber.values, List.of(1, 2, 3));
+    Assertions.assertEquals(fetches.get(), 2);
+    Assertions.assertFalse(subscriber.completed);
+    subscriber.subscription.request(Long.MAX_VALUE);
+    subscriber.subscription.request(Long.MAX_VALUE);
+    Assertions.assertEquals(subscriber.values, List.of(1, 2, 3, 4, 5, 6));
+    Assertions.assertTrue(subscriber.completed);
+    Assertions.assertNull(subscriber.failure.get());
+  }
+
+  @Test
+  void testPagesArrivingLater() {
+    var fetches = new AtomicInteger();
+    var second = new CompletableFuture<AsyncResultSet>();
+    var first = new CompletableFuture<AsyncResultSet>();
+    var subscriber = new RecordingSubscriber();
+    DatabaseRowPublisher.create(() -> first,
+      DatabaseRowPublisherTest::decode).subscribe(subscriber);
+    subscriber.subscription.request(10);
+    Assertions.assertTrue(subscriber.values.isEmpty());
+    first.complete(fetchingPage(fetches, second, 1));
+    Assertions.assertEquals(subscriber.values, List.of(1));
+    Assertions.assertFalse(subscriber.completed);
+    CompletableFuture.runAsync(() ->
+      second.complete(page(fetches, null, 2))).join();
+    Assertions.assertEquals(subscriber.values, List.of(1, 2));
+    Assertions.assertTrue(subscriber.completed);
+  }
+
+  @Test
+  void testCancel() {
+    var fetches = new AtomicInteger();
+    var first = page(fetches, page(fetches, null, 3), 1, 2);
+    var subscriber = new RecordingSubscriber();
+    DatabaseRowPublisher.create(() -> CompletableFuture.completedFuture(first),
+      DatabaseRowPublisherTest::decode).subscribe(subscriber);
+    subscriber.subscription.request(1);
+    subscriber.subscription.cancel();
+    subscriber.subscription.request(10);
+    Assertions.assertEquals(subscriber.values, List.of(1));
+    Assertions.assertFalse(subscriber.completed);
+  }
+
+  @Test
+  void testFailure() {
+    var fetches = new AtomicInteger();
+    var failure = new IllegalStateException();
+    var subscriber = new RecordingSubscriber();
+    DatabaseRowPublisher.create(() -> CompletableFuture.completedFuture(
+        fetchingPage(fetches, CompletableFuture.failedFuture(failure), 1)),
+      DatabaseRowPublisherTest::decode).subscribe(subscriber);
+    subscriber.subscription.request(10);
+    Assertions.assertEquals(subscriber.values, List.of(1));
+    Assertions.assertSame(subscriber.failure.get(), failure);
+    Assertions.assertFalse(subscriber.completed);
+  }
+
+  @Test
+  void testInvalidRequest() {
+    var subscriber = new RecordingSubscriber();
+    DatabaseRowPublisher.create(CompletableFuture::new,
+      DatabaseRowPublisherTest::decode).subscribe(subscriber);
+    subscriber.subscription.request(0);
+    Assertions.assertTrue(subscriber.failure.get()
+      instanceof IllegalArgumentException);
+  }
+
+  private static DatabaseRow decode(Row row) {
+    return DatabaseRow.of(row.getObject(0));
+  }
+
+  private static AsyncResultSet page(
+    AtomicInteger fetches, AsyncResultSet nextPage, Object... values
+  ) {
+    return fetchingPage(fetches, nextPage == null ? null :
+      CompletableFuture.completedFuture(nextPage), values);
+  }
+
+  private static AsyncResultSet fetchingPage(
+    AtomicInteger fetches, CompletableFuture<AsyncResultSet> nextPage,
+    Object... values
+  ) {
+    List<Row> rows = Lists.newArrayList();
+    for (var value : values) {
+      rows.add(fake(Row.class, method -> value));
+    }
+    return fake(AsyncResultSet.class, method -> switch (method) {
+      case "currentPage" -> rows;
+      case "hasMorePages" -> nextPage != null;
+      case "fetchNextPage" -> {
+        fetches.incrementAndGet();
+        yield nextPage;
+      }
+      default -> null;
+    });
+  }
+
+  private static <T> T fake(
+    Class<T> type, Function<String, Object> answer
+  ) {
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(),
+      new Class<?>[] {type}, (proxy, method, arguments) ->
+        answer.apply(method.getName())));
+  }
+
+  private static final class RecordingSubscriber
+    implements Flow.Subscriber<DatabaseRow>
+  {
+    private final List<Object> values = Lists.newCopyOnWriteArrayList();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private Flow.Subscription subscription;
+    private volatile boolean completed;
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(DatabaseRow row) {
+      values.add(row.value(0));
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      failure.set(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package de.lukasbreuer.cassandra.orm.write;
+
+import de.lukasbreuer.cassandra.orm.DatabaseColumn;
+import de.lukasbreuer.cassandra.orm.DatabaseDataType;
+import de.lukasbreuer.cassandra.orm.statement.DatabaseStatementTemplates;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class DatabaseCounterBufferTest {
+  private static final DatabaseStatementTemplates TEMPLATES =
+    DatabaseStatementTemplates.compile("test.views", List.of(
+      DatabaseColumn.create("page", DatabaseDataType.TEXT,
+        DatabaseColumn.Type.PRIMARY_KEY),
+      DatabaseColumn.create("views", DatabaseDataType.COUNTER,
+        DatabaseColumn.Type.REGULAR),
+      DatabaseColumn.create("likes", DatabaseDataType.COUNTER,
+        DatabaseColumn.Type.REGULAR)));
+
+  private static DatabaseCounterBufferOptions options(int maximumAttempts) {
+    return DatabaseCounterBufferOptions.create(1_000_000,
+      Duration.ofHours(1), 16, 2, maximumAttempts);
+  }
+
+  @Test
+  void testCoalescing() {
+    var written = new ConcurrentHashMap<String, Long>();
+    try (var buffer = DatabaseCounterBuffer.create(null, TEMPLATES,
+      options(3), (counterBuffer, group) -> record(written, group))
+    ) {
+      buffer.increment("views", 2, "home");
+      buffer.increment("views", 3, "home");
+      buffer.increment("likes", 1, "home");
+      buffer.increment("views", 1, "about");
+      Assertions.assertEquals(buffer.pendingRows(), 2);
+      Assertions.assertEquals(buffer.pendingDeltas(), 4L);
+      buffer.flush().join();
+      Assertions.assertEquals(written, Map.of("home/1", 5L, "home/2", 1L,
+        "about/1", 1L));
+      Assertions.assertEquals(buffer.flushedDeltas(), 3L);
+      Assertions.assertEquals(buffer.pendingDeltas(), 0L);
+    }
+  }
+
+  @Test
+  void testRetirement() {
+    var written = new ConcurrentHashMap<String, Long>();
+    try (var buffer = DatabaseCounterBuffer.create(null, TEMPLATES,
+      options(3), (counterBuffer, group) -> record(written, group))
+    ) {
+      buffer.increment("views", 1, "home");
+      buffer.flush().join();
+      Assertions.assertEquals(buffer.pendingRows(), 1);
+      buffer.flush().join();
+      Assertions.assertEquals(buffer.pendingRows(), 0);
+      buffer.increment("views", 4, "home");
+      buffer.flush().join();
+      Assertions.assertEquals(written, Map.of("home/1", 5L));
+    }
+  }
+
+  @Test
+  void testRestore() {
+    var written = new ConcurrentHashMap<String, Long>();
+    var failures = new AtomicInteger(1);
+    try (var buffer = DatabaseCounterBuffer.create(null, TEMPLATES,
+      options(3), (counterBuffer, group) -> failures.getAndDecrement() > 0 ?
+        CompletableFuture.failedFuture(new IllegalStateException()) :
+        record(written, group))
+    ) {
+      buffer.increment("views", 2, "home");
+      Assertions.assertThrows(Exception.class, () -> buffer.flush().join());
+      Assertions.assertEquals(buffer.failedFlushes(), 1L);
+      buffer.increment("views", 3, "home");
+      buffer.flush().join();
+      Assertions.assertEquals(written, Map.of("home/1", 5L));
+      Assertions.assertEquals(buffer.droppedDeltas(), 0L);
+    }
+  }
+
+  @Test
+  void testMaximumAttempts() {
+    var attempts = new AtomicInteger();
+    var buffer = DatabaseCounterBuffer.create(null, TEMPLATES, options(3),
+      (counterBuffer, group) -> {
+        attempts.incrementAndGet();
+        return CompletableFuture.failedFuture(new IllegalStateException());
+      });
+    buffer.increment("views", 2, "home");
+    buffer.close();
+    Assertions.assertEquals(attempts.get(), 3);
+    Assertions.assertEquals(buffer.droppedDeltas(), 1L);
+    Assertions.assertEquals(buffer.pendingDeltas(), 0L);
+  }
+
+  @Test
+  void testCloseAwaitsFlushInFlight() throws InterruptedException {
+    var written = new ConcurrentHashMap<String, Long>();
+    var started = new CountDownLatch(1);
+    var release = new CompletableFuture<Void>();
+    var calls = new AtomicInteger();
+    var buffer = DatabaseCounterBuffer.create(null, TEMPLATES, options(3),
+      (counterBuffer, group) -> {
+        if (calls.getAndIncrement() > 0) {
+          return record(written, group);
+        }
+        started.countDown();
+        return release.thenCompose(value -> CompletableFuture.failedFuture(
+          new IllegalStateException()));
+      });
+    buffer.increment("views", 2, "home");
+    var flush = buffer.flush();
+    Assertions.assertTrue(started.await(1, TimeUnit.SECONDS));
+    var closing = CompletableFuture.runAsync(buffer::close);
+    Thread.sleep(50);
+    Assertions.assertFalse(closing.isDone());
+    release.complete(null);
+    closing.join();
+    Assertions.assertTrue(flush.isCompletedExceptionally());
+    Assertions.assertEquals(written, Map.of("home/1", 2L));
+  }
+
+  private static CompletableFuture<Void> record(
+    Map<String, Long> written,
+    List<DatabaseCounterBuffer.CounterUpdate> group
+  ) {
+    for (var update : group) {
+      var changedColumns = update.changedColumns();
+      for (var i = changedColumns.nextSetBit(0); i >= 0;
+        i = changedColumns.nextSetBit(i + 1)
+      ) {
+        written.merge(update.keyValues()[0] + "/" + i, update.deltas()[i],
+          Long::sum);
+      }
+    }
+    return CompletableFuture.completedFuture(null);
+  }
+}
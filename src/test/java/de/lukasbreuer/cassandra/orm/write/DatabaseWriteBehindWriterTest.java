@@ -0,0 +1,114 @@
+package de.lukasbreuer.cassandra.orm.write;
+
+import de.lukasbreuer.cassandra.orm.DatabaseColumn;
+import de.lukasbreuer.cassandra.orm.DatabaseDataType;
+import de.lukasbreuer.cassandra.orm.DatabaseRow;
+import de.lukasbreuer.cassandra.orm.statement.DatabaseStatementTemplates;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class DatabaseWriteBehindWriterTest {
+  private static final DatabaseStatementTemplates TEMPLATES =
+    DatabaseStatementTemplates.compile("test.users", List.of(
+      DatabaseColumn.create("id", DatabaseDataType.TEXT,
+        DatabaseColumn.Type.PRIMARY_KEY),
+      DatabaseColumn.create("age", DatabaseDataType.INT,
+        DatabaseColumn.Type.REGULAR)));
+
+  private static DatabaseWriteBehindOptions options(
+    int maximumQueuedRows, int flushRows, Duration linger, int maximumAttempts
+  ) {
+    return DatabaseWriteBehindOptions.create(maximumQueuedRows, flushRows,
+      linger, 16, 2, maximumAttempts);
+  }
+
+  @Test
+  void testCoalescing() {
+    var written = new ConcurrentHashMap<Object, Object>();
+    var writer = DatabaseWriteBehindWriter.create(null, TEMPLATES,
+      options(100, 100, Duration.ofHours(1), 3),
+      (behindWriter, group) -> record(written, group));
+    writer.write(DatabaseRow.of("a", 1));
+    writer.write(DatabaseRow.of("a", 2));
+    writer.write(DatabaseRow.of("b", 3));
+    writer.close();
+    Assertions.assertEquals(written, Map.of("a", 2, "b", 3));
+    Assertions.assertEquals(writer.acceptedRows(), 3L);
+    Assertions.assertEquals(writer.coalescedRows(), 1L);
+    Assertions.assertEquals(writer.writtenRows(), 2L);
+    Assertions.assertEquals(writer.queuedRows(), 0);
+  }
+
+  @Test
+  void testBackpressure() {
+    var written = new ConcurrentHashMap<Object, Object>();
+    var release = new CompletableFuture<Void>();
+    var writer = DatabaseWriteBehindWriter.create(null, TEMPLATES,
+      options(2, 1, Duration.ofMillis(1), 3),
+      (behindWriter, group) -> release.thenCompose(value ->
+        record(written, group)));
+    writer.write(DatabaseRow.of("a", 1));
+    writer.write(DatabaseRow.of("b", 2));
+    Assertions.assertEquals(writer.queuedRows(), 2);
+    Assertions.assertFalse(writer.tryWrite(DatabaseRow.of("c", 3),
+      Duration.ofMillis(50)));
+    release.complete(null);
+    Assertions.assertTrue(writer.tryWrite(DatabaseRow.of("c", 3),
+      Duration.ofSeconds(5)));
+    writer.close();
+    Assertions.assertEquals(written, Map.of("a", 1, "b", 2, "c", 3));
+    Assertions.assertEquals(writer.acceptedRows(), 3L);
+  }
+
+  @Test
+  void testDrainOnClose() {
+    var written = new ConcurrentHashMap<Object, Object>();
+    var failures = new AtomicInteger(2);
+    var writer = DatabaseWriteBehindWriter.create(null, TEMPLATES,
+      options(100, 100, Duration.ofHours(1), 3),
+      (behindWriter, group) -> failures.getAndDecrement() > 0 ?
+        CompletableFuture.failedFuture(new IllegalStateException()) :
+        record(written, group));
+    writer.write(DatabaseRow.of("a", 1));
+    writer.write(DatabaseRow.of("b", 2));
+    writer.close();
+    Assertions.assertEquals(written, Map.of("a", 1, "b", 2));
+    Assertions.assertEquals(writer.retriedRows(), 2L);
+    Assertions.assertEquals(writer.droppedRows(), 0L);
+    Assertions.assertEquals(writer.queuedRows(), 0);
+    Assertions.assertThrows(IllegalStateException.class, () ->
+      writer.write(DatabaseRow.of("c", 3)));
+  }
+
+  @Test
+  void testMaximumAttempts() {
+    var attempts = new AtomicInteger();
+    var writer = DatabaseWriteBehindWriter.create(null, TEMPLATES,
+      options(100, 100, Duration.ofHours(1), 2), (behindWriter, group) -> {
+        attempts.incrementAndGet();
+        return CompletableFuture.failedFuture(new IllegalStateException());
+      });
+    writer.write(DatabaseRow.of("a", 1));
+    writer.close();
+    Assertions.assertEquals(attempts.get(), 2);
+    Assertions.assertEquals(writer.droppedRows(), 1L);
+    Assertions.assertEquals(writer.queuedRows(), 0);
+  }
+
+  private static CompletableFuture<Void> record(
+    Map<Object, Object> written,
+    List<DatabaseWriteBehindWriter.PendingWrite> group
+  ) {
+    for (var write : group) {
+      written.put(write.values()[0], write.values()[1]);
+    }
+    return CompletableFuture.completedFuture(null);
+  }
+}